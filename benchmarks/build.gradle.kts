@@ -0,0 +1,58 @@
+import org.gradle.api.JavaVersion.VERSION_1_8
+
+plugins {
+    `java-library`
+    alias(libs.plugins.jmh)
+}
+
+// :lib is an Android library, so the platform-independent parser and corner
+// sources are compiled here for the JVM. The snapshot store needs a newer
+// Android API than the stubs provide, and is not benchmarked
+sourceSets {
+    main {
+        java {
+            setSrcDirs(listOf("../lib/src/main/java"))
+            include("com/minersstudios/genero/lib/throwable/**")
+            include("com/minersstudios/genero/lib/ui/corners/**")
+            include("com/minersstudios/genero/lib/xml/**")
+            exclude("com/minersstudios/genero/lib/xml/snapshot/XmlSnapshotStore.java")
+        }
+    }
+
+    // The synthetic documents and their binary XML compiler are shared with
+    // the unit tests of :lib
+    named("jmh") {
+        java {
+            srcDir("../lib/src/test/java")
+            include("com/minersstudios/genero/benchmarks/**")
+            include("com/minersstudios/genero/lib/xml/BinaryXml.java")
+            include("com/minersstudios/genero/lib/xml/Documents.java")
+        }
+    }
+}
+
+dependencies {
+    compileOnly(libs.androidx.annotation)
+    compileOnly(libs.jetbrains.annotations)
+    compileOnly(libs.jsr305)
+
+    // The stubs throw on every call, but the parser stack only needs their
+    // interfaces and constants to load, so they are on the runtime classpath
+    implementation(libs.android) {
+        isTransitive = false
+    }
+
+    implementation(libs.fastutil)
+    implementation(libs.kxml2)
+}
+
+java {
+    sourceCompatibility = VERSION_1_8
+    targetCompatibility = VERSION_1_8
+}
+
+jmh {
+    jmhVersion = libs.versions.jmh
+    profilers = listOf("gc")
+    resultFormat = "JSON"
+}
@@ -0,0 +1,28 @@
+package com.minersstudios.genero.benchmarks;
+
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+/**
+ * Counts the parser events and attributes the benchmarks go through.
+ * <p>
+ * JMH reports the counters as rates next to the primary result, so the
+ * events and attributes per second can be read directly, and the
+ * {@code gc.alloc.rate} of the GC profiler divided by them gives the bytes
+ * allocated per event or attribute.
+ */
+@State(Scope.Thread)
+@AuxCounters(AuxCounters.Type.OPERATIONS)
+public class EventCounter {
+    public long events;
+    public long attributes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+        this.events = 0;
+        this.attributes = 0;
+    }
+}
@@ -0,0 +1,131 @@
+package com.minersstudios.genero.benchmarks;
+
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+import static org.xmlpull.v1.XmlPullParser.TEXT;
+
+import com.minersstudios.genero.lib.xml.Documents;
+import com.minersstudios.genero.lib.xml.Utf8PullParser;
+
+import org.kxml2.io.KXmlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares {@link Utf8PullParser} with kXML on multi-megabyte catalog
+ * documents.
+ * <p>
+ * The full benchmarks read every name, attribute value and text, while the
+ * structure benchmarks only read the element names, which shows what the
+ * lazy decoding of {@link Utf8PullParser} saves.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PullParserBenchmark {
+    @Param({"1", "4", "16"})
+    public int megabytes;
+
+    private byte[] document;
+
+    @Setup
+    public void setup() {
+        this.document = Documents.catalog(this.megabytes * 1024 * 1024);
+    }
+
+    @Benchmark
+    public int kxmlFull(final Blackhole blackhole) throws XmlPullParserException, IOException {
+        return readFull(this.kxml(), blackhole);
+    }
+
+    @Benchmark
+    public int utf8Full(final Blackhole blackhole) throws XmlPullParserException, IOException {
+        return readFull(this.utf8(), blackhole);
+    }
+
+    @Benchmark
+    public int kxmlStructure(final Blackhole blackhole) throws XmlPullParserException, IOException {
+        return readStructure(this.kxml(), blackhole);
+    }
+
+    @Benchmark
+    public int utf8Structure(final Blackhole blackhole) throws XmlPullParserException, IOException {
+        return readStructure(this.utf8(), blackhole);
+    }
+
+    private XmlPullParser kxml() throws XmlPullParserException {
+        final KXmlParser parser = new KXmlParser();
+
+        parser.setInput(new ByteArrayInputStream(this.document), "UTF-8");
+
+        return parser;
+    }
+
+    private XmlPullParser utf8() {
+        final Utf8PullParser parser = new Utf8PullParser();
+
+        parser.setInput(this.document);
+
+        return parser;
+    }
+
+    private static int readFull(
+            final XmlPullParser parser,
+            final Blackhole blackhole
+    ) throws XmlPullParserException, IOException {
+        int events = 0;
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            events++;
+
+            if (type == START_TAG) {
+                blackhole.consume(parser.getName());
+
+                for (int i = 0, count = parser.getAttributeCount(); i < count; ++i) {
+                    blackhole.consume(parser.getAttributeName(i));
+                    blackhole.consume(parser.getAttributeValue(i));
+                }
+            } else if (type == TEXT) {
+                blackhole.consume(parser.getText());
+            }
+        }
+
+        return events;
+    }
+
+    private static int readStructure(
+            final XmlPullParser parser,
+            final Blackhole blackhole
+    ) throws XmlPullParserException, IOException {
+        int events = 0;
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            events++;
+
+            if (type == START_TAG) {
+                blackhole.consume(parser.getName());
+            }
+        }
+
+        return events;
+    }
+}
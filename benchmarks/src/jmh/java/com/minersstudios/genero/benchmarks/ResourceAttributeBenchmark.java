@@ -0,0 +1,158 @@
+package com.minersstudios.genero.benchmarks;
+
+import static com.minersstudios.genero.lib.xml.Documents.ANDROID_NAMESPACE;
+import static com.minersstudios.genero.lib.xml.Documents.APP_NAMESPACE;
+
+import com.minersstudios.genero.lib.xml.BinaryXml;
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.Documents;
+import com.minersstudios.genero.lib.xml.XmlParser;
+import com.minersstudios.genero.lib.xml.tag.StartTag;
+import com.minersstudios.genero.lib.xml.tag.TagCursor;
+import com.minersstudios.genero.lib.xml.tag.attribute.ResourceAttribute;
+import com.minersstudios.genero.lib.xml.tag.attribute.reader.ResourceAttributeReader;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the resource attribute layer of {@link XmlParser} on compiled
+ * menu documents of several sizes, read with {@link BinaryXmlParser}.
+ * <p>
+ * The attribute benchmark reads every attribute one by one through the
+ * {@link ResourceAttributeReader}, while the obtain benchmark fetches the
+ * typed values of a menu item styleable in one
+ * {@link ResourceAttributeReader#obtainAttributes} call per start tag.
+ *
+ * @see EventCounter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class ResourceAttributeBenchmark {
+    private static final String[][] STYLEABLE = {
+            {ANDROID_NAMESPACE, "id"},
+            {ANDROID_NAMESPACE, "title"},
+            {ANDROID_NAMESPACE, "icon"},
+            {ANDROID_NAMESPACE, "orderInCategory"},
+            {ANDROID_NAMESPACE, "checkable"},
+            {ANDROID_NAMESPACE, "visible"},
+            {APP_NAMESPACE, "showAsAction"},
+            {APP_NAMESPACE, "buttonIconSize"},
+            {APP_NAMESPACE, "buttonIconTint"}
+    };
+
+    @Param({"4", "64", "1024"})
+    public int kilobytes;
+
+    private byte[] bytes;
+    private int[] styleable;
+
+    @Setup
+    public void setup() throws XmlPullParserException, IOException {
+        final byte[] document = Documents.menu(this.kilobytes * 1024);
+
+        this.bytes = BinaryXml.compile(document);
+        this.styleable = new int[STYLEABLE.length];
+
+        for (int i = 0; i < STYLEABLE.length; ++i) {
+            this.styleable[i] = BinaryXml.attributeId(document, STYLEABLE[i][0], STYLEABLE[i][1]);
+        }
+
+        Arrays.sort(this.styleable);
+    }
+
+    @Benchmark
+    public void cursor(
+            final EventCounter counter,
+            final Blackhole blackhole
+    ) throws XmlPullParserException {
+        try (final TagCursor cursor = XmlParser.cursorResource(this.binary())) {
+            while (cursor.advance()) {
+                counter.events++;
+
+                blackhole.consume(cursor.getType());
+            }
+        }
+    }
+
+    @Benchmark
+    public void attributes(
+            final EventCounter counter,
+            final Blackhole blackhole
+    ) throws XmlPullParserException {
+        try (final TagCursor cursor = XmlParser.cursorResource(this.binary())) {
+            while (cursor.advance()) {
+                counter.events++;
+
+                final StartTag tag = cursor.tag().asStartTag();
+
+                if (tag != null) {
+                    for (final ResourceAttribute attribute : tag.getAttributeReader(ResourceAttributeReader.class)) {
+                        counter.attributes++;
+
+                        blackhole.consume(attribute.getNameResource());
+                        blackhole.consume(attribute.getResourceValue(0));
+                        blackhole.consume(attribute.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void obtain(
+            final EventCounter counter,
+            final Blackhole blackhole
+    ) throws XmlPullParserException {
+        final int length = this.styleable.length;
+        final int[] types = new int[length];
+        final int[] data = new int[length];
+        final int[] resourceIds = new int[length];
+
+        try (final TagCursor cursor = XmlParser.cursorResource(this.binary())) {
+            while (cursor.advance()) {
+                counter.events++;
+
+                final StartTag tag = cursor.tag().asStartTag();
+
+                if (tag != null) {
+                    counter.attributes += tag
+                            .getAttributeReader(ResourceAttributeReader.class)
+                            .obtainAttributes(this.styleable, types, data, resourceIds);
+
+                    blackhole.consume(types);
+                    blackhole.consume(data);
+                    blackhole.consume(resourceIds);
+                }
+            }
+        }
+    }
+
+    private BinaryXmlParser binary() throws XmlPullParserException {
+        final BinaryXmlParser parser = new BinaryXmlParser();
+
+        parser.setInput(ByteBuffer.wrap(this.bytes));
+
+        return parser;
+    }
+}
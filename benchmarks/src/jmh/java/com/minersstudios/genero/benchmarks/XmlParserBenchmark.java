@@ -0,0 +1,154 @@
+package com.minersstudios.genero.benchmarks;
+
+import com.minersstudios.genero.lib.xml.Documents;
+import com.minersstudios.genero.lib.xml.XmlParser;
+import com.minersstudios.genero.lib.xml.tag.StartTag;
+import com.minersstudios.genero.lib.xml.tag.TagCursor;
+import com.minersstudios.genero.lib.xml.tag.XmlTag;
+import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
+import com.minersstudios.genero.lib.xml.tag.attribute.AttributeValues;
+import com.minersstudios.genero.lib.xml.tag.attribute.reader.AttributeReader;
+
+import org.kxml2.io.KXmlParser;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Stream;
+
+/**
+ * Measures the tag and attribute layers of {@link XmlParser} on top of kXML,
+ * for menu-like and catalog-like documents of several sizes.
+ * <p>
+ * The stream and cursor benchmarks only read the type of every tag, which
+ * is the cost of the tag layer itself. The attribute benchmarks iterate the
+ * {@link AttributeReader} of every start tag, and the typed benchmark also
+ * converts every value with {@link AttributeValues#toTypedValue}.
+ *
+ * @see EventCounter
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class XmlParserBenchmark {
+    @Param({"menu", "catalog"})
+    public String document;
+
+    @Param({"4", "64", "1024"})
+    public int kilobytes;
+
+    private byte[] bytes;
+
+    @Setup
+    public void setup() {
+        final int size = this.kilobytes * 1024;
+
+        this.bytes =
+                "menu".equals(this.document)
+                ? Documents.menu(size)
+                : Documents.catalog(size);
+    }
+
+    @Benchmark
+    public void stream(
+            final EventCounter counter,
+            final Blackhole blackhole
+    ) throws XmlPullParserException {
+        try (final Stream<XmlTag> tags = XmlParser.parsePull(this.kxml())) {
+            tags.forEach(
+                    tag -> {
+                        counter.events++;
+
+                        blackhole.consume(tag.getType());
+                    }
+            );
+        }
+    }
+
+    @Benchmark
+    public void cursor(
+            final EventCounter counter,
+            final Blackhole blackhole
+    ) throws XmlPullParserException {
+        try (final TagCursor cursor = XmlParser.cursorPull(this.kxml())) {
+            while (cursor.advance()) {
+                counter.events++;
+
+                blackhole.consume(cursor.getType());
+            }
+        }
+    }
+
+    @Benchmark
+    public void attributes(
+            final EventCounter counter,
+            final Blackhole blackhole
+    ) throws XmlPullParserException {
+        try (final TagCursor cursor = XmlParser.cursorPull(this.kxml())) {
+            while (cursor.advance()) {
+                counter.events++;
+
+                final StartTag tag = cursor.tag().asStartTag();
+
+                if (tag != null) {
+                    for (final Attribute attribute : tag.getAttributeReader(AttributeReader.class)) {
+                        counter.attributes++;
+
+                        blackhole.consume(attribute.getNameId());
+                        blackhole.consume(attribute.getValue());
+                    }
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void typed(
+            final EventCounter counter,
+            final Blackhole blackhole
+    ) throws XmlPullParserException {
+        final int[] data = new int[1];
+
+        try (final TagCursor cursor = XmlParser.cursorPull(this.kxml())) {
+            while (cursor.advance()) {
+                counter.events++;
+
+                final StartTag tag = cursor.tag().asStartTag();
+
+                if (tag != null) {
+                    for (final Attribute attribute : tag.getAttributeReader(AttributeReader.class)) {
+                        counter.attributes++;
+
+                        blackhole.consume(AttributeValues.toTypedValue(attribute.getValue(), data, 0));
+                        blackhole.consume(data[0]);
+                    }
+                }
+            }
+        }
+    }
+
+    private XmlPullParser kxml() throws XmlPullParserException {
+        final KXmlParser parser = new KXmlParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(new ByteArrayInputStream(this.bytes), "UTF-8");
+
+        return parser;
+    }
+}
@@ -5,6 +5,8 @@ plugins {
 }
 
 dependencies {
+    annotationProcessor(project(":processor"))
+
     implementation(libs.androidx.appcompat)
     implementation(libs.androidx.navigation.fragment)
     implementation(libs.androidx.navigation.ui)
@@ -12,6 +14,10 @@ dependencies {
     implementation(libs.jetbrains.annotations)
     implementation(libs.jsr305)
     implementation(libs.material)
+
+    testImplementation(libs.junit)
+    testImplementation(libs.kxml2)
+    testImplementation(libs.robolectric)
 }
 
 android {
@@ -25,4 +31,12 @@ android {
         sourceCompatibility = VERSION_1_8
         targetCompatibility = VERSION_1_8
     }
+
+    // The draw tests of the views run under Robolectric, which needs the
+    // resources of the library and its dependencies
+    testOptions {
+        unitTests {
+            isIncludeAndroidResources = true
+        }
+    }
 }
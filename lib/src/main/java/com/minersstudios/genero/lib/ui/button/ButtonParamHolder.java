@@ -107,22 +107,7 @@ public class ButtonParamHolder {
             final @Nullable String className,
             final Object... initArgs
     ) throws RuntimeException {
-        if (
-                className == null
-                || className.isEmpty()
-        ) {
-            return this.handler(null);
-        }
-
-        final String packageStr = this.context.getPackageName() + className;
-
-        try {
-            final Class<?> clazz = this.context.getClassLoader().loadClass(packageStr);
-
-            return this.handler(clazz.asSubclass(ButtonHandler.class), initArgs);
-        } catch (final ClassNotFoundException e) {
-            throw new RuntimeException("Could not find class: " + packageStr);
-        }
+        return this.handler(loadHandlerClass(this.context, className), initArgs);
     }
 
     /**
@@ -898,4 +883,37 @@ public class ButtonParamHolder {
     public static @NonNull ButtonParamHolder create(final @NonNull Context context) {
         return new ButtonParamHolder(context);
     }
+
+    /**
+     * Loads the button handler class by its name relative to the package of
+     * the given context (e.g. {@code .ui.button.handler.SettingsButtonHandler}).
+     * <p>
+     * If provided class name is null or empty, null is returned.
+     *
+     * @param context   The context to resolve the package and class loader
+     * @param className Button handler class name
+     * @return The button handler class, or null if the class name is not set
+     * @throws RuntimeException If the class could not be found
+     */
+    public static @Nullable Class<? extends ButtonHandler> loadHandlerClass(
+            final @NonNull Context context,
+            final @Nullable String className
+    ) throws RuntimeException {
+        if (
+                className == null
+                || className.isEmpty()
+        ) {
+            return null;
+        }
+
+        final String packageStr = context.getPackageName() + className;
+
+        try {
+            final Class<?> clazz = context.getClassLoader().loadClass(packageStr);
+
+            return clazz.asSubclass(ButtonHandler.class);
+        } catch (final ClassNotFoundException e) {
+            throw new RuntimeException("Could not find class: " + packageStr);
+        }
+    }
 }
@@ -2,8 +2,6 @@ package com.minersstudios.genero.lib.ui.navigation;
 
 import static android.view.MotionEvent.ACTION_DOWN;
 import static android.view.MotionEvent.ACTION_UP;
-import static com.minersstudios.genero.lib.ui.button.ButtonParamHolder.INVALID;
-import static org.xmlpull.v1.XmlPullParser.START_TAG;
 
 import android.animation.ArgbEvaluator;
 import android.animation.ValueAnimator;
@@ -29,14 +27,9 @@ import androidx.navigation.NavDestination;
 import androidx.navigation.ui.NavigationUI;
 
 import com.minersstudios.genero.lib.R;
-import com.minersstudios.genero.lib.throwable.ParseAttributeException;
 import com.minersstudios.genero.lib.ui.button.ButtonParamHolder;
 import com.minersstudios.genero.lib.ui.corners.CornerAttribute;
 import com.minersstudios.genero.lib.ui.corners.CornerType;
-import com.minersstudios.genero.lib.xml.XmlParser;
-import com.minersstudios.genero.lib.xml.tag.XmlTag;
-import com.minersstudios.genero.lib.xml.tag.attribute.ResourceAttribute;
-import com.minersstudios.genero.lib.xml.tag.attribute.reader.ResourceAttributeReader;
 
 import org.jetbrains.annotations.UnmodifiableView;
 
@@ -81,13 +74,6 @@ public class BottomNavBar extends View {
     //</editor-fold>
 
     //<editor-fold desc="Constants" defaultstate="collapsed">
-    private static final String ITEM_TAG =                   "item";
-    private static final String ICON_ATTRIBUTE =             "icon";
-    private static final String BUTTON_ICON_ATTRIBUTE =      "buttonIcon";
-    private static final String BUTTON_ICON_SIZE_ATTRIBUTE = "buttonIconSize";
-    private static final String BUTTON_ICON_TINT_ATTRIBUTE = "buttonIconTint";
-    private static final String BUTTON_HANDLER_ATTRIBUTE =   "buttonHandler";
-
     private static final int INVALID_RES = -1;
     private static final int DEFAULT_STYLE = R.style.Base_Widget_Genero_BottomNavBar;
     //</editor-fold>
@@ -168,11 +154,56 @@ public class BottomNavBar extends View {
     }
 
     /**
-     * Returns the menu
+     * Returns the menu.
+     * <p>
+     * The menu is built lazily on the first call from the
+     * {@link MenuCache parsed menu cache}, the same one the items of the
+     * navigation bar are bound from, so the menu XML is not inflated again.
+     * Its items have the groups, ids, titles, categories, orders, icons and
+     * the checkable, checked, visible and enabled states of the menu resource,
+     * as if it was inflated.
      *
-     * @return The menu
+     * @return The menu, or null if the menu resource is not set
      */
     public @Nullable Menu getMenu() {
+        if (
+                this.menu == null
+                && this.menuRes != INVALID_RES
+        ) {
+            final Menu menu = new PopupMenu(this.getContext(), this).getMenu();
+            final ObjectList<MenuCache.ItemDescriptor> descriptors = MenuCache.get(this.getContext(), this.menuRes);
+            final MenuItem[] items = new MenuItem[descriptors.size()];
+
+            for (int i = 0; i < items.length; ++i) {
+                final MenuCache.ItemDescriptor descriptor = descriptors.get(i);
+
+                items[i] = menu.add(descriptor.groupId, descriptor.id, descriptor.order, descriptor.title)
+                        .setIcon(descriptor.icon)
+                        .setVisible(descriptor.visible)
+                        .setEnabled(descriptor.enabled);
+            }
+
+            for (final MenuCache.ItemDescriptor descriptor : descriptors) {
+                if (descriptor.checkable == MenuCache.CHECKABLE_EXCLUSIVE) {
+                    menu.setGroupCheckable(descriptor.groupId, true, true);
+                }
+            }
+
+            for (int i = 0; i < items.length; ++i) {
+                final MenuCache.ItemDescriptor descriptor = descriptors.get(i);
+
+                if (descriptor.checkable != MenuCache.CHECKABLE_EXCLUSIVE) {
+                    items[i].setCheckable(descriptor.checkable == MenuCache.CHECKABLE_ALL);
+                }
+
+                if (descriptor.checked) {
+                    items[i].setChecked(true);
+                }
+            }
+
+            this.menu = menu;
+        }
+
         return this.menu;
     }
 
@@ -186,21 +217,19 @@ public class BottomNavBar extends View {
     }
 
     /**
-     * Sets the menu resource ID and parses new menu items
+     * Sets the menu resource ID and binds new menu items.
+     * <p>
+     * The parsed menu items are cached process-wide, so the menu XML is parsed
+     * only once per configuration.
      *
      * @param menuRes New menu resource ID
      */
     public void setMenuRes(final @MenuRes int menuRes) {
         this.menuRes = menuRes;
-
-        final PopupMenu popupMenu = new PopupMenu(this.getContext(), this);
-
-        popupMenu.inflate(menuRes);
-
-        this.menu = popupMenu.getMenu();
+        this.menu = null;
 
         if (menuRes != INVALID_RES) {
-            this.parseMenuItems();
+            this.bindMenuItems();
         }
     }
 
@@ -598,11 +627,13 @@ public class BottomNavBar extends View {
      * @throws IllegalStateException If the menu resource is not set
      */
     public void setupWithNavController(final @NonNull NavController controller) throws IllegalStateException {
-        if (this.menu == null) {
+        final Menu menu = this.getMenu();
+
+        if (menu == null) {
             throw new IllegalStateException("Menu resource not set");
         }
 
-        this.setupWithNavController(this.menu, controller);
+        this.setupWithNavController(menu, controller);
     }
 
     /**
@@ -923,52 +954,16 @@ public class BottomNavBar extends View {
         );
     }
 
-    private void parseMenuItems() {
+    private void bindMenuItems() {
         this.itemList.clear();
 
-        XmlParser
-        .parseResource(this.getContext().getResources().getXml(this.menuRes))
-        .filter(tag -> tag.getType() == START_TAG)
-        .map(XmlTag::toStartTag)
-        .filter(tag -> tag.getName().equals(ITEM_TAG))
-        .map(tag -> tag.getAttributeReader(ResourceAttributeReader.class))
-        .forEach(reader -> this.itemList.add(this.parseItem(reader)));
-    }
-
-    private @NonNull Item parseItem(final @NonNull ResourceAttributeReader reader) throws ParseAttributeException {
-        Drawable icon = null;
-        @DrawableRes int iconResId = INVALID;
-        @Dimension float iconSize = INVALID;
-        @ColorInt int iconTint = INVALID;
-        String buttonHandler = null;
-
-        for (final ResourceAttribute attribute : reader) {
-            switch (attribute.getName()) {
-                case ICON_ATTRIBUTE:
-                    icon = ContextCompat.getDrawable(
-                            this.getContext(),
-                            attribute.getResourceValue(0)
-                    );
-
-                    break;
-                case BUTTON_ICON_ATTRIBUTE:
-                    iconResId = attribute.getResourceValue(INVALID);
-
-                    break;
-                case BUTTON_ICON_SIZE_ATTRIBUTE:
-                    iconSize = attribute.getFloatValue(INVALID);
-
-                    break;
-                case BUTTON_ICON_TINT_ATTRIBUTE:
-                    iconTint = attribute.getIntValue(INVALID);
-
-                    break;
-                case BUTTON_HANDLER_ATTRIBUTE:
-                    buttonHandler = attribute.getValue();
-
-                    break;
-            }
+        for (final MenuCache.ItemDescriptor descriptor : MenuCache.get(this.getContext(), this.menuRes)) {
+            this.itemList.add(this.createItem(descriptor));
         }
+    }
+
+    private @NonNull Item createItem(final @NonNull MenuCache.ItemDescriptor descriptor) throws IllegalStateException {
+        final Drawable icon = ContextCompat.getDrawable(this.getContext(), descriptor.icon);
 
         if (icon == null) {
             throw new IllegalStateException("Item icon not found");
@@ -979,11 +974,11 @@ public class BottomNavBar extends View {
                 ButtonParamHolder
                 .create(this.getContext())
                 .icon(
-                        iconResId,
-                        iconSize,
-                        iconTint
+                        descriptor.buttonIcon,
+                        descriptor.buttonIconSize,
+                        descriptor.buttonIconTint
                 )
-                .handler(buttonHandler)
+                .handler(descriptor.buttonHandler)
         );
     }
 
@@ -0,0 +1,391 @@
+package com.minersstudios.genero.lib.ui.navigation;
+
+import static com.minersstudios.genero.lib.ui.button.ButtonParamHolder.INVALID;
+
+import android.content.Context;
+import android.content.res.Configuration;
+import android.view.Menu;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.Dimension;
+import androidx.annotation.DrawableRes;
+import androidx.annotation.IdRes;
+import androidx.annotation.MenuRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.ui.button.ButtonHandler;
+import com.minersstudios.genero.lib.ui.button.ButtonParamHolder;
+import com.minersstudios.genero.lib.xml.SymbolTable;
+import com.minersstudios.genero.lib.xml.XmlParser;
+import com.minersstudios.genero.lib.xml.bind.XmlAttribute;
+import com.minersstudios.genero.lib.xml.bind.XmlAttribute.Format;
+import com.minersstudios.genero.lib.xml.bind.XmlSchema;
+import com.minersstudios.genero.lib.xml.tag.EndTag;
+import com.minersstudios.genero.lib.xml.tag.StartTag;
+import com.minersstudios.genero.lib.xml.tag.TagCursor;
+import com.minersstudios.genero.lib.xml.tag.XmlTag;
+import com.minersstudios.genero.lib.xml.tag.attribute.ResourceReferences;
+
+import org.jetbrains.annotations.Contract;
+import org.jetbrains.annotations.Unmodifiable;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+import it.unimi.dsi.fastutil.objects.ObjectList;
+import it.unimi.dsi.fastutil.objects.ObjectLists;
+
+/**
+ * Process-wide cache of parsed {@link BottomNavBar} menus.
+ * <p>
+ * Entries are keyed by the menu resource ID and the configuration qualifiers
+ * that may select a different menu resource, and hold immutable item
+ * descriptors. So, a recreated navigation bar (e.g. after a rotation or a
+ * theme change) binds its items and builds its {@link Menu} without touching
+ * the menu XML.
+ */
+@ThreadSafe
+final class MenuCache {
+    /** The item is not checkable */
+    static final int CHECKABLE_NONE =      0;
+    /** The item is checkable on its own */
+    static final int CHECKABLE_ALL =       1;
+    /** The item is checkable exclusively within its group */
+    static final int CHECKABLE_EXCLUSIVE = 2;
+
+    private static final int MAX_ENTRIES = 16;
+    private static final Map<Key, ObjectList<ItemDescriptor>> CACHE =
+            new LinkedHashMap<Key, ObjectList<ItemDescriptor>>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(final @NonNull Map.Entry<Key, ObjectList<ItemDescriptor>> eldest) {
+                    return this.size() > MAX_ENTRIES;
+                }
+            };
+
+    private static final String NO_NAMESPACE =                 "";
+    private static final String ANDROID_NAMESPACE =            "http://schemas.android.com/apk/res/android";
+    private static final String APP_NAMESPACE =                "http://schemas.android.com/apk/res-auto";
+    private static final String GROUP_TAG =                    "group";
+    private static final String ITEM_TAG =                     "item";
+    private static final String ID_ATTRIBUTE =                 "id";
+    private static final String TITLE_ATTRIBUTE =              "title";
+    private static final String CATEGORY_ATTRIBUTE =           "menuCategory";
+    private static final String ORDER_ATTRIBUTE =              "orderInCategory";
+    private static final String CHECKABLE_BEHAVIOR_ATTRIBUTE = "checkableBehavior";
+    private static final String CHECKABLE_ATTRIBUTE =          "checkable";
+    private static final String CHECKED_ATTRIBUTE =            "checked";
+    private static final String VISIBLE_ATTRIBUTE =            "visible";
+    private static final String ENABLED_ATTRIBUTE =            "enabled";
+    private static final String ICON_ATTRIBUTE =               "icon";
+    private static final String BUTTON_ICON_ATTRIBUTE =        "buttonIcon";
+    private static final String BUTTON_ICON_SIZE_ATTRIBUTE =   "buttonIconSize";
+    private static final String BUTTON_ICON_TINT_ATTRIBUTE =   "buttonIconTint";
+    private static final String BUTTON_HANDLER_ATTRIBUTE =     "buttonHandler";
+
+    private static final SymbolTable MENU_SYMBOLS = new SymbolTable();
+    private static final int GROUP_TAG_ID = MENU_SYMBOLS.intern(NO_NAMESPACE, GROUP_TAG);
+    private static final int ITEM_TAG_ID = MENU_SYMBOLS.intern(NO_NAMESPACE, ITEM_TAG);
+
+    @Contract(" -> fail")
+    private MenuCache() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Returns the item descriptors of the given menu, parsing the menu
+     * resource only if it is not cached for the current configuration yet
+     *
+     * @param context The context to load the menu from
+     * @param menuRes The menu resource ID
+     * @return An unmodifiable list of the item descriptors
+     * @throws IllegalStateException If an item has no icon
+     */
+    static @NonNull @Unmodifiable ObjectList<ItemDescriptor> get(
+            final @NonNull Context context,
+            final @MenuRes int menuRes
+    ) throws IllegalStateException {
+        final Key key = new Key(menuRes, context.getResources().getConfiguration());
+
+        synchronized (CACHE) {
+            final ObjectList<ItemDescriptor> items = CACHE.get(key);
+
+            if (items != null) {
+                return items;
+            }
+        }
+
+        final ObjectList<ItemDescriptor> items = parse(context, menuRes);
+
+        synchronized (CACHE) {
+            CACHE.put(key, items);
+        }
+
+        return items;
+    }
+
+    private static @NonNull ObjectList<ItemDescriptor> parse(
+            final @NonNull Context context,
+            final @MenuRes int menuRes
+    ) throws IllegalStateException {
+        final ObjectList<ItemDescriptor> items = new ObjectArrayList<>();
+
+        try (
+                final TagCursor cursor = XmlParser.cursorResource(
+                        context.getResources().getXml(menuRes),
+                        MENU_SYMBOLS.copy()
+                )
+        ) {
+            MenuGroupSchema group = new MenuGroupSchema();
+
+            while (cursor.advance()) {
+                final XmlTag tag = cursor.tag();
+                final StartTag startTag = tag.asStartTag();
+
+                if (startTag != null) {
+                    if (startTag.getNameId() == GROUP_TAG_ID) {
+                        group = new MenuGroupSchema();
+
+                        startTag.bindAttributes(MenuCache_MenuGroupSchemaBinder.INSTANCE, group);
+                    } else if (startTag.getNameId() == ITEM_TAG_ID) {
+                        final MenuItemSchema schema = new MenuItemSchema(group);
+
+                        startTag.bindAttributes(MenuCache_MenuItemSchemaBinder.INSTANCE, schema);
+                        items.add(new ItemDescriptor(context, schema));
+                    }
+
+                    continue;
+                }
+
+                final EndTag endTag = tag.asEndTag();
+
+                if (
+                        endTag != null
+                        && endTag.getNameId() == GROUP_TAG_ID
+                ) {
+                    group = new MenuGroupSchema();
+                }
+            }
+        }
+
+        return ObjectLists.unmodifiable(items);
+    }
+
+    /**
+     * Immutable descriptor of a parsed menu item.
+     * <p>
+     * Carries the attributes a {@link android.view.MenuInflater} would apply
+     * to the item, with the defaults of its enclosing group already resolved.
+     */
+    @Immutable
+    static final class ItemDescriptor {
+        final @IdRes int id;
+        final @IdRes int groupId;
+        final @Nullable CharSequence title;
+        final int order;
+        final int checkable;
+        final boolean checked;
+        final boolean visible;
+        final boolean enabled;
+        final @DrawableRes int icon;
+        final @DrawableRes int buttonIcon;
+        final @Dimension float buttonIconSize;
+        final @ColorInt int buttonIconTint;
+        final @Nullable Class<? extends ButtonHandler> buttonHandler;
+
+        ItemDescriptor(
+                final @NonNull Context context,
+                final @NonNull MenuItemSchema schema
+        ) throws IllegalStateException {
+            if (schema.icon == 0) {
+                throw new IllegalStateException("Item icon not found");
+            }
+
+            this.id = schema.id;
+            this.groupId = schema.groupId;
+
+            if (ResourceReferences.isReference(schema.title)) {
+                final int title = ResourceReferences.resolveId(context, schema.title);
+
+                this.title = title != 0 ? context.getText(title) : null;
+            } else {
+                this.title = schema.title;
+            }
+
+            this.order = (schema.category & Menu.CATEGORY_MASK) | (schema.order & Menu.USER_MASK);
+            this.checkable =
+                    schema.checkable == -1
+                    ? CHECKABLE_ALL
+                    : schema.checkable;
+            this.checked = schema.checked;
+            this.visible = schema.visible;
+            this.enabled = schema.enabled;
+            this.icon = schema.icon;
+            this.buttonIcon = schema.buttonIcon;
+            this.buttonIconSize = schema.buttonIconSize;
+            this.buttonIconTint = schema.buttonIconTint;
+            this.buttonHandler = ButtonParamHolder.loadHandlerClass(context, schema.buttonHandler);
+        }
+    }
+
+    @XmlSchema
+    static final class MenuGroupSchema {
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = ID_ATTRIBUTE, format = Format.RESOURCE)
+        @IdRes int id = Menu.NONE;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = CATEGORY_ATTRIBUTE, format = Format.INT)
+        int category = 0;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = ORDER_ATTRIBUTE, format = Format.INT)
+        int order = Menu.NONE;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = CHECKABLE_BEHAVIOR_ATTRIBUTE, format = Format.INT)
+        int checkableBehavior = CHECKABLE_NONE;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = VISIBLE_ATTRIBUTE, format = Format.BOOLEAN)
+        boolean visible = true;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = ENABLED_ATTRIBUTE, format = Format.BOOLEAN)
+        boolean enabled = true;
+    }
+
+    /**
+     * Attributes of a menu item.
+     * <p>
+     * Every attribute the item does not set keeps the value of its group.
+     * The compiled {@code checkable} boolean is read as an integer, so an
+     * unset attribute can be told apart : {@code -1} for true, {@code 0} for
+     * false, or the checkable behavior of the group if it is not set.
+     */
+    @XmlSchema
+    static final class MenuItemSchema {
+        final @IdRes int groupId;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = ID_ATTRIBUTE, format = Format.RESOURCE)
+        @IdRes int id = Menu.NONE;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = TITLE_ATTRIBUTE, format = Format.STRING)
+        String title;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = CATEGORY_ATTRIBUTE, format = Format.INT)
+        int category;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = ORDER_ATTRIBUTE, format = Format.INT)
+        int order;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = CHECKABLE_ATTRIBUTE, format = Format.INT)
+        int checkable;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = CHECKED_ATTRIBUTE, format = Format.BOOLEAN)
+        boolean checked = false;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = VISIBLE_ATTRIBUTE, format = Format.BOOLEAN)
+        boolean visible;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = ENABLED_ATTRIBUTE, format = Format.BOOLEAN)
+        boolean enabled;
+
+        @XmlAttribute(namespace = ANDROID_NAMESPACE, name = ICON_ATTRIBUTE, format = Format.RESOURCE)
+        @DrawableRes int icon = 0;
+
+        @XmlAttribute(namespace = APP_NAMESPACE, name = BUTTON_ICON_ATTRIBUTE, format = Format.RESOURCE)
+        @DrawableRes int buttonIcon = INVALID;
+
+        @XmlAttribute(namespace = APP_NAMESPACE, name = BUTTON_ICON_SIZE_ATTRIBUTE, format = Format.FLOAT)
+        @Dimension float buttonIconSize = INVALID;
+
+        @XmlAttribute(namespace = APP_NAMESPACE, name = BUTTON_ICON_TINT_ATTRIBUTE, format = Format.INT)
+        @ColorInt int buttonIconTint = INVALID;
+
+        @XmlAttribute(namespace = APP_NAMESPACE, name = BUTTON_HANDLER_ATTRIBUTE, format = Format.STRING)
+        String buttonHandler;
+
+        MenuItemSchema(final @NonNull MenuGroupSchema group) {
+            this.groupId = group.id;
+            this.category = group.category;
+            this.order = group.order;
+            this.checkable = group.checkableBehavior;
+            this.visible = group.visible;
+            this.enabled = group.enabled;
+        }
+    }
+
+    @Immutable
+    private static final class Key {
+        private final int menuRes;
+        private final String locales;
+        private final int uiMode;
+        private final int orientation;
+        private final int screenLayout;
+        private final int smallestScreenWidthDp;
+        private final int screenWidthDp;
+        private final int screenHeightDp;
+        private final int densityDpi;
+        private final int touchscreen;
+        private final int hash;
+
+        Key(
+                final @MenuRes int menuRes,
+                final @NonNull Configuration configuration
+        ) {
+            this.menuRes = menuRes;
+            this.locales = configuration.getLocales().toLanguageTags();
+            this.uiMode = configuration.uiMode;
+            this.orientation = configuration.orientation;
+            this.screenLayout = configuration.screenLayout;
+            this.smallestScreenWidthDp = configuration.smallestScreenWidthDp;
+            this.screenWidthDp = configuration.screenWidthDp;
+            this.screenHeightDp = configuration.screenHeightDp;
+            this.densityDpi = configuration.densityDpi;
+            this.touchscreen = configuration.touchscreen;
+
+            int hash = menuRes;
+
+            hash = 31 * hash + this.locales.hashCode();
+            hash = 31 * hash + this.uiMode;
+            hash = 31 * hash + this.orientation;
+            hash = 31 * hash + this.screenLayout;
+            hash = 31 * hash + this.smallestScreenWidthDp;
+            hash = 31 * hash + this.screenWidthDp;
+            hash = 31 * hash + this.screenHeightDp;
+            hash = 31 * hash + this.densityDpi;
+            hash = 31 * hash + this.touchscreen;
+
+            this.hash = hash;
+        }
+
+        @Override
+        public int hashCode() {
+            return this.hash;
+        }
+
+        @Override
+        public boolean equals(final @Nullable Object obj) {
+            if (this == obj) {
+                return true;
+            }
+
+            if (!(obj instanceof Key)) {
+                return false;
+            }
+
+            final Key that = (Key) obj;
+
+            return this.menuRes == that.menuRes
+                    && this.uiMode == that.uiMode
+                    && this.orientation == that.orientation
+                    && this.screenLayout == that.screenLayout
+                    && this.smallestScreenWidthDp == that.smallestScreenWidthDp
+                    && this.screenWidthDp == that.screenWidthDp
+                    && this.screenHeightDp == that.screenHeightDp
+                    && this.densityDpi == that.densityDpi
+                    && this.touchscreen == that.touchscreen
+                    && this.locales.equals(that.locales);
+        }
+    }
+}
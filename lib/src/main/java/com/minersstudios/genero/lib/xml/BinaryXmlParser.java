@@ -0,0 +1,1401 @@
+package com.minersstudios.genero.lib.xml;
+
+import android.content.res.XmlResourceParser;
+import android.util.TypedValue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.tag.attribute.AttributeValues;
+
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link XmlResourceParser} that reads compiled Android binary XML, as it
+ * is stored in an APK by aapt2, directly from a {@link ByteBuffer}.
+ * <p>
+ * Unlike the parsers returned by {@link android.content.res.Resources#getXml(int)},
+ * it does not call into the native resource parser for every event and
+ * attribute, and it runs on a plain JVM, so compiled menus and layouts can be
+ * parsed in tests and benchmarks. The chunks of the document are read in
+ * place, and the strings of the string pool are decoded once, when they are
+ * first requested.
+ * <p>
+ * The typed attribute getters follow the rules of the framework parser, the
+ * compiled type of a value decides whether it is returned or the default
+ * value is, and values without a raw string are converted to strings the way
+ * {@link TypedValue#coerceToString(int, int)} converts them.
+ * <pre>{@code
+ * final BinaryXmlParser parser = new BinaryXmlParser();
+ *
+ * parser.setInput(buffer);
+ *
+ * try (final Stream<XmlTag> tags = XmlParser.parseResource(parser)) {
+ *     ...
+ * }
+ * }</pre>
+ * <p>
+ * <b>NOTE:</b> The parser differs from the framework parser in a few ways:
+ *              <ul>
+ *                  <li>
+ *                      Namespace declarations, prefixes and
+ *                      {@link #getNamespaceCount(int)} are supported
+ *                  </li>
+ *                  <li>
+ *                      {@link #getAttributeFloatValue(int, float)} returns the
+ *                      default value for values that are not floats, instead
+ *                      of throwing
+ *                  </li>
+ *                  <li>
+ *                      {@link #isWhitespace()} checks the text, instead of
+ *                      always returning false
+ *                  </li>
+ *              </ul>
+ */
+@NotThreadSafe
+public final class BinaryXmlParser implements XmlResourceParser {
+    private ByteBuffer buffer;
+    private int end;
+    private int position;
+
+    private int stringCount;
+    private int stringOffsets;
+    private int stringData;
+    private boolean isUtf8;
+    private String[] strings;
+    private int[] resourceIds;
+
+    private int eventType;
+    private int depth;
+    private boolean isDepthPending;
+    private int lineNumber;
+
+    private int nameIndex;
+    private int namespaceIndex;
+    private int textIndex;
+    private int attributeOffset;
+    private int attributeSize;
+    private int attributeCount;
+    private int idIndex;
+    private int classIndex;
+    private int styleIndex;
+
+    private int[] namespaceCounts;
+    private int[] namespacePrefixes;
+    private int[] namespaceUris;
+    private int namespaceTotal;
+
+    private static final String NO_NAMESPACE = "";
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String CDATA = "CDATA";
+
+    private static final int NO_INDEX = -1;
+    private static final int INITIAL_DEPTH = 16;
+    private static final int INITIAL_NAMESPACES = 4;
+
+    // Chunk types of the binary XML format
+    private static final int RES_STRING_POOL_TYPE = 0x0001;
+    private static final int RES_XML_TYPE = 0x0003;
+    private static final int RES_XML_START_NAMESPACE_TYPE = 0x0100;
+    private static final int RES_XML_END_NAMESPACE_TYPE = 0x0101;
+    private static final int RES_XML_START_ELEMENT_TYPE = 0x0102;
+    private static final int RES_XML_END_ELEMENT_TYPE = 0x0103;
+    private static final int RES_XML_CDATA_TYPE = 0x0104;
+    private static final int RES_XML_LAST_CHUNK_TYPE = 0x017F;
+    private static final int RES_XML_RESOURCE_MAP_TYPE = 0x0180;
+
+    private static final int CHUNK_HEADER_SIZE = 8;
+    private static final int NODE_HEADER_SIZE = 16;
+    private static final int STRING_POOL_HEADER_SIZE = 28;
+    private static final int ELEMENT_EXTENSION_SIZE = 20;
+    private static final int ATTRIBUTE_SIZE = 20;
+    private static final int UTF8_FLAG = 1 << 8;
+
+    // Offsets of the fields of an attribute
+    private static final int ATTRIBUTE_NAMESPACE = 0;
+    private static final int ATTRIBUTE_NAME = 4;
+    private static final int ATTRIBUTE_RAW_VALUE = 8;
+    private static final int ATTRIBUTE_DATA_TYPE = 15;
+    private static final int ATTRIBUTE_DATA = 16;
+
+    private static final float MANTISSA_MULT = 1.0f / (1 << TypedValue.COMPLEX_MANTISSA_SHIFT);
+    private static final float[] RADIX_MULTS = {
+            1.0f * MANTISSA_MULT,
+            1.0f / (1 << 7) * MANTISSA_MULT,
+            1.0f / (1 << 15) * MANTISSA_MULT,
+            1.0f / (1 << 23) * MANTISSA_MULT
+    };
+    private static final String[] DIMENSION_UNITS = { "px", "dip", "sp", "pt", "in", "mm" };
+    private static final String[] FRACTION_UNITS = { "%", "%p" };
+
+    /**
+     * Creates a new parser without input.
+     * <p>
+     * Use one of the {@code setInput} methods before parsing.
+     */
+    public BinaryXmlParser() {
+        this.namespaceCounts = new int[INITIAL_DEPTH];
+        this.namespacePrefixes = new int[INITIAL_NAMESPACES];
+        this.namespaceUris = new int[INITIAL_NAMESPACES];
+        this.strings = new String[0];
+        this.resourceIds = new int[0];
+    }
+
+    /**
+     * Sets the input of the parser to the remaining bytes of the given
+     * buffer, which must hold a compiled binary XML document.
+     * <p>
+     * The string pool and the resource map are located right away, the rest
+     * of the document is read as it is parsed. The buffer is read with
+     * absolute gets, so its position and limit are left as they are.
+     *
+     * @param buffer The buffer to parse
+     * @throws XmlPullParserException If the buffer does not start with a
+     *                                binary XML document
+     */
+    public void setInput(final @NonNull ByteBuffer buffer) throws XmlPullParserException {
+        final ByteBuffer slice = buffer.slice();
+
+        slice.order(ByteOrder.LITTLE_ENDIAN);
+
+        this.buffer = slice;
+        this.reset();
+
+        if (
+                slice.limit() < CHUNK_HEADER_SIZE
+                || this.readShort(0) != RES_XML_TYPE
+        ) {
+            throw this.malformed("Not a binary XML document");
+        }
+
+        this.end = this.checkChunk(0, slice.limit(), CHUNK_HEADER_SIZE);
+        this.position = this.readShort(2);
+
+        // The string pool and the resource map precede the first node
+        while (this.position + CHUNK_HEADER_SIZE <= this.end) {
+            final int type = this.readShort(this.position);
+
+            if (
+                    type >= RES_XML_START_NAMESPACE_TYPE
+                    && type <= RES_XML_LAST_CHUNK_TYPE
+            ) {
+                break;
+            }
+
+            final int chunkEnd = this.checkChunk(this.position, this.end, CHUNK_HEADER_SIZE);
+
+            if (type == RES_STRING_POOL_TYPE) {
+                this.readStringPool(this.position, chunkEnd);
+            } else if (type == RES_XML_RESOURCE_MAP_TYPE) {
+                this.readResourceMap(this.position, chunkEnd);
+            }
+
+            this.position = chunkEnd;
+        }
+    }
+
+    @Override
+    public void setInput(final @Nullable Reader in) throws XmlPullParserException {
+        throw new XmlPullParserException("setInput() with a reader is not supported by binary XML");
+    }
+
+    /**
+     * Sets the input of the parser to all bytes of the given stream, which
+     * must hold a compiled binary XML document.
+     * <p>
+     * <b>NOTE:</b> The stream is read to the end but not closed.
+     *
+     * @param inputStream   The stream to parse
+     * @param inputEncoding Ignored, the encoding of the strings is stored in
+     *                      the document
+     * @throws XmlPullParserException If the stream could not be read or does
+     *                                not hold a binary XML document
+     */
+    @Override
+    public void setInput(
+            final @Nullable InputStream inputStream,
+            final @Nullable String inputEncoding
+    ) throws XmlPullParserException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Input stream must not be null");
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        final byte[] chunk = new byte[8192];
+
+        try {
+            int read;
+
+            while ((read = inputStream.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+        } catch (final IOException e) {
+            throw new XmlPullParserException("Failed to read the input", this, e);
+        }
+
+        this.setInput(ByteBuffer.wrap(out.toByteArray()));
+    }
+
+    @Override
+    public @Nullable String getInputEncoding() {
+        if (this.buffer == null) {
+            return null;
+        }
+
+        return this.isUtf8
+               ? "UTF-8"
+               : "UTF-16LE";
+    }
+
+    @Override
+    public void setFeature(
+            final @NonNull String name,
+            final boolean state
+    ) throws XmlPullParserException {
+        if (
+                FEATURE_PROCESS_NAMESPACES.equals(name)
+                && state
+        ) {
+            return;
+        }
+
+        throw new XmlPullParserException("Unsupported feature: " + name);
+    }
+
+    @Override
+    public boolean getFeature(final @NonNull String name) {
+        return FEATURE_PROCESS_NAMESPACES.equals(name);
+    }
+
+    @Override
+    public void setProperty(
+            final @NonNull String name,
+            final @Nullable Object value
+    ) throws XmlPullParserException {
+        throw new XmlPullParserException("setProperty() not supported");
+    }
+
+    @Override
+    public @Nullable Object getProperty(final @NonNull String name) {
+        return null;
+    }
+
+    @Override
+    public void defineEntityReplacementText(
+            final @NonNull String entityName,
+            final @NonNull String replacementText
+    ) throws XmlPullParserException {
+        throw new XmlPullParserException("defineEntityReplacementText() not supported");
+    }
+
+    @Override
+    public int getNamespaceCount(final int depth) throws XmlPullParserException {
+        if (
+                depth < 0
+                || depth > this.depth
+        ) {
+            throw new XmlPullParserException("Depth " + depth + " is out of bounds for depth " + this.depth, this, null);
+        }
+
+        return this.namespaceCounts[depth];
+    }
+
+    @Override
+    public @Nullable String getNamespacePrefix(final int pos) throws XmlPullParserException {
+        this.checkNamespacePosition(pos);
+
+        return this.string(this.namespacePrefixes[pos]);
+    }
+
+    @Override
+    public @Nullable String getNamespaceUri(final int pos) throws XmlPullParserException {
+        this.checkNamespacePosition(pos);
+
+        return this.string(this.namespaceUris[pos]);
+    }
+
+    @Override
+    public @Nullable String getNamespace(final @Nullable String prefix) {
+        for (int i = this.namespaceCounts[this.depth] - 1; i >= 0; --i) {
+            final String namespacePrefix = this.string(this.namespacePrefixes[i]);
+
+            if (
+                    prefix == null
+                    ? namespacePrefix == null
+                    : prefix.equals(namespacePrefix)
+            ) {
+                return this.string(this.namespaceUris[i]);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public int getDepth() {
+        return this.depth;
+    }
+
+    @Override
+    public @NonNull String getPositionDescription() {
+        return "Binary XML file line #" + this.lineNumber;
+    }
+
+    @Override
+    public int getLineNumber() {
+        return this.lineNumber;
+    }
+
+    @Override
+    public int getColumnNumber() {
+        return -1;
+    }
+
+    @Override
+    public boolean isWhitespace() throws XmlPullParserException {
+        if (this.eventType != TEXT) {
+            throw new XmlPullParserException("Not a text event", this, null);
+        }
+
+        final String text = this.getText();
+
+        for (int i = 0, length = text == null ? 0 : text.length(); i < length; ++i) {
+            final char c = text.charAt(i);
+
+            if (
+                    c != ' '
+                    && c != '\n'
+                    && c != '\t'
+                    && c != '\r'
+            ) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public @Nullable String getText() {
+        return this.eventType == TEXT
+               ? this.string(this.textIndex)
+               : null;
+    }
+
+    @Override
+    public @Nullable char[] getTextCharacters(final @NonNull int[] holderForStartAndLength) {
+        final String text = this.getText();
+
+        if (text == null) {
+            holderForStartAndLength[0] = -1;
+            holderForStartAndLength[1] = -1;
+
+            return null;
+        }
+
+        holderForStartAndLength[0] = 0;
+        holderForStartAndLength[1] = text.length();
+
+        return text.toCharArray();
+    }
+
+    @Override
+    public @Nullable String getNamespace() {
+        if (!this.isElement()) {
+            return null;
+        }
+
+        final String namespace = this.string(this.namespaceIndex);
+
+        return namespace == null ? NO_NAMESPACE : namespace;
+    }
+
+    @Override
+    public @Nullable String getName() {
+        return this.isElement()
+               ? this.string(this.nameIndex)
+               : null;
+    }
+
+    @Override
+    public @Nullable String getPrefix() {
+        return this.isElement()
+               ? this.prefixOf(this.namespaceIndex)
+               : null;
+    }
+
+    /**
+     * Returns false, the binary format does not record whether an element
+     * was written as an empty element tag
+     *
+     * @return False
+     * @throws XmlPullParserException If the current event is not a start tag
+     */
+    @Override
+    public boolean isEmptyElementTag() throws XmlPullParserException {
+        if (this.eventType != START_TAG) {
+            throw new XmlPullParserException("Not a start tag", this, null);
+        }
+
+        return false;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return this.eventType == START_TAG
+               ? this.attributeCount
+               : -1;
+    }
+
+    @Override
+    public @NonNull String getAttributeNamespace(final int index) throws IndexOutOfBoundsException {
+        final String namespace = this.string(this.readInt(this.attribute(index) + ATTRIBUTE_NAMESPACE));
+
+        return namespace == null ? NO_NAMESPACE : namespace;
+    }
+
+    @Override
+    public @Nullable String getAttributeName(final int index) throws IndexOutOfBoundsException {
+        return this.string(this.readInt(this.attribute(index) + ATTRIBUTE_NAME));
+    }
+
+    @Override
+    public @Nullable String getAttributePrefix(final int index) throws IndexOutOfBoundsException {
+        return this.prefixOf(this.readInt(this.attribute(index) + ATTRIBUTE_NAMESPACE));
+    }
+
+    @Override
+    public @NonNull String getAttributeType(final int index) throws IndexOutOfBoundsException {
+        this.attribute(index);
+
+        return CDATA;
+    }
+
+    @Override
+    public boolean isAttributeDefault(final int index) throws IndexOutOfBoundsException {
+        this.attribute(index);
+
+        return false;
+    }
+
+    @Override
+    public @Nullable String getAttributeValue(final int index) throws IndexOutOfBoundsException {
+        final int offset = this.attribute(index);
+        final int rawValue = this.readInt(offset + ATTRIBUTE_RAW_VALUE);
+
+        if (rawValue != NO_INDEX) {
+            return this.string(rawValue);
+        }
+
+        final int type = this.buffer.get(offset + ATTRIBUTE_DATA_TYPE) & 0xFF;
+        final int data = this.readInt(offset + ATTRIBUTE_DATA);
+
+        return type == TypedValue.TYPE_STRING
+               ? this.string(data)
+               : coerceToString(type, data);
+    }
+
+    @Override
+    public @Nullable String getAttributeValue(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final int index = this.indexOf(namespace, name);
+
+        return index == -1 ? null : this.getAttributeValue(index);
+    }
+
+    @Override
+    public int getEventType() {
+        return this.eventType;
+    }
+
+    @Override
+    public int next() throws XmlPullParserException {
+        if (this.buffer == null) {
+            throw new XmlPullParserException("No input specified", this, null);
+        }
+
+        if (this.isDepthPending) {
+            this.depth--;
+            this.isDepthPending = false;
+        }
+
+        if (this.eventType == END_DOCUMENT) {
+            return END_DOCUMENT;
+        }
+
+        while (this.position + CHUNK_HEADER_SIZE <= this.end) {
+            final int start = this.position;
+            final int type = this.readShort(start);
+            final int chunkEnd = this.checkChunk(start, this.end, CHUNK_HEADER_SIZE);
+
+            this.position = chunkEnd;
+
+            if (
+                    type < RES_XML_START_NAMESPACE_TYPE
+                    || type > RES_XML_CDATA_TYPE
+            ) {
+                continue;
+            }
+
+            this.checkChunk(start, this.end, NODE_HEADER_SIZE);
+
+            final int extension = start + this.readShort(start + 2);
+
+            switch (type) {
+                case RES_XML_START_NAMESPACE_TYPE:
+                    this.checkExtension(extension, 8, chunkEnd);
+                    this.pushNamespace(
+                            this.checkString(this.readInt(extension)),
+                            this.checkString(this.readInt(extension + 4))
+                    );
+
+                    break;
+                case RES_XML_END_NAMESPACE_TYPE:
+                    if (this.namespaceTotal > 0) {
+                        this.namespaceTotal--;
+                    }
+
+                    break;
+                case RES_XML_START_ELEMENT_TYPE:
+                    this.lineNumber = this.readInt(start + 8);
+
+                    this.readStartElement(extension, chunkEnd);
+
+                    if (++this.depth == this.namespaceCounts.length) {
+                        this.namespaceCounts = Arrays.copyOf(this.namespaceCounts, this.depth * 2);
+                    }
+
+                    this.namespaceCounts[this.depth] = this.namespaceTotal;
+
+                    return this.eventType = START_TAG;
+                case RES_XML_END_ELEMENT_TYPE:
+                    if (this.depth == 0) {
+                        throw this.malformed("Unexpected end element");
+                    }
+
+                    this.lineNumber = this.readInt(start + 8);
+
+                    this.checkExtension(extension, 8, chunkEnd);
+
+                    this.namespaceIndex = this.checkString(this.readInt(extension));
+                    this.nameIndex = this.checkName(this.readInt(extension + 4));
+                    this.isDepthPending = true;
+
+                    return this.eventType = END_TAG;
+                default:
+                    this.lineNumber = this.readInt(start + 8);
+
+                    this.checkExtension(extension, 4, chunkEnd);
+
+                    this.textIndex = this.checkName(this.readInt(extension));
+
+                    return this.eventType = TEXT;
+            }
+        }
+
+        if (this.depth != 0) {
+            throw this.malformed("Unexpected end of document");
+        }
+
+        return this.eventType = END_DOCUMENT;
+    }
+
+    @Override
+    public int nextToken() throws XmlPullParserException {
+        return this.next();
+    }
+
+    @Override
+    public void require(
+            final int type,
+            final @Nullable String namespace,
+            final @Nullable String name
+    ) throws XmlPullParserException {
+        if (
+                type != this.eventType
+                || (
+                        namespace != null
+                        && !namespace.equals(this.getNamespace())
+                )
+                || (
+                        name != null
+                        && !name.equals(this.getName())
+                )
+        ) {
+            throw new XmlPullParserException(
+                    "Expected " + TYPES[type] + " but found " + TYPES[this.eventType],
+                    this,
+                    null
+            );
+        }
+    }
+
+    @Override
+    public @NonNull String nextText() throws XmlPullParserException {
+        if (this.eventType != START_TAG) {
+            throw new XmlPullParserException("Parser must be on START_TAG to read next text", this, null);
+        }
+
+        int type = this.next();
+
+        if (type == TEXT) {
+            final String text = this.getText();
+
+            type = this.next();
+
+            if (type != END_TAG) {
+                throw new XmlPullParserException("Event TEXT must be immediately followed by END_TAG", this, null);
+            }
+
+            return text == null ? "" : text;
+        }
+
+        if (type == END_TAG) {
+            return "";
+        }
+
+        throw new XmlPullParserException("Parser must be on START_TAG or TEXT to read text", this, null);
+    }
+
+    @Override
+    public int nextTag() throws XmlPullParserException {
+        int type = this.next();
+
+        if (
+                type == TEXT
+                && this.isWhitespace()
+        ) {
+            type = this.next();
+        }
+
+        if (
+                type != START_TAG
+                && type != END_TAG
+        ) {
+            throw new XmlPullParserException("Expected start or end tag", this, null);
+        }
+
+        return type;
+    }
+
+    @Override
+    public int getAttributeNameResource(final int index) throws IndexOutOfBoundsException {
+        final int name = this.readInt(this.attribute(index) + ATTRIBUTE_NAME);
+
+        return name < this.resourceIds.length
+               ? this.resourceIds[name]
+               : 0;
+    }
+
+    /**
+     * Returns the compiled {@link TypedValue} type of the value of the
+     * attribute at the given index
+     *
+     * @param index The index of the attribute
+     * @return The type of the value of the attribute
+     * @throws IndexOutOfBoundsException If the index is out of bounds
+     * @see #getAttributeData(int)
+     */
+    public int getAttributeDataType(final int index) throws IndexOutOfBoundsException {
+        return this.dataType(this.attribute(index));
+    }
+
+    /**
+     * Returns the compiled data of the value of the attribute at the given
+     * index, which for {@link TypedValue#TYPE_STRING} values is an index into
+     * the string pool of the document
+     *
+     * @param index The index of the attribute
+     * @return The data of the value of the attribute
+     * @throws IndexOutOfBoundsException If the index is out of bounds
+     * @see #getAttributeDataType(int)
+     */
+    public int getAttributeData(final int index) throws IndexOutOfBoundsException {
+        return this.readInt(this.attribute(index) + ATTRIBUTE_DATA);
+    }
+
+    @Override
+    public int getAttributeListValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final @NonNull String[] options,
+            final int defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeListValue(index, options, defaultValue);
+    }
+
+    @Override
+    public boolean getAttributeBooleanValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final boolean defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeBooleanValue(index, defaultValue);
+    }
+
+    @Override
+    public int getAttributeResourceValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final int defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeResourceValue(index, defaultValue);
+    }
+
+    @Override
+    public int getAttributeIntValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final int defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeIntValue(index, defaultValue);
+    }
+
+    @Override
+    public int getAttributeUnsignedIntValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final int defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeUnsignedIntValue(index, defaultValue);
+    }
+
+    @Override
+    public float getAttributeFloatValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final float defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeFloatValue(index, defaultValue);
+    }
+
+    @Override
+    public int getAttributeListValue(
+            final int index,
+            final @NonNull String[] options,
+            final int defaultValue
+    ) throws IndexOutOfBoundsException {
+        final int offset = this.attribute(index);
+
+        return this.dataType(offset) == TypedValue.TYPE_STRING
+               ? AttributeValues.indexOf(this.getAttributeValue(index), options, defaultValue)
+               : this.readInt(offset + ATTRIBUTE_DATA);
+    }
+
+    @Override
+    public boolean getAttributeBooleanValue(
+            final int index,
+            final boolean defaultValue
+    ) throws IndexOutOfBoundsException {
+        final int offset = this.attribute(index);
+
+        return isInt(this.dataType(offset))
+               ? this.readInt(offset + ATTRIBUTE_DATA) != 0
+               : defaultValue;
+    }
+
+    @Override
+    public int getAttributeResourceValue(
+            final int index,
+            final int defaultValue
+    ) throws IndexOutOfBoundsException {
+        final int offset = this.attribute(index);
+
+        return this.dataType(offset) == TypedValue.TYPE_REFERENCE
+               ? this.readInt(offset + ATTRIBUTE_DATA)
+               : defaultValue;
+    }
+
+    @Override
+    public int getAttributeIntValue(
+            final int index,
+            final int defaultValue
+    ) throws IndexOutOfBoundsException {
+        final int offset = this.attribute(index);
+
+        return isInt(this.dataType(offset))
+               ? this.readInt(offset + ATTRIBUTE_DATA)
+               : defaultValue;
+    }
+
+    @Override
+    public int getAttributeUnsignedIntValue(
+            final int index,
+            final int defaultValue
+    ) throws IndexOutOfBoundsException {
+        return this.getAttributeIntValue(index, defaultValue);
+    }
+
+    @Override
+    public float getAttributeFloatValue(
+            final int index,
+            final float defaultValue
+    ) throws IndexOutOfBoundsException {
+        final int offset = this.attribute(index);
+
+        return this.dataType(offset) == TypedValue.TYPE_FLOAT
+               ? Float.intBitsToFloat(this.readInt(offset + ATTRIBUTE_DATA))
+               : defaultValue;
+    }
+
+    @Override
+    public @Nullable String getIdAttribute() {
+        return this.rawValueOf(this.idIndex);
+    }
+
+    @Override
+    public @Nullable String getClassAttribute() {
+        return this.rawValueOf(this.classIndex);
+    }
+
+    @Override
+    public int getIdAttributeResourceValue(final int defaultValue) {
+        return this.getAttributeResourceValue(null, ID_ATTRIBUTE, defaultValue);
+    }
+
+    @Override
+    public int getStyleAttribute() {
+        if (
+                this.eventType != START_TAG
+                || this.styleIndex == 0
+        ) {
+            return 0;
+        }
+
+        final int offset = this.attribute(this.styleIndex - 1);
+        final int type = this.dataType(offset);
+
+        return type == TypedValue.TYPE_REFERENCE || type == TypedValue.TYPE_ATTRIBUTE
+               ? this.readInt(offset + ATTRIBUTE_DATA)
+               : 0;
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release, the input buffer is owned by the caller
+    }
+
+    private void reset() {
+        this.end = 0;
+        this.position = 0;
+        this.stringCount = 0;
+        this.isUtf8 = false;
+        this.strings = new String[0];
+        this.resourceIds = new int[0];
+        this.eventType = START_DOCUMENT;
+        this.depth = 0;
+        this.isDepthPending = false;
+        this.lineNumber = -1;
+        this.attributeCount = 0;
+        this.namespaceTotal = 0;
+    }
+
+    /**
+     * Locates the string pool and checks the offset and the length of every
+     * string against the end of the string data, so a corrupt pool is
+     * reported here, instead of by the getters that decode the strings
+     */
+    private void readStringPool(
+            final int start,
+            final int chunkEnd
+    ) throws XmlPullParserException {
+        this.checkChunk(start, chunkEnd, STRING_POOL_HEADER_SIZE);
+
+        final int count = this.readInt(start + 8);
+        final int styleCount = this.readInt(start + 12);
+        final int offsets = start + this.readShort(start + 2);
+        final long stringData = start + (this.readInt(start + 20) & 0xFFFFFFFFL);
+        final long styleData = start + (this.readInt(start + 24) & 0xFFFFFFFFL);
+
+        if (
+                count < 0
+                || count > (chunkEnd - offsets) / 4
+        ) {
+            throw this.malformed("Invalid string count: " + count);
+        }
+
+        if (
+                styleCount < 0
+                || styleCount > (chunkEnd - offsets) / 4 - count
+                || (
+                        styleCount > 0
+                        && (
+                                styleData < stringData
+                                || styleData > chunkEnd
+                        )
+                )
+        ) {
+            throw this.malformed("Invalid style range");
+        }
+
+        final int dataEnd = styleCount > 0 ? (int) styleData : chunkEnd;
+
+        if (
+                count > 0
+                && (
+                        stringData < offsets + 4L * (count + styleCount)
+                        || stringData > dataEnd
+                )
+        ) {
+            throw this.malformed("Invalid string data offset: " + (stringData - start));
+        }
+
+        this.stringCount = count;
+        this.stringOffsets = offsets;
+        this.stringData = (int) stringData;
+        this.isUtf8 = (this.readInt(start + 16) & UTF8_FLAG) != 0;
+
+        for (int i = 0; i < count; ++i) {
+            this.checkStringData(i, dataEnd);
+        }
+
+        this.strings = new String[count];
+    }
+
+    /**
+     * Checks that the string at the given index, its length prefix and its
+     * terminator lie before the end of the string data
+     */
+    private void checkStringData(
+            final int index,
+            final int dataEnd
+    ) throws XmlPullParserException {
+        final long start = this.stringData + (this.readInt(this.stringOffsets + index * 4) & 0xFFFFFFFFL);
+        final long end;
+
+        if (start + 2 > dataEnd) {
+            throw this.malformed("String " + index + " is out of the string data");
+        }
+
+        int offset = (int) start;
+
+        if (this.isUtf8) {
+            offset += (this.buffer.get(offset) & 0x80) != 0 ? 2 : 1;
+
+            if (
+                    offset + 1 > dataEnd
+                    || (
+                            (this.buffer.get(offset) & 0x80) != 0
+                            && offset + 2 > dataEnd
+                    )
+            ) {
+                throw this.malformed("String " + index + " is out of the string data");
+            }
+
+            int length = this.buffer.get(offset++) & 0xFF;
+
+            if ((length & 0x80) != 0) {
+                length = (length & 0x7F) << 8 | this.buffer.get(offset++) & 0xFF;
+            }
+
+            end = offset + (long) length + 1;
+        } else {
+            int length = this.readShort(offset);
+
+            offset += 2;
+
+            if ((length & 0x8000) != 0) {
+                if (offset + 2 > dataEnd) {
+                    throw this.malformed("String " + index + " is out of the string data");
+                }
+
+                length = (length & 0x7FFF) << 16 | this.readShort(offset);
+                offset += 2;
+            }
+
+            end = offset + 2L * length + 2;
+        }
+
+        if (end > dataEnd) {
+            throw this.malformed("String " + index + " overruns the string data");
+        }
+    }
+
+    private void readResourceMap(
+            final int start,
+            final int chunkEnd
+    ) {
+        final int offset = start + this.readShort(start + 2);
+        final int[] ids = new int[(chunkEnd - offset) / 4];
+
+        for (int i = 0; i < ids.length; ++i) {
+            ids[i] = this.readInt(offset + i * 4);
+        }
+
+        this.resourceIds = ids;
+    }
+
+    private void readStartElement(
+            final int extension,
+            final int chunkEnd
+    ) throws XmlPullParserException {
+        this.checkExtension(extension, ELEMENT_EXTENSION_SIZE, chunkEnd);
+
+        final int count = this.readShort(extension + 12);
+        final int size = this.readShort(extension + 10);
+        final int offset = extension + this.readShort(extension + 8);
+
+        if (
+                count > 0
+                && (
+                        size < ATTRIBUTE_SIZE
+                        || offset + (long) count * size > chunkEnd
+                )
+        ) {
+            throw this.malformed("Invalid attributes");
+        }
+
+        this.namespaceIndex = this.checkString(this.readInt(extension));
+        this.nameIndex = this.checkName(this.readInt(extension + 4));
+        this.attributeOffset = offset;
+        this.attributeSize = size;
+        this.attributeCount = count;
+        this.idIndex = this.readShort(extension + 14);
+        this.classIndex = this.readShort(extension + 16);
+        this.styleIndex = this.readShort(extension + 18);
+
+        for (int i = 0; i < count; ++i) {
+            final int attribute = offset + i * size;
+
+            this.checkString(this.readInt(attribute + ATTRIBUTE_NAMESPACE));
+            this.checkName(this.readInt(attribute + ATTRIBUTE_NAME));
+            this.checkString(this.readInt(attribute + ATTRIBUTE_RAW_VALUE));
+
+            if (this.dataType(attribute) == TypedValue.TYPE_STRING) {
+                this.checkString(this.readInt(attribute + ATTRIBUTE_DATA));
+            }
+        }
+
+        if (
+                this.idIndex > count
+                || this.classIndex > count
+                || this.styleIndex > count
+        ) {
+            throw this.malformed("Invalid special attribute index");
+        }
+    }
+
+    private void pushNamespace(
+            final int prefix,
+            final int uri
+    ) {
+        final int total = this.namespaceTotal;
+
+        if (total == this.namespacePrefixes.length) {
+            this.namespacePrefixes = Arrays.copyOf(this.namespacePrefixes, total * 2);
+            this.namespaceUris = Arrays.copyOf(this.namespaceUris, total * 2);
+        }
+
+        this.namespacePrefixes[total] = prefix;
+        this.namespaceUris[total] = uri;
+        this.namespaceTotal = total + 1;
+    }
+
+    private @Nullable String prefixOf(final int namespace) {
+        if (namespace == NO_INDEX) {
+            return null;
+        }
+
+        for (int i = this.namespaceCounts[this.depth] - 1; i >= 0; --i) {
+            final int uri = this.namespaceUris[i];
+
+            if (
+                    uri == namespace
+                    || (
+                            uri != NO_INDEX
+                            && this.string(uri).equals(this.string(namespace))
+                    )
+            ) {
+                return this.string(this.namespacePrefixes[i]);
+            }
+        }
+
+        return null;
+    }
+
+    private @Nullable String rawValueOf(final int specialIndex) {
+        if (
+                this.eventType != START_TAG
+                || specialIndex == 0
+        ) {
+            return null;
+        }
+
+        return this.string(this.readInt(this.attribute(specialIndex - 1) + ATTRIBUTE_RAW_VALUE));
+    }
+
+    private int attribute(final int index) throws IndexOutOfBoundsException {
+        final int count = this.getAttributeCount();
+
+        if (
+                index < 0
+                || index >= count
+        ) {
+            throw new IndexOutOfBoundsException("Attribute index " + index + " is out of bounds for attribute count " + count);
+        }
+
+        return this.attributeOffset + index * this.attributeSize;
+    }
+
+    private int dataType(final int attribute) {
+        return this.buffer.get(attribute + ATTRIBUTE_DATA_TYPE) & 0xFF;
+    }
+
+    private int indexOf(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final String ns = namespace == null ? NO_NAMESPACE : namespace;
+        final int count = this.getAttributeCount();
+
+        for (int i = 0; i < count; ++i) {
+            if (
+                    name.equals(this.getAttributeName(i))
+                    && ns.equals(this.getAttributeNamespace(i))
+            ) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private boolean isElement() {
+        return this.eventType == START_TAG
+                || this.eventType == END_TAG;
+    }
+
+    /**
+     * Returns the string of the string pool at the given index, decoding it
+     * on first use
+     */
+    private @Nullable String string(final int index) {
+        if (index == NO_INDEX) {
+            return null;
+        }
+
+        String string = this.strings[index];
+
+        if (string == null) {
+            string = this.decode(this.stringData + this.readInt(this.stringOffsets + index * 4));
+            this.strings[index] = string;
+        }
+
+        return string;
+    }
+
+    /**
+     * Decodes the string at the given offset, whose bounds were checked when
+     * the string pool was read
+     */
+    private @NonNull String decode(final int start) {
+        final ByteBuffer buffer = this.buffer;
+        int offset = start;
+
+        if (this.isUtf8) {
+            // The length in UTF-16 code units precedes the length in bytes
+            offset += (buffer.get(offset) & 0x80) != 0 ? 2 : 1;
+
+            int length = buffer.get(offset++) & 0xFF;
+
+            if ((length & 0x80) != 0) {
+                length = (length & 0x7F) << 8 | buffer.get(offset++) & 0xFF;
+            }
+
+            if (buffer.hasArray()) {
+                return new String(buffer.array(), buffer.arrayOffset() + offset, length, StandardCharsets.UTF_8);
+            }
+
+            final byte[] bytes = new byte[length];
+
+            for (int i = 0; i < length; ++i) {
+                bytes[i] = buffer.get(offset + i);
+            }
+
+            return new String(bytes, StandardCharsets.UTF_8);
+        }
+
+        int length = this.readShort(offset);
+
+        offset += 2;
+
+        if ((length & 0x8000) != 0) {
+            length = (length & 0x7FFF) << 16 | this.readShort(offset);
+            offset += 2;
+        }
+
+        final char[] chars = new char[length];
+
+        for (int i = 0; i < length; ++i) {
+            chars[i] = buffer.getChar(offset + i * 2);
+        }
+
+        return new String(chars);
+    }
+
+    private int readShort(final int offset) {
+        return this.buffer.getShort(offset) & 0xFFFF;
+    }
+
+    private int readInt(final int offset) {
+        return this.buffer.getInt(offset);
+    }
+
+    /**
+     * Checks the header of the chunk at the given offset
+     *
+     * @return The end offset of the chunk
+     */
+    private int checkChunk(
+            final int start,
+            final int limit,
+            final int minHeaderSize
+    ) throws XmlPullParserException {
+        final int headerSize = this.readShort(start + 2);
+        final long size = this.readInt(start + 4) & 0xFFFFFFFFL;
+
+        if (
+                headerSize < minHeaderSize
+                || size < headerSize
+                || start + size > limit
+        ) {
+            throw this.malformed("Invalid chunk at offset " + start);
+        }
+
+        return start + (int) size;
+    }
+
+    private void checkExtension(
+            final int extension,
+            final int size,
+            final int chunkEnd
+    ) throws XmlPullParserException {
+        if (extension + size > chunkEnd) {
+            throw this.malformed("Truncated node");
+        }
+    }
+
+    private int checkString(final int index) throws XmlPullParserException {
+        if (
+                index != NO_INDEX
+                && (
+                        index < 0
+                        || index >= this.stringCount
+                )
+        ) {
+            throw this.malformed("String index " + index + " is out of bounds for string count " + this.stringCount);
+        }
+
+        return index;
+    }
+
+    private int checkName(final int index) throws XmlPullParserException {
+        if (index == NO_INDEX) {
+            throw this.malformed("Missing name");
+        }
+
+        return this.checkString(index);
+    }
+
+    private void checkNamespacePosition(final int pos) throws XmlPullParserException {
+        final int count = this.namespaceCounts[this.depth];
+
+        if (
+                pos < 0
+                || pos >= count
+        ) {
+            throw new XmlPullParserException("Namespace position " + pos + " is out of bounds for namespace count " + count, this, null);
+        }
+    }
+
+    private @NonNull XmlPullParserException malformed(final @NonNull String message) {
+        return new XmlPullParserException("Malformed binary XML: " + message, this, null);
+    }
+
+    private static boolean isInt(final int type) {
+        return type >= TypedValue.TYPE_FIRST_INT
+                && type <= TypedValue.TYPE_LAST_INT;
+    }
+
+    /**
+     * Converts a typed value without a raw string to a string, the same way
+     * as {@link TypedValue#coerceToString(int, int)}, which is not available
+     * off the device
+     */
+    private static @Nullable String coerceToString(
+            final int type,
+            final int data
+    ) {
+        switch (type) {
+            case TypedValue.TYPE_NULL:
+                return null;
+            case TypedValue.TYPE_REFERENCE:
+                return "@" + data;
+            case TypedValue.TYPE_ATTRIBUTE:
+                return "?" + data;
+            case TypedValue.TYPE_FLOAT:
+                return Float.toString(Float.intBitsToFloat(data));
+            case TypedValue.TYPE_DIMENSION: {
+                final int unit = data >> TypedValue.COMPLEX_UNIT_SHIFT & TypedValue.COMPLEX_UNIT_MASK;
+
+                return unit < DIMENSION_UNITS.length
+                       ? complexToFloat(data) + DIMENSION_UNITS[unit]
+                       : null;
+            }
+            case TypedValue.TYPE_FRACTION: {
+                final int unit = data >> TypedValue.COMPLEX_UNIT_SHIFT & TypedValue.COMPLEX_UNIT_MASK;
+
+                return unit < FRACTION_UNITS.length
+                       ? complexToFloat(data) * 100 + FRACTION_UNITS[unit]
+                       : null;
+            }
+            case TypedValue.TYPE_INT_HEX:
+                return "0x" + Integer.toHexString(data);
+            case TypedValue.TYPE_INT_BOOLEAN:
+                return data != 0 ? "true" : "false";
+            default:
+                break;
+        }
+
+        if (
+                type >= TypedValue.TYPE_FIRST_COLOR_INT
+                && type <= TypedValue.TYPE_LAST_COLOR_INT
+        ) {
+            return "#" + Integer.toHexString(data);
+        }
+
+        return isInt(type)
+               ? Integer.toString(data)
+               : null;
+    }
+
+    private static float complexToFloat(final int complex) {
+        return (complex & TypedValue.COMPLEX_MANTISSA_MASK << TypedValue.COMPLEX_MANTISSA_SHIFT)
+                * RADIX_MULTS[complex >> TypedValue.COMPLEX_RADIX_SHIFT & TypedValue.COMPLEX_RADIX_MASK];
+    }
+}
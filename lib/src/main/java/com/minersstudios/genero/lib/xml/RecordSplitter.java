@@ -0,0 +1,666 @@
+package com.minersstudios.genero.lib.xml;
+
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+
+import androidx.annotation.NonNull;
+
+import com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+
+/**
+ * Parses the records of a large document in parallel.
+ * <p>
+ * The records are the elements with a given name at a given depth, e.g. the
+ * product elements of a catalog. The document is read up to the first record
+ * to learn its ancestors and the namespaces in scope, then the rest of it is
+ * split into chunks at the byte patterns of the record start tags. Every
+ * chunk is parsed on the pool, record by record, with its own parser. The
+ * lines before every chunk are counted on the pool first, so the records
+ * report the same line and column numbers as in a sequential parse.
+ * <p>
+ * A split point may be wrong, e.g. when it is inside a comment or a nested
+ * element of the same name, so the split is speculative. The chunks are
+ * accepted only if every chunk ends exactly where the next one starts and
+ * the last one is followed by nothing but the end tags of the ancestors.
+ * Otherwise, and for documents that are too small to be worth splitting,
+ * the document is parsed sequentially.
+ * <p>
+ * The records are returned while the chunks are being parsed, the records
+ * of a chunk as soon as it and all the chunks before it are parsed and
+ * accepted. At most one more chunk than the parallelism of the pool is
+ * parsed or waiting to be consumed at a time, so a slow consumer holds back
+ * the parsing.
+ */
+@NotThreadSafe
+final class RecordSplitter implements Iterator<XmlSnapshot> {
+    private final ByteBuffer buffer;
+    private final int limit;
+    private final int depth;
+    private final String name;
+    private final ForkJoinPool pool;
+    private byte[] pattern;
+    private String[] ancestors;
+    private String[] prefixes;
+    private String[] uris;
+    private int firstLine;
+    private Chunk[] chunks;
+    private int nextChunk;
+    private int forkedChunks;
+    private Iterator<XmlSnapshot> current;
+    private int returned;
+    private boolean isClosed;
+
+    private static final int MIN_CHUNK_SIZE = 1 << 20;
+    private static final int CHUNKS_PER_THREAD = 4;
+    private static final byte[] COMMENT_START = utf8("<!--");
+    private static final byte[] COMMENT_END = utf8("-->");
+    private static final byte[] PI_START = utf8("<?");
+    private static final byte[] PI_END = utf8("?>");
+
+    RecordSplitter(
+            final @NonNull ByteBuffer buffer,
+            final int depth,
+            final @NonNull String name,
+            final @NonNull ForkJoinPool pool
+    ) {
+        this.buffer = buffer;
+        this.limit = buffer.limit();
+        this.depth = depth;
+        this.name = name;
+        this.pool = pool;
+    }
+
+    /**
+     * Reads the document up to the first record, splits the rest of it and
+     * starts parsing the first chunks on the pool
+     *
+     * @throws XmlPullParserException If the document is malformed before the
+     *                                first record
+     * @throws IOException            If the document could not be read
+     */
+    void start() throws XmlPullParserException, IOException {
+        final int first = this.readHeader();
+
+        if (first < 0) {
+            this.current = Collections.emptyIterator();
+
+            return;
+        }
+
+        final IntArrayList bounds = this.split(first);
+
+        if (
+                this.depth < 2
+                || bounds.size() < 3
+        ) {
+            this.current = new SequentialIterator(0);
+
+            return;
+        }
+
+        final int count = bounds.size() - 1;
+        final Chunk[] chunks = new Chunk[count];
+        final ForkJoinTask<?>[] lineCounts = new ForkJoinTask<?>[count];
+
+        for (int i = 0; i < count; ++i) {
+            final Chunk chunk = new Chunk(this, bounds.getInt(i), bounds.getInt(i + 1));
+
+            chunks[i] = chunk;
+            lineCounts[i] = ForkJoinTask.adapt(() -> chunk.lineCount = this.countLines(chunk.start, chunk.end));
+        }
+
+        this.pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(lineCounts)));
+
+        int line = this.firstLine;
+
+        for (final Chunk chunk : chunks) {
+            chunk.line = line;
+            line += chunk.lineCount;
+        }
+
+        this.chunks = chunks;
+        this.current = Collections.emptyIterator();
+
+        this.forkChunks();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (!this.current.hasNext()) {
+            if (
+                    this.chunks == null
+                    || this.nextChunk == this.chunks.length
+            ) {
+                return false;
+            }
+
+            this.current = this.takeChunk();
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns the next record, waiting for its chunk if it is not parsed yet
+     *
+     * @return The snapshot of the next record, in document order
+     * @throws NoSuchElementException If there are no more records
+     * @throws IllegalStateException  If the document is malformed
+     */
+    @Override
+    public @NonNull XmlSnapshot next() throws NoSuchElementException, IllegalStateException {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        this.returned++;
+
+        return this.current.next();
+    }
+
+    /**
+     * Stops forking new chunks.
+     * <p>
+     * The chunks that are already being parsed are completed in the
+     * background.
+     */
+    void close() {
+        this.isClosed = true;
+    }
+
+    /**
+     * Waits for the next chunk and returns its records if it tiles the
+     * records, otherwise the rest of the document is parsed sequentially.
+     * <p>
+     * A chunk can only be trusted once all the chunks before it are, since
+     * its start is a record start only if the previous chunk ended there. So,
+     * the chunks are consumed in document order, even if a later one is
+     * parsed first.
+     */
+    private @NonNull Iterator<XmlSnapshot> takeChunk() {
+        final Chunk[] chunks = this.chunks;
+        final int index = this.nextChunk;
+        final Chunk chunk = chunks[index];
+
+        chunk.join();
+
+        chunks[index] = null;
+        this.nextChunk++;
+
+        if (
+                chunk.failure != null
+                || (
+                        index < chunks.length - 1
+                        ? chunk.stop != chunk.end
+                        : !this.isTail(chunk.stop)
+                )
+        ) {
+            // The records that were already returned are parsed again, a
+            // wrong split is rare enough for that to not be worth avoiding
+            this.chunks = null;
+
+            return new SequentialIterator(this.returned);
+        }
+
+        this.forkChunks();
+
+        return chunk.records.iterator();
+    }
+
+    /**
+     * Forks the next chunks, so that at most one more chunk than the
+     * parallelism of the pool is parsed or waiting to be consumed
+     */
+    private void forkChunks() {
+        final Chunk[] chunks = this.chunks;
+        final int window = this.pool.getParallelism() + 1;
+
+        while (
+                !this.isClosed
+                && this.forkedChunks < chunks.length
+                && this.forkedChunks - this.nextChunk < window
+        ) {
+            this.pool.execute(chunks[this.forkedChunks++]);
+        }
+    }
+
+    /**
+     * Reads the document up to the start tag of the first record
+     *
+     * @return The offset of the first record or -1 if there are no records
+     */
+    private int readHeader() throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = newParser();
+        final List<String> ancestors = new ArrayList<>();
+
+        parser.setInput(this.buffer);
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            if (type != START_TAG) {
+                continue;
+            }
+
+            final int depth = parser.getDepth();
+
+            if (depth >= this.depth) {
+                if (
+                        depth == this.depth
+                        && this.name.equals(parser.getName())
+                ) {
+                    final int count = parser.getNamespaceCount(depth - 1);
+
+                    this.firstLine = parser.getLineNumber();
+                    this.pattern = utf8('<' + qualifiedName(parser));
+                    this.ancestors = ancestors.toArray(new String[0]);
+                    this.prefixes = new String[count];
+                    this.uris = new String[count];
+
+                    for (int i = 0; i < count; ++i) {
+                        this.prefixes[i] = parser.getNamespacePrefix(i);
+                        this.uris[i] = parser.getNamespaceUri(i);
+                    }
+
+                    return parser.getEventOffset();
+                }
+
+                continue;
+            }
+
+            ancestors.subList(depth - 1, ancestors.size()).clear();
+            ancestors.add(qualifiedName(parser));
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the offsets of the chunks, starting with the first record and
+     * ending with the end of the document
+     */
+    private @NonNull IntArrayList split(final int first) {
+        final long length = this.limit - first;
+        final int count = (int) Math.min(
+                (long) this.pool.getParallelism() * CHUNKS_PER_THREAD,
+                length / MIN_CHUNK_SIZE
+        );
+        final IntArrayList bounds = new IntArrayList(count + 1);
+
+        bounds.add(first);
+
+        for (int i = 1; i < count; ++i) {
+            final int from = Math.max(
+                    (int) (first + length * i / count),
+                    bounds.getInt(bounds.size() - 1) + 1
+            );
+            final int bound = this.indexOfRecord(from);
+
+            if (bound >= this.limit) {
+                break;
+            }
+
+            bounds.add(bound);
+        }
+
+        bounds.add(this.limit);
+
+        return bounds;
+    }
+
+    /**
+     * Parses the records of the given chunk, until the chunk ends or
+     * something other than a record or a comment follows a record
+     *
+     * @param line The line number of the start of the chunk
+     * @return The offset where the parse stopped
+     */
+    private int parseChunk(
+            final int start,
+            final int end,
+            final int line,
+            final @NonNull List<XmlSnapshot> records
+    ) throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = newParser();
+        final ByteBuffer buffer = this.buffer;
+        final ByteBuffer view = buffer.duplicate();
+        int position = start;
+        int lineNumber = line;
+        int lineStart = start;
+        int counted = start;
+
+        while (
+                lineStart > 0
+                && buffer.get(lineStart - 1) != '\n'
+        ) {
+            lineStart--;
+        }
+
+        while (
+                position < end
+                && this.isRecordStart(position)
+        ) {
+            for (; counted < position; ++counted) {
+                if (buffer.get(counted) == '\n') {
+                    lineNumber++;
+                    lineStart = counted + 1;
+                }
+            }
+
+            view.position(position);
+            parser.setInput(view);
+            parser.setStartPosition(lineNumber, position - lineStart + 1);
+
+            for (int i = 0; i < this.prefixes.length; ++i) {
+                parser.inheritNamespace(this.prefixes[i], this.uris[i]);
+            }
+
+            parser.next();
+            records.add(XmlSnapshot.recordElement(parser));
+
+            position = this.skipMisc(position + parser.getOffset());
+        }
+
+        return position;
+    }
+
+    /**
+     * Returns whether only the end tags of the ancestors, whitespace,
+     * comments and processing instructions follow the given offset
+     */
+    private boolean isTail(final int from) {
+        int position = from;
+
+        for (int i = this.ancestors.length - 1; i >= 0; --i) {
+            final byte[] endTag = utf8("</" + this.ancestors[i]);
+
+            position = this.skipMisc(position);
+
+            if (!this.startsWith(position, endTag)) {
+                return false;
+            }
+
+            position += endTag.length;
+
+            while (
+                    position < this.limit
+                    && isWhitespace(this.buffer.get(position))
+            ) {
+                position++;
+            }
+
+            if (
+                    position >= this.limit
+                    || this.buffer.get(position) != '>'
+            ) {
+                return false;
+            }
+
+            position++;
+        }
+
+        return this.skipMisc(position) == this.limit;
+    }
+
+    private int countLines(
+            final int from,
+            final int to
+    ) {
+        final ByteBuffer buffer = this.buffer;
+        int count = 0;
+
+        for (int i = from; i < to; ++i) {
+            if (buffer.get(i) == '\n') {
+                count++;
+            }
+        }
+
+        return count;
+    }
+
+    private int indexOfRecord(final int from) {
+        final ByteBuffer buffer = this.buffer;
+
+        for (int i = from; i < this.limit; ++i) {
+            if (
+                    buffer.get(i) == '<'
+                    && this.isRecordStart(i)
+            ) {
+                return i;
+            }
+        }
+
+        return this.limit;
+    }
+
+    private boolean isRecordStart(final int position) {
+        final int end = position + this.pattern.length;
+
+        if (
+                end >= this.limit
+                || !this.startsWith(position, this.pattern)
+        ) {
+            return false;
+        }
+
+        final byte b = this.buffer.get(end);
+
+        return isWhitespace(b)
+                || b == '>'
+                || b == '/';
+    }
+
+    /**
+     * Skips the whitespace, comments and processing instructions at the given
+     * offset
+     */
+    private int skipMisc(final int from) {
+        final ByteBuffer buffer = this.buffer;
+        int position = from;
+
+        while (position < this.limit) {
+            if (isWhitespace(buffer.get(position))) {
+                position++;
+            } else if (this.startsWith(position, COMMENT_START)) {
+                position = this.indexOf(COMMENT_END, position + COMMENT_START.length) + COMMENT_END.length;
+            } else if (this.startsWith(position, PI_START)) {
+                position = this.indexOf(PI_END, position + PI_START.length) + PI_END.length;
+            } else {
+                break;
+            }
+        }
+
+        return Math.min(position, this.limit);
+    }
+
+    private int indexOf(
+            final @NonNull byte[] pattern,
+            final int from
+    ) {
+        for (int i = from; i < this.limit; ++i) {
+            if (this.startsWith(i, pattern)) {
+                return i;
+            }
+        }
+
+        return this.limit;
+    }
+
+    private boolean startsWith(
+            final int position,
+            final @NonNull byte[] pattern
+    ) {
+        if (position + pattern.length > this.limit) {
+            return false;
+        }
+
+        for (int i = 0; i < pattern.length; ++i) {
+            if (this.buffer.get(position + i) != pattern[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static @NonNull Utf8PullParser newParser() throws XmlPullParserException {
+        final Utf8PullParser parser = new Utf8PullParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+
+        return parser;
+    }
+
+    private static @NonNull String qualifiedName(final @NonNull XmlPullParser parser) {
+        final String prefix = parser.getPrefix();
+
+        return prefix == null
+               ? parser.getName()
+               : prefix + ':' + parser.getName();
+    }
+
+    private static boolean isWhitespace(final byte b) {
+        return b == ' '
+                || b == '\n'
+                || b == '\t'
+                || b == '\r';
+    }
+
+    private static @NonNull byte[] utf8(final @NonNull String string) {
+        return string.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Parses the whole document sequentially, skipping the given number of
+     * records first
+     */
+    private final class SequentialIterator implements Iterator<XmlSnapshot> {
+        private final Utf8PullParser parser;
+        private int skipped;
+        private XmlSnapshot next;
+        private boolean isDone;
+
+        SequentialIterator(final int skipped) throws IllegalStateException {
+            try {
+                this.parser = newParser();
+            } catch (final XmlPullParserException e) {
+                throw new IllegalStateException("Failed to create a parser", e);
+            }
+
+            this.skipped = skipped;
+
+            this.parser.setInput(RecordSplitter.this.buffer);
+        }
+
+        @Override
+        public boolean hasNext() throws IllegalStateException {
+            if (
+                    this.next == null
+                    && !this.isDone
+            ) {
+                this.next = this.advance();
+                this.isDone = this.next == null;
+            }
+
+            return this.next != null;
+        }
+
+        @Override
+        public @NonNull XmlSnapshot next() throws NoSuchElementException, IllegalStateException {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final XmlSnapshot next = this.next;
+            this.next = null;
+
+            return next;
+        }
+
+        private XmlSnapshot advance() throws IllegalStateException {
+            final Utf8PullParser parser = this.parser;
+            final RecordSplitter splitter = RecordSplitter.this;
+
+            try {
+                for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+                    if (
+                            type == START_TAG
+                            && parser.getDepth() == splitter.depth
+                            && splitter.name.equals(parser.getName())
+                    ) {
+                        if (this.skipped == 0) {
+                            return XmlSnapshot.recordElement(parser);
+                        }
+
+                        this.skipped--;
+
+                        do {
+                            type = parser.next();
+                        } while (
+                                type != END_TAG
+                                || parser.getDepth() != splitter.depth
+                        );
+                    }
+                }
+            } catch (final XmlPullParserException | IOException e) {
+                throw new IllegalStateException("Failed to parse a record", e);
+            }
+
+            return null;
+        }
+    }
+
+    /**
+     * A speculative chunk of records
+     */
+    private static final class Chunk extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        final RecordSplitter splitter;
+        final int start;
+        final int end;
+        final List<XmlSnapshot> records;
+        int line;
+        int lineCount;
+        int stop;
+        Exception failure;
+
+        Chunk(
+                final @NonNull RecordSplitter splitter,
+                final int start,
+                final int end
+        ) {
+            this.splitter = splitter;
+            this.start = start;
+            this.end = end;
+            this.records = new ArrayList<>();
+        }
+
+        @Override
+        protected void compute() {
+            try {
+                this.stop = this.splitter.parseChunk(this.start, this.end, this.line, this.records);
+            } catch (final XmlPullParserException | IOException | RuntimeException e) {
+                this.failure = e;
+            }
+        }
+    }
+}
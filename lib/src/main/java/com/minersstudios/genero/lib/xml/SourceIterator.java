@@ -0,0 +1,175 @@
+package com.minersstudios.genero.lib.xml;
+
+import androidx.annotation.NonNull;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Parses the documents of many sources concurrently, while they are being
+ * consumed.
+ * <p>
+ * At most the given number of sources are parsed or waiting to be consumed
+ * at any time, a new source is submitted to the executor only when a result
+ * is consumed. So, a slow consumer holds back the parsing instead of having
+ * the results pile up in memory.
+ */
+@NotThreadSafe
+final class SourceIterator<R> implements Iterator<R> {
+    private final Iterator<? extends XmlSource> sources;
+    private final Executor executor;
+    private final XmlSource.Mapper<? extends R> mapper;
+    private final int parallelism;
+    private final boolean ordered;
+    private final ArrayDeque<CompletableFuture<R>> pending;
+    private final BlockingQueue<CompletableFuture<R>> completed;
+    private int running;
+    private boolean isClosed;
+
+    SourceIterator(
+            final @NonNull Iterator<? extends XmlSource> sources,
+            final @NonNull Executor executor,
+            final @NonNull XmlSource.Mapper<? extends R> mapper,
+            final int parallelism,
+            final boolean ordered
+    ) {
+        this.sources = sources;
+        this.executor = executor;
+        this.mapper = mapper;
+        this.parallelism = parallelism;
+        this.ordered = ordered;
+        this.pending = new ArrayDeque<>(parallelism);
+        this.completed = new LinkedBlockingQueue<>();
+    }
+
+    @Override
+    public boolean hasNext() {
+        while (
+                !this.isClosed
+                && this.running < this.parallelism
+                && this.sources.hasNext()
+        ) {
+            this.submit(this.sources.next());
+        }
+
+        return this.running > 0;
+    }
+
+    /**
+     * Returns the result of the next source, waiting for it if it is not
+     * parsed yet
+     *
+     * @return The result of the next source, in the order of the sources if
+     *         the iterator is ordered, or in the order of completion otherwise
+     * @throws NoSuchElementException If there are no more sources
+     * @throws IllegalStateException  If the source could not be parsed or the
+     *                                thread was interrupted
+     */
+    @Override
+    public @NonNull R next() throws NoSuchElementException, IllegalStateException {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final CompletableFuture<R> future;
+
+        try {
+            future = this.ordered ? this.pending.remove() : this.completed.take();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while waiting for a source", e);
+        }
+
+        this.running--;
+
+        try {
+            return future.get();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+
+            throw new IllegalStateException("Interrupted while waiting for a source", e);
+        } catch (final ExecutionException e) {
+            throw new IllegalStateException("Failed to parse a source", e.getCause());
+        }
+    }
+
+    /**
+     * Stops submitting new sources.
+     * <p>
+     * The sources that are already being parsed are completed in the
+     * background, and their parsers are closed as usual.
+     */
+    void close() {
+        this.isClosed = true;
+    }
+
+    private void submit(final @NonNull XmlSource source) {
+        final XmlSource.Mapper<? extends R> mapper = this.mapper;
+        final CompletableFuture<R> future = new CompletableFuture<>();
+
+        this.executor.execute(
+                () -> {
+                    try {
+                        future.complete(parse(source, mapper));
+                    } catch (final Throwable e) {
+                        future.completeExceptionally(e);
+                    }
+                }
+        );
+
+        this.running++;
+
+        if (this.ordered) {
+            this.pending.add(future);
+        } else {
+            future.whenComplete((result, failure) -> this.completed.add(future));
+        }
+    }
+
+    /**
+     * Opens, parses and closes the parser of the given source.
+     * <p>
+     * The parser is closed even if the parse fails, a failure to close it is
+     * then added to the failure of the parse.
+     */
+    private static <R> @NonNull R parse(
+            final @NonNull XmlSource source,
+            final @NonNull XmlSource.Mapper<? extends R> mapper
+    ) throws IOException, XmlPullParserException {
+        final XmlPullParser parser = source.open();
+        final R result;
+
+        try {
+            result = mapper.map(parser);
+        } catch (final Throwable e) {
+            try {
+                source.close(parser);
+            } catch (final Throwable suppressed) {
+                e.addSuppressed(suppressed);
+            }
+
+            throw e;
+        }
+
+        source.close(parser);
+
+        if (result == null) {
+            throw new NullPointerException("Mapper returned null");
+        }
+
+        return result;
+    }
+}
@@ -0,0 +1,261 @@
+package com.minersstudios.genero.lib.xml;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A per-parse table of element and attribute names.
+ * <p>
+ * Every distinct pair of namespace and name is mapped to a small int id.
+ * Ids are assigned sequentially, starting from {@code 0}, in the order the
+ * names are interned. So, a schema can intern its known names once into a
+ * template table and {@link #copy() copy} it for every parse, after which
+ * matching a tag or an attribute against the schema costs a single int
+ * compare.
+ *
+ * <pre>{@code
+ * private static final SymbolTable SCHEMA = new SymbolTable();
+ * private static final int ITEM = SCHEMA.intern("", "item");
+ *
+ * XmlParser.parseResource(parser, SCHEMA.copy())
+ *          .map(XmlTag::asStartTag)
+ *          .filter(tag -> tag != null && tag.getNameId() == ITEM)
+ *          ...
+ * }</pre>
+ * <p>
+ * Ids are comparable only between tags and attributes that share the same
+ * table (or copies of the same template).
+ * <p>
+ * <b>NOTE:</b> The table is not thread-safe, it is meant to be used by a
+ *              single parse at a time.
+ */
+@NotThreadSafe
+public final class SymbolTable {
+    private String[] namespaces;
+    private String[] names;
+    private int[] hashes;
+    private int[] slots;
+    private int size;
+
+    /**
+     * The id returned for names that are not bound to any symbol table
+     */
+    public static final int NO_SYMBOL = -1;
+
+    private static final int DEFAULT_CAPACITY = 16;
+
+    /**
+     * Creates a new empty symbol table
+     */
+    public SymbolTable() {
+        this.namespaces = new String[DEFAULT_CAPACITY];
+        this.names = new String[DEFAULT_CAPACITY];
+        this.hashes = new int[DEFAULT_CAPACITY];
+        this.slots = new int[DEFAULT_CAPACITY * 2];
+
+        Arrays.fill(this.slots, NO_SYMBOL);
+    }
+
+    private SymbolTable(final @NonNull SymbolTable template) {
+        this.namespaces = template.namespaces.clone();
+        this.names = template.names.clone();
+        this.hashes = template.hashes.clone();
+        this.slots = template.slots.clone();
+        this.size = template.size;
+    }
+
+    /**
+     * Returns the number of interned names
+     *
+     * @return The number of interned names
+     */
+    public int size() {
+        return this.size;
+    }
+
+    /**
+     * Returns the id of the given namespace and name, interning them if they
+     * are not present yet
+     *
+     * @param namespace The namespace, null is treated as an empty string
+     * @param name      The local name
+     * @return The id of the given namespace and name
+     */
+    public int intern(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final String ns = namespace == null ? "" : namespace;
+        final int hash = hash(ns, name);
+        final int mask = this.slots.length - 1;
+
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            final int id = this.slots[slot];
+
+            if (id == NO_SYMBOL) {
+                return this.add(slot, ns, name, hash);
+            }
+
+            if (
+                    this.hashes[id] == hash
+                    && equals(this.names[id], name)
+                    && equals(this.namespaces[id], ns)
+            ) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Returns the id of the given namespace and name without interning them
+     *
+     * @param namespace The namespace, null is treated as an empty string
+     * @param name      The local name
+     * @return The id of the given namespace and name or {@link #NO_SYMBOL} if
+     *         they are not interned
+     */
+    public int lookup(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final String ns = namespace == null ? "" : namespace;
+        final int hash = hash(ns, name);
+        final int mask = this.slots.length - 1;
+
+        for (int slot = hash & mask;; slot = (slot + 1) & mask) {
+            final int id = this.slots[slot];
+
+            if (
+                    id == NO_SYMBOL
+                    || (
+                            this.hashes[id] == hash
+                            && equals(this.names[id], name)
+                            && equals(this.namespaces[id], ns)
+                    )
+            ) {
+                return id;
+            }
+        }
+    }
+
+    /**
+     * Returns the namespace of the given id
+     *
+     * @param id The id of the name
+     * @return The namespace of the given id
+     * @throws IndexOutOfBoundsException If the id is not present in the table
+     */
+    public @NonNull String getNamespace(final int id) throws IndexOutOfBoundsException {
+        this.checkId(id);
+
+        return this.namespaces[id];
+    }
+
+    /**
+     * Returns the local name of the given id
+     *
+     * @param id The id of the name
+     * @return The local name of the given id
+     * @throws IndexOutOfBoundsException If the id is not present in the table
+     */
+    public @NonNull String getName(final int id) throws IndexOutOfBoundsException {
+        this.checkId(id);
+
+        return this.names[id];
+    }
+
+    /**
+     * Returns a copy of this table with the same ids.
+     * <p>
+     * Names interned into the copy do not affect this table and vice versa.
+     *
+     * @return A copy of this table
+     */
+    @Contract(" -> new")
+    public @NonNull SymbolTable copy() {
+        return new SymbolTable(this);
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "SymbolTable{size=" + this.size + '}';
+    }
+
+    private int add(
+            final int slot,
+            final @NonNull String namespace,
+            final @NonNull String name,
+            final int hash
+    ) {
+        final int id = this.size++;
+
+        if (id == this.names.length) {
+            final int capacity = id * 2;
+
+            this.namespaces = Arrays.copyOf(this.namespaces, capacity);
+            this.names = Arrays.copyOf(this.names, capacity);
+            this.hashes = Arrays.copyOf(this.hashes, capacity);
+        }
+
+        this.namespaces[id] = namespace;
+        this.names[id] = name;
+        this.hashes[id] = hash;
+        this.slots[slot] = id;
+
+        if (this.size * 2 > this.slots.length) {
+            this.rehash(this.slots.length * 2);
+        }
+
+        return id;
+    }
+
+    private void rehash(final int capacity) {
+        final int[] slots = new int[capacity];
+        final int mask = capacity - 1;
+
+        Arrays.fill(slots, NO_SYMBOL);
+
+        for (int id = 0; id < this.size; ++id) {
+            int slot = this.hashes[id] & mask;
+
+            while (slots[slot] != NO_SYMBOL) {
+                slot = (slot + 1) & mask;
+            }
+
+            slots[slot] = id;
+        }
+
+        this.slots = slots;
+    }
+
+    private void checkId(final int id) throws IndexOutOfBoundsException {
+        if (
+                id < 0
+                || id >= this.size
+        ) {
+            throw new IndexOutOfBoundsException("Id " + id + " is out of bounds for symbol count " + this.size);
+        }
+    }
+
+    private static int hash(
+            final @NonNull String namespace,
+            final @NonNull String name
+    ) {
+        final int hash = namespace.hashCode() * 31 + name.hashCode();
+
+        return hash ^ (hash >>> 16);
+    }
+
+    private static boolean equals(
+            final @NonNull String first,
+            final @NonNull String second
+    ) {
+        return first == second || first.equals(second);
+    }
+}
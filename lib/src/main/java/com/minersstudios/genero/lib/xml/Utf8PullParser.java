@@ -0,0 +1,2413 @@
+package com.minersstudios.genero.lib.xml;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Reader;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A non-validating {@link XmlPullParser} that tokenizes UTF-8 input directly
+ * from a {@code byte[]} or a {@link ByteBuffer}.
+ * <p>
+ * The parser only records where the names, attribute values and text of an
+ * event are in the input, and decodes them when they are requested. Names
+ * are decoded once and shared through a per-parser name table, so the names
+ * of a document with repeating elements allocate nothing after the first
+ * occurrence. Text is scanned a word at a time for the next markup
+ * delimiter.
+ * <p>
+ * It can be used everywhere a pull parser is expected, for example with
+ * {@link XmlParser#parsePull(XmlPullParser)}:
+ * <pre>{@code
+ * final Utf8PullParser parser = new Utf8PullParser();
+ *
+ * parser.setInput(bytes);
+ *
+ * try (final Stream<XmlTag> tags = XmlParser.parsePull(parser)) {
+ *     ...
+ * }
+ * }</pre>
+ * <p>
+ * <b>NOTE:</b> The parser differs from a full XML 1.0 parser in a few ways:
+ *              <ul>
+ *                  <li>Only UTF-8 input is supported</li>
+ *                  <li>
+ *                      The document type declaration is skipped, so only the
+ *                      predefined entities, character references and the
+ *                      entities defined with
+ *                      {@link #defineEntityReplacementText(String, String)}
+ *                      are replaced
+ *                  </li>
+ *                  <li>
+ *                      Unknown entity references are kept as they are and
+ *                      {@link #nextToken()} never reports
+ *                      {@link #ENTITY_REF} events
+ *                  </li>
+ *                  <li>Duplicate attributes are not detected</li>
+ *                  <li>
+ *                      Line and column numbers point to the start of the
+ *                      current event, and columns are counted in bytes
+ *                  </li>
+ *              </ul>
+ */
+@NotThreadSafe
+public final class Utf8PullParser implements XmlPullParser {
+    private ByteBuffer buffer;
+    private int limit;
+    private int position;
+    private boolean processNamespaces;
+    private Map<String, String> entities;
+
+    private int eventType;
+    private int depth;
+    private int tokenStart;
+    private boolean isEmptyElementTag;
+    private boolean hasRoot;
+
+    private int[] elementStarts;
+    private int[] elementEnds;
+    private String[] elementNames;
+    private String[] elementPrefixes;
+    private String[] elementNamespaces;
+
+    private int[] namespaceCounts;
+    private String[] namespacePrefixes;
+    private String[] namespaceUris;
+
+    private int attributeCount;
+    private int[] attributeNameStarts;
+    private int[] attributeNameEnds;
+    private int[] attributeValueStarts;
+    private int[] attributeValueEnds;
+    private String[] attributeNames;
+    private String[] attributePrefixes;
+    private String[] attributeNamespaces;
+    private String[] attributeValues;
+
+    private int textStart;
+    private int textEnd;
+    private int textMode;
+    private boolean isTextBuffered;
+    private String text;
+    private final Chars textChars;
+    private final Chars scratch;
+
+    private String[] names;
+    private byte[][] nameBytes;
+    private int nameCount;
+
+    private int lineCursor;
+    private int lineNumber;
+    private int lineStart;
+    private int firstLineNumber;
+    private int firstLineStart;
+
+    private byte[] window;
+    private boolean isBomPending;
+
+    private static final String UTF_8 = "UTF-8";
+    private static final String NO_NAMESPACE = "";
+    private static final String XML_PREFIX = "xml";
+    private static final String XMLNS_PREFIX = "xmlns";
+    private static final String XML_NAMESPACE = "http://www.w3.org/XML/1998/namespace";
+    private static final String XMLNS_NAMESPACE = "http://www.w3.org/2000/xmlns/";
+    private static final String CDATA = "CDATA";
+
+    private static final int SKIP = -1;
+    private static final int INITIAL_DEPTH = 16;
+    private static final int INITIAL_ATTRIBUTES = 8;
+    private static final int INITIAL_NAMES = 256;
+    private static final int MAX_NAMES = 4096;
+    private static final int MAX_ENTITY_LENGTH = 64;
+    private static final int INITIAL_WINDOW = 8192;
+
+    // Decoding modes, text replaces entities, attribute values additionally
+    // normalize whitespace and raw content only normalizes line breaks
+    private static final int MODE_RAW = 0;
+    private static final int MODE_TEXT = 1;
+    private static final int MODE_ATTRIBUTE = 2;
+
+    private static final long ONES = 0x0101010101010101L;
+    private static final long HIGHS = 0x8080808080808080L;
+
+    private static final byte[] COMMENT_START = ascii("<!--");
+    private static final byte[] COMMENT_END = ascii("-->");
+    private static final byte[] CDATA_START = ascii("<![CDATA[");
+    private static final byte[] CDATA_END = ascii("]]>");
+    private static final byte[] DOCTYPE_START = ascii("<!DOCTYPE");
+    private static final byte[] PI_END = ascii("?>");
+    private static final byte[] XML_DECLARATION = ascii("<?xml");
+    private static final byte[] XMLNS_BYTES = ascii(XMLNS_PREFIX);
+
+    /**
+     * Creates a new parser without input.
+     * <p>
+     * Use one of the {@code setInput} methods before parsing.
+     */
+    public Utf8PullParser() {
+        this.elementStarts = new int[INITIAL_DEPTH];
+        this.elementEnds = new int[INITIAL_DEPTH];
+        this.elementNames = new String[INITIAL_DEPTH];
+        this.elementPrefixes = new String[INITIAL_DEPTH];
+        this.elementNamespaces = new String[INITIAL_DEPTH];
+        this.namespaceCounts = new int[INITIAL_DEPTH];
+        this.namespacePrefixes = new String[INITIAL_ATTRIBUTES];
+        this.namespaceUris = new String[INITIAL_ATTRIBUTES];
+        this.attributeNameStarts = new int[INITIAL_ATTRIBUTES];
+        this.attributeNameEnds = new int[INITIAL_ATTRIBUTES];
+        this.attributeValueStarts = new int[INITIAL_ATTRIBUTES];
+        this.attributeValueEnds = new int[INITIAL_ATTRIBUTES];
+        this.attributeNames = new String[INITIAL_ATTRIBUTES];
+        this.attributePrefixes = new String[INITIAL_ATTRIBUTES];
+        this.attributeNamespaces = new String[INITIAL_ATTRIBUTES];
+        this.attributeValues = new String[INITIAL_ATTRIBUTES];
+        this.textChars = new Chars();
+        this.scratch = new Chars();
+        this.names = new String[INITIAL_NAMES];
+        this.nameBytes = new byte[INITIAL_NAMES][];
+    }
+
+    /**
+     * Sets the input of the parser to the given UTF-8 bytes.
+     * <p>
+     * The array is not copied, so it must not be modified while it is
+     * parsed.
+     *
+     * @param bytes The bytes to parse
+     */
+    public void setInput(final @NonNull byte[] bytes) {
+        this.setInput(bytes, 0, bytes.length);
+    }
+
+    /**
+     * Sets the input of the parser to the given range of UTF-8 bytes.
+     * <p>
+     * The array is not copied, so it must not be modified while it is
+     * parsed.
+     *
+     * @param bytes  The bytes to parse
+     * @param offset The offset of the first byte to parse
+     * @param length The number of bytes to parse
+     * @throws IndexOutOfBoundsException If the range is out of bounds
+     */
+    public void setInput(
+            final @NonNull byte[] bytes,
+            final int offset,
+            final int length
+    ) throws IndexOutOfBoundsException {
+        this.setInput(ByteBuffer.wrap(bytes, offset, length));
+    }
+
+    /**
+     * Sets the input of the parser to the remaining UTF-8 bytes of the given
+     * buffer.
+     * <p>
+     * The buffer is read with absolute gets, so its position and limit are
+     * left as they are. Direct and memory-mapped buffers are read in place.
+     *
+     * @param buffer The buffer to parse
+     */
+    public void setInput(final @NonNull ByteBuffer buffer) {
+        final ByteBuffer slice = buffer.slice();
+
+        slice.order(ByteOrder.LITTLE_ENDIAN);
+
+        this.buffer = slice;
+        this.window = null;
+        this.limit = slice.limit();
+        this.position = 0;
+        this.reset();
+
+        // Byte order mark
+        if (
+                this.limit >= 3
+                && slice.get(0) == (byte) 0xEF
+                && slice.get(1) == (byte) 0xBB
+                && slice.get(2) == (byte) 0xBF
+        ) {
+            this.position = 3;
+        }
+    }
+
+    @Override
+    public void setInput(final @Nullable Reader in) throws XmlPullParserException {
+        if (in == null) {
+            this.buffer = null;
+            this.window = null;
+            this.limit = 0;
+            this.position = 0;
+            this.reset();
+
+            return;
+        }
+
+        final StringBuilder builder = new StringBuilder();
+        final char[] chunk = new char[8192];
+
+        try {
+            int read;
+
+            while ((read = in.read(chunk)) != -1) {
+                builder.append(chunk, 0, read);
+            }
+        } catch (final IOException e) {
+            throw new XmlPullParserException("Failed to read the input", this, e);
+        }
+
+        this.setInput(builder.toString().getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void setInput(
+            final @Nullable InputStream inputStream,
+            final @Nullable String inputEncoding
+    ) throws XmlPullParserException {
+        if (inputStream == null) {
+            throw new IllegalArgumentException("Input stream must not be null");
+        }
+
+        if (
+                inputEncoding != null
+                && !UTF_8.equalsIgnoreCase(inputEncoding)
+                && !"UTF8".equalsIgnoreCase(inputEncoding)
+        ) {
+            throw new XmlPullParserException("Unsupported encoding: " + inputEncoding, this, null);
+        }
+
+        final ByteArrayOutputStream out = new ByteArrayOutputStream(8192);
+        final byte[] chunk = new byte[8192];
+
+        try {
+            int read;
+
+            while ((read = inputStream.read(chunk)) != -1) {
+                out.write(chunk, 0, read);
+            }
+        } catch (final IOException e) {
+            throw new XmlPullParserException("Failed to read the input", this, e);
+        }
+
+        this.setInput(out.toByteArray());
+    }
+
+    @Override
+    public @Nullable String getInputEncoding() {
+        return this.buffer == null ? null : UTF_8;
+    }
+
+    @Override
+    public void setFeature(
+            final @NonNull String name,
+            final boolean state
+    ) throws XmlPullParserException {
+        if (FEATURE_PROCESS_NAMESPACES.equals(name)) {
+            if (this.eventType != START_DOCUMENT) {
+                throw new XmlPullParserException("Features can only be set before parsing", this, null);
+            }
+
+            this.processNamespaces = state;
+
+            return;
+        }
+
+        if (
+                state
+                || (
+                        !FEATURE_PROCESS_DOCDECL.equals(name)
+                        && !FEATURE_VALIDATION.equals(name)
+                        && !FEATURE_REPORT_NAMESPACE_ATTRIBUTES.equals(name)
+                )
+        ) {
+            throw new XmlPullParserException("Unsupported feature: " + name, this, null);
+        }
+    }
+
+    @Override
+    public boolean getFeature(final @NonNull String name) {
+        return FEATURE_PROCESS_NAMESPACES.equals(name) && this.processNamespaces;
+    }
+
+    @Override
+    public void setProperty(
+            final @NonNull String name,
+            final @Nullable Object value
+    ) throws XmlPullParserException {
+        throw new XmlPullParserException("Unsupported property: " + name, this, null);
+    }
+
+    @Override
+    public @Nullable Object getProperty(final @NonNull String name) {
+        return null;
+    }
+
+    @Override
+    public void defineEntityReplacementText(
+            final @NonNull String entityName,
+            final @NonNull String replacementText
+    ) {
+        if (this.entities == null) {
+            this.entities = new HashMap<>();
+        }
+
+        this.entities.put(entityName, replacementText);
+    }
+
+    @Override
+    public int getNamespaceCount(final int depth) throws XmlPullParserException {
+        if (
+                depth < 0
+                || depth > this.depth
+        ) {
+            throw new XmlPullParserException("Depth " + depth + " is out of bounds for depth " + this.depth, this, null);
+        }
+
+        return this.processNamespaces ? this.namespaceCounts[depth] : 0;
+    }
+
+    @Override
+    public @Nullable String getNamespacePrefix(final int pos) throws XmlPullParserException {
+        this.checkNamespacePosition(pos);
+
+        return this.namespacePrefixes[pos];
+    }
+
+    @Override
+    public @NonNull String getNamespaceUri(final int pos) throws XmlPullParserException {
+        this.checkNamespacePosition(pos);
+
+        return this.namespaceUris[pos];
+    }
+
+    @Override
+    public @Nullable String getNamespace(final @Nullable String prefix) {
+        if (XML_PREFIX.equals(prefix)) {
+            return XML_NAMESPACE;
+        }
+
+        if (XMLNS_PREFIX.equals(prefix)) {
+            return XMLNS_NAMESPACE;
+        }
+
+        if (!this.processNamespaces) {
+            return null;
+        }
+
+        for (int i = this.namespaceCounts[this.depth] - 1; i >= 0; --i) {
+            final String namespacePrefix = this.namespacePrefixes[i];
+
+            if (
+                    prefix == null
+                    ? namespacePrefix == null
+                    : prefix.equals(namespacePrefix)
+            ) {
+                return this.namespaceUris[i];
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public int getDepth() {
+        return this.depth;
+    }
+
+    @Override
+    public @NonNull String getPositionDescription() {
+        final StringBuilder builder = new StringBuilder(TYPES[this.eventType]);
+
+        if (
+                this.isElement()
+                && this.depth > 0
+        ) {
+            builder.append(" <").append(this.getName()).append('>');
+        }
+
+        return builder
+                .append(" @")
+                .append(this.getLineNumber())
+                .append(':')
+                .append(this.getColumnNumber())
+                .toString();
+    }
+
+    @Override
+    public int getLineNumber() {
+        this.countLines();
+
+        return this.lineNumber;
+    }
+
+    @Override
+    public int getColumnNumber() {
+        this.countLines();
+
+        return this.tokenStart - this.lineStart + 1;
+    }
+
+    @Override
+    public boolean isWhitespace() throws XmlPullParserException {
+        if (
+                this.eventType != TEXT
+                && this.eventType != CDSECT
+                && this.eventType != IGNORABLE_WHITESPACE
+        ) {
+            throw new XmlPullParserException("Not a text event", this, null);
+        }
+
+        if (!this.isTextBuffered) {
+            for (int i = this.textStart; i < this.textEnd; ++i) {
+                final byte b = this.buffer.get(i);
+
+                if (b == '&') {
+                    // An entity could be whitespace, so decode the text
+                    this.bufferText();
+
+                    break;
+                }
+
+                if (!isWhitespace(b)) {
+                    return false;
+                }
+            }
+
+            if (!this.isTextBuffered) {
+                return true;
+            }
+        }
+
+        final char[] chars = this.textChars.value;
+
+        for (int i = 0, length = this.textChars.length; i < length; ++i) {
+            if (!isWhitespace(chars[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    @Override
+    public @Nullable String getText() {
+        if (!this.isText()) {
+            return null;
+        }
+
+        if (this.text == null) {
+            this.bufferText();
+
+            this.text = this.textChars.toString();
+        }
+
+        return this.text;
+    }
+
+    @Override
+    public @Nullable char[] getTextCharacters(final @NonNull int[] holderForStartAndLength) {
+        if (!this.isText()) {
+            holderForStartAndLength[0] = -1;
+            holderForStartAndLength[1] = -1;
+
+            return null;
+        }
+
+        this.bufferText();
+
+        holderForStartAndLength[0] = 0;
+        holderForStartAndLength[1] = this.textChars.length;
+
+        return this.textChars.value;
+    }
+
+    @Override
+    public @Nullable String getNamespace() {
+        if (!this.isElement()) {
+            return null;
+        }
+
+        return this.processNamespaces
+               ? this.elementNamespaces[this.depth]
+               : NO_NAMESPACE;
+    }
+
+    @Override
+    public @Nullable String getName() {
+        if (!this.isElement()) {
+            return null;
+        }
+
+        final int depth = this.depth;
+        String name = this.elementNames[depth];
+
+        if (name == null) {
+            this.elementNames[depth] = name = this.name(this.elementStarts[depth], this.elementEnds[depth]);
+        }
+
+        return name;
+    }
+
+    @Override
+    public @Nullable String getPrefix() {
+        return this.isElement() && this.processNamespaces
+               ? this.elementPrefixes[this.depth]
+               : null;
+    }
+
+    @Override
+    public boolean isEmptyElementTag() throws XmlPullParserException {
+        if (this.eventType != START_TAG) {
+            throw new XmlPullParserException("Parser must be on START_TAG to check for empty element", this, null);
+        }
+
+        return this.isEmptyElementTag;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return this.eventType == START_TAG ? this.attributeCount : -1;
+    }
+
+    @Override
+    public @NonNull String getAttributeNamespace(final int index) throws IndexOutOfBoundsException {
+        this.checkAttributeIndex(index);
+
+        return this.processNamespaces
+               ? this.attributeNamespaces[index]
+               : NO_NAMESPACE;
+    }
+
+    @Override
+    public @NonNull String getAttributeName(final int index) throws IndexOutOfBoundsException {
+        this.checkAttributeIndex(index);
+
+        return this.attributeName(index);
+    }
+
+    @Override
+    public @Nullable String getAttributePrefix(final int index) throws IndexOutOfBoundsException {
+        this.checkAttributeIndex(index);
+
+        return this.processNamespaces
+               ? this.attributePrefixes[index]
+               : null;
+    }
+
+    @Override
+    public @NonNull String getAttributeType(final int index) throws IndexOutOfBoundsException {
+        this.checkAttributeIndex(index);
+
+        return CDATA;
+    }
+
+    @Override
+    public boolean isAttributeDefault(final int index) throws IndexOutOfBoundsException {
+        this.checkAttributeIndex(index);
+
+        return false;
+    }
+
+    @Override
+    public @NonNull String getAttributeValue(final int index) throws IndexOutOfBoundsException {
+        this.checkAttributeIndex(index);
+
+        return this.attributeValue(index);
+    }
+
+    @Override
+    public @Nullable String getAttributeValue(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        for (int i = 0; i < this.getAttributeCount(); ++i) {
+            if (
+                    name.equals(this.attributeName(i))
+                    && (
+                            namespace == null
+                            || namespace.equals(this.processNamespaces ? this.attributeNamespaces[i] : NO_NAMESPACE)
+                    )
+            ) {
+                return this.attributeValue(i);
+            }
+        }
+
+        return null;
+    }
+
+    @Override
+    public int getEventType() {
+        return this.eventType;
+    }
+
+    @Override
+    public int next() throws XmlPullParserException {
+        return this.advance(false);
+    }
+
+    @Override
+    public int nextToken() throws XmlPullParserException {
+        return this.advance(true);
+    }
+
+    @Override
+    public void require(
+            final int type,
+            final @Nullable String namespace,
+            final @Nullable String name
+    ) throws XmlPullParserException {
+        if (
+                type != this.eventType
+                || (
+                        namespace != null
+                        && !namespace.equals(this.getNamespace())
+                )
+                || (
+                        name != null
+                        && !name.equals(this.getName())
+                )
+        ) {
+            throw new XmlPullParserException(
+                    "Expected " + TYPES[type] + " but found " + TYPES[this.eventType],
+                    this,
+                    null
+            );
+        }
+    }
+
+    @Override
+    public @NonNull String nextText() throws XmlPullParserException {
+        if (this.eventType != START_TAG) {
+            throw new XmlPullParserException("Parser must be on START_TAG to read next text", this, null);
+        }
+
+        int type = this.next();
+
+        if (type == TEXT) {
+            final String text = this.getText();
+
+            type = this.next();
+
+            if (type != END_TAG) {
+                throw new XmlPullParserException("Event TEXT must be immediately followed by END_TAG", this, null);
+            }
+
+            return text == null ? "" : text;
+        }
+
+        if (type == END_TAG) {
+            return "";
+        }
+
+        throw new XmlPullParserException("Parser must be on START_TAG or TEXT to read text", this, null);
+    }
+
+    @Override
+    public int nextTag() throws XmlPullParserException {
+        int type = this.next();
+
+        if (
+                type == TEXT
+                && this.isWhitespace()
+        ) {
+            type = this.next();
+        }
+
+        if (
+                type != START_TAG
+                && type != END_TAG
+        ) {
+            throw new XmlPullParserException("Expected start or end tag", this, null);
+        }
+
+        return type;
+    }
+
+    /**
+     * Returns the offset of the first byte of the current event in the input
+     *
+     * @return The offset of the current event
+     */
+    int getEventOffset() {
+        return this.tokenStart;
+    }
+
+    /**
+     * Returns the offset of the first byte after the current event in the
+     * input
+     *
+     * @return The offset of the end of the current event
+     */
+    int getOffset() {
+        return this.position;
+    }
+
+    /**
+     * Declares a namespace that is in scope for the whole input, as if it was
+     * declared by an ancestor of the root element.
+     * <p>
+     * Used to parse a fragment of a larger document, must be called after
+     * the input is set.
+     *
+     * @param prefix The prefix, or null for the default namespace
+     * @param uri    The namespace URI
+     */
+    void inheritNamespace(
+            final @Nullable String prefix,
+            final @NonNull String uri
+    ) {
+        this.declareNamespace(0, prefix, uri);
+    }
+
+    /**
+     * Sets the position of the start of the input in a larger document, so
+     * the line and column numbers are reported as in that document.
+     * <p>
+     * Used to parse a fragment of a larger document, must be called after
+     * the input is set.
+     *
+     * @param lineNumber   The line number of the first byte of the input
+     * @param columnNumber The column number of the first byte of the input
+     */
+    void setStartPosition(
+            final int lineNumber,
+            final int columnNumber
+    ) {
+        // A negative line start shifts the columns of the first line only
+        this.firstLineNumber = lineNumber;
+        this.firstLineStart = 1 - columnNumber;
+        this.lineCursor = 0;
+        this.lineNumber = this.firstLineNumber;
+        this.lineStart = this.firstLineStart;
+    }
+
+    /**
+     * Appends the remaining bytes of the given chunk to the input, starting a
+     * new document if the input was not appended before.
+     * <p>
+     * The input that was already read is discarded, except for the names of
+     * the open elements, which are moved to the start of the window. So, the
+     * window only has to hold the open names, the unread tail and the chunk,
+     * no matter how large the document is. The ranges of the current event
+     * are not moved, it must not be read after this call.
+     *
+     * @param chunk The chunk to append, its position is moved to its limit
+     * @see XmlFeeder
+     */
+    void append(final @NonNull ByteBuffer chunk) {
+        final int length = chunk.remaining();
+
+        if (this.window == null) {
+            final byte[] window = new byte[Math.max(length, INITIAL_WINDOW)];
+
+            chunk.get(window, 0, length);
+
+            this.window = window;
+            this.limit = length;
+            this.position = 0;
+            this.isBomPending = true;
+            this.reset();
+        } else {
+            this.countLines(this.position);
+
+            final int depth = this.depth;
+            final int unread = this.limit - this.position;
+            int names = 0;
+
+            for (int i = 1; i <= depth; ++i) {
+                names += this.elementEnds[i] - this.elementStarts[i];
+            }
+
+            final byte[] source = this.window;
+            final int required = names + unread + length;
+            final byte[] window =
+                    required <= source.length
+                    ? source
+                    : new byte[Math.max(required, source.length * 2)];
+            int offset = 0;
+
+            // The names and the tail only move towards the start, so they can
+            // be moved within the same array in order
+            for (int i = 1; i <= depth; ++i) {
+                final int start = this.elementStarts[i];
+                final int nameLength = this.elementEnds[i] - start;
+
+                System.arraycopy(source, start, window, offset, nameLength);
+
+                this.elementStarts[i] = offset;
+                this.elementEnds[i] = offset + nameLength;
+                offset += nameLength;
+            }
+
+            System.arraycopy(source, this.position, window, offset, unread);
+            chunk.get(window, offset + unread, length);
+
+            this.lineStart -= this.position - offset;
+            this.lineCursor = offset;
+            this.tokenStart = offset;
+            this.position = offset;
+            this.limit = required;
+            this.window = window;
+        }
+
+        final ByteBuffer buffer = ByteBuffer.wrap(this.window, 0, this.limit).slice();
+
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+        this.buffer = buffer;
+
+        if (
+                this.isBomPending
+                && this.limit >= 3
+        ) {
+            this.isBomPending = false;
+
+            if (
+                    buffer.get(0) == (byte) 0xEF
+                    && buffer.get(1) == (byte) 0xBB
+                    && buffer.get(2) == (byte) 0xBF
+            ) {
+                this.position = 3;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the input appended so far holds the whole of the next
+     * event of {@link #next()}.
+     * <p>
+     * Only the extent of the markup is checked, so an event may still turn
+     * out to be malformed when it is read.
+     *
+     * @return True if the next event can be read without more input
+     * @see #append(ByteBuffer)
+     */
+    boolean hasCompleteEvent() {
+        if (
+                this.buffer == null
+                || this.isBomPending
+        ) {
+            return false;
+        }
+
+        if (
+                this.eventType == END_DOCUMENT
+                || (
+                        this.eventType == START_TAG
+                        && this.isEmptyElementTag
+                )
+        ) {
+            return true;
+        }
+
+        final ByteBuffer buffer = this.buffer;
+        final int limit = this.limit;
+        final int depth = this.eventType == END_TAG ? this.depth - 1 : this.depth;
+        int position = this.position;
+
+        while (position < limit) {
+            if (buffer.get(position) != '<') {
+                // Text is coalesced up to the next tag, outside of the root
+                // element it is skipped up to the next markup
+                position = this.indexOf((byte) '<', position);
+
+                continue;
+            }
+
+            if (position + 1 >= limit) {
+                return false;
+            }
+
+            final byte b = buffer.get(position + 1);
+
+            if (
+                    b != '!'
+                    && b != '?'
+            ) {
+                return this.indexOfMarkupEnd(position) < limit;
+            }
+
+            if (
+                    depth == 0
+                    && this.startsWith(position, CDATA_START)
+            ) {
+                return true;
+            }
+
+            final int end = this.indexOfMarkupEnd(position);
+
+            if (end >= limit) {
+                return false;
+            }
+
+            position = end + 1;
+        }
+
+        return false;
+    }
+
+    private void reset() {
+        this.eventType = START_DOCUMENT;
+        this.depth = 0;
+        this.tokenStart = this.position;
+        this.isEmptyElementTag = false;
+        this.hasRoot = false;
+        this.namespaceCounts[0] = 0;
+        this.attributeCount = 0;
+        this.clearText();
+        this.firstLineNumber = 1;
+        this.firstLineStart = 0;
+        this.lineCursor = 0;
+        this.lineNumber = 1;
+        this.lineStart = 0;
+    }
+
+    private int advance(final boolean tokens) throws XmlPullParserException {
+        if (this.buffer == null) {
+            throw new XmlPullParserException("No input specified", this, null);
+        }
+
+        switch (this.eventType) {
+            case END_DOCUMENT:
+                return END_DOCUMENT;
+            case END_TAG:
+                this.depth--;
+                break;
+            case START_TAG:
+                if (this.isEmptyElementTag) {
+                    this.isEmptyElementTag = false;
+                    this.attributeCount = 0;
+
+                    return this.eventType = END_TAG;
+                }
+
+                break;
+        }
+
+        this.attributeCount = 0;
+        this.clearText();
+
+        while (true) {
+            final int position = this.position;
+
+            if (position >= this.limit) {
+                return this.eventType = this.endDocument();
+            }
+
+            this.tokenStart = position;
+
+            final int type =
+                    !tokens
+                    && this.depth > 0
+                    && !this.isTagStart(position)
+                    ? this.readText()
+                    : this.readToken(tokens);
+
+            if (type != SKIP) {
+                return this.eventType = type;
+            }
+        }
+    }
+
+    private int endDocument() throws XmlPullParserException {
+        if (this.depth > 0) {
+            throw this.error("Unexpected end of document, <" + this.getOpenName() + "> is not closed");
+        }
+
+        if (!this.hasRoot) {
+            throw this.error("Document has no root element");
+        }
+
+        this.tokenStart = this.limit;
+
+        return END_DOCUMENT;
+    }
+
+    private boolean isTagStart(final int position) {
+        if (this.buffer.get(position) != '<') {
+            return false;
+        }
+
+        if (position + 1 >= this.limit) {
+            return true;
+        }
+
+        final byte b = this.buffer.get(position + 1);
+
+        return b != '!' && b != '?';
+    }
+
+    /**
+     * Reads the character data up to the next tag, including CDATA sections,
+     * and skips comments and processing instructions in between
+     */
+    private int readText() throws XmlPullParserException {
+        int position = this.position;
+        int segments = 0;
+
+        while (
+                position < this.limit
+                && !this.isTagStart(position)
+        ) {
+            int start = position;
+            int end;
+            int mode = MODE_TEXT;
+
+            if (this.buffer.get(position) != '<') {
+                end = position = this.indexOf((byte) '<', position);
+            } else if (this.startsWith(position, COMMENT_START)) {
+                end = this.indexOf(COMMENT_END, position + COMMENT_START.length);
+
+                this.checkAvailable(end);
+
+                position = end + COMMENT_END.length;
+
+                continue;
+            } else if (this.startsWith(position, CDATA_START)) {
+                start = position + CDATA_START.length;
+                end = this.indexOf(CDATA_END, start);
+
+                this.checkAvailable(end);
+
+                position = end + CDATA_END.length;
+                mode = MODE_RAW;
+            } else if (this.buffer.get(position + 1) == '?') {
+                end = this.indexOf(PI_END, position + 2);
+
+                this.checkAvailable(end);
+
+                position = end + PI_END.length;
+
+                continue;
+            } else {
+                this.position = position;
+
+                throw this.error("Unexpected markup in element content");
+            }
+
+            if (start == end) {
+                continue;
+            }
+
+            if (segments == 0) {
+                this.textStart = start;
+                this.textEnd = end;
+                this.textMode = mode;
+            } else {
+                // The text is split by other markup, so it can not be
+                // decoded lazily from a single range
+                this.bufferText();
+                this.decode(this.textChars, start, end, mode);
+            }
+
+            segments++;
+        }
+
+        this.position = position;
+
+        return segments == 0 ? SKIP : TEXT;
+    }
+
+    private int readToken(final boolean tokens) throws XmlPullParserException {
+        final int position = this.position;
+
+        if (this.buffer.get(position) != '<') {
+            final int end = this.indexOf((byte) '<', position);
+
+            this.position = end;
+
+            if (this.depth > 0) {
+                this.setText(position, end, MODE_TEXT);
+
+                return TEXT;
+            }
+
+            for (int i = position; i < end; ++i) {
+                if (!isWhitespace(this.buffer.get(i))) {
+                    throw this.error("Text is not allowed outside of the root element");
+                }
+            }
+
+            if (!tokens) {
+                return SKIP;
+            }
+
+            this.setText(position, end, MODE_RAW);
+
+            return IGNORABLE_WHITESPACE;
+        }
+
+        this.checkAvailable(position + 1);
+
+        switch (this.buffer.get(position + 1)) {
+            case '/':
+                return this.readEndTag();
+            case '?':
+                return this.readProcessingInstruction(tokens);
+            case '!':
+                if (this.startsWith(position, COMMENT_START)) {
+                    return this.readComment(tokens);
+                }
+
+                if (this.startsWith(position, CDATA_START)) {
+                    return this.readCdata();
+                }
+
+                if (this.startsWith(position, DOCTYPE_START)) {
+                    return this.readDoctype(tokens);
+                }
+
+                throw this.error("Unexpected markup");
+            default:
+                return this.readStartTag();
+        }
+    }
+
+    private int readStartTag() throws XmlPullParserException {
+        if (
+                this.hasRoot
+                && this.depth == 0
+        ) {
+            throw this.error("Only one root element is allowed");
+        }
+
+        final int nameStart = this.position + 1;
+        int position = this.scanName(nameStart);
+
+        if (position == nameStart) {
+            throw this.error("Expected an element name");
+        }
+
+        final int depth = this.pushElement(nameStart, position);
+
+        while (true) {
+            final int next = this.skipWhitespace(position);
+
+            this.checkAvailable(next);
+
+            final byte b = this.buffer.get(next);
+
+            if (b == '>') {
+                position = next + 1;
+
+                break;
+            }
+
+            if (b == '/') {
+                this.checkAvailable(next + 1);
+
+                if (this.buffer.get(next + 1) != '>') {
+                    throw this.error("Expected '>' after '/'");
+                }
+
+                position = next + 2;
+                this.isEmptyElementTag = true;
+
+                break;
+            }
+
+            if (next == position) {
+                throw this.error("Expected whitespace before an attribute");
+            }
+
+            final int attributeStart = next;
+
+            position = this.scanName(attributeStart);
+
+            if (position == attributeStart) {
+                throw this.error("Expected an attribute name");
+            }
+
+            final int attributeEnd = position;
+
+            position = this.skipWhitespace(position);
+
+            this.checkAvailable(position);
+
+            if (this.buffer.get(position) != '=') {
+                throw this.error("Expected '=' after an attribute name");
+            }
+
+            position = this.skipWhitespace(position + 1);
+
+            this.checkAvailable(position);
+
+            final byte quote = this.buffer.get(position);
+
+            if (
+                    quote != '"'
+                    && quote != '\''
+            ) {
+                throw this.error("Expected a quoted attribute value");
+            }
+
+            final int valueStart = position + 1;
+            final int valueEnd = this.indexOf(quote, valueStart);
+
+            this.checkAvailable(valueEnd);
+            this.addAttribute(attributeStart, attributeEnd, valueStart, valueEnd);
+
+            position = valueEnd + 1;
+        }
+
+        this.position = position;
+        this.hasRoot = true;
+
+        if (this.processNamespaces) {
+            this.resolveNamespaces(depth);
+        }
+
+        return START_TAG;
+    }
+
+    private int readEndTag() throws XmlPullParserException {
+        if (this.depth == 0) {
+            throw this.error("Unexpected end tag");
+        }
+
+        final int nameStart = this.position + 2;
+        final int nameEnd = this.scanName(nameStart);
+        final int start = this.elementStarts[this.depth];
+        final int length = this.elementEnds[this.depth] - start;
+
+        if (
+                nameEnd - nameStart != length
+                || !this.regionMatches(start, nameStart, length)
+        ) {
+            throw this.error("Expected </" + this.getOpenName() + ">");
+        }
+
+        final int position = this.skipWhitespace(nameEnd);
+
+        this.checkAvailable(position);
+
+        if (this.buffer.get(position) != '>') {
+            throw this.error("Expected '>' at the end of an end tag");
+        }
+
+        this.position = position + 1;
+
+        return END_TAG;
+    }
+
+    private int readProcessingInstruction(final boolean tokens) throws XmlPullParserException {
+        final int position = this.position;
+        final int end = this.indexOf(PI_END, position + 2);
+
+        this.checkAvailable(end);
+
+        this.position = end + PI_END.length;
+
+        if (
+                this.startsWith(position, XML_DECLARATION)
+                && (
+                        end == position + XML_DECLARATION.length
+                        || isWhitespace(this.buffer.get(position + XML_DECLARATION.length))
+                )
+        ) {
+            if (
+                    this.hasRoot
+                    || this.tokenStart > 3
+            ) {
+                throw this.error("XML declaration must be at the start of the document");
+            }
+
+            return SKIP;
+        }
+
+        if (!tokens) {
+            return SKIP;
+        }
+
+        this.setText(position + 2, end, MODE_RAW);
+
+        return PROCESSING_INSTRUCTION;
+    }
+
+    private int readComment(final boolean tokens) throws XmlPullParserException {
+        final int start = this.position + COMMENT_START.length;
+        final int end = this.indexOf(COMMENT_END, start);
+
+        this.checkAvailable(end);
+
+        this.position = end + COMMENT_END.length;
+
+        if (!tokens) {
+            return SKIP;
+        }
+
+        this.setText(start, end, MODE_RAW);
+
+        return COMMENT;
+    }
+
+    private int readCdata() throws XmlPullParserException {
+        if (this.depth == 0) {
+            throw this.error("CDATA is not allowed outside of the root element");
+        }
+
+        final int start = this.position + CDATA_START.length;
+        final int end = this.indexOf(CDATA_END, start);
+
+        this.checkAvailable(end);
+
+        this.position = end + CDATA_END.length;
+
+        this.setText(start, end, MODE_RAW);
+
+        return CDSECT;
+    }
+
+    private int readDoctype(final boolean tokens) throws XmlPullParserException {
+        if (this.hasRoot) {
+            throw this.error("Document type declaration must be before the root element");
+        }
+
+        final int start = this.position + DOCTYPE_START.length;
+        final int end = this.indexOfDoctypeEnd(start);
+
+        this.checkAvailable(end);
+
+        this.position = end + 1;
+
+        if (!tokens) {
+            return SKIP;
+        }
+
+        this.setText(start, end, MODE_RAW);
+
+        return DOCDECL;
+    }
+
+    /**
+     * Returns the position of the {@code >} that closes the document type
+     * declaration, skipping the quoted strings and the internal subset
+     */
+    private int indexOfDoctypeEnd(final int from) {
+        final ByteBuffer buffer = this.buffer;
+        final int limit = this.limit;
+        int nesting = 0;
+        byte quote = 0;
+
+        for (int i = from; i < limit; ++i) {
+            final byte b = buffer.get(i);
+
+            if (quote != 0) {
+                if (b == quote) {
+                    quote = 0;
+                }
+            } else if (
+                    b == '"'
+                    || b == '\''
+            ) {
+                quote = b;
+            } else if (b == '[') {
+                nesting++;
+            } else if (b == ']') {
+                nesting--;
+            } else if (
+                    b == '>'
+                    && nesting == 0
+            ) {
+                return i;
+            }
+        }
+
+        return limit;
+    }
+
+    private int pushElement(
+            final int nameStart,
+            final int nameEnd
+    ) {
+        final int depth = ++this.depth;
+
+        if (depth >= this.elementStarts.length) {
+            final int capacity = depth * 2;
+
+            this.elementStarts = Arrays.copyOf(this.elementStarts, capacity);
+            this.elementEnds = Arrays.copyOf(this.elementEnds, capacity);
+            this.elementNames = Arrays.copyOf(this.elementNames, capacity);
+            this.elementPrefixes = Arrays.copyOf(this.elementPrefixes, capacity);
+            this.elementNamespaces = Arrays.copyOf(this.elementNamespaces, capacity);
+            this.namespaceCounts = Arrays.copyOf(this.namespaceCounts, capacity);
+        }
+
+        this.elementStarts[depth] = nameStart;
+        this.elementEnds[depth] = nameEnd;
+        this.elementNames[depth] = null;
+        this.namespaceCounts[depth] = this.namespaceCounts[depth - 1];
+
+        return depth;
+    }
+
+    private void addAttribute(
+            final int nameStart,
+            final int nameEnd,
+            final int valueStart,
+            final int valueEnd
+    ) {
+        final int index = this.attributeCount++;
+
+        if (index >= this.attributeNameStarts.length) {
+            final int capacity = index * 2;
+
+            this.attributeNameStarts = Arrays.copyOf(this.attributeNameStarts, capacity);
+            this.attributeNameEnds = Arrays.copyOf(this.attributeNameEnds, capacity);
+            this.attributeValueStarts = Arrays.copyOf(this.attributeValueStarts, capacity);
+            this.attributeValueEnds = Arrays.copyOf(this.attributeValueEnds, capacity);
+            this.attributeNames = Arrays.copyOf(this.attributeNames, capacity);
+            this.attributePrefixes = Arrays.copyOf(this.attributePrefixes, capacity);
+            this.attributeNamespaces = Arrays.copyOf(this.attributeNamespaces, capacity);
+            this.attributeValues = Arrays.copyOf(this.attributeValues, capacity);
+        }
+
+        this.attributeNameStarts[index] = nameStart;
+        this.attributeNameEnds[index] = nameEnd;
+        this.attributeValueStarts[index] = valueStart;
+        this.attributeValueEnds[index] = valueEnd;
+        this.attributeNames[index] = null;
+        this.attributeValues[index] = null;
+    }
+
+    /**
+     * Declares the namespaces of the xmlns attributes of the current element,
+     * removes those attributes and resolves the prefixes of the element and
+     * its remaining attributes
+     */
+    private void resolveNamespaces(final int depth) throws XmlPullParserException {
+        int count = 0;
+
+        for (int i = 0; i < this.attributeCount; ++i) {
+            final int start = this.attributeNameStarts[i];
+            final int end = this.attributeNameEnds[i];
+            final int length = end - start;
+            final boolean isDefault = length == 5;
+
+            if (
+                    length >= 5
+                    && this.startsWith(start, XMLNS_BYTES)
+                    && (
+                            isDefault
+                            || (
+                                    length > 6
+                                    && this.buffer.get(start + 5) == ':'
+                            )
+                    )
+            ) {
+                this.declareNamespace(
+                        depth,
+                        isDefault ? null : this.name(start + 6, end),
+                        this.attributeValue(i)
+                );
+
+                continue;
+            }
+
+            if (count != i) {
+                this.moveAttribute(i, count);
+            }
+
+            count++;
+        }
+
+        this.attributeCount = count;
+
+        final int elementStart = this.elementStarts[depth];
+        final int elementEnd = this.elementEnds[depth];
+        final int elementColon = this.indexOfColon(elementStart, elementEnd);
+
+        if (elementColon < 0) {
+            this.elementPrefixes[depth] = null;
+            this.elementNames[depth] = this.name(elementStart, elementEnd);
+            this.elementNamespaces[depth] = this.resolvePrefix(null);
+        } else {
+            final String prefix = this.name(elementStart, elementColon);
+
+            this.elementPrefixes[depth] = prefix;
+            this.elementNames[depth] = this.name(elementColon + 1, elementEnd);
+            this.elementNamespaces[depth] = this.resolvePrefix(prefix);
+        }
+
+        for (int i = 0; i < count; ++i) {
+            final int start = this.attributeNameStarts[i];
+            final int end = this.attributeNameEnds[i];
+            final int colon = this.indexOfColon(start, end);
+
+            if (colon < 0) {
+                this.attributePrefixes[i] = null;
+                this.attributeNames[i] = this.name(start, end);
+                this.attributeNamespaces[i] = NO_NAMESPACE;
+            } else {
+                final String prefix = this.name(start, colon);
+
+                this.attributePrefixes[i] = prefix;
+                this.attributeNames[i] = this.name(colon + 1, end);
+                this.attributeNamespaces[i] = this.resolvePrefix(prefix);
+            }
+        }
+    }
+
+    private void declareNamespace(
+            final int depth,
+            final @Nullable String prefix,
+            final @NonNull String uri
+    ) {
+        final int index = this.namespaceCounts[depth]++;
+
+        if (index >= this.namespacePrefixes.length) {
+            final int capacity = index * 2;
+
+            this.namespacePrefixes = Arrays.copyOf(this.namespacePrefixes, capacity);
+            this.namespaceUris = Arrays.copyOf(this.namespaceUris, capacity);
+        }
+
+        this.namespacePrefixes[index] = prefix;
+        this.namespaceUris[index] = uri;
+    }
+
+    private @NonNull String resolvePrefix(final @Nullable String prefix) throws XmlPullParserException {
+        final String namespace = this.getNamespace(prefix);
+
+        if (namespace != null) {
+            return namespace;
+        }
+
+        if (prefix == null) {
+            return NO_NAMESPACE;
+        }
+
+        throw this.error("Undefined prefix: " + prefix);
+    }
+
+    private void moveAttribute(
+            final int from,
+            final int to
+    ) {
+        this.attributeNameStarts[to] = this.attributeNameStarts[from];
+        this.attributeNameEnds[to] = this.attributeNameEnds[from];
+        this.attributeValueStarts[to] = this.attributeValueStarts[from];
+        this.attributeValueEnds[to] = this.attributeValueEnds[from];
+        this.attributeNames[to] = this.attributeNames[from];
+        this.attributeValues[to] = this.attributeValues[from];
+    }
+
+    private @NonNull String attributeName(final int index) {
+        String name = this.attributeNames[index];
+
+        if (name == null) {
+            this.attributeNames[index] = name = this.name(this.attributeNameStarts[index], this.attributeNameEnds[index]);
+        }
+
+        return name;
+    }
+
+    private @NonNull String attributeValue(final int index) {
+        String value = this.attributeValues[index];
+
+        if (value == null) {
+            final Chars scratch = this.scratch;
+
+            scratch.length = 0;
+
+            this.decode(scratch, this.attributeValueStarts[index], this.attributeValueEnds[index], MODE_ATTRIBUTE);
+
+            this.attributeValues[index] = value = scratch.toString();
+        }
+
+        return value;
+    }
+
+    private void checkAttributeIndex(final int index) throws IndexOutOfBoundsException {
+        if (this.eventType != START_TAG) {
+            throw new IndexOutOfBoundsException("Parser must be on START_TAG to read attributes");
+        }
+
+        if (
+                index < 0
+                || index >= this.attributeCount
+        ) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for attribute count " + this.attributeCount);
+        }
+    }
+
+    private void checkNamespacePosition(final int pos) throws XmlPullParserException {
+        final int count = this.getNamespaceCount(this.depth);
+
+        if (
+                pos < 0
+                || pos >= count
+        ) {
+            throw new XmlPullParserException("Position " + pos + " is out of bounds for namespace count " + count, this, null);
+        }
+    }
+
+    private boolean isElement() {
+        return this.eventType == START_TAG
+                || this.eventType == END_TAG;
+    }
+
+    private boolean isText() {
+        switch (this.eventType) {
+            case TEXT:
+            case CDSECT:
+            case COMMENT:
+            case PROCESSING_INSTRUCTION:
+            case DOCDECL:
+            case IGNORABLE_WHITESPACE:
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private @NonNull String getOpenName() {
+        return this.name(this.elementStarts[this.depth], this.elementEnds[this.depth]);
+    }
+
+    private void setText(
+            final int start,
+            final int end,
+            final int mode
+    ) {
+        this.textStart = start;
+        this.textEnd = end;
+        this.textMode = mode;
+    }
+
+    private void clearText() {
+        this.textStart = 0;
+        this.textEnd = 0;
+        this.textMode = MODE_RAW;
+        this.isTextBuffered = false;
+        this.text = null;
+    }
+
+    private void bufferText() {
+        if (!this.isTextBuffered) {
+            this.textChars.length = 0;
+
+            this.decode(this.textChars, this.textStart, this.textEnd, this.textMode);
+
+            this.isTextBuffered = true;
+        }
+    }
+
+    /**
+     * Returns the string of the given name range, from the name table if the
+     * name was decoded before
+     */
+    private @NonNull String name(
+            final int start,
+            final int end
+    ) {
+        final ByteBuffer buffer = this.buffer;
+        int hash = 0;
+
+        for (int i = start; i < end; ++i) {
+            hash = hash * 31 + buffer.get(i);
+        }
+
+        final String[] names = this.names;
+        final byte[][] nameBytes = this.nameBytes;
+        final int mask = names.length - 1;
+        int slot = (hash ^ (hash >>> 16)) & mask;
+
+        while (true) {
+            final byte[] bytes = nameBytes[slot];
+
+            if (bytes == null) {
+                break;
+            }
+
+            if (this.equals(bytes, start, end)) {
+                return names[slot];
+            }
+
+            slot = (slot + 1) & mask;
+        }
+
+        final Chars scratch = this.scratch;
+
+        scratch.length = 0;
+
+        this.decode(scratch, start, end, MODE_RAW);
+
+        final String name = scratch.toString();
+
+        if (this.nameCount < MAX_NAMES) {
+            final byte[] bytes = new byte[end - start];
+
+            for (int i = 0; i < bytes.length; ++i) {
+                bytes[i] = buffer.get(start + i);
+            }
+
+            names[slot] = name;
+            nameBytes[slot] = bytes;
+
+            if (++this.nameCount * 2 > names.length) {
+                this.growNames();
+            }
+        }
+
+        return name;
+    }
+
+    private void growNames() {
+        final String[] oldNames = this.names;
+        final byte[][] oldBytes = this.nameBytes;
+        final String[] names = new String[oldNames.length * 2];
+        final byte[][] nameBytes = new byte[oldNames.length * 2][];
+        final int mask = names.length - 1;
+
+        for (int i = 0; i < oldNames.length; ++i) {
+            final byte[] bytes = oldBytes[i];
+
+            if (bytes == null) {
+                continue;
+            }
+
+            int hash = 0;
+
+            for (final byte b : bytes) {
+                hash = hash * 31 + b;
+            }
+
+            int slot = (hash ^ (hash >>> 16)) & mask;
+
+            while (nameBytes[slot] != null) {
+                slot = (slot + 1) & mask;
+            }
+
+            names[slot] = oldNames[i];
+            nameBytes[slot] = bytes;
+        }
+
+        this.names = names;
+        this.nameBytes = nameBytes;
+    }
+
+    private boolean equals(
+            final @NonNull byte[] bytes,
+            final int start,
+            final int end
+    ) {
+        if (bytes.length != end - start) {
+            return false;
+        }
+
+        for (int i = 0; i < bytes.length; ++i) {
+            if (bytes[i] != this.buffer.get(start + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Decodes the given UTF-8 range into the given chars
+     */
+    private void decode(
+            final @NonNull Chars out,
+            final int start,
+            final int end,
+            final int mode
+    ) {
+        final ByteBuffer buffer = this.buffer;
+
+        out.ensureCapacity(out.length + end - start);
+
+        int i = start;
+
+        while (i < end) {
+            final int b = buffer.get(i);
+
+            if (b >= 0) {
+                switch (b) {
+                    case '&':
+                        if (mode != MODE_RAW) {
+                            i = this.decodeEntity(out, i, end);
+
+                            continue;
+                        }
+
+                        break;
+                    case '\r':
+                        out.append(mode == MODE_ATTRIBUTE ? ' ' : '\n');
+
+                        if (
+                                ++i < end
+                                && buffer.get(i) == '\n'
+                        ) {
+                            i++;
+                        }
+
+                        continue;
+                    case '\n':
+                    case '\t':
+                        if (mode == MODE_ATTRIBUTE) {
+                            out.append(' ');
+                            i++;
+
+                            continue;
+                        }
+
+                        break;
+                }
+
+                out.append((char) b);
+                i++;
+
+                continue;
+            }
+
+            final int codePoint;
+            final int length;
+
+            if (
+                    (b & 0xE0) == 0xC0
+                    && i + 1 < end
+                    && isContinuation(buffer.get(i + 1))
+            ) {
+                codePoint = (b & 0x1F) << 6 | (buffer.get(i + 1) & 0x3F);
+                length = 2;
+            } else if (
+                    (b & 0xF0) == 0xE0
+                    && i + 2 < end
+                    && isContinuation(buffer.get(i + 1))
+                    && isContinuation(buffer.get(i + 2))
+            ) {
+                codePoint = (b & 0x0F) << 12 | (buffer.get(i + 1) & 0x3F) << 6 | (buffer.get(i + 2) & 0x3F);
+                length = 3;
+            } else if (
+                    (b & 0xF8) == 0xF0
+                    && i + 3 < end
+                    && isContinuation(buffer.get(i + 1))
+                    && isContinuation(buffer.get(i + 2))
+                    && isContinuation(buffer.get(i + 3))
+            ) {
+                codePoint =
+                        (b & 0x07) << 18
+                        | (buffer.get(i + 1) & 0x3F) << 12
+                        | (buffer.get(i + 2) & 0x3F) << 6
+                        | (buffer.get(i + 3) & 0x3F);
+                length = 4;
+            } else {
+                codePoint = 0xFFFD;
+                length = 1;
+            }
+
+            out.appendCodePoint(codePoint);
+            i += length;
+        }
+    }
+
+    /**
+     * Decodes the entity reference at the given position and returns the
+     * position after it
+     */
+    private int decodeEntity(
+            final @NonNull Chars out,
+            final int position,
+            final int end
+    ) {
+        final ByteBuffer buffer = this.buffer;
+        final int searchEnd = Math.min(end, position + MAX_ENTITY_LENGTH);
+        int semicolon = position + 1;
+
+        while (
+                semicolon < searchEnd
+                && buffer.get(semicolon) != ';'
+        ) {
+            semicolon++;
+        }
+
+        if (
+                semicolon >= searchEnd
+                || semicolon == position + 1
+        ) {
+            out.append('&');
+
+            return position + 1;
+        }
+
+        final int nameStart = position + 1;
+        final int length = semicolon - nameStart;
+
+        if (buffer.get(nameStart) == '#') {
+            final int codePoint = this.parseCharacterReference(nameStart + 1, semicolon);
+
+            if (codePoint < 0) {
+                out.append('&');
+
+                return position + 1;
+            }
+
+            out.appendCodePoint(codePoint);
+
+            return semicolon + 1;
+        }
+
+        final char replacement = this.predefinedEntity(nameStart, length);
+
+        if (replacement != 0) {
+            out.append(replacement);
+
+            return semicolon + 1;
+        }
+
+        if (this.entities != null) {
+            final String text = this.entities.get(this.name(nameStart, semicolon));
+
+            if (text != null) {
+                out.append(text);
+
+                return semicolon + 1;
+            }
+        }
+
+        // Unknown entities are kept as they are
+        this.decode(out, position, semicolon + 1, MODE_RAW);
+
+        return semicolon + 1;
+    }
+
+    private int parseCharacterReference(
+            final int start,
+            final int end
+    ) {
+        final ByteBuffer buffer = this.buffer;
+        int index = start;
+        int radix = 10;
+
+        if (
+                index < end
+                && buffer.get(index) == 'x'
+        ) {
+            radix = 16;
+            index++;
+        }
+
+        if (index == end) {
+            return -1;
+        }
+
+        int codePoint = 0;
+
+        for (; index < end; ++index) {
+            final int digit = Character.digit(buffer.get(index), radix);
+
+            if (digit < 0) {
+                return -1;
+            }
+
+            codePoint = codePoint * radix + digit;
+
+            if (codePoint > Character.MAX_CODE_POINT) {
+                return -1;
+            }
+        }
+
+        return codePoint;
+    }
+
+    private char predefinedEntity(
+            final int start,
+            final int length
+    ) {
+        final ByteBuffer buffer = this.buffer;
+        final byte first = buffer.get(start);
+
+        switch (length) {
+            case 2:
+                if (buffer.get(start + 1) == 't') {
+                    if (first == 'l') {
+                        return '<';
+                    }
+
+                    if (first == 'g') {
+                        return '>';
+                    }
+                }
+
+                return 0;
+            case 3:
+                return first == 'a'
+                        && buffer.get(start + 1) == 'm'
+                        && buffer.get(start + 2) == 'p'
+                        ? '&'
+                        : 0;
+            case 4:
+                if (
+                        first == 'a'
+                        && buffer.get(start + 1) == 'p'
+                        && buffer.get(start + 2) == 'o'
+                        && buffer.get(start + 3) == 's'
+                ) {
+                    return '\'';
+                }
+
+                if (
+                        first == 'q'
+                        && buffer.get(start + 1) == 'u'
+                        && buffer.get(start + 2) == 'o'
+                        && buffer.get(start + 3) == 't'
+                ) {
+                    return '"';
+                }
+
+                return 0;
+            default:
+                return 0;
+        }
+    }
+
+    /**
+     * Returns the index of the given byte at or after the given position or
+     * the limit if there is no such byte.
+     * <p>
+     * Eight bytes are tested at a time, using the zero byte test on the word
+     * xor-ed with the byte repeated in every lane.
+     */
+    private int indexOf(
+            final byte b,
+            final int from
+    ) {
+        final ByteBuffer buffer = this.buffer;
+        final int limit = this.limit;
+        final long pattern = (b & 0xFFL) * ONES;
+        int i = from;
+
+        for (; i + 8 <= limit; i += 8) {
+            final long word = buffer.getLong(i) ^ pattern;
+            final long found = (word - ONES) & ~word & HIGHS;
+
+            if (found != 0) {
+                // The buffer is little-endian, so the lowest lane is the
+                // first byte
+                return i + (Long.numberOfTrailingZeros(found) >>> 3);
+            }
+        }
+
+        for (; i < limit; ++i) {
+            if (buffer.get(i) == b) {
+                return i;
+            }
+        }
+
+        return limit;
+    }
+
+    private int indexOf(
+            final @NonNull byte[] pattern,
+            final int from
+    ) {
+        final int last = this.limit - pattern.length;
+        final byte first = pattern[0];
+        int i = from;
+
+        while (true) {
+            i = this.indexOf(first, i);
+
+            if (i > last) {
+                return this.limit;
+            }
+
+            if (this.startsWith(i, pattern)) {
+                return i;
+            }
+
+            i++;
+        }
+    }
+
+    /**
+     * Returns the position of the last byte of the markup at the given
+     * position, or the limit if the markup is not complete yet.
+     * <p>
+     * Unknown markup is reported as the two bytes of its start, so that
+     * reading it fails with the error of the parser.
+     */
+    private int indexOfMarkupEnd(final int position) {
+        final ByteBuffer buffer = this.buffer;
+        final int limit = this.limit;
+
+        switch (buffer.get(position + 1)) {
+            case '?': {
+                final int end = this.indexOf(PI_END, position + 2);
+
+                return end >= limit ? limit : end + PI_END.length - 1;
+            }
+            case '!': {
+                if (
+                        this.isPrefixAtEnd(position, COMMENT_START)
+                        || this.isPrefixAtEnd(position, CDATA_START)
+                        || this.isPrefixAtEnd(position, DOCTYPE_START)
+                ) {
+                    return limit;
+                }
+
+                final int end;
+                final int length;
+
+                if (this.startsWith(position, COMMENT_START)) {
+                    end = this.indexOf(COMMENT_END, position + COMMENT_START.length);
+                    length = COMMENT_END.length;
+                } else if (this.startsWith(position, CDATA_START)) {
+                    end = this.indexOf(CDATA_END, position + CDATA_START.length);
+                    length = CDATA_END.length;
+                } else if (this.startsWith(position, DOCTYPE_START)) {
+                    end = this.indexOfDoctypeEnd(position + DOCTYPE_START.length);
+                    length = 1;
+                } else {
+                    return position + 1;
+                }
+
+                return end >= limit ? limit : end + length - 1;
+            }
+            default: {
+                byte quote = 0;
+
+                for (int i = position + 1; i < limit; ++i) {
+                    final byte b = buffer.get(i);
+
+                    if (quote != 0) {
+                        if (b == quote) {
+                            quote = 0;
+                        }
+                    } else if (
+                            b == '"'
+                            || b == '\''
+                    ) {
+                        quote = b;
+                    } else if (b == '>') {
+                        return i;
+                    }
+                }
+
+                return limit;
+            }
+        }
+    }
+
+    /**
+     * Returns whether the input ends with a proper prefix of the given
+     * pattern at the given position
+     */
+    private boolean isPrefixAtEnd(
+            final int position,
+            final @NonNull byte[] pattern
+    ) {
+        final int length = this.limit - position;
+
+        if (length >= pattern.length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; ++i) {
+            if (this.buffer.get(position + i) != pattern[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean startsWith(
+            final int position,
+            final @NonNull byte[] pattern
+    ) {
+        if (position + pattern.length > this.limit) {
+            return false;
+        }
+
+        for (int i = 0; i < pattern.length; ++i) {
+            if (this.buffer.get(position + i) != pattern[i]) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private boolean regionMatches(
+            final int first,
+            final int second,
+            final int length
+    ) {
+        for (int i = 0; i < length; ++i) {
+            if (this.buffer.get(first + i) != this.buffer.get(second + i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private int indexOfColon(
+            final int start,
+            final int end
+    ) {
+        for (int i = start; i < end; ++i) {
+            if (this.buffer.get(i) == ':') {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private int scanName(final int from) {
+        final ByteBuffer buffer = this.buffer;
+        final int limit = this.limit;
+        int i = from;
+
+        while (
+                i < limit
+                && !isNameEnd(buffer.get(i))
+        ) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private int skipWhitespace(final int from) {
+        final ByteBuffer buffer = this.buffer;
+        final int limit = this.limit;
+        int i = from;
+
+        while (
+                i < limit
+                && isWhitespace(buffer.get(i))
+        ) {
+            i++;
+        }
+
+        return i;
+    }
+
+    private void checkAvailable(final int position) throws XmlPullParserException {
+        if (position >= this.limit) {
+            throw this.error("Unexpected end of document");
+        }
+    }
+
+    private void countLines() {
+        this.countLines(this.tokenStart);
+    }
+
+    private void countLines(final int target) {
+        if (target < this.lineCursor) {
+            this.lineCursor = 0;
+            this.lineNumber = this.firstLineNumber;
+            this.lineStart = this.firstLineStart;
+        }
+
+        final ByteBuffer buffer = this.buffer;
+
+        for (int i = this.lineCursor; i < target; ++i) {
+            if (buffer.get(i) == '\n') {
+                this.lineNumber++;
+                this.lineStart = i + 1;
+            }
+        }
+
+        this.lineCursor = target;
+    }
+
+    private @NonNull XmlPullParserException error(final @NonNull String message) {
+        this.tokenStart = Math.min(this.position, this.limit);
+
+        return new XmlPullParserException(message, this, null);
+    }
+
+    private static boolean isWhitespace(final int c) {
+        return c == ' '
+                || c == '\n'
+                || c == '\t'
+                || c == '\r';
+    }
+
+    private static boolean isNameEnd(final byte b) {
+        switch (b) {
+            case ' ':
+            case '\n':
+            case '\t':
+            case '\r':
+            case '/':
+            case '>':
+            case '=':
+            case '<':
+                return true;
+            default:
+                return false;
+        }
+    }
+
+    private static boolean isContinuation(final byte b) {
+        return (b & 0xC0) == 0x80;
+    }
+
+    private static @NonNull byte[] ascii(final @NonNull String string) {
+        return string.getBytes(StandardCharsets.US_ASCII);
+    }
+
+    /**
+     * A growable char buffer for decoding
+     */
+    private static final class Chars {
+        char[] value = new char[256];
+        int length;
+
+        void ensureCapacity(final int capacity) {
+            if (capacity > this.value.length) {
+                this.value = Arrays.copyOf(this.value, Math.max(capacity, this.value.length * 2));
+            }
+        }
+
+        void append(final char c) {
+            if (this.length == this.value.length) {
+                this.ensureCapacity(this.length + 1);
+            }
+
+            this.value[this.length++] = c;
+        }
+
+        void append(final @NonNull String string) {
+            final int length = string.length();
+
+            this.ensureCapacity(this.length + length);
+            string.getChars(0, length, this.value, this.length);
+
+            this.length += length;
+        }
+
+        void appendCodePoint(final int codePoint) {
+            if (Character.isBmpCodePoint(codePoint)) {
+                this.append((char) codePoint);
+            } else {
+                this.append(Character.highSurrogate(codePoint));
+                this.append(Character.lowSurrogate(codePoint));
+            }
+        }
+
+        @Override
+        public @NonNull String toString() {
+            return new String(this.value, 0, this.length);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package com.minersstudios.genero.lib.xml;
+
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.tag.TagCursor;
+import com.minersstudios.genero.lib.xml.tag.XmlTag;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.nio.ByteBuffer;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A push parser of UTF-8 XML input that arrives in chunks.
+ * <p>
+ * Unlike the pull parsers, the feeder never blocks on its input. The chunks
+ * are {@link #feed(ByteBuffer) fed} as they arrive, and the events that are
+ * complete in the input fed so far are {@link #poll() polled}. When the input
+ * ends in the middle of an event, polling returns null until more input is
+ * fed, so no thread has to wait for the rest of a document.
+ *
+ * <pre>{@code
+ * final XmlFeeder feeder = XmlParser.feeder();
+ *
+ * // For every chunk that arrives
+ * feeder.feed(chunk);
+ *
+ * for (XmlTag tag = feeder.poll(); tag != null; tag = feeder.poll()) {
+ *     ...
+ * }
+ *
+ * // When the input is over
+ * feeder.end();
+ * ...
+ * }</pre>
+ * <p>
+ * The input that was already read is discarded on every feed, so the memory
+ * used by the feeder is bound by the size of the largest event and chunk,
+ * not by the size of the document. Namespaces are processed.
+ * <p>
+ * <b>NOTE:</b> The polled tags are reusable views, as with a
+ *              {@link TagCursor}, so they are valid only until the next
+ *              {@link #poll()} or {@link #feed(ByteBuffer)}.
+ *
+ * @see XmlParser#feeder()
+ * @see Utf8PullParser
+ */
+@NotThreadSafe
+public final class XmlFeeder {
+    private final Utf8PullParser parser;
+    private final TagCursor cursor;
+    private boolean isEnded;
+
+    XmlFeeder(final @NonNull SymbolTable symbols) {
+        this.parser = new Utf8PullParser();
+
+        try {
+            this.parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        } catch (final XmlPullParserException e) {
+            throw new IllegalStateException("Failed to enable namespace processing", e);
+        }
+
+        this.parser.append(ByteBuffer.allocate(0));
+
+        this.cursor = TagCursor.create(this.parser, symbols);
+    }
+
+    /**
+     * Feeds the remaining bytes of the given chunk to the parser.
+     * <p>
+     * The bytes are copied, so the chunk can be reused once this method
+     * returns.
+     *
+     * @param chunk The chunk of UTF-8 input, its position is moved to its
+     *              limit
+     * @throws IllegalStateException If the end of the input was already
+     *                               signaled
+     */
+    public void feed(final @NonNull ByteBuffer chunk) throws IllegalStateException {
+        if (this.isEnded) {
+            throw new IllegalStateException("Input has already ended");
+        }
+
+        this.parser.append(chunk);
+    }
+
+    /**
+     * Signals that there is no more input.
+     * <p>
+     * The remaining events, including the final
+     * {@link XmlPullParser#END_DOCUMENT} event, can be polled afterwards.
+     */
+    public void end() {
+        this.isEnded = true;
+    }
+
+    /**
+     * Returns the next complete event
+     *
+     * @return The reusable view of the next event, or null if more input is
+     *         needed or the document is finished
+     * @throws IllegalStateException If the input is not a well-formed
+     *                               document
+     */
+    public @Nullable XmlTag poll() throws IllegalStateException {
+        if (
+                this.isFinished()
+                || (
+                        !this.isEnded
+                        && !this.parser.hasCompleteEvent()
+                )
+        ) {
+            return null;
+        }
+
+        this.cursor.advance();
+
+        return this.cursor.tag();
+    }
+
+    /**
+     * Returns whether the {@link XmlPullParser#END_DOCUMENT} event was
+     * already polled
+     *
+     * @return True if the document is finished
+     */
+    public boolean isFinished() {
+        return this.cursor.getType() == END_DOCUMENT;
+    }
+}
@@ -1,12 +1,20 @@
 package com.minersstudios.genero.lib.xml;
 
 import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
 
 import android.content.res.XmlResourceParser;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
 
+import com.minersstudios.genero.lib.xml.dom.XmlDocument;
+import com.minersstudios.genero.lib.xml.path.XmlPath;
+import com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot;
+import com.minersstudios.genero.lib.xml.tag.StartTag;
+import com.minersstudios.genero.lib.xml.tag.TagCursor;
+import com.minersstudios.genero.lib.xml.tag.TagHandler;
+import com.minersstudios.genero.lib.xml.tag.TagHandlers;
 import com.minersstudios.genero.lib.xml.tag.XmlTag;
 
 import org.jetbrains.annotations.Contract;
@@ -14,10 +22,17 @@ import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
 import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Collection;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
@@ -42,7 +57,29 @@ public final class XmlParser {
      * @see #parsePull(XmlPullParser)
      */
     public static @NonNull Stream<XmlTag> parseResource(final @NonNull XmlResourceParser parser) {
-        return parsePull(parser)
+        return parseResource(parser, new SymbolTable());
+    }
+
+    /**
+     * Parse an XML document using a {@link XmlResourceParser resource parser},
+     * binding the names of all tags and attributes to the given symbol table
+     * <p>
+     * <b>NOTE:</b> The parser closes automatically when the stream is closed,
+     *              which is implemented via {@link Stream#onClose(Runnable)}.
+     *              Therefore, when redefining it, take care to close the parser
+     *              manually.
+     *
+     * @param parser  The pull parser to use
+     * @param symbols The symbol table of the parse
+     * @return A stream of XML tags
+     * @see SymbolTable
+     * @see #parseResource(XmlResourceParser)
+     */
+    public static @NonNull Stream<XmlTag> parseResource(
+            final @NonNull XmlResourceParser parser,
+            final @NonNull SymbolTable symbols
+    ) {
+        return parsePull(parser, symbols)
                 .onClose(
                         () -> {
                             try {
@@ -54,6 +91,48 @@ public final class XmlParser {
                 );
     }
 
+    /**
+     * Parse a compiled Android binary XML document, such as a menu or layout
+     * stored in an APK, without going through the framework parser.
+     * <p>
+     * The document is read in place by a {@link BinaryXmlParser}, which is a
+     * {@link XmlResourceParser}, so the tags provide the resource attribute
+     * readers.
+     *
+     * @param buffer The buffer that holds the document
+     * @return A stream of XML tags
+     * @throws XmlPullParserException If the buffer does not hold a binary XML
+     *                                document
+     * @see BinaryXmlParser
+     * @see #parseResource(XmlResourceParser)
+     */
+    public static @NonNull Stream<XmlTag> parseBinary(final @NonNull ByteBuffer buffer) throws XmlPullParserException {
+        return parseBinary(buffer, new SymbolTable());
+    }
+
+    /**
+     * Parse a compiled Android binary XML document, binding the names of all
+     * tags and attributes to the given symbol table
+     *
+     * @param buffer  The buffer that holds the document
+     * @param symbols The symbol table of the parse
+     * @return A stream of XML tags
+     * @throws XmlPullParserException If the buffer does not hold a binary XML
+     *                                document
+     * @see SymbolTable
+     * @see #parseBinary(ByteBuffer)
+     */
+    public static @NonNull Stream<XmlTag> parseBinary(
+            final @NonNull ByteBuffer buffer,
+            final @NonNull SymbolTable symbols
+    ) throws XmlPullParserException {
+        final BinaryXmlParser parser = new BinaryXmlParser();
+
+        parser.setInput(buffer);
+
+        return parseResource(parser, symbols);
+    }
+
     /**
      * Parse an XML document using a {@link XmlPullParser standard pull parser}
      * <p>
@@ -66,20 +145,663 @@ public final class XmlParser {
      * @see XmlPullParser
      */
     public static @NonNull Stream<XmlTag> parsePull(final @NonNull XmlPullParser parser) {
+        return parsePull(parser, new SymbolTable());
+    }
+
+    /**
+     * Parse an XML document using a {@link XmlPullParser standard pull parser},
+     * binding the names of all tags and attributes to the given symbol table
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the stream
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser  The pull parser to use
+     * @param symbols The symbol table of the parse
+     * @return A stream of XML tags
+     * @see SymbolTable
+     * @see #parsePull(XmlPullParser)
+     */
+    public static @NonNull Stream<XmlTag> parsePull(
+            final @NonNull XmlPullParser parser,
+            final @NonNull SymbolTable symbols
+    ) {
         return StreamSupport.stream(
                 Spliterators.spliteratorUnknownSize(
-                        new TagIterator(parser),
+                        new TagIterator(parser, symbols),
                         Spliterator.ORDERED | Spliterator.IMMUTABLE
                 ),
                 false
         );
     }
 
+    /**
+     * Parse a UTF-8 XML file, reading it through a memory mapping.
+     * <p>
+     * The file is mapped with {@link FileChannel#map} and parsed in place by
+     * a namespace-aware {@link Utf8PullParser}, so its contents are not
+     * copied through intermediate byte or char buffers.
+     * <p>
+     * <b>NOTE:</b> The file closes automatically when the stream is closed,
+     *              which is implemented via {@link Stream#onClose(Runnable)}.
+     *              The mapping itself is released by the garbage collector
+     *              once the stream is no longer reachable.
+     *
+     * @param path The path of the file to parse
+     * @return A stream of XML tags
+     * @throws IOException If the file could not be opened or mapped
+     * @see #parseChannel(FileChannel)
+     */
+    public static @NonNull Stream<XmlTag> parseFile(final @NonNull Path path) throws IOException {
+        return parseFile(path, new SymbolTable());
+    }
+
+    /**
+     * Parse a UTF-8 XML file, reading it through a memory mapping and binding
+     * the names of all tags and attributes to the given symbol table
+     * <p>
+     * <b>NOTE:</b> The file closes automatically when the stream is closed,
+     *              which is implemented via {@link Stream#onClose(Runnable)}.
+     *              The mapping itself is released by the garbage collector
+     *              once the stream is no longer reachable.
+     *
+     * @param path    The path of the file to parse
+     * @param symbols The symbol table of the parse
+     * @return A stream of XML tags
+     * @throws IOException If the file could not be opened or mapped
+     * @see SymbolTable
+     * @see #parseFile(Path)
+     */
+    public static @NonNull Stream<XmlTag> parseFile(
+            final @NonNull Path path,
+            final @NonNull SymbolTable symbols
+    ) throws IOException {
+        return parseChannel(FileChannel.open(path, StandardOpenOption.READ), symbols);
+    }
+
+    /**
+     * Parse a UTF-8 XML document from the whole contents of a file channel,
+     * reading it through a memory mapping.
+     * <p>
+     * The channel is mapped with {@link FileChannel#map} and parsed in place
+     * by a namespace-aware {@link Utf8PullParser}, so its contents are not
+     * copied through intermediate byte or char buffers.
+     * <p>
+     * <b>NOTE:</b> The channel closes automatically when the stream is closed,
+     *              which is implemented via {@link Stream#onClose(Runnable)}.
+     *              Therefore, when redefining it, take care to close the
+     *              channel manually. The channel is also closed if it could
+     *              not be mapped.
+     *
+     * @param channel The file channel to parse
+     * @return A stream of XML tags
+     * @throws IOException If the channel could not be mapped
+     * @see #parseFile(Path)
+     */
+    public static @NonNull Stream<XmlTag> parseChannel(final @NonNull FileChannel channel) throws IOException {
+        return parseChannel(channel, new SymbolTable());
+    }
+
+    /**
+     * Parse a UTF-8 XML document from the whole contents of a file channel,
+     * reading it through a memory mapping and binding the names of all tags
+     * and attributes to the given symbol table
+     * <p>
+     * <b>NOTE:</b> The channel closes automatically when the stream is closed,
+     *              which is implemented via {@link Stream#onClose(Runnable)}.
+     *              Therefore, when redefining it, take care to close the
+     *              channel manually. The channel is also closed if it could
+     *              not be mapped.
+     *
+     * @param channel The file channel to parse
+     * @param symbols The symbol table of the parse
+     * @return A stream of XML tags
+     * @throws IOException If the channel could not be mapped
+     * @see SymbolTable
+     * @see #parseChannel(FileChannel)
+     */
+    public static @NonNull Stream<XmlTag> parseChannel(
+            final @NonNull FileChannel channel,
+            final @NonNull SymbolTable symbols
+    ) throws IOException {
+        final Utf8PullParser parser;
+
+        try {
+            parser = newMappedParser(channel);
+        } catch (final XmlPullParserException e) {
+            closeAfterFailure(channel, e);
+
+            throw new IOException("Failed to create the parser", e);
+        } catch (final IOException | RuntimeException e) {
+            closeAfterFailure(channel, e);
+
+            throw e;
+        }
+
+        return parsePull(parser, symbols)
+                .onClose(
+                        () -> {
+                            try {
+                                channel.close();
+                            } catch (final Throwable e) {
+                                Log.e("XmlParser", "Failed to close channel", e);
+                            }
+                        }
+                );
+    }
+
+    /**
+     * Parses the records of a large UTF-8 XML document file in parallel on
+     * the common fork/join pool.
+     *
+     * @param path  The path of the file to parse
+     * @param depth The depth of the records, where {@code 1} is the depth of
+     *              the root element
+     * @param name  The local name of the records
+     * @return An ordered stream of the snapshots of the records
+     * @throws IOException            If the file could not be read
+     * @throws XmlPullParserException If the document is malformed
+     * @see #parseRecords(Path, int, String, boolean, ForkJoinPool)
+     */
+    public static @NonNull Stream<XmlSnapshot> parseRecords(
+            final @NonNull Path path,
+            final int depth,
+            final @NonNull String name
+    ) throws IOException, XmlPullParserException {
+        return parseRecords(path, depth, name, true, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * Parses the records of a large UTF-8 XML document file in parallel.
+     * <p>
+     * The records are the elements with the given name at the given depth,
+     * e.g. the {@code product} elements of a catalog at depth {@code 2}. The
+     * memory-mapped file is split into chunks between the start tags of the
+     * records, and every chunk is parsed on the given pool with its own
+     * parser. Every record is recorded into an {@link XmlSnapshot}, which can
+     * be replayed with any parse method of this class.
+     * <p>
+     * The split is speculative, a start tag pattern may be found inside a
+     * comment or a nested element of the same name. So, the chunks are only
+     * accepted if they tile the records exactly, otherwise, as well as for
+     * small documents and documents with other content around the records,
+     * the document is parsed sequentially. The result is the same either way,
+     * including the line and column numbers of the snapshots.
+     * <p>
+     * The records are streamed while the chunks are being parsed, a chunk is
+     * returned as soon as it and all the chunks before it are accepted, and
+     * only a few chunks are parsed ahead of the consumer. A malformed
+     * document is thrown as an {@link IllegalStateException} from the stream
+     * when the malformed part is reached, unless it is before the first
+     * record. Closing the stream stops parsing new chunks.
+     *
+     * @param path    The path of the file to parse
+     * @param depth   The depth of the records, where {@code 1} is the depth of
+     *                the root element
+     * @param name    The local name of the records
+     * @param ordered Whether the stream should be ordered as the document, if
+     *                false, a parallel unordered stream is returned, which
+     *                still receives the chunks in document order
+     * @param pool    The pool to parse the chunks on
+     * @return A stream of the snapshots of the records
+     * @throws IllegalArgumentException If the depth is less than {@code 1}
+     * @throws IOException              If the file could not be read or is
+     *                                  larger than 2 GiB
+     * @throws XmlPullParserException   If the document is malformed before
+     *                                  the first record
+     * @see XmlSnapshot#newParser()
+     */
+    public static @NonNull Stream<XmlSnapshot> parseRecords(
+            final @NonNull Path path,
+            final int depth,
+            final @NonNull String name,
+            final boolean ordered,
+            final @NonNull ForkJoinPool pool
+    ) throws IllegalArgumentException, IOException, XmlPullParserException {
+        if (depth < 1) {
+            throw new IllegalArgumentException("Depth must be at least 1: " + depth);
+        }
+
+        final RecordSplitter splitter;
+
+        // The mapping stays valid after the channel is closed
+        try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            splitter = new RecordSplitter(map(channel), depth, name, pool);
+        }
+
+        splitter.start();
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        splitter,
+                        ordered
+                        ? Spliterator.ORDERED | Spliterator.NONNULL
+                        : Spliterator.NONNULL
+                ),
+                !ordered
+        ).onClose(splitter::close);
+    }
+
+    /**
+     * Parses many independent XML documents concurrently, recording every
+     * document into a snapshot.
+     * <p>
+     * As many documents as there are available processors are parsed at a
+     * time, and the snapshots are returned in the order of the sources.
+     *
+     * @param sources  The sources of the documents
+     * @param executor The executor to parse the documents on
+     * @return An ordered stream of the snapshots of the documents
+     * @see #parseAll(Collection, Executor, XmlSource.Mapper, int, boolean)
+     * @see XmlSnapshot#record(XmlPullParser)
+     */
+    public static @NonNull Stream<XmlSnapshot> parseAll(
+            final @NonNull Collection<? extends XmlSource> sources,
+            final @NonNull Executor executor
+    ) {
+        return parseAll(
+                sources,
+                executor,
+                XmlSnapshot::record,
+                Runtime.getRuntime().availableProcessors(),
+                true
+        );
+    }
+
+    /**
+     * Parses many independent XML documents concurrently and merges the
+     * results into a single stream.
+     * <p>
+     * Every source is opened, mapped and closed on the executor, the parser
+     * is closed even if the mapper fails. At most {@code parallelism}
+     * documents are parsed or waiting to be consumed at a time, and the next
+     * source is submitted only when a result is consumed, so the parsing
+     * never runs ahead of the consumer by more than that.
+     * <p>
+     * A failure of a source is thrown as an {@link IllegalStateException}
+     * from the stream when its result is reached. Closing the stream stops
+     * submitting new sources, the ones that are already submitted are
+     * completed in the background.
+     *
+     * @param sources     The sources of the documents
+     * @param executor    The executor to parse the documents on
+     * @param mapper      The function that parses a document into a result
+     * @param parallelism The maximum number of documents parsed at a time
+     * @param ordered     Whether the results should be in the order of the
+     *                    sources, if false, they are in the order of
+     *                    completion
+     * @param <R>         The type of the results
+     * @return A stream of the results of the documents
+     * @throws IllegalArgumentException If the parallelism is less than
+     *                                  {@code 1}
+     * @see XmlSource
+     */
+    public static <R> @NonNull Stream<R> parseAll(
+            final @NonNull Collection<? extends XmlSource> sources,
+            final @NonNull Executor executor,
+            final @NonNull XmlSource.Mapper<? extends R> mapper,
+            final int parallelism,
+            final boolean ordered
+    ) throws IllegalArgumentException {
+        if (parallelism < 1) {
+            throw new IllegalArgumentException("Parallelism must be at least 1: " + parallelism);
+        }
+
+        final SourceIterator<R> iterator =
+                new SourceIterator<>(sources.iterator(), executor, mapper, parallelism, ordered);
+
+        return StreamSupport.stream(
+                // Not sized, a sized stream may count the sources without
+                // parsing them and skip the failures
+                Spliterators.spliteratorUnknownSize(
+                        iterator,
+                        ordered
+                        ? Spliterator.ORDERED | Spliterator.NONNULL
+                        : Spliterator.NONNULL
+                ),
+                false
+        ).onClose(iterator::close);
+    }
+
+    /**
+     * Builds a compact document model from all remaining events of the given
+     * parser, for random access and repeated queries over one document
+     *
+     * @param parser The pull parser to use
+     * @return A new document
+     * @throws IllegalArgumentException If the parser is inside an element,
+     *                                  but not at its start tag
+     * @throws XmlPullParserException   If the document is malformed
+     * @throws IOException              If the parser failed to read the input
+     * @see XmlDocument
+     */
+    public static @NonNull XmlDocument parseDocument(final @NonNull XmlPullParser parser) throws IllegalArgumentException, XmlPullParserException, IOException {
+        return XmlDocument.build(parser);
+    }
+
+    /**
+     * Builds a compact document model from all remaining events of the given
+     * parser, binding the names of all elements and attributes to a copy of
+     * the given symbol table
+     *
+     * @param parser   The pull parser to use
+     * @param template The template symbol table
+     * @return A new document
+     * @throws IllegalArgumentException If the parser is inside an element,
+     *                                  but not at its start tag
+     * @throws XmlPullParserException   If the document is malformed
+     * @throws IOException              If the parser failed to read the input
+     * @see SymbolTable
+     * @see #parseDocument(XmlPullParser)
+     */
+    public static @NonNull XmlDocument parseDocument(
+            final @NonNull XmlPullParser parser,
+            final @NonNull SymbolTable template
+    ) throws IllegalArgumentException, XmlPullParserException, IOException {
+        return XmlDocument.build(parser, template);
+    }
+
+    /**
+     * Creates an allocation-free cursor over an XML document using a
+     * {@link XmlResourceParser resource parser}.
+     * <p>
+     * The cursor exposes a single reusable tag view, which is re-pointed at
+     * every event, so the returned tag is valid only until the next
+     * {@link TagCursor#advance() advance}.
+     * <p>
+     * <b>NOTE:</b> The parser closes automatically when the cursor is closed.
+     *
+     * @param parser The pull parser to use
+     * @return A new tag cursor
+     * @see TagCursor
+     * @see #parseResource(XmlResourceParser)
+     */
+    public static @NonNull TagCursor cursorResource(final @NonNull XmlResourceParser parser) {
+        return cursorResource(parser, new SymbolTable());
+    }
+
+    /**
+     * Creates an allocation-free cursor over an XML document using a
+     * {@link XmlResourceParser resource parser}, binding the names of all tags
+     * and attributes to the given symbol table
+     * <p>
+     * <b>NOTE:</b> The parser closes automatically when the cursor is closed.
+     *
+     * @param parser  The pull parser to use
+     * @param symbols The symbol table of the parse
+     * @return A new tag cursor
+     * @see SymbolTable
+     * @see #cursorResource(XmlResourceParser)
+     */
+    public static @NonNull TagCursor cursorResource(
+            final @NonNull XmlResourceParser parser,
+            final @NonNull SymbolTable symbols
+    ) {
+        return TagCursor.create(parser, symbols);
+    }
+
+    /**
+     * Creates an allocation-free cursor over an XML document using a
+     * {@link XmlPullParser standard pull parser}.
+     * <p>
+     * The cursor exposes a single reusable tag view, which is re-pointed at
+     * every event, so the returned tag is valid only until the next
+     * {@link TagCursor#advance() advance}.
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the cursor
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser The pull parser to use
+     * @return A new tag cursor
+     * @see TagCursor
+     * @see #parsePull(XmlPullParser)
+     */
+    public static @NonNull TagCursor cursorPull(final @NonNull XmlPullParser parser) {
+        return cursorPull(parser, new SymbolTable());
+    }
+
+    /**
+     * Creates an allocation-free cursor over an XML document using a
+     * {@link XmlPullParser standard pull parser}, binding the names of all tags
+     * and attributes to the given symbol table
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the cursor
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser  The pull parser to use
+     * @param symbols The symbol table of the parse
+     * @return A new tag cursor
+     * @see SymbolTable
+     * @see #cursorPull(XmlPullParser)
+     */
+    public static @NonNull TagCursor cursorPull(
+            final @NonNull XmlPullParser parser,
+            final @NonNull SymbolTable symbols
+    ) {
+        return TagCursor.create(parser, symbols);
+    }
+
+    /**
+     * Creates a push parser for an XML document that arrives in chunks of
+     * UTF-8 input.
+     * <p>
+     * The feeder never blocks, the events that are complete in the input fed
+     * so far are polled, and polling returns null when more input is needed.
+     *
+     * @return A new feeder
+     * @see XmlFeeder
+     */
+    public static @NonNull XmlFeeder feeder() {
+        return feeder(new SymbolTable());
+    }
+
+    /**
+     * Creates a push parser for an XML document that arrives in chunks of
+     * UTF-8 input, binding the names of all tags and attributes to the given
+     * symbol table
+     *
+     * @param symbols The symbol table of the parse
+     * @return A new feeder
+     * @see SymbolTable
+     * @see #feeder()
+     */
+    public static @NonNull XmlFeeder feeder(final @NonNull SymbolTable symbols) {
+        return new XmlFeeder(symbols);
+    }
+
+    /**
+     * Dispatches the events of an XML document to the handlers of the given
+     * table.
+     * <p>
+     * Unlike the tag stream, dispatching runs a plain loop over the parser
+     * events without creating any objects per event. The handlers receive
+     * reusable tag views, which are valid only until the handler returns.
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically. Therefore, it
+     *              is the responsibility of the caller to close the input
+     *              stream.
+     *
+     * @param parser   The pull parser to use
+     * @param handlers The handlers of the elements
+     * @throws IllegalStateException If the parser failed to read the next
+     *                               event
+     * @see TagHandlers
+     * @see TagHandler
+     */
+    public static void dispatch(
+            final @NonNull XmlPullParser parser,
+            final @NonNull TagHandlers handlers
+    ) throws IllegalStateException {
+        handlers.dispatch(parser);
+    }
+
+    /**
+     * Returns a stream of the elements at the given depth of an XML document.
+     * <p>
+     * All other events, including the subtrees of the returned elements, are
+     * skipped at the pull parser level by tracking the depth, no tags are
+     * created for them. So, reading one branch of a large document costs
+     * only the time of reading that branch.
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the stream
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser The pull parser to use
+     * @param depth  The depth of the elements, where {@code 1} is the depth of
+     *               the root element
+     * @return A stream of the start tags at the given depth
+     * @see StartTag#children()
+     * @see StartTag#skipSubtree()
+     */
+    public static @NonNull Stream<StartTag> elements(
+            final @NonNull XmlPullParser parser,
+            final int depth
+    ) {
+        return elements(parser, depth, new SymbolTable());
+    }
+
+    /**
+     * Returns a stream of the elements at the given depth of an XML document,
+     * binding the names of the elements and their attributes to the given
+     * symbol table
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the stream
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser  The pull parser to use
+     * @param depth   The depth of the elements, where {@code 1} is the depth
+     *                of the root element
+     * @param symbols The symbol table of the parse
+     * @return A stream of the start tags at the given depth
+     * @see SymbolTable
+     * @see #elements(XmlPullParser, int)
+     */
+    public static @NonNull Stream<StartTag> elements(
+            final @NonNull XmlPullParser parser,
+            final int depth,
+            final @NonNull SymbolTable symbols
+    ) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        new ElementIterator(parser, symbols, depth),
+                        Spliterator.ORDERED | Spliterator.NONNULL
+                ),
+                false
+        );
+    }
+
+    /**
+     * Returns a stream of the elements of an XML document that match the
+     * given path.
+     * <p>
+     * The path is evaluated in a single pass while the document is pulled,
+     * subtrees that can not contain a match are skipped at the pull parser
+     * level and only the matching elements are created as tags.
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the stream
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser The pull parser to use
+     * @param path   The compiled path to match
+     * @return A stream of the matching start tags
+     * @see XmlPath
+     * @see XmlPath#select(XmlPullParser)
+     */
+    public static @NonNull Stream<StartTag> select(
+            final @NonNull XmlPullParser parser,
+            final @NonNull XmlPath path
+    ) {
+        return path.select(parser);
+    }
+
+    /**
+     * Returns a stream of the elements of an XML document that match the
+     * given path, binding the names of the elements and their attributes to
+     * the given symbol table
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the stream
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser  The pull parser to use
+     * @param path    The compiled path to match
+     * @param symbols The symbol table of the parse
+     * @return A stream of the matching start tags
+     * @see SymbolTable
+     * @see #select(XmlPullParser, XmlPath)
+     */
+    public static @NonNull Stream<StartTag> select(
+            final @NonNull XmlPullParser parser,
+            final @NonNull XmlPath path,
+            final @NonNull SymbolTable symbols
+    ) {
+        return path.select(parser, symbols);
+    }
+
+    /**
+     * Maps the whole contents of the given channel into memory
+     *
+     * @param channel The file channel to map
+     * @return A read-only buffer of the contents of the channel
+     * @throws IOException If the channel could not be mapped or is larger
+     *                     than 2 GiB
+     */
+    static @NonNull ByteBuffer map(final @NonNull FileChannel channel) throws IOException {
+        final long size = channel.size();
+
+        if (size > Integer.MAX_VALUE) {
+            throw new IOException("File is too large to map: " + size + " bytes");
+        }
+
+        return channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+
+    /**
+     * Creates a namespace-aware {@link Utf8PullParser} over the memory-mapped
+     * contents of the given channel.
+     * <p>
+     * The mapping stays valid after the channel is closed.
+     *
+     * @param channel The file channel to parse
+     * @return A new parser over the contents of the channel
+     * @throws IOException            If the channel could not be mapped
+     * @throws XmlPullParserException If the parser could not be created
+     */
+    static @NonNull Utf8PullParser newMappedParser(final @NonNull FileChannel channel) throws IOException, XmlPullParserException {
+        final Utf8PullParser parser = new Utf8PullParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(map(channel));
+
+        return parser;
+    }
+
+    private static void closeAfterFailure(
+            final @NonNull FileChannel channel,
+            final @NonNull Throwable failure
+    ) {
+        try {
+            channel.close();
+        } catch (final IOException e) {
+            failure.addSuppressed(e);
+        }
+    }
+
     private static class TagIterator implements Iterator<XmlTag> {
         private final XmlPullParser parser;
+        private final SymbolTable symbols;
 
-        TagIterator(final @NonNull XmlPullParser parser) {
+        TagIterator(
+                final @NonNull XmlPullParser parser,
+                final @NonNull SymbolTable symbols
+        ) {
             this.parser = parser;
+            this.symbols = symbols;
         }
 
         @Override
@@ -93,13 +815,75 @@ public final class XmlParser {
 
         @Override
         public @NonNull XmlTag next() throws NoSuchElementException {
+            final int type;
+
             try {
-                this.parser.next();
+                type = this.parser.next();
             } catch (final IOException | XmlPullParserException ignored) {
                 throw new NoSuchElementException();
             }
 
-            return XmlTag.create(this.parser);
+            return XmlTag.create(this.parser, type, this.symbols);
+        }
+    }
+
+    private static class ElementIterator implements Iterator<StartTag> {
+        private final XmlPullParser parser;
+        private final SymbolTable symbols;
+        private final int depth;
+        private StartTag next;
+        private boolean finished;
+
+        ElementIterator(
+                final @NonNull XmlPullParser parser,
+                final @NonNull SymbolTable symbols,
+                final int depth
+        ) {
+            this.parser = parser;
+            this.symbols = symbols;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean hasNext() throws IllegalStateException {
+            if (this.next != null) {
+                return true;
+            }
+
+            if (this.finished) {
+                return false;
+            }
+
+            try {
+                for (int type = this.parser.next(); type != END_DOCUMENT; type = this.parser.next()) {
+                    if (
+                            type == START_TAG
+                            && this.parser.getDepth() == this.depth
+                    ) {
+                        this.next = XmlTag.create(this.parser, type, this.symbols).toStartTag();
+
+                        return true;
+                    }
+                }
+            } catch (final IOException | XmlPullParserException e) {
+                throw new IllegalStateException("Failed to read the next event", e);
+            }
+
+            this.finished = true;
+
+            return false;
+        }
+
+        @Override
+        public @NonNull StartTag next() throws NoSuchElementException, IllegalStateException {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final StartTag next = this.next;
+            this.next = null;
+
+            return next;
         }
     }
 }
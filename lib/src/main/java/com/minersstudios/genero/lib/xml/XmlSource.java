@@ -0,0 +1,127 @@
+package com.minersstudios.genero.lib.xml;
+
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.XmlRes;
+
+import com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot;
+
+import org.jetbrains.annotations.Contract;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * A source of an XML document, which opens a new parser on demand.
+ * <p>
+ * Sources are used to parse many independent documents concurrently, every
+ * source is opened on the thread that parses it and the parser is closed
+ * with {@link #close(XmlPullParser)} as soon as it is parsed, even if the
+ * parse fails.
+ *
+ * @see XmlParser#parseAll(java.util.Collection, java.util.concurrent.Executor)
+ */
+@FunctionalInterface
+public interface XmlSource {
+
+    /**
+     * Opens a new parser, positioned at the start of the document
+     *
+     * @return A new parser of the document
+     * @throws IOException            If the document could not be read
+     * @throws XmlPullParserException If the parser could not be created
+     */
+    @NonNull XmlPullParser open() throws IOException, XmlPullParserException;
+
+    /**
+     * Closes a parser opened by this source.
+     * <p>
+     * By default, {@link XmlResourceParser resource parsers} are closed and
+     * other parsers are left as they are. Sources that open a parser over a
+     * stream should override this method to close the stream.
+     *
+     * @param parser The parser to close
+     * @throws IOException If the parser could not be closed
+     */
+    default void close(final @NonNull XmlPullParser parser) throws IOException {
+        if (parser instanceof XmlResourceParser) {
+            ((XmlResourceParser) parser).close();
+        }
+    }
+
+    /**
+     * Returns a source of a UTF-8 XML document file.
+     * <p>
+     * The file is read through a memory mapping by a namespace-aware
+     * {@link Utf8PullParser}, the file channel is closed as soon as the file
+     * is mapped.
+     *
+     * @param path The path of the file
+     * @return A new source of the file
+     * @see XmlParser#parseFile(Path)
+     */
+    @Contract("_ -> new")
+    static @NonNull XmlSource of(final @NonNull Path path) {
+        return () -> {
+            try (final FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                return XmlParser.newMappedParser(channel);
+            }
+        };
+    }
+
+    /**
+     * Returns a source of a compiled XML resource
+     *
+     * @param resources The resources to read the XML resource from
+     * @param id        The ID of the XML resource
+     * @return A new source of the XML resource
+     * @see Resources#getXml(int)
+     */
+    @Contract("_, _ -> new")
+    static @NonNull XmlSource of(
+            final @NonNull Resources resources,
+            final @XmlRes int id
+    ) {
+        return () -> resources.getXml(id);
+    }
+
+    /**
+     * Returns a source that replays the given snapshot
+     *
+     * @param snapshot The snapshot to replay
+     * @return A new source of the snapshot
+     * @see XmlSnapshot#newParser()
+     */
+    @Contract("_ -> new")
+    static @NonNull XmlSource of(final @NonNull XmlSnapshot snapshot) {
+        return snapshot::newParser;
+    }
+
+    /**
+     * A function that parses a document into a result
+     *
+     * @param <R> The type of the result
+     */
+    @FunctionalInterface
+    interface Mapper<R> {
+
+        /**
+         * Parses the document of the given parser.
+         * <p>
+         * The parser does not have to be read to the end, it is closed after
+         * this method returns.
+         *
+         * @param parser The parser of the document
+         * @return The result of the parse, must not be null
+         * @throws IOException            If the document could not be read
+         * @throws XmlPullParserException If the document is malformed
+         */
+        @NonNull R map(final @NonNull XmlPullParser parser) throws IOException, XmlPullParserException;
+    }
+}
@@ -0,0 +1,33 @@
+package com.minersstudios.genero.lib.xml.bind;
+
+import android.content.res.XmlResourceParser;
+
+import androidx.annotation.NonNull;
+
+/**
+ * Binds the attributes of the current element of a parser to the fields of a
+ * target object.
+ * <p>
+ * Implementations are generated at compile time for classes annotated with
+ * {@link XmlSchema}.
+ *
+ * @param <T> The type of the target object
+ * @see XmlSchema
+ */
+public interface AttributeBinder<T> {
+
+    /**
+     * Reads all known attributes of the current element of the parser into
+     * the fields of the target object.
+     * <p>
+     * Fields of attributes that are missing from the element keep their
+     * current values.
+     *
+     * @param parser The parser positioned at a start tag
+     * @param target The object to bind the attributes to
+     */
+    void bind(
+            final @NonNull XmlResourceParser parser,
+            final @NonNull T target
+    );
+}
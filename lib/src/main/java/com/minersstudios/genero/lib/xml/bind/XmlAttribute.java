@@ -0,0 +1,83 @@
+package com.minersstudios.genero.lib.xml.bind;
+
+import androidx.annotation.NonNull;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Declares a field of an {@link XmlSchema XML schema} class as the target of
+ * an XML attribute.
+ * <p>
+ * The field must not be private, static or final, and its type must match
+ * the {@link #format() format} of the attribute.
+ *
+ * @see XmlSchema
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.FIELD)
+public @interface XmlAttribute {
+
+    /**
+     * Returns the namespace URI of the attribute.
+     * <p>
+     * The default namespace is represented as empty string.
+     *
+     * @return The namespace URI of the attribute
+     */
+    @NonNull String namespace() default "";
+
+    /**
+     * Returns the local name of the attribute
+     *
+     * @return The local name of the attribute
+     */
+    @NonNull String name();
+
+    /**
+     * Returns the format the attribute value is read in
+     *
+     * @return The format the attribute value is read in
+     */
+    @NonNull Format format() default Format.AUTO;
+
+    /**
+     * Formats of the attribute values
+     */
+    enum Format {
+        /**
+         * Inferred from the field type : {@code String} - {@link #STRING},
+         * {@code int} - {@link #INT}, {@code float} - {@link #FLOAT},
+         * {@code boolean} - {@link #BOOLEAN}
+         */
+        AUTO,
+        /**
+         * Raw string value, for {@code String} fields
+         */
+        STRING,
+        /**
+         * Resource identifier, for {@code int} fields
+         */
+        RESOURCE,
+        /**
+         * Integer value, for {@code int} fields
+         */
+        INT,
+        /**
+         * Unsigned integer value (e.g. a color), for {@code int} fields
+         */
+        UNSIGNED_INT,
+        /**
+         * Float value, for {@code float} fields
+         */
+        FLOAT,
+        /**
+         * Boolean value, for {@code boolean} fields
+         */
+        BOOLEAN
+    }
+}
@@ -0,0 +1,48 @@
+package com.minersstudios.genero.lib.xml.bind;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a class as a schema of XML attributes.
+ * <p>
+ * For every schema class, a binder named {@code <SchemaName>Binder} is
+ * generated at compile time in the same package. The binder of a nested
+ * schema class is named after its enclosing classes too, joined with
+ * {@code _}, e.g. {@code MenuCache_MenuItemSchemaBinder} for
+ * {@code MenuCache.MenuItemSchema}. The binder reads all
+ * {@link XmlAttribute declared attributes} of the current element straight
+ * into the fields of a schema instance, in a single loop over the attributes,
+ * without reflection, boxing or per-attribute objects.
+ * <p>
+ * Fields keep their initial values for attributes that are missing from the
+ * element, so the field initializers act as default values.
+ *
+ * <pre>{@code
+ * @XmlSchema
+ * final class ItemSchema {
+ *     @XmlAttribute(namespace = ANDROID_NAMESPACE, name = "icon", format = Format.RESOURCE)
+ *     int icon = 0;
+ * }
+ *
+ * final ItemSchema schema = new ItemSchema();
+ * startTag.bindAttributes(ItemSchemaBinder.INSTANCE, schema);
+ *
+ * final class Menu {
+ *     @XmlSchema
+ *     static final class ItemSchema { ... }
+ * }
+ *
+ * startTag.bindAttributes(Menu_ItemSchemaBinder.INSTANCE, new Menu.ItemSchema());
+ * }</pre>
+ *
+ * @see XmlAttribute
+ * @see AttributeBinder
+ */
+@Documented
+@Retention(RetentionPolicy.SOURCE)
+@Target(ElementType.TYPE)
+public @interface XmlSchema {}
@@ -0,0 +1,10 @@
+/**
+ * Compile-time generated attribute binders.
+ * <p>
+ * Classes annotated with {@link com.minersstudios.genero.lib.xml.bind.XmlSchema}
+ * get a generated {@link com.minersstudios.genero.lib.xml.bind.AttributeBinder}
+ * that reads the declared attributes in a single loop.
+ *
+ * @see com.minersstudios.genero.lib.xml.bind.XmlSchema
+ */
+package com.minersstudios.genero.lib.xml.bind;
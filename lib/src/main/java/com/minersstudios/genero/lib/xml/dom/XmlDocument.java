@@ -0,0 +1,912 @@
+package com.minersstudios.genero.lib.xml.dom;
+
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+import static org.xmlpull.v1.XmlPullParser.TEXT;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
+import org.jetbrains.annotations.Contract;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.stream.IntStream;
+
+import javax.annotation.concurrent.Immutable;
+import javax.annotation.concurrent.ThreadSafe;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * A compact, index-based model of a parsed XML document.
+ * <p>
+ * The nodes of the document are numbered in document order, starting with
+ * the root element at {@code 0}, and stored in parallel int arrays:
+ *
+ * <pre>
+ * int[] parent, first child, next sibling   (per node)
+ * int[] name id                             (per node, a symbol id)
+ * int[] value                               (per node, a string of the text)
+ * int[] first attribute                     (per node, plus the total count)
+ * int[] attribute name id, attribute value  (per attribute)
+ * char[] string characters                  (shared by all values)
+ * </pre>
+ * <p>
+ * So, a node costs six ints and an attribute two, no matter how many there
+ * are, and the values are deduplicated into a single char array. Element and
+ * attribute names are bound to the {@link #getSymbolTable() symbol table} of
+ * the document, so matching a name costs a single int compare. Strings are
+ * decoded lazily, on their first access, and cached for the lifetime of the
+ * document.
+ *
+ * <pre>{@code
+ * final XmlDocument document = XmlParser.parseDocument(parser);
+ * final XmlDocument.Index ids = document.index("", "id");
+ * final int product = ids.find("p-42");
+ *
+ * final int price = document.findChild(product, priceId);
+ * final String text = document.getText(price);
+ * }</pre>
+ * <p>
+ * <b>NOTE:</b> Only elements and non-whitespace text are kept, comments,
+ *              processing instructions and the text outside of the root
+ *              element are dropped.
+ */
+@ThreadSafe
+public final class XmlDocument {
+    private final SymbolTable symbols;
+    private final int[] parents;
+    private final int[] firstChildren;
+    private final int[] nextSiblings;
+    private final int[] names;
+    private final int[] values;
+    private final int[] firstAttributes;
+    private final int[] attributeNames;
+    private final int[] attributeValues;
+    private final int[] stringStarts;
+    private final char[] chars;
+    private final String[] stringCache;
+
+    /**
+     * The node returned when there is no such node
+     */
+    public static final int NO_NODE = -1;
+
+    private static final int NO_STRING = -1;
+
+    private XmlDocument(final @NonNull Builder builder) {
+        this.symbols = builder.symbols;
+        this.parents = builder.parents.toIntArray();
+        this.firstChildren = builder.firstChildren.toIntArray();
+        this.nextSiblings = builder.nextSiblings.toIntArray();
+        this.names = builder.names.toIntArray();
+        this.values = builder.values.toIntArray();
+        this.firstAttributes = builder.firstAttributes.toIntArray();
+        this.attributeNames = builder.attributeNames.toIntArray();
+        this.attributeValues = builder.attributeValues.toIntArray();
+
+        final int stringCount = builder.strings.size();
+
+        this.stringStarts = new int[stringCount + 1];
+        this.chars = new char[builder.charCount];
+        this.stringCache = new String[stringCount];
+
+        int offset = 0;
+
+        for (int i = 0; i < stringCount; ++i) {
+            final String string = builder.strings.get(i);
+
+            string.getChars(0, string.length(), this.chars, offset);
+
+            this.stringStarts[i] = offset;
+            offset += string.length();
+        }
+
+        this.stringStarts[stringCount] = offset;
+    }
+
+    /**
+     * Builds a document from all remaining events of the given parser
+     *
+     * @param parser The parser to read, it is advanced up to the end of the
+     *               document
+     * @return A new document
+     * @throws IllegalArgumentException If the parser is inside an element,
+     *                                  but not at its start tag
+     * @throws XmlPullParserException   If the document is malformed
+     * @throws IOException              If the parser failed to read the input
+     * @see #build(XmlPullParser, SymbolTable)
+     */
+    @Contract("_ -> new")
+    public static @NonNull XmlDocument build(final @NonNull XmlPullParser parser) throws IllegalArgumentException, XmlPullParserException, IOException {
+        return build(parser, new SymbolTable());
+    }
+
+    /**
+     * Builds a document from all remaining events of the given parser, in a
+     * single pass.
+     * <p>
+     * The names are interned into a copy of the given symbol table, so the
+     * ids of a schema can be used to navigate the document.
+     * <p>
+     * If the parser is at the start tag of a nested element, the document is
+     * built from that element and its content only, the element becomes the
+     * root and the parser is advanced up to its end tag.
+     *
+     * @param parser   The parser to read, it is advanced up to the end of the
+     *                 document or of the current element
+     * @param template The template symbol table
+     * @return A new document
+     * @throws IllegalArgumentException If the parser is inside an element,
+     *                                  but not at its start tag
+     * @throws XmlPullParserException   If the document is malformed
+     * @throws IOException              If the parser failed to read the input
+     */
+    @Contract("_, _ -> new")
+    public static @NonNull XmlDocument build(
+            final @NonNull XmlPullParser parser,
+            final @NonNull SymbolTable template
+    ) throws IllegalArgumentException, XmlPullParserException, IOException {
+        final int first = parser.getEventType();
+        final int baseDepth =
+                first == START_TAG
+                ? parser.getDepth() - 1
+                : parser.getDepth();
+
+        // The siblings that follow the current element would all be roots
+        if (
+                first != START_TAG
+                && baseDepth > 0
+        ) {
+            throw new IllegalArgumentException("Parser is inside an element, but not at its start tag: " + parser.getPositionDescription());
+        }
+
+        final Builder builder = new Builder(parser, template.copy(), baseDepth);
+
+        for (int type = first; type != END_DOCUMENT; type = parser.next()) {
+            switch (type) {
+                case START_TAG:
+                    builder.addElement();
+
+                    break;
+                case END_TAG:
+                    if (
+                            baseDepth > 0
+                            && parser.getDepth() == baseDepth + 1
+                    ) {
+                        return new XmlDocument(builder);
+                    }
+
+                    break;
+                case TEXT:
+                    if (
+                            parser.getDepth() > baseDepth
+                            && !parser.isWhitespace()
+                    ) {
+                        builder.addText();
+                    }
+
+                    break;
+                default:
+                    break;
+            }
+        }
+
+        return new XmlDocument(builder);
+    }
+
+    /**
+     * Returns the symbol table the names of the document are bound to.
+     * <p>
+     * <b>NOTE:</b> The table is shared by the document, it must not be
+     *              modified.
+     *
+     * @return The symbol table of the document
+     */
+    public @NonNull SymbolTable getSymbolTable() {
+        return this.symbols;
+    }
+
+    /**
+     * Returns the number of nodes in this document
+     *
+     * @return The number of element and text nodes
+     */
+    public int getNodeCount() {
+        return this.names.length;
+    }
+
+    /**
+     * Returns the root element of this document
+     *
+     * @return The root element or {@link #NO_NODE} if the document is empty
+     */
+    public int getRoot() {
+        return this.names.length == 0 ? NO_NODE : 0;
+    }
+
+    /**
+     * Returns the approximate size of this document in memory, excluding the
+     * symbol table and the cached strings
+     *
+     * @return The size of the arrays of this document in bytes
+     */
+    public long getByteSize() {
+        return (long) Integer.BYTES * (
+                6L * this.names.length
+                + 1
+                + 2L * this.attributeNames.length
+                + this.stringStarts.length
+        )
+                + (long) Character.BYTES * this.chars.length;
+    }
+
+    /**
+     * Returns whether the given node is an element
+     *
+     * @param node The node
+     * @return True if the node is an element, false if it is text
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public boolean isElement(final int node) throws IndexOutOfBoundsException {
+        return this.names[node] != SymbolTable.NO_SYMBOL;
+    }
+
+    /**
+     * Returns the parent element of the given node
+     *
+     * @param node The node
+     * @return The parent element or {@link #NO_NODE} for the root element
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public int getParent(final int node) throws IndexOutOfBoundsException {
+        return this.parents[node];
+    }
+
+    /**
+     * Returns the first child of the given node
+     *
+     * @param node The node
+     * @return The first child or {@link #NO_NODE} if the node has no children
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public int getFirstChild(final int node) throws IndexOutOfBoundsException {
+        return this.firstChildren[node];
+    }
+
+    /**
+     * Returns the next sibling of the given node
+     *
+     * @param node The node
+     * @return The next sibling or {@link #NO_NODE} if the node is the last
+     *         child of its parent
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public int getNextSibling(final int node) throws IndexOutOfBoundsException {
+        return this.nextSiblings[node];
+    }
+
+    /**
+     * Returns the symbol id of the name of the given node
+     *
+     * @param node The node
+     * @return The symbol id of the name or {@link SymbolTable#NO_SYMBOL} for
+     *         text
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public int getNameId(final int node) throws IndexOutOfBoundsException {
+        return this.names[node];
+    }
+
+    /**
+     * Returns the local name of the given node
+     *
+     * @param node The node
+     * @return The local name or null for text
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public @Nullable String getName(final int node) throws IndexOutOfBoundsException {
+        final int name = this.names[node];
+
+        return name == SymbolTable.NO_SYMBOL
+               ? null
+               : this.symbols.getName(name);
+    }
+
+    /**
+     * Returns the namespace of the given node
+     *
+     * @param node The node
+     * @return The namespace, an empty string if the element has no namespace,
+     *         or null for text
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public @Nullable String getNamespace(final int node) throws IndexOutOfBoundsException {
+        final int name = this.names[node];
+
+        return name == SymbolTable.NO_SYMBOL
+               ? null
+               : this.symbols.getNamespace(name);
+    }
+
+    /**
+     * Returns the text of the given node.
+     * <p>
+     * For an element, this is the text directly contained in it, without the
+     * text of its child elements.
+     *
+     * @param node The node
+     * @return The text of the node, an empty string if an element contains
+     *         no text
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public @NonNull String getText(final int node) throws IndexOutOfBoundsException {
+        if (!this.isElement(node)) {
+            return this.string(this.values[node]);
+        }
+
+        String text = null;
+        StringBuilder builder = null;
+
+        for (int child = this.firstChildren[node]; child != NO_NODE; child = this.nextSiblings[child]) {
+            if (this.isElement(child)) {
+                continue;
+            }
+
+            final String childText = this.string(this.values[child]);
+
+            if (text == null) {
+                text = childText;
+            } else {
+                if (builder == null) {
+                    builder = new StringBuilder(text);
+                }
+
+                builder.append(childText);
+            }
+        }
+
+        if (builder != null) {
+            return builder.toString();
+        }
+
+        return text == null ? "" : text;
+    }
+
+    /**
+     * Returns the number of attributes of the given node
+     *
+     * @param node The node
+     * @return The number of attributes, {@code 0} for text
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public int getAttributeCount(final int node) throws IndexOutOfBoundsException {
+        return this.firstAttributes[node + 1] - this.firstAttributes[node];
+    }
+
+    /**
+     * Returns the first attribute of the given node, the attributes of a
+     * node are numbered consecutively
+     *
+     * @param node The node
+     * @return The index of the first attribute of the node
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     * @see #getAttributeCount(int)
+     */
+    public int getFirstAttribute(final int node) throws IndexOutOfBoundsException {
+        return this.firstAttributes[node];
+    }
+
+    /**
+     * Returns the symbol id of the name of the given attribute
+     *
+     * @param attribute The index of the attribute
+     * @return The symbol id of the attribute name
+     * @throws IndexOutOfBoundsException If the attribute is not in this
+     *                                   document
+     */
+    public int getAttributeNameId(final int attribute) throws IndexOutOfBoundsException {
+        return this.attributeNames[attribute];
+    }
+
+    /**
+     * Returns the local name of the given attribute
+     *
+     * @param attribute The index of the attribute
+     * @return The local name of the attribute
+     * @throws IndexOutOfBoundsException If the attribute is not in this
+     *                                   document
+     */
+    public @NonNull String getAttributeName(final int attribute) throws IndexOutOfBoundsException {
+        return this.symbols.getName(this.attributeNames[attribute]);
+    }
+
+    /**
+     * Returns the namespace of the given attribute
+     *
+     * @param attribute The index of the attribute
+     * @return The namespace of the attribute, an empty string if it has no
+     *         namespace
+     * @throws IndexOutOfBoundsException If the attribute is not in this
+     *                                   document
+     */
+    public @NonNull String getAttributeNamespace(final int attribute) throws IndexOutOfBoundsException {
+        return this.symbols.getNamespace(this.attributeNames[attribute]);
+    }
+
+    /**
+     * Returns the value of the given attribute
+     *
+     * @param attribute The index of the attribute
+     * @return The value of the attribute
+     * @throws IndexOutOfBoundsException If the attribute is not in this
+     *                                   document
+     */
+    public @NonNull String getAttributeValue(final int attribute) throws IndexOutOfBoundsException {
+        return this.string(this.attributeValues[attribute]);
+    }
+
+    /**
+     * Returns the attribute of the given node with the given name
+     *
+     * @param node   The node
+     * @param nameId The symbol id of the attribute name
+     * @return The index of the attribute or {@code -1} if the node has no
+     *         such attribute
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public int indexOfAttribute(
+            final int node,
+            final int nameId
+    ) throws IndexOutOfBoundsException {
+        for (int i = this.firstAttributes[node], end = this.firstAttributes[node + 1]; i < end; ++i) {
+            if (this.attributeNames[i] == nameId) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    /**
+     * Returns the value of the attribute of the given node with the given
+     * namespace and name
+     *
+     * @param node      The node
+     * @param namespace The namespace of the attribute, null is treated as an
+     *                  empty string
+     * @param name      The local name of the attribute
+     * @return The value of the attribute or null if the node has no such
+     *         attribute
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public @Nullable String getAttributeValue(
+            final int node,
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) throws IndexOutOfBoundsException {
+        final int nameId = this.symbols.lookup(namespace, name);
+
+        if (nameId == SymbolTable.NO_SYMBOL) {
+            return null;
+        }
+
+        final int attribute = this.indexOfAttribute(node, nameId);
+
+        return attribute == -1 ? null : this.getAttributeValue(attribute);
+    }
+
+    /**
+     * Returns the first child element of the given node with the given name
+     *
+     * @param node   The node
+     * @param nameId The symbol id of the element name
+     * @return The first matching child or {@link #NO_NODE} if there is none
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public int findChild(
+            final int node,
+            final int nameId
+    ) throws IndexOutOfBoundsException {
+        int child = this.firstChildren[node];
+
+        while (
+                child != NO_NODE
+                && this.names[child] != nameId
+        ) {
+            child = this.nextSiblings[child];
+        }
+
+        return child;
+    }
+
+    /**
+     * Returns the next sibling element of the given node with the given name
+     *
+     * @param node   The node
+     * @param nameId The symbol id of the element name
+     * @return The next matching sibling or {@link #NO_NODE} if there is none
+     * @throws IndexOutOfBoundsException If the node is not in this document
+     */
+    public int findNextSibling(
+            final int node,
+            final int nameId
+    ) throws IndexOutOfBoundsException {
+        int sibling = this.nextSiblings[node];
+
+        while (
+                sibling != NO_NODE
+                && this.names[sibling] != nameId
+        ) {
+            sibling = this.nextSiblings[sibling];
+        }
+
+        return sibling;
+    }
+
+    /**
+     * Returns all elements of this document with the given name, in document
+     * order
+     *
+     * @param nameId The symbol id of the element name
+     * @return A stream of the matching elements
+     */
+    public @NonNull IntStream elements(final int nameId) {
+        final int[] names = this.names;
+
+        return IntStream.range(0, names.length)
+                .filter(node -> names[node] == nameId);
+    }
+
+    /**
+     * Returns all elements of this document with the given namespace and
+     * name, in document order
+     *
+     * @param namespace The namespace of the elements, null is treated as an
+     *                  empty string
+     * @param name      The local name of the elements
+     * @return A stream of the matching elements
+     */
+    public @NonNull IntStream elements(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final int nameId = this.symbols.lookup(namespace, name);
+
+        return nameId == SymbolTable.NO_SYMBOL
+               ? IntStream.empty()
+               : this.elements(nameId);
+    }
+
+    /**
+     * Indexes the elements of this document by the value of the attribute
+     * with the given namespace and name, e.g. by their ids.
+     * <p>
+     * Building the index takes a single pass over the attributes, after
+     * which every lookup costs a hash and a comparison of the value chars.
+     *
+     * @param namespace The namespace of the attribute, null is treated as an
+     *                  empty string
+     * @param name      The local name of the attribute
+     * @return A new index of the elements
+     */
+    @Contract("_, _ -> new")
+    public @NonNull Index index(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        return new Index(this, this.symbols.lookup(namespace, name));
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "XmlDocument{" +
+                "nodes=" + this.names.length +
+                ", attributes=" + this.attributeNames.length +
+                ", strings=" + this.stringCache.length +
+                ", bytes=" + this.getByteSize() +
+                '}';
+    }
+
+    private @NonNull String string(final int index) {
+        final String cached = this.stringCache[index];
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final int start = this.stringStarts[index];
+
+        // Not synchronized, the chars never change, so a thread that misses
+        // the write of another one only decodes an equal string again
+        return this.stringCache[index] = new String(this.chars, start, this.stringStarts[index + 1] - start);
+    }
+
+    private int hash(final int string) {
+        int hash = 0;
+
+        for (int i = this.stringStarts[string], end = this.stringStarts[string + 1]; i < end; ++i) {
+            hash = 31 * hash + this.chars[i];
+        }
+
+        return mix(hash);
+    }
+
+    private boolean contentEquals(
+            final int string,
+            final @NonNull CharSequence value
+    ) {
+        final int start = this.stringStarts[string];
+        final int length = value.length();
+
+        if (this.stringStarts[string + 1] - start != length) {
+            return false;
+        }
+
+        for (int i = 0; i < length; ++i) {
+            if (this.chars[start + i] != value.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int hash(final @NonNull CharSequence value) {
+        int hash = 0;
+
+        for (int i = 0, length = value.length(); i < length; ++i) {
+            hash = 31 * hash + value.charAt(i);
+        }
+
+        return mix(hash);
+    }
+
+    private static int mix(final int hash) {
+        final int h = hash * 0x9E3779B9;
+
+        return h ^ (h >>> 16);
+    }
+
+    /**
+     * An index of the elements of a document by the value of an attribute.
+     * <p>
+     * If several elements have the same value, the first one in document
+     * order is indexed.
+     *
+     * @see XmlDocument#index(String, String)
+     */
+    @Immutable
+    public static final class Index {
+        private final XmlDocument document;
+        private final int[] strings;
+        private final int[] nodes;
+        private final int size;
+
+        Index(
+                final @NonNull XmlDocument document,
+                final int nameId
+        ) {
+            final int[] attributeNames = document.attributeNames;
+            final int[] firstAttributes = document.firstAttributes;
+            int count = 0;
+
+            if (nameId != SymbolTable.NO_SYMBOL) {
+                for (final int attributeName : attributeNames) {
+                    if (attributeName == nameId) {
+                        count++;
+                    }
+                }
+            }
+
+            final int capacity = Integer.highestOneBit(Math.max(count, 2) * 2 - 1) << 1;
+            final int mask = capacity - 1;
+            final int[] strings = new int[capacity];
+            final int[] nodes = new int[capacity];
+            int size = 0;
+
+            Arrays.fill(strings, NO_STRING);
+
+            if (count > 0) {
+                for (int node = 0, n = document.names.length; node < n; ++node) {
+                    for (int i = firstAttributes[node], end = firstAttributes[node + 1]; i < end; ++i) {
+                        if (attributeNames[i] != nameId) {
+                            continue;
+                        }
+
+                        final int string = document.attributeValues[i];
+
+                        for (int slot = document.hash(string) & mask;; slot = (slot + 1) & mask) {
+                            if (strings[slot] == NO_STRING) {
+                                strings[slot] = string;
+                                nodes[slot] = node;
+                                size++;
+
+                                break;
+                            }
+
+                            // Equal values share their string
+                            if (strings[slot] == string) {
+                                break;
+                            }
+                        }
+                    }
+                }
+            }
+
+            this.document = document;
+            this.strings = strings;
+            this.nodes = nodes;
+            this.size = size;
+        }
+
+        /**
+         * Returns the number of distinct values in this index
+         *
+         * @return The number of indexed elements
+         */
+        public int size() {
+            return this.size;
+        }
+
+        /**
+         * Returns the element with the given attribute value
+         *
+         * @param value The value of the attribute
+         * @return The element or {@link XmlDocument#NO_NODE} if no element has
+         *         the value
+         */
+        public int find(final @NonNull CharSequence value) {
+            final int mask = this.strings.length - 1;
+
+            for (int slot = hash(value) & mask;; slot = (slot + 1) & mask) {
+                final int string = this.strings[slot];
+
+                if (string == NO_STRING) {
+                    return NO_NODE;
+                }
+
+                if (this.document.contentEquals(string, value)) {
+                    return this.nodes[slot];
+                }
+            }
+        }
+    }
+
+    private static final class Builder {
+        private final XmlPullParser parser;
+        private final SymbolTable symbols;
+        private final IntArrayList parents;
+        private final IntArrayList firstChildren;
+        private final IntArrayList nextSiblings;
+        private final IntArrayList names;
+        private final IntArrayList values;
+        private final IntArrayList firstAttributes;
+        private final IntArrayList attributeNames;
+        private final IntArrayList attributeValues;
+        private final Object2IntOpenHashMap<String> stringIndices;
+        private final ObjectArrayList<String> strings;
+        private final int baseDepth;
+        private int[] openElements;
+        private int[] lastChildren;
+        private int charCount;
+
+        private static final int INITIAL_DEPTH = 16;
+
+        Builder(
+                final @NonNull XmlPullParser parser,
+                final @NonNull SymbolTable symbols,
+                final int baseDepth
+        ) {
+            this.parser = parser;
+            this.symbols = symbols;
+            this.baseDepth = baseDepth;
+            this.parents = new IntArrayList();
+            this.firstChildren = new IntArrayList();
+            this.nextSiblings = new IntArrayList();
+            this.names = new IntArrayList();
+            this.values = new IntArrayList();
+            this.firstAttributes = new IntArrayList();
+            this.attributeNames = new IntArrayList();
+            this.attributeValues = new IntArrayList();
+            this.stringIndices = new Object2IntOpenHashMap<>();
+            this.strings = new ObjectArrayList<>();
+            this.openElements = new int[INITIAL_DEPTH];
+            this.lastChildren = new int[INITIAL_DEPTH];
+
+            this.stringIndices.defaultReturnValue(NO_STRING);
+            this.firstAttributes.add(0);
+        }
+
+        void addElement() {
+            final XmlPullParser parser = this.parser;
+            final int depth = parser.getDepth() - this.baseDepth;
+            final int node = this.add(depth, this.symbols.intern(parser.getNamespace(), parser.getName()), NO_STRING);
+
+            for (int i = 0, n = parser.getAttributeCount(); i < n; ++i) {
+                this.attributeNames.add(this.symbols.intern(parser.getAttributeNamespace(i), parser.getAttributeName(i)));
+                this.attributeValues.add(this.intern(parser.getAttributeValue(i)));
+            }
+
+            this.firstAttributes.set(node + 1, this.attributeNames.size());
+
+            if (depth + 1 >= this.openElements.length) {
+                this.openElements = Arrays.copyOf(this.openElements, (depth + 1) * 2);
+                this.lastChildren = Arrays.copyOf(this.lastChildren, (depth + 1) * 2);
+            }
+
+            this.openElements[depth] = node;
+            this.lastChildren[depth + 1] = NO_NODE;
+        }
+
+        void addText() {
+            this.add(this.parser.getDepth() - this.baseDepth + 1, SymbolTable.NO_SYMBOL, this.intern(this.parser.getText()));
+        }
+
+        /**
+         * Adds a node as the last child of the open element at the given
+         * level minus one
+         */
+        private int add(
+                final int level,
+                final int name,
+                final int value
+        ) {
+            final int node = this.names.size();
+            final int parent = level > 1 ? this.openElements[level - 1] : NO_NODE;
+
+            if (
+                    parent == NO_NODE
+                    && node > 0
+            ) {
+                throw new IllegalStateException("Document has more than one root element");
+            }
+
+            this.parents.add(parent);
+            this.firstChildren.add(NO_NODE);
+            this.nextSiblings.add(NO_NODE);
+            this.names.add(name);
+            this.values.add(value);
+            this.firstAttributes.add(this.attributeNames.size());
+
+            if (parent != NO_NODE) {
+                final int last = this.lastChildren[level];
+
+                if (last == NO_NODE) {
+                    this.firstChildren.set(parent, node);
+                } else {
+                    this.nextSiblings.set(last, node);
+                }
+
+                this.lastChildren[level] = node;
+            }
+
+            return node;
+        }
+
+        private int intern(final @NonNull String string) {
+            final int index = this.stringIndices.getInt(string);
+
+            if (index != NO_STRING) {
+                return index;
+            }
+
+            final int newIndex = this.strings.size();
+
+            this.strings.add(string);
+            this.stringIndices.put(string, newIndex);
+
+            this.charCount += string.length();
+
+            return newIndex;
+        }
+    }
+}
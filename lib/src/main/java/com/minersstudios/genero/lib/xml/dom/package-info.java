@@ -0,0 +1,11 @@
+/**
+ * Compact in-memory documents with random access.
+ * <p>
+ * A {@link com.minersstudios.genero.lib.xml.dom.XmlDocument} stores the
+ * element tree of a parsed document in parallel int arrays over a single
+ * shared string pool, so it can be navigated and queried repeatedly without
+ * parsing the document again.
+ *
+ * @see com.minersstudios.genero.lib.xml.XmlParser#parseDocument(org.xmlpull.v1.XmlPullParser)
+ */
+package com.minersstudios.genero.lib.xml.dom;
@@ -0,0 +1,149 @@
+package com.minersstudios.genero.lib.xml.path;
+
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+
+import androidx.annotation.NonNull;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
+import com.minersstudios.genero.lib.xml.tag.StartTag;
+import com.minersstudios.genero.lib.xml.tag.XmlTag;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * Evaluates an {@link XmlPath} over the events of a pull parser.
+ * <p>
+ * For every open element the iterator keeps the set of steps that its
+ * children may match, as a bitset indexed by the depth. A step of the
+ * descendant axis stays in the set of all deeper elements, a step of the
+ * child axis only applies to the direct children. An element matching a
+ * step activates the next step for its children, and an element matching
+ * the last step is a result. Elements with an empty set have their subtree
+ * skipped without looking at it.
+ */
+@NotThreadSafe
+final class PathIterator implements Iterator<StartTag> {
+    private final XmlPath path;
+    private final XmlPullParser parser;
+    private final SymbolTable symbols;
+    private final int lastStep;
+    private long[] states;
+    private StartTag next;
+    private boolean finished;
+
+    private static final int INITIAL_DEPTH = 16;
+
+    PathIterator(
+            final @NonNull XmlPath path,
+            final @NonNull XmlPullParser parser,
+            final @NonNull SymbolTable symbols
+    ) {
+        this.path = path;
+        this.parser = parser;
+        this.symbols = symbols;
+        this.lastStep = path.size() - 1;
+        this.states = new long[INITIAL_DEPTH];
+        this.states[0] = 1L;
+    }
+
+    @Override
+    public boolean hasNext() throws IllegalStateException {
+        if (this.next != null) {
+            return true;
+        }
+
+        if (this.finished) {
+            return false;
+        }
+
+        final XmlPullParser parser = this.parser;
+
+        try {
+            for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+                if (type != START_TAG) {
+                    continue;
+                }
+
+                final int depth = parser.getDepth();
+
+                if (depth >= this.states.length) {
+                    this.states = Arrays.copyOf(this.states, depth * 2);
+                }
+
+                final long parent = this.states[depth - 1];
+                long active = 0L;
+                boolean isMatch = false;
+
+                for (long bits = parent; bits != 0L; bits &= bits - 1L) {
+                    final int step = Long.numberOfTrailingZeros(bits);
+
+                    if (this.path.isDescendant(step)) {
+                        active |= 1L << step;
+                    }
+
+                    if (this.path.matches(step, parser)) {
+                        if (step == this.lastStep) {
+                            isMatch = true;
+                        } else {
+                            active |= 1L << (step + 1);
+                        }
+                    }
+                }
+
+                this.states[depth] = active;
+
+                if (isMatch) {
+                    this.next = XmlTag.create(parser, START_TAG, this.symbols).toStartTag();
+
+                    return true;
+                }
+
+                if (active == 0L) {
+                    skipSubtree(parser, depth);
+                }
+            }
+        } catch (final IOException | XmlPullParserException e) {
+            throw new IllegalStateException("Failed to read the next event", e);
+        }
+
+        this.finished = true;
+
+        return false;
+    }
+
+    @Override
+    public @NonNull StartTag next() throws NoSuchElementException, IllegalStateException {
+        if (!this.hasNext()) {
+            throw new NoSuchElementException();
+        }
+
+        final StartTag next = this.next;
+        this.next = null;
+
+        return next;
+    }
+
+    private static void skipSubtree(
+            final @NonNull XmlPullParser parser,
+            final int depth
+    ) throws IOException, XmlPullParserException {
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            if (
+                    type == END_TAG
+                    && parser.getDepth() == depth
+            ) {
+                return;
+            }
+        }
+    }
+}
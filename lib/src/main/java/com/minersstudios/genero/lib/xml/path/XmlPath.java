@@ -0,0 +1,503 @@
+package com.minersstudios.genero.lib.xml.path;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
+import com.minersstudios.genero.lib.xml.tag.StartTag;
+
+import org.jetbrains.annotations.Contract;
+import org.xmlpull.v1.XmlPullParser;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * A compiled path query over the elements of an XML document.
+ * <p>
+ * The supported syntax is a small XPath subset of element steps, separated
+ * by {@code /} (child) or {@code //} (descendant), each with optional
+ * attribute predicates:
+ * <ul>
+ *     <li>{@code name} or {@code *} - an element with the given name or any
+ *     element</li>
+ *     <li>{@code [@attr]} - the element has the attribute</li>
+ *     <li>{@code [@attr='value']} or {@code [@attr="value"]} - the attribute
+ *     has the value</li>
+ * </ul>
+ * A path without a leading slash is relative to the document, so
+ * {@code menu/item} and {@code /menu/item} are the same query.
+ * <p>
+ * Names are matched against the local names of the parser, which the
+ * parsers report when they process namespaces, as the parsers of compiled
+ * XML resources always do. A name without a prefix matches in any
+ * namespace, so {@code [@icon]} matches both {@code icon} and
+ * {@code android:icon}. A name with a prefix, such as
+ * {@code [@android:icon]}, matches only in the namespace the prefix is bound
+ * to by {@link #compile(String, Map)}.
+ *
+ * <pre>{@code
+ * private static final XmlPath ITEMS = XmlPath.compile("menu/item[@icon]");
+ * private static final XmlPath PRICE = XmlPath.compile("//product[@sku='x']/price");
+ * private static final XmlPath CHECKABLE = XmlPath.compile(
+ *         "menu/item[@android:checkable='true']",
+ *         Collections.singletonMap("android", "http://schemas.android.com/apk/res/android")
+ * );
+ *
+ * ITEMS.select(parser)
+ *      .forEach(item -> ...);
+ * }</pre>
+ * <p>
+ * The steps are compiled into a state machine that tracks the set of active
+ * steps for every open element. The document is evaluated in a single pass,
+ * subtrees that can not contain a match are skipped at the pull parser level
+ * and only the matching elements are created as tags.
+ * <p>
+ * <b>NOTE:</b> A path can have at most {@value #MAX_STEPS} steps.
+ */
+@Immutable
+public final class XmlPath {
+    private final String expression;
+    private final Map<String, String> namespaces;
+    private final String[] names;
+    private final String[] elementNamespaces;
+    private final boolean[] descendants;
+    private final String[][] attributeNames;
+    private final String[][] attributeNamespaces;
+    private final String[][] attributeValues;
+
+    /**
+     * The maximum number of steps of a path
+     */
+    public static final int MAX_STEPS = Long.SIZE;
+
+    private static final String ANY_NAME = "*";
+    private static final String[] NO_STRINGS = new String[0];
+
+    private XmlPath(
+            final @NonNull String expression,
+            final @NonNull Map<String, String> namespaces,
+            final @NonNull List<Step> steps
+    ) {
+        final int size = steps.size();
+
+        this.expression = expression;
+        this.namespaces = namespaces;
+        this.names = new String[size];
+        this.elementNamespaces = new String[size];
+        this.descendants = new boolean[size];
+        this.attributeNames = new String[size][];
+        this.attributeNamespaces = new String[size][];
+        this.attributeValues = new String[size][];
+
+        for (int i = 0; i < size; ++i) {
+            final Step step = steps.get(i);
+
+            this.names[i] = step.name;
+            this.elementNamespaces[i] = step.namespace;
+            this.descendants[i] = step.isDescendant;
+            this.attributeNames[i] = step.attributeNames.toArray(NO_STRINGS);
+            this.attributeNamespaces[i] = step.attributeNamespaces.toArray(NO_STRINGS);
+            this.attributeValues[i] = step.attributeValues.toArray(NO_STRINGS);
+        }
+    }
+
+    /**
+     * Compiles the given path expression, without any namespace prefixes
+     *
+     * @param expression The path expression
+     * @return The compiled path
+     * @throws IllegalArgumentException If the expression is not a valid path
+     *                                  or has a name with a prefix
+     * @see #compile(String, Map)
+     */
+    @Contract("_ -> new")
+    public static @NonNull XmlPath compile(final @NonNull String expression) throws IllegalArgumentException {
+        return compile(expression, Collections.emptyMap());
+    }
+
+    /**
+     * Compiles the given path expression, resolving the prefixes of its names
+     * with the given namespace bindings.
+     * <p>
+     * The bindings are independent of the prefixes the documents declare, a
+     * path with the {@code a} prefix bound to a namespace matches the names
+     * in that namespace under any prefix.
+     *
+     * @param expression The path expression
+     * @param namespaces The namespace URIs by their prefixes
+     * @return The compiled path
+     * @throws IllegalArgumentException If the expression is not a valid path
+     *                                  or has a name with an unbound prefix
+     */
+    @Contract("_, _ -> new")
+    public static @NonNull XmlPath compile(
+            final @NonNull String expression,
+            final @NonNull Map<String, String> namespaces
+    ) throws IllegalArgumentException {
+        final Map<String, String> copy = Collections.unmodifiableMap(new HashMap<>(namespaces));
+
+        return new XmlPath(expression, copy, new Compiler(expression, copy).compile());
+    }
+
+    /**
+     * Returns the elements of the document that match this path.
+     * <p>
+     * The parser is read from its current position, which should be the
+     * start of the document. The returned tags are valid until the next
+     * element is requested. A consumer may read or
+     * {@link StartTag#skipSubtree() skip} the subtree of a tag, but must not
+     * leave the parser inside of it.
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the stream
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser The pull parser to use
+     * @return A stream of the matching start tags
+     */
+    public @NonNull Stream<StartTag> select(final @NonNull XmlPullParser parser) {
+        return this.select(parser, new SymbolTable());
+    }
+
+    /**
+     * Returns the elements of the document that match this path, binding the
+     * names of the elements and their attributes to the given symbol table
+     * <p>
+     * <b>NOTE:</b> The input stream is not closed automatically when the stream
+     *              is closed. Therefore, it is the responsibility of the caller
+     *              to close the input stream.
+     *
+     * @param parser  The pull parser to use
+     * @param symbols The symbol table of the parse
+     * @return A stream of the matching start tags
+     * @see #select(XmlPullParser)
+     */
+    public @NonNull Stream<StartTag> select(
+            final @NonNull XmlPullParser parser,
+            final @NonNull SymbolTable symbols
+    ) {
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        new PathIterator(this, parser, symbols),
+                        Spliterator.ORDERED | Spliterator.NONNULL
+                ),
+                false
+        );
+    }
+
+    /**
+     * Returns the number of steps of this path
+     *
+     * @return The number of steps of this path
+     */
+    public int size() {
+        return this.names.length;
+    }
+
+    @Override
+    public boolean equals(final @Nullable Object obj) {
+        return this == obj
+                || (
+                        obj instanceof XmlPath
+                        && this.expression.equals(((XmlPath) obj).expression)
+                        && this.namespaces.equals(((XmlPath) obj).namespaces)
+                );
+    }
+
+    @Override
+    public int hashCode() {
+        return 31 * this.expression.hashCode() + this.namespaces.hashCode();
+    }
+
+    /**
+     * Returns the expression of this path
+     *
+     * @return The expression of this path
+     */
+    @Override
+    public @NonNull String toString() {
+        return this.expression;
+    }
+
+    boolean isDescendant(final int step) {
+        return this.descendants[step];
+    }
+
+    /**
+     * Returns whether the current start tag of the parser matches the name
+     * and predicates of the given step
+     */
+    boolean matches(
+            final int step,
+            final @NonNull XmlPullParser parser
+    ) {
+        final String name = this.names[step];
+        final String namespace = this.elementNamespaces[step];
+
+        if (
+                (
+                        name != null
+                        && !name.equals(parser.getName())
+                )
+                || (
+                        namespace != null
+                        && !namespace.equals(parser.getNamespace())
+                )
+        ) {
+            return false;
+        }
+
+        final String[] attributeNames = this.attributeNames[step];
+        final String[] attributeNamespaces = this.attributeNamespaces[step];
+        final String[] attributeValues = this.attributeValues[step];
+
+        for (int i = 0; i < attributeNames.length; ++i) {
+            if (!hasAttribute(parser, attributeNamespaces[i], attributeNames[i], attributeValues[i])) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    /**
+     * Returns whether the current start tag of the parser has an attribute
+     * with the given name, in the given namespace or in any namespace if it
+     * is null, and with the given value or any value if it is null
+     */
+    private static boolean hasAttribute(
+            final @NonNull XmlPullParser parser,
+            final @Nullable String namespace,
+            final @NonNull String name,
+            final @Nullable String value
+    ) {
+        for (int i = 0, count = parser.getAttributeCount(); i < count; ++i) {
+            if (
+                    name.equals(parser.getAttributeName(i))
+                    && (
+                            namespace == null
+                            || namespace.equals(parser.getAttributeNamespace(i))
+                    )
+                    && (
+                            value == null
+                            || value.equals(parser.getAttributeValue(i))
+                    )
+            ) {
+                return true;
+            }
+        }
+
+        return false;
+    }
+
+    private static final class Step {
+        final String name;
+        final String namespace;
+        final boolean isDescendant;
+        final List<String> attributeNames;
+        final List<String> attributeNamespaces;
+        final List<String> attributeValues;
+
+        Step(
+                final @Nullable String name,
+                final @Nullable String namespace,
+                final boolean isDescendant
+        ) {
+            this.name = name;
+            this.namespace = namespace;
+            this.isDescendant = isDescendant;
+            this.attributeNames = new ArrayList<>(1);
+            this.attributeNamespaces = new ArrayList<>(1);
+            this.attributeValues = new ArrayList<>(1);
+        }
+    }
+
+    private static final class Compiler {
+        private final String expression;
+        private final Map<String, String> namespaces;
+        private int index;
+
+        Compiler(
+                final @NonNull String expression,
+                final @NonNull Map<String, String> namespaces
+        ) {
+            this.expression = expression;
+            this.namespaces = namespaces;
+        }
+
+        @NonNull List<Step> compile() throws IllegalArgumentException {
+            final List<Step> steps = new ArrayList<>();
+            boolean isDescendant = false;
+
+            if (this.consume('/')) {
+                isDescendant = this.consume('/');
+            }
+
+            while (true) {
+                final int start = this.index;
+                final String name = this.readName();
+                final Step step =
+                        ANY_NAME.equals(name)
+                        ? new Step(null, null, isDescendant)
+                        : new Step(localName(name), this.namespaceOf(name, start), isDescendant);
+
+                while (this.consume('[')) {
+                    this.readPredicate(step);
+                }
+
+                steps.add(step);
+
+                if (steps.size() > MAX_STEPS) {
+                    throw new IllegalArgumentException("Path has more than " + MAX_STEPS + " steps: " + this.expression);
+                }
+
+                if (this.index == this.expression.length()) {
+                    return steps;
+                }
+
+                if (!this.consume('/')) {
+                    throw this.error("Expected '/'");
+                }
+
+                isDescendant = this.consume('/');
+            }
+        }
+
+        private void readPredicate(final @NonNull Step step) throws IllegalArgumentException {
+            if (!this.consume('@')) {
+                throw this.error("Expected '@'");
+            }
+
+            final int nameStart = this.index;
+            final String name = this.readName();
+
+            step.attributeNames.add(localName(name));
+            step.attributeNamespaces.add(this.namespaceOf(name, nameStart));
+
+            if (this.consume('=')) {
+                if (this.index == this.expression.length()) {
+                    throw this.error("Expected a quoted value");
+                }
+
+                final char quote = this.expression.charAt(this.index);
+
+                if (
+                        quote != '\''
+                        && quote != '"'
+                ) {
+                    throw this.error("Expected a quoted value");
+                }
+
+                final int start = this.index + 1;
+                final int end = this.expression.indexOf(quote, start);
+
+                if (end < 0) {
+                    throw this.error("Unterminated value");
+                }
+
+                step.attributeValues.add(this.expression.substring(start, end));
+
+                this.index = end + 1;
+            } else {
+                step.attributeValues.add(null);
+            }
+
+            if (!this.consume(']')) {
+                throw this.error("Expected ']'");
+            }
+        }
+
+        private @NonNull String readName() throws IllegalArgumentException {
+            final int start = this.index;
+            final int length = this.expression.length();
+
+            while (this.index < length) {
+                final char c = this.expression.charAt(this.index);
+
+                if (
+                        c == '/'
+                        || c == '['
+                        || c == ']'
+                        || c == '@'
+                        || c == '='
+                        || c == '\''
+                        || c == '"'
+                        || Character.isWhitespace(c)
+                ) {
+                    break;
+                }
+
+                this.index++;
+            }
+
+            if (this.index == start) {
+                throw this.error("Expected a name");
+            }
+
+            return this.expression.substring(start, this.index);
+        }
+
+        /**
+         * Returns the namespace the prefix of the given name is bound to or
+         * null if the name has no prefix
+         */
+        private @Nullable String namespaceOf(
+                final @NonNull String name,
+                final int start
+        ) throws IllegalArgumentException {
+            final int colon = name.indexOf(':');
+
+            if (colon == -1) {
+                return null;
+            }
+
+            final String namespace = this.namespaces.get(name.substring(0, colon));
+
+            if (
+                    namespace == null
+                    || colon == name.length() - 1
+            ) {
+                this.index = start;
+
+                throw this.error(
+                        namespace == null
+                        ? "Unbound prefix of name " + name
+                        : "Expected a local name"
+                );
+            }
+
+            return namespace;
+        }
+
+        private static @NonNull String localName(final @NonNull String name) {
+            return name.substring(name.indexOf(':') + 1);
+        }
+
+        private boolean consume(final char c) {
+            if (
+                    this.index < this.expression.length()
+                    && this.expression.charAt(this.index) == c
+            ) {
+                this.index++;
+
+                return true;
+            }
+
+            return false;
+        }
+
+        private @NonNull IllegalArgumentException error(final @NonNull String message) {
+            return new IllegalArgumentException(message + " at index " + this.index + ": " + this.expression);
+        }
+    }
+}
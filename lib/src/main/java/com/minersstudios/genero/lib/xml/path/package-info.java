@@ -0,0 +1,11 @@
+/**
+ * Streaming path queries over pull parsers.
+ * <p>
+ * A {@link com.minersstudios.genero.lib.xml.path.XmlPath} is a small XPath
+ * subset, compiled once into a state machine and evaluated in a single pass
+ * while the document is pulled, so only the matching elements are created as
+ * tags.
+ *
+ * @see com.minersstudios.genero.lib.xml.XmlParser#select(org.xmlpull.v1.XmlPullParser, com.minersstudios.genero.lib.xml.path.XmlPath)
+ */
+package com.minersstudios.genero.lib.xml.path;
@@ -0,0 +1,555 @@
+package com.minersstudios.genero.lib.xml.snapshot;
+
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.ATTRIBUTE_NAME;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.ATTRIBUTE_NAMESPACE;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.ATTRIBUTE_NAME_RESOURCE;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.ATTRIBUTE_PREFIX;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.ATTRIBUTE_RESOURCE_VALUE;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.ATTRIBUTE_VALUE;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_ATTRIBUTE_COUNT;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_DEPTH;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_FIRST_ATTRIBUTE;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_FLAGS;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_LINE;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_NAME;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_NAMESPACE;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_PREFIX;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.EVENT_TYPE;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.FLAG_EMPTY_ELEMENT;
+import static com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot.FLAG_WHITESPACE;
+
+import android.content.res.XmlResourceParser;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.tag.attribute.AttributeValues;
+
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.InputStream;
+import java.io.Reader;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link XmlResourceParser} that replays the events of a
+ * {@link XmlSnapshot}.
+ * <p>
+ * Typed attribute values are converted from the recorded string values the
+ * same way the framework converts untyped attribute values, resource values
+ * are returned as they were recorded.
+ */
+@NotThreadSafe
+final class SnapshotParser implements XmlResourceParser {
+    private final XmlSnapshot snapshot;
+    private int event;
+
+    private static final String NO_NAMESPACE = "";
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String CLASS_ATTRIBUTE = "class";
+    private static final String STYLE_ATTRIBUTE = "style";
+
+    SnapshotParser(final @NonNull XmlSnapshot snapshot) {
+        this.snapshot = snapshot;
+    }
+
+    @Override
+    public void setFeature(
+            final @NonNull String name,
+            final boolean state
+    ) throws XmlPullParserException {
+        if (
+                FEATURE_PROCESS_NAMESPACES.equals(name)
+                && state
+        ) {
+            return;
+        }
+
+        throw new XmlPullParserException("Unsupported feature: " + name);
+    }
+
+    @Override
+    public boolean getFeature(final @NonNull String name) {
+        return FEATURE_PROCESS_NAMESPACES.equals(name);
+    }
+
+    @Override
+    public void setProperty(
+            final @NonNull String name,
+            final @Nullable Object value
+    ) throws XmlPullParserException {
+        throw new XmlPullParserException("setProperty() not supported");
+    }
+
+    @Override
+    public @Nullable Object getProperty(final @NonNull String name) {
+        return null;
+    }
+
+    @Override
+    public void setInput(final @Nullable Reader in) throws XmlPullParserException {
+        throw new XmlPullParserException("setInput() not supported");
+    }
+
+    @Override
+    public void setInput(
+            final @Nullable InputStream inputStream,
+            final @Nullable String inputEncoding
+    ) throws XmlPullParserException {
+        throw new XmlPullParserException("setInput() not supported");
+    }
+
+    @Override
+    public @Nullable String getInputEncoding() {
+        return null;
+    }
+
+    @Override
+    public void defineEntityReplacementText(
+            final @NonNull String entityName,
+            final @NonNull String replacementText
+    ) throws XmlPullParserException {
+        throw new XmlPullParserException("defineEntityReplacementText() not supported");
+    }
+
+    @Override
+    public int getNamespaceCount(final int depth) throws XmlPullParserException {
+        throw new XmlPullParserException("getNamespaceCount() not supported");
+    }
+
+    @Override
+    public @Nullable String getNamespacePrefix(final int pos) throws XmlPullParserException {
+        throw new XmlPullParserException("getNamespacePrefix() not supported");
+    }
+
+    @Override
+    public @Nullable String getNamespaceUri(final int pos) throws XmlPullParserException {
+        throw new XmlPullParserException("getNamespaceUri() not supported");
+    }
+
+    @Override
+    public @Nullable String getNamespace(final @Nullable String prefix) {
+        return null;
+    }
+
+    @Override
+    public int getDepth() {
+        return this.field(EVENT_DEPTH);
+    }
+
+    @Override
+    public @NonNull String getPositionDescription() {
+        return "XML snapshot line #" + this.getLineNumber();
+    }
+
+    @Override
+    public int getLineNumber() {
+        return this.field(EVENT_LINE);
+    }
+
+    @Override
+    public int getColumnNumber() {
+        return -1;
+    }
+
+    @Override
+    public boolean isWhitespace() throws XmlPullParserException {
+        if (this.getEventType() != TEXT) {
+            throw new XmlPullParserException("Not a text event", this, null);
+        }
+
+        return (this.field(EVENT_FLAGS) & FLAG_WHITESPACE) != 0;
+    }
+
+    @Override
+    public @Nullable String getText() {
+        return this.getEventType() == TEXT
+               ? this.snapshot.string(this.field(EVENT_NAME))
+               : null;
+    }
+
+    @Override
+    public @Nullable char[] getTextCharacters(final @NonNull int[] holderForStartAndLength) {
+        final String text = this.getText();
+
+        if (text == null) {
+            holderForStartAndLength[0] = -1;
+            holderForStartAndLength[1] = -1;
+
+            return null;
+        }
+
+        holderForStartAndLength[0] = 0;
+        holderForStartAndLength[1] = text.length();
+
+        return text.toCharArray();
+    }
+
+    @Override
+    public @Nullable String getNamespace() {
+        return this.isElement()
+               ? this.snapshot.string(this.field(EVENT_NAMESPACE))
+               : null;
+    }
+
+    @Override
+    public @Nullable String getName() {
+        return this.isElement()
+               ? this.snapshot.string(this.field(EVENT_NAME))
+               : null;
+    }
+
+    @Override
+    public @Nullable String getPrefix() {
+        return this.isElement()
+               ? this.snapshot.string(this.field(EVENT_PREFIX))
+               : null;
+    }
+
+    @Override
+    public boolean isEmptyElementTag() throws XmlPullParserException {
+        if (this.getEventType() != START_TAG) {
+            throw new XmlPullParserException("Not a start tag", this, null);
+        }
+
+        return (this.field(EVENT_FLAGS) & FLAG_EMPTY_ELEMENT) != 0;
+    }
+
+    @Override
+    public int getAttributeCount() {
+        return this.getEventType() == START_TAG
+               ? this.field(EVENT_ATTRIBUTE_COUNT)
+               : -1;
+    }
+
+    @Override
+    public @Nullable String getAttributeNamespace(final int index) {
+        return this.snapshot.string(this.attributeField(index, ATTRIBUTE_NAMESPACE));
+    }
+
+    @Override
+    public @Nullable String getAttributeName(final int index) {
+        return this.snapshot.string(this.attributeField(index, ATTRIBUTE_NAME));
+    }
+
+    @Override
+    public @Nullable String getAttributePrefix(final int index) {
+        return this.snapshot.string(this.attributeField(index, ATTRIBUTE_PREFIX));
+    }
+
+    @Override
+    public @NonNull String getAttributeType(final int index) {
+        this.attributeField(index, ATTRIBUTE_NAME);
+
+        return "CDATA";
+    }
+
+    @Override
+    public boolean isAttributeDefault(final int index) {
+        return false;
+    }
+
+    @Override
+    public @Nullable String getAttributeValue(final int index) {
+        return this.snapshot.string(this.attributeField(index, ATTRIBUTE_VALUE));
+    }
+
+    @Override
+    public @Nullable String getAttributeValue(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final int index = this.indexOf(namespace, name);
+
+        return index == -1 ? null : this.getAttributeValue(index);
+    }
+
+    @Override
+    public int getEventType() {
+        return this.field(EVENT_TYPE);
+    }
+
+    @Override
+    public int next() {
+        if (this.event < this.snapshot.getEventCount() - 1) {
+            this.event++;
+        }
+
+        return this.getEventType();
+    }
+
+    @Override
+    public int nextToken() {
+        return this.next();
+    }
+
+    @Override
+    public void require(
+            final int type,
+            final @Nullable String namespace,
+            final @Nullable String name
+    ) throws XmlPullParserException {
+        if (
+                type != this.getEventType()
+                || (
+                        namespace != null
+                        && !namespace.equals(this.getNamespace())
+                )
+                || (
+                        name != null
+                        && !name.equals(this.getName())
+                )
+        ) {
+            throw new XmlPullParserException(
+                    "Expected " + TYPES[type] + " but found " + TYPES[this.getEventType()],
+                    this,
+                    null
+            );
+        }
+    }
+
+    @Override
+    public @NonNull String nextText() throws XmlPullParserException {
+        if (this.getEventType() != START_TAG) {
+            throw new XmlPullParserException("Parser must be on START_TAG to read next text", this, null);
+        }
+
+        int type = this.next();
+
+        if (type == TEXT) {
+            final String text = this.getText();
+
+            type = this.next();
+
+            if (type != END_TAG) {
+                throw new XmlPullParserException("Event TEXT must be immediately followed by END_TAG", this, null);
+            }
+
+            return text == null ? "" : text;
+        }
+
+        if (type == END_TAG) {
+            return "";
+        }
+
+        throw new XmlPullParserException("Parser must be on START_TAG or TEXT to read text", this, null);
+    }
+
+    @Override
+    public int nextTag() throws XmlPullParserException {
+        int type = this.next();
+
+        if (
+                type == TEXT
+                && this.isWhitespace()
+        ) {
+            type = this.next();
+        }
+
+        if (
+                type != START_TAG
+                && type != END_TAG
+        ) {
+            throw new XmlPullParserException("Expected start or end tag", this, null);
+        }
+
+        return type;
+    }
+
+    @Override
+    public int getAttributeNameResource(final int index) {
+        return this.attributeField(index, ATTRIBUTE_NAME_RESOURCE);
+    }
+
+    @Override
+    public int getAttributeListValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final @NonNull String[] options,
+            final int defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeListValue(index, options, defaultValue);
+    }
+
+    @Override
+    public boolean getAttributeBooleanValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final boolean defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeBooleanValue(index, defaultValue);
+    }
+
+    @Override
+    public int getAttributeResourceValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final int defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeResourceValue(index, defaultValue);
+    }
+
+    @Override
+    public int getAttributeIntValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final int defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeIntValue(index, defaultValue);
+    }
+
+    @Override
+    public int getAttributeUnsignedIntValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final int defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeUnsignedIntValue(index, defaultValue);
+    }
+
+    @Override
+    public float getAttributeFloatValue(
+            final @Nullable String namespace,
+            final @NonNull String attribute,
+            final float defaultValue
+    ) {
+        final int index = this.indexOf(namespace, attribute);
+
+        return index == -1 ? defaultValue : this.getAttributeFloatValue(index, defaultValue);
+    }
+
+    @Override
+    public int getAttributeListValue(
+            final int index,
+            final @NonNull String[] options,
+            final int defaultValue
+    ) {
+        return AttributeValues.indexOf(this.getAttributeValue(index), options, defaultValue);
+    }
+
+    @Override
+    public boolean getAttributeBooleanValue(
+            final int index,
+            final boolean defaultValue
+    ) {
+        return AttributeValues.parseBoolean(this.getAttributeValue(index), defaultValue);
+    }
+
+    @Override
+    public int getAttributeResourceValue(
+            final int index,
+            final int defaultValue
+    ) {
+        final int value = this.attributeField(index, ATTRIBUTE_RESOURCE_VALUE);
+
+        return value == 0 ? defaultValue : value;
+    }
+
+    @Override
+    public int getAttributeIntValue(
+            final int index,
+            final int defaultValue
+    ) {
+        return AttributeValues.parseInt(this.getAttributeValue(index), defaultValue);
+    }
+
+    @Override
+    public int getAttributeUnsignedIntValue(
+            final int index,
+            final int defaultValue
+    ) {
+        return AttributeValues.parseInt(this.getAttributeValue(index), defaultValue);
+    }
+
+    @Override
+    public float getAttributeFloatValue(
+            final int index,
+            final float defaultValue
+    ) {
+        return AttributeValues.parseFloat(this.getAttributeValue(index), defaultValue);
+    }
+
+    @Override
+    public @Nullable String getIdAttribute() {
+        return this.getAttributeValue(NO_NAMESPACE, ID_ATTRIBUTE);
+    }
+
+    @Override
+    public @Nullable String getClassAttribute() {
+        return this.getAttributeValue(NO_NAMESPACE, CLASS_ATTRIBUTE);
+    }
+
+    @Override
+    public int getIdAttributeResourceValue(final int defaultValue) {
+        return this.getAttributeResourceValue(NO_NAMESPACE, ID_ATTRIBUTE, defaultValue);
+    }
+
+    @Override
+    public int getStyleAttribute() {
+        return this.getAttributeResourceValue(NO_NAMESPACE, STYLE_ATTRIBUTE, 0);
+    }
+
+    @Override
+    public void close() {
+        // Nothing to release, the snapshot outlives its parsers
+    }
+
+    private int field(final int field) {
+        return this.snapshot.event(this.event, field);
+    }
+
+    private boolean isElement() {
+        final int type = this.getEventType();
+
+        return type == START_TAG
+                || type == END_TAG;
+    }
+
+    private int attributeField(
+            final int index,
+            final int field
+    ) throws IndexOutOfBoundsException {
+        final int count = this.getAttributeCount();
+
+        if (
+                index < 0
+                || index >= count
+        ) {
+            throw new IndexOutOfBoundsException("Attribute index " + index + " is out of bounds for attribute count " + count);
+        }
+
+        return this.snapshot.attribute(this.field(EVENT_FIRST_ATTRIBUTE) + index, field);
+    }
+
+    private int indexOf(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final String ns = namespace == null ? NO_NAMESPACE : namespace;
+        final int count = this.getAttributeCount();
+
+        for (int i = 0; i < count; ++i) {
+            final String attributeNamespace = this.getAttributeNamespace(i);
+
+            if (
+                    name.equals(this.getAttributeName(i))
+                    && ns.equals(attributeNamespace == null ? NO_NAMESPACE : attributeNamespace)
+            ) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+}
@@ -0,0 +1,523 @@
+package com.minersstudios.genero.lib.xml.snapshot;
+
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+import static org.xmlpull.v1.XmlPullParser.TEXT;
+
+import android.content.res.XmlResourceParser;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jetbrains.annotations.Contract;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.IntBuffer;
+import java.nio.channels.WritableByteChannel;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+import it.unimi.dsi.fastutil.ints.IntArrayList;
+import it.unimi.dsi.fastutil.objects.Object2IntOpenHashMap;
+import it.unimi.dsi.fastutil.objects.ObjectArrayList;
+
+/**
+ * Compact binary encoding of a parsed XML document.
+ * <p>
+ * A snapshot holds every event of a document as fixed-size int records, the
+ * attributes of start tags as fixed-size int records and all names, prefixes,
+ * values and texts in a single deduplicated string table. The layout is:
+ *
+ * <pre>
+ * int    magic, version
+ * int    string count, event count, attribute count, char count
+ * int[]  string offsets and lengths   (2 per string)
+ * int[]  events                       ({@value #EVENT_SIZE} per event)
+ * int[]  attributes                   ({@value #ATTRIBUTE_SIZE} per attribute)
+ * char[] string characters
+ * </pre>
+ * <p>
+ * A snapshot is {@link #record(XmlPullParser) recorded} once from a live
+ * parser, {@link #writeTo(WritableByteChannel) written} to a file and
+ * {@link #read(ByteBuffer) read} back from a (usually memory-mapped) buffer
+ * without copying. Strings are decoded lazily, on their first access, and
+ * cached for the lifetime of the snapshot.
+ * <p>
+ * The snapshot is replayed through {@link #newParser()}, which returns an
+ * {@link XmlResourceParser}, so it works with every parse method of
+ * {@link com.minersstudios.genero.lib.xml.XmlParser}.
+ *
+ * @see XmlSnapshotStore
+ */
+@ThreadSafe
+public final class XmlSnapshot {
+    private final ByteBuffer buffer;
+    private final IntBuffer strings;
+    private final IntBuffer events;
+    private final IntBuffer attributes;
+    private final CharBuffer chars;
+    private final String[] stringCache;
+    private final int eventCount;
+    private final int attributeCount;
+
+    static final int NO_STRING = -1;
+
+    static final int EVENT_TYPE =            0;
+    static final int EVENT_DEPTH =           1;
+    static final int EVENT_NAMESPACE =       2;
+    static final int EVENT_NAME =            3;
+    static final int EVENT_PREFIX =          4;
+    static final int EVENT_FIRST_ATTRIBUTE = 5;
+    static final int EVENT_ATTRIBUTE_COUNT = 6;
+    static final int EVENT_LINE =            7;
+    static final int EVENT_FLAGS =           8;
+    static final int EVENT_SIZE =            9;
+
+    static final int ATTRIBUTE_NAMESPACE =      0;
+    static final int ATTRIBUTE_NAME =           1;
+    static final int ATTRIBUTE_PREFIX =         2;
+    static final int ATTRIBUTE_VALUE =          3;
+    static final int ATTRIBUTE_NAME_RESOURCE =  4;
+    static final int ATTRIBUTE_RESOURCE_VALUE = 5;
+    static final int ATTRIBUTE_SIZE =           6;
+
+    static final int FLAG_EMPTY_ELEMENT = 1;
+    static final int FLAG_WHITESPACE =    1 << 1;
+
+    private static final int MAGIC = 0x47585350;
+    private static final int VERSION = 1;
+    private static final int HEADER_SIZE = 6 * Integer.BYTES;
+
+    private XmlSnapshot(
+            final @NonNull ByteBuffer buffer,
+            final int stringCount,
+            final int eventCount,
+            final int attributeCount,
+            final int charCount
+    ) {
+        int offset = HEADER_SIZE;
+
+        this.buffer = buffer;
+        this.strings = slice(buffer, offset, stringCount * 2 * Integer.BYTES).asIntBuffer();
+        offset += stringCount * 2 * Integer.BYTES;
+        this.events = slice(buffer, offset, eventCount * EVENT_SIZE * Integer.BYTES).asIntBuffer();
+        offset += eventCount * EVENT_SIZE * Integer.BYTES;
+        this.attributes = slice(buffer, offset, attributeCount * ATTRIBUTE_SIZE * Integer.BYTES).asIntBuffer();
+        offset += attributeCount * ATTRIBUTE_SIZE * Integer.BYTES;
+        this.chars = slice(buffer, offset, charCount * Character.BYTES).asCharBuffer();
+        this.stringCache = new String[stringCount];
+        this.eventCount = eventCount;
+        this.attributeCount = attributeCount;
+    }
+
+    /**
+     * Records all remaining events of the given parser into a new snapshot.
+     * <p>
+     * The current event of the parser becomes the first event of the
+     * snapshot, the parser is advanced up to the end of the document. If the
+     * parser is a {@link XmlResourceParser}, the name resources and the
+     * resource values of the attributes are recorded as well.
+     *
+     * @param parser The parser to record
+     * @return A new snapshot of the document
+     * @throws XmlPullParserException If the document is malformed
+     * @throws IOException            If the parser failed to read the input
+     */
+    @Contract("_ -> new")
+    public static @NonNull XmlSnapshot record(final @NonNull XmlPullParser parser) throws XmlPullParserException, IOException {
+        final Recorder recorder = new Recorder(parser, 0);
+
+        for (int type = parser.getEventType();; type = parser.next()) {
+            recorder.record(type);
+
+            if (type == END_DOCUMENT) {
+                break;
+            }
+        }
+
+        return recorder.build();
+    }
+
+    /**
+     * Records the current element of the given parser, with all of its
+     * content, into a new snapshot of a document with the element as its
+     * root.
+     * <p>
+     * The parser must be on the start tag of the element and is advanced up
+     * to its end tag, so it can continue with the siblings of the element.
+     * The depths are recorded relative to the element, the line numbers as
+     * they are reported by the parser.
+     *
+     * @param parser The parser to record
+     * @return A new snapshot of the element
+     * @throws XmlPullParserException If the parser is not on a start tag or
+     *                                the element is malformed
+     * @throws IOException            If the parser failed to read the input
+     */
+    @Contract("_ -> new")
+    public static @NonNull XmlSnapshot recordElement(final @NonNull XmlPullParser parser) throws XmlPullParserException, IOException {
+        parser.require(START_TAG, null, null);
+
+        final int depth = parser.getDepth();
+        final Recorder recorder = new Recorder(parser, depth - 1);
+
+        recorder.record(START_DOCUMENT, 0);
+
+        for (int type = START_TAG;; type = parser.next()) {
+            recorder.record(type);
+
+            if (
+                    type == END_TAG
+                    && parser.getDepth() == depth
+            ) {
+                break;
+            }
+        }
+
+        recorder.record(END_DOCUMENT, 0);
+
+        return recorder.build();
+    }
+
+    /**
+     * Reads a snapshot from the given buffer without copying it.
+     * <p>
+     * The snapshot starts at the current position of the buffer. The buffer
+     * must not be modified while the snapshot is in use.
+     *
+     * @param buffer The buffer to read, e.g. a memory-mapped snapshot file
+     * @return A snapshot backed by the given buffer
+     * @throws IllegalArgumentException If the buffer does not contain a valid
+     *                                  snapshot
+     */
+    @Contract("_ -> new")
+    public static @NonNull XmlSnapshot read(final @NonNull ByteBuffer buffer) throws IllegalArgumentException {
+        final ByteBuffer source = buffer.slice();
+
+        try {
+            if (source.getInt(0) != MAGIC) {
+                throw new IllegalArgumentException("Not an XML snapshot");
+            }
+
+            if (source.getInt(Integer.BYTES) != VERSION) {
+                throw new IllegalArgumentException("Unsupported XML snapshot version: " + source.getInt(Integer.BYTES));
+            }
+
+            final int stringCount = source.getInt(2 * Integer.BYTES);
+            final int eventCount = source.getInt(3 * Integer.BYTES);
+            final int attributeCount = source.getInt(4 * Integer.BYTES);
+            final int charCount = source.getInt(5 * Integer.BYTES);
+            final long size = sizeOf(stringCount, eventCount, attributeCount, charCount);
+
+            if (
+                    stringCount < 0
+                    || eventCount <= 0
+                    || attributeCount < 0
+                    || charCount < 0
+                    || size > source.remaining()
+            ) {
+                throw new IllegalArgumentException("Corrupted XML snapshot");
+            }
+
+            source.limit((int) size);
+
+            return new XmlSnapshot(source, stringCount, eventCount, attributeCount, charCount);
+        } catch (final IndexOutOfBoundsException | BufferUnderflowException e) {
+            throw new IllegalArgumentException("Truncated XML snapshot", e);
+        }
+    }
+
+    /**
+     * Returns the number of events in this snapshot, including the start and
+     * the end of the document
+     *
+     * @return The number of events in this snapshot
+     */
+    public int getEventCount() {
+        return this.eventCount;
+    }
+
+    /**
+     * Returns the size of the encoded snapshot in bytes
+     *
+     * @return The size of the encoded snapshot in bytes
+     */
+    public int getByteSize() {
+        return this.buffer.limit();
+    }
+
+    /**
+     * Writes the encoded snapshot to the given channel
+     *
+     * @param channel The channel to write to
+     * @throws IOException If an I/O error occurs
+     */
+    public void writeTo(final @NonNull WritableByteChannel channel) throws IOException {
+        final ByteBuffer source = this.buffer.duplicate();
+
+        source.rewind();
+
+        while (source.hasRemaining()) {
+            channel.write(source);
+        }
+    }
+
+    /**
+     * Returns a new parser that replays the events of this snapshot.
+     * <p>
+     * Every call returns an independent parser positioned at the first event
+     * of the snapshot. Closing the parser has no effect on the snapshot.
+     *
+     * @return A new parser over this snapshot
+     */
+    @Contract(" -> new")
+    public @NonNull XmlResourceParser newParser() {
+        return new SnapshotParser(this);
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "XmlSnapshot{" +
+                "events=" + this.eventCount +
+                ", attributes=" + this.attributeCount +
+                ", strings=" + this.stringCache.length +
+                ", bytes=" + this.getByteSize() +
+                '}';
+    }
+
+    int event(
+            final int event,
+            final int field
+    ) {
+        return this.events.get(event * EVENT_SIZE + field);
+    }
+
+    int attribute(
+            final int attribute,
+            final int field
+    ) {
+        return this.attributes.get(attribute * ATTRIBUTE_SIZE + field);
+    }
+
+    @Nullable String string(final int index) {
+        if (index == NO_STRING) {
+            return null;
+        }
+
+        final String cached = this.stringCache[index];
+
+        if (cached != null) {
+            return cached;
+        }
+
+        final int offset = this.strings.get(index * 2);
+        final int length = this.strings.get(index * 2 + 1);
+        final CharBuffer chars = this.chars.duplicate();
+
+        chars.limit(offset + length).position(offset);
+
+        // The cache is filled without a lock, a lost write costs one more
+        // decode of the shared, read-only char buffer
+        return this.stringCache[index] = chars.toString();
+    }
+
+    private static @NonNull ByteBuffer slice(
+            final @NonNull ByteBuffer buffer,
+            final int offset,
+            final int length
+    ) {
+        final ByteBuffer slice = buffer.duplicate();
+
+        slice.limit(offset + length).position(offset);
+
+        return slice.slice();
+    }
+
+    private static long sizeOf(
+            final int stringCount,
+            final int eventCount,
+            final int attributeCount,
+            final int charCount
+    ) {
+        return HEADER_SIZE
+                + (long) stringCount * 2 * Integer.BYTES
+                + (long) eventCount * EVENT_SIZE * Integer.BYTES
+                + (long) attributeCount * ATTRIBUTE_SIZE * Integer.BYTES
+                + (long) charCount * Character.BYTES;
+    }
+
+    private static final class Recorder {
+        private final XmlPullParser parser;
+        private final XmlResourceParser resourceParser;
+        private final Object2IntOpenHashMap<String> stringIndices;
+        private final ObjectArrayList<String> strings;
+        private final IntArrayList events;
+        private final IntArrayList attributes;
+        private final int depthOffset;
+        private int charCount;
+
+        Recorder(
+                final @NonNull XmlPullParser parser,
+                final int depthOffset
+        ) {
+            this.parser = parser;
+            this.depthOffset = depthOffset;
+            this.resourceParser = parser instanceof XmlResourceParser ? (XmlResourceParser) parser : null;
+            this.stringIndices = new Object2IntOpenHashMap<>();
+            this.strings = new ObjectArrayList<>();
+            this.events = new IntArrayList();
+            this.attributes = new IntArrayList();
+
+            this.stringIndices.defaultReturnValue(NO_STRING);
+        }
+
+        void record(final int type) throws XmlPullParserException {
+            this.record(type, this.parser.getDepth() - this.depthOffset);
+        }
+
+        void record(
+                final int type,
+                final int depth
+        ) throws XmlPullParserException {
+            final XmlPullParser parser = this.parser;
+            int namespace = NO_STRING;
+            int name = NO_STRING;
+            int prefix = NO_STRING;
+            int firstAttribute = 0;
+            int attributeCount = 0;
+            int flags = 0;
+
+            switch (type) {
+                case START_TAG:
+                    firstAttribute = this.attributes.size() / ATTRIBUTE_SIZE;
+                    attributeCount = parser.getAttributeCount();
+
+                    if (parser.isEmptyElementTag()) {
+                        flags |= FLAG_EMPTY_ELEMENT;
+                    }
+
+                    for (int i = 0; i < attributeCount; ++i) {
+                        this.attributes.add(this.intern(parser.getAttributeNamespace(i)));
+                        this.attributes.add(this.intern(parser.getAttributeName(i)));
+                        this.attributes.add(this.intern(parser.getAttributePrefix(i)));
+                        this.attributes.add(this.intern(parser.getAttributeValue(i)));
+
+                        if (this.resourceParser != null) {
+                            this.attributes.add(this.resourceParser.getAttributeNameResource(i));
+                            this.attributes.add(this.resourceParser.getAttributeResourceValue(i, 0));
+                        } else {
+                            this.attributes.add(0);
+                            this.attributes.add(0);
+                        }
+                    }
+
+                    namespace = this.intern(parser.getNamespace());
+                    name = this.intern(parser.getName());
+                    prefix = this.intern(parser.getPrefix());
+
+                    break;
+                case XmlPullParser.END_TAG:
+                    namespace = this.intern(parser.getNamespace());
+                    name = this.intern(parser.getName());
+                    prefix = this.intern(parser.getPrefix());
+
+                    break;
+                case TEXT:
+                    name = this.intern(parser.getText());
+
+                    if (parser.isWhitespace()) {
+                        flags |= FLAG_WHITESPACE;
+                    }
+
+                    break;
+                default:
+                    break;
+            }
+
+            this.events.add(type);
+            this.events.add(depth);
+            this.events.add(namespace);
+            this.events.add(name);
+            this.events.add(prefix);
+            this.events.add(firstAttribute);
+            this.events.add(attributeCount);
+            this.events.add(parser.getLineNumber());
+            this.events.add(flags);
+        }
+
+        @NonNull XmlSnapshot build() {
+            final int stringCount = this.strings.size();
+            final int eventCount = this.events.size() / EVENT_SIZE;
+            final int attributeCount = this.attributes.size() / ATTRIBUTE_SIZE;
+            final long size = sizeOf(stringCount, eventCount, attributeCount, this.charCount);
+
+            if (size > Integer.MAX_VALUE) {
+                throw new IllegalStateException("XML snapshot is too large: " + size + " bytes");
+            }
+
+            final ByteBuffer buffer = ByteBuffer.allocate((int) size);
+
+            buffer
+            .putInt(MAGIC)
+            .putInt(VERSION)
+            .putInt(stringCount)
+            .putInt(eventCount)
+            .putInt(attributeCount)
+            .putInt(this.charCount);
+
+            int offset = 0;
+
+            for (final String string : this.strings) {
+                buffer.putInt(offset).putInt(string.length());
+
+                offset += string.length();
+            }
+
+            for (int i = 0, n = this.events.size(); i < n; ++i) {
+                buffer.putInt(this.events.getInt(i));
+            }
+
+            for (int i = 0, n = this.attributes.size(); i < n; ++i) {
+                buffer.putInt(this.attributes.getInt(i));
+            }
+
+            for (final String string : this.strings) {
+                for (int i = 0, n = string.length(); i < n; ++i) {
+                    buffer.putChar(string.charAt(i));
+                }
+            }
+
+            buffer.flip();
+
+            return new XmlSnapshot(buffer, stringCount, eventCount, attributeCount, this.charCount);
+        }
+
+        private int intern(final @Nullable String string) {
+            if (string == null) {
+                return NO_STRING;
+            }
+
+            final int index = this.stringIndices.getInt(string);
+
+            if (index != NO_STRING) {
+                return index;
+            }
+
+            final int newIndex = this.strings.size();
+
+            this.strings.add(string);
+            this.stringIndices.put(string, newIndex);
+
+            this.charCount += string.length();
+
+            return newIndex;
+        }
+    }
+}
@@ -0,0 +1,318 @@
+package com.minersstudios.genero.lib.xml.snapshot;
+
+import android.content.Context;
+import android.content.pm.PackageInfo;
+import android.content.pm.PackageManager;
+import android.content.res.Configuration;
+import android.content.res.XmlResourceParser;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.XmlRes;
+
+import org.jetbrains.annotations.Contract;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Persistent store of {@link XmlSnapshot XML snapshots} of compiled XML
+ * resources.
+ * <p>
+ * The first request of a resource parses it and writes its snapshot to the
+ * files dir of the app. Later requests, including the ones in later runs of
+ * the app, memory-map the written snapshot instead of parsing the resource.
+ * Snapshots are invalidated when the APK is updated, i.e. when its version
+ * code or its last update time changes. The most recently used snapshots are
+ * held in memory once loaded, the others are mapped again on their next
+ * request.
+ * <p>
+ * A snapshot is keyed by the resource ID and the configuration qualifiers of
+ * the context, e.g. its locales, orientation, night mode and screen size, so
+ * every configuration-specific variant of a resource (e.g. a
+ * {@code menu-land} or a {@code xml-ru} variant) gets its own snapshot.
+ * Snapshots are written to disk on a background thread, the first request of
+ * a resource returns as soon as it is parsed.
+ *
+ * <pre>{@code
+ * XmlParser.parseResource(XmlSnapshotStore.open(context, R.xml.catalog))
+ *          ...
+ * }</pre>
+ */
+@ThreadSafe
+public final class XmlSnapshotStore {
+    private static final int MAX_ENTRIES = 32;
+    private static final Map<String, XmlSnapshot> SNAPSHOTS =
+            new LinkedHashMap<String, XmlSnapshot>(16, 0.75f, true) {
+
+                @Override
+                protected boolean removeEldestEntry(final @NonNull Map.Entry<String, XmlSnapshot> eldest) {
+                    return this.size() > MAX_ENTRIES;
+                }
+            };
+    private static final ExecutorService WRITER = Executors.newSingleThreadExecutor(
+            runnable -> {
+                final Thread thread = new Thread(runnable, "XmlSnapshotStore");
+
+                thread.setDaemon(true);
+                thread.setPriority(Thread.MIN_PRIORITY);
+
+                return thread;
+            }
+    );
+
+    private static final String DIRECTORY = "xml-snapshots";
+    private static final String EXTENSION = ".xsnap";
+    private static final String TEMP_EXTENSION = ".tmp";
+    private static final int HEADER_SIZE = 2 * Long.BYTES + 2 * Integer.BYTES;
+
+    @Contract(" -> fail")
+    private XmlSnapshotStore() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Opens a parser over the snapshot of the given XML resource
+     *
+     * @param context The context to load the resource from
+     * @param xmlRes  The XML resource ID
+     * @return A new parser over the snapshot of the given resource
+     * @throws IllegalStateException If the resource could not be parsed
+     * @see #get(Context, int)
+     */
+    @Contract("_, _ -> new")
+    public static @NonNull XmlResourceParser open(
+            final @NonNull Context context,
+            final @XmlRes int xmlRes
+    ) throws IllegalStateException {
+        return get(context, xmlRes).newParser();
+    }
+
+    /**
+     * Returns the snapshot of the given XML resource.
+     * <p>
+     * The snapshot is memory-mapped from the files dir if it was written by
+     * the current APK for the current configuration of the context,
+     * otherwise the resource is parsed and its snapshot is written for the
+     * next runs in the background.
+     *
+     * @param context The context to load the resource from
+     * @param xmlRes  The XML resource ID
+     * @return The snapshot of the given resource
+     * @throws IllegalStateException If the resource could not be parsed
+     */
+    public static @NonNull XmlSnapshot get(
+            final @NonNull Context context,
+            final @XmlRes int xmlRes
+    ) throws IllegalStateException {
+        final String qualifiers = qualifiers(context.getResources().getConfiguration());
+        final String key = Integer.toHexString(xmlRes) + '-' + qualifiers;
+
+        synchronized (SNAPSHOTS) {
+            final XmlSnapshot snapshot = SNAPSHOTS.get(key);
+
+            if (snapshot != null) {
+                return snapshot;
+            }
+        }
+
+        final PackageInfo packageInfo = getPackageInfo(context);
+        final File file = new File(
+                new File(context.getFilesDir(), DIRECTORY),
+                Integer.toHexString(xmlRes) + '-' + Integer.toHexString(qualifiers.hashCode()) + EXTENSION
+        );
+        XmlSnapshot snapshot = load(file, packageInfo, xmlRes, qualifiers);
+
+        if (snapshot == null) {
+            final XmlSnapshot recorded = record(context, xmlRes);
+
+            WRITER.execute(() -> save(file, packageInfo, xmlRes, qualifiers, recorded));
+
+            snapshot = recorded;
+        }
+
+        synchronized (SNAPSHOTS) {
+            final XmlSnapshot previous = SNAPSHOTS.putIfAbsent(key, snapshot);
+
+            return previous != null ? previous : snapshot;
+        }
+    }
+
+    /**
+     * Deletes all written snapshots and clears the in-memory ones
+     *
+     * @param context The context whose snapshots should be deleted
+     */
+    public static void clear(final @NonNull Context context) {
+        synchronized (SNAPSHOTS) {
+            SNAPSHOTS.clear();
+        }
+
+        final File[] files = new File(context.getFilesDir(), DIRECTORY).listFiles();
+
+        if (files != null) {
+            for (final File file : files) {
+                if (!file.delete()) {
+                    Log.w("XmlSnapshotStore", "Failed to delete snapshot " + file);
+                }
+            }
+        }
+    }
+
+    private static @NonNull XmlSnapshot record(
+            final @NonNull Context context,
+            final @XmlRes int xmlRes
+    ) throws IllegalStateException {
+        try (final XmlResourceParser parser = context.getResources().getXml(xmlRes)) {
+            return XmlSnapshot.record(parser);
+        } catch (final XmlPullParserException | IOException e) {
+            throw new IllegalStateException("Failed to parse XML resource " + Integer.toHexString(xmlRes), e);
+        }
+    }
+
+    static XmlSnapshot load(
+            final @NonNull File file,
+            final @NonNull PackageInfo packageInfo,
+            final @XmlRes int xmlRes,
+            final @NonNull String qualifiers
+    ) {
+        if (!file.isFile()) {
+            return null;
+        }
+
+        try (final FileChannel channel = new FileInputStream(file).getChannel()) {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            if (
+                    buffer.remaining() < HEADER_SIZE
+                    || buffer.getLong() != packageInfo.getLongVersionCode()
+                    || buffer.getLong() != packageInfo.lastUpdateTime
+                    || buffer.getInt() != xmlRes
+                    || !qualifiers.equals(readString(buffer))
+            ) {
+                return null;
+            }
+
+            return XmlSnapshot.read(buffer);
+        } catch (final IOException | IllegalArgumentException e) {
+            Log.w("XmlSnapshotStore", "Failed to read snapshot " + file + ", it will be rewritten", e);
+
+            return null;
+        }
+    }
+
+    static void save(
+            final @NonNull File file,
+            final @NonNull PackageInfo packageInfo,
+            final @XmlRes int xmlRes,
+            final @NonNull String qualifiers,
+            final @NonNull XmlSnapshot snapshot
+    ) {
+        final File directory = file.getParentFile();
+        final File temp = new File(directory, file.getName() + TEMP_EXTENSION);
+
+        if (
+                directory == null
+                || (!directory.isDirectory() && !directory.mkdirs())
+        ) {
+            Log.e("XmlSnapshotStore", "Failed to create snapshot directory " + directory);
+
+            return;
+        }
+
+        try (final FileChannel channel = new FileOutputStream(temp).getChannel()) {
+            final byte[] qualifierBytes = qualifiers.getBytes(StandardCharsets.UTF_8);
+            final ByteBuffer header = ByteBuffer.allocate(HEADER_SIZE + qualifierBytes.length);
+
+            header
+            .putLong(packageInfo.getLongVersionCode())
+            .putLong(packageInfo.lastUpdateTime)
+            .putInt(xmlRes)
+            .putInt(qualifierBytes.length)
+            .put(qualifierBytes)
+            .flip();
+
+            while (header.hasRemaining()) {
+                channel.write(header);
+            }
+
+            snapshot.writeTo(channel);
+            channel.force(false);
+        } catch (final IOException e) {
+            Log.e("XmlSnapshotStore", "Failed to write snapshot " + file, e);
+
+            if (!temp.delete()) {
+                Log.w("XmlSnapshotStore", "Failed to delete " + temp);
+            }
+
+            return;
+        }
+
+        if (!temp.renameTo(file)) {
+            Log.e("XmlSnapshotStore", "Failed to move snapshot to " + file);
+
+            if (!temp.delete()) {
+                Log.w("XmlSnapshotStore", "Failed to delete " + temp);
+            }
+        }
+    }
+
+    private static String readString(final @NonNull ByteBuffer buffer) {
+        final int length = buffer.getInt();
+
+        if (
+                length < 0
+                || length > buffer.remaining()
+        ) {
+            return null;
+        }
+
+        final byte[] bytes = new byte[length];
+
+        buffer.get(bytes);
+
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Returns the configuration qualifiers that select between the variants
+     * of a resource, in the order of the resource directory names
+     */
+    private static @NonNull String qualifiers(final @NonNull Configuration configuration) {
+        return "mcc" + configuration.mcc +
+                "-mnc" + configuration.mnc +
+                '-' + configuration.getLocales().toLanguageTags() +
+                "-sw" + configuration.smallestScreenWidthDp +
+                "-w" + configuration.screenWidthDp +
+                "-h" + configuration.screenHeightDp +
+                "-layout" + configuration.screenLayout +
+                "-color" + configuration.colorMode +
+                "-orientation" + configuration.orientation +
+                "-ui" + configuration.uiMode +
+                "-dpi" + configuration.densityDpi +
+                "-touch" + configuration.touchscreen +
+                "-keys" + configuration.keyboard + '.' + configuration.keyboardHidden + '.' + configuration.hardKeyboardHidden +
+                "-nav" + configuration.navigation + '.' + configuration.navigationHidden;
+    }
+
+    private static @NonNull PackageInfo getPackageInfo(final @NonNull Context context) throws IllegalStateException {
+        try {
+            return context.getPackageManager().getPackageInfo(context.getPackageName(), 0);
+        } catch (final PackageManager.NameNotFoundException e) {
+            throw new IllegalStateException("Package of the context not found", e);
+        }
+    }
+}
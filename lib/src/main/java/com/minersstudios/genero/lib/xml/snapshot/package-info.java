@@ -0,0 +1,10 @@
+/**
+ * Persistent binary snapshots of parsed XML documents.
+ * <p>
+ * A {@link com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot} encodes a
+ * whole document into a compact, memory-mappable form, which is replayed
+ * through a regular {@link android.content.res.XmlResourceParser}.
+ *
+ * @see com.minersstudios.genero.lib.xml.snapshot.XmlSnapshotStore
+ */
+package com.minersstudios.genero.lib.xml.snapshot;
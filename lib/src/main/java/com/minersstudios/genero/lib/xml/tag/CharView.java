@@ -0,0 +1,86 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import androidx.annotation.NonNull;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A {@link CharSequence} over a range of a char buffer, without copying it.
+ * <p>
+ * The view is re-pointed by its owner, so its contents are valid only until
+ * the owner moves on. Use {@link #toString()} to keep a copy.
+ */
+@NotThreadSafe
+final class CharView implements CharSequence {
+    private char[] chars;
+    private int start;
+    private int length;
+
+    private static final char[] NO_CHARS = new char[0];
+
+    CharView() {
+        this(NO_CHARS, 0, 0);
+    }
+
+    private CharView(
+            final @NonNull char[] chars,
+            final int start,
+            final int length
+    ) {
+        this.chars = chars;
+        this.start = start;
+        this.length = length;
+    }
+
+    @Override
+    public int length() {
+        return this.length;
+    }
+
+    @Override
+    public char charAt(final int index) throws IndexOutOfBoundsException {
+        if (
+                index < 0
+                || index >= this.length
+        ) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for length " + this.length);
+        }
+
+        return this.chars[this.start + index];
+    }
+
+    @Override
+    public @NonNull CharSequence subSequence(
+            final int start,
+            final int end
+    ) throws IndexOutOfBoundsException {
+        if (
+                start < 0
+                || end > this.length
+                || start > end
+        ) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of bounds for length " + this.length);
+        }
+
+        return new CharView(this.chars, this.start + start, end - start);
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return new String(this.chars, this.start, this.length);
+    }
+
+    void set(
+            final @NonNull char[] chars,
+            final int start,
+            final int length
+    ) {
+        this.chars = chars;
+        this.start = start;
+        this.length = length;
+    }
+
+    void clear() {
+        this.set(NO_CHARS, 0, 0);
+    }
+}
@@ -3,15 +3,33 @@ package com.minersstudios.genero.lib.xml.tag;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
 import org.xmlpull.v1.XmlPullParser;
 
 public abstract class ElementTag extends XmlTagImpl {
     private String namespace;
     private String name;
     private String prefix;
+    private int nameId;
+
+    ElementTag(
+            final @NonNull XmlPullParser parser,
+            final int type,
+            final @Nullable SymbolTable symbols
+    ) {
+        super(parser, type, symbols);
+
+        this.nameId = NOT_SET;
+    }
+
+    ElementTag(final @NonNull ElementTag source) throws IllegalStateException {
+        super(source);
 
-    ElementTag(final @NonNull XmlPullParser parser) {
-        super(parser);
+        this.namespace = source.getNamespace();
+        this.name = source.getName();
+        this.prefix = source.getPrefix();
+        this.nameId = source.getNameId();
     }
 
     /**
@@ -46,6 +64,32 @@ public abstract class ElementTag extends XmlTagImpl {
         return this.name;
     }
 
+    /**
+     * Returns the id of the namespace and name of the current element in the
+     * {@link #getSymbolTable() symbol table} of the current parse.
+     * <p>
+     * Comparing ids is a cheaper alternative to comparing the namespace and
+     * name strings, but the ids are only comparable within the same table.
+     *
+     * @return The id of the namespace and name of the current element or
+     *         {@link SymbolTable#NO_SYMBOL} if the element is not bound to a
+     *         symbol table
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see SymbolTable
+     */
+    public int getNameId() throws IllegalStateException {
+        if (this.nameId == NOT_SET) {
+            final SymbolTable symbols = this.getSymbolTable();
+
+            this.nameId =
+                    symbols == null
+                    ? SymbolTable.NO_SYMBOL
+                    : symbols.intern(this.getNamespace(), this.getName());
+        }
+
+        return this.nameId;
+    }
+
     /**
      * Returns the prefix of the current element.
      * <p>
@@ -62,4 +106,14 @@ public abstract class ElementTag extends XmlTagImpl {
 
         return this.prefix;
     }
+
+    @Override
+    void reset(final int type) {
+        super.reset(type);
+
+        this.namespace = null;
+        this.name = null;
+        this.prefix = null;
+        this.nameId = NOT_SET;
+    }
 }
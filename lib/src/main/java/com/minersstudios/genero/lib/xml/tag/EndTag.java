@@ -1,14 +1,54 @@
 package com.minersstudios.genero.lib.xml.tag;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
 
 import org.jetbrains.annotations.Contract;
 import org.xmlpull.v1.XmlPullParser;
 
 public class EndTag extends ElementTag {
 
-    EndTag(final @NonNull XmlPullParser parser) {
-        super(parser);
+    EndTag(
+            final @NonNull XmlPullParser parser,
+            final @Nullable SymbolTable symbols
+    ) {
+        super(parser, XmlPullParser.END_TAG, symbols);
+    }
+
+    private EndTag(final @NonNull EndTag source) throws IllegalStateException {
+        super(source);
+    }
+
+    @Override
+    public @NonNull EndTag toEndTag() {
+        return this;
+    }
+
+    @Override
+    public @NonNull EndTag asEndTag() {
+        return this;
+    }
+
+    @Override
+    public @Nullable StartTag asStartTag() {
+        return null;
+    }
+
+    @Override
+    public @Nullable TextTag asTextTag() {
+        return null;
+    }
+
+    @Override
+    public @NonNull EndTag snapshot() throws IllegalStateException {
+        return this.isDetached() ? this : new EndTag(this);
+    }
+
+    @Override
+    public <R> @Nullable R accept(final @NonNull TagVisitor<R> visitor) {
+        return visitor.visitEnd(this);
     }
 
     /**
@@ -27,6 +67,6 @@ public class EndTag extends ElementTag {
             throw new UnsupportedOperationException("Not an end tag");
         }
 
-        return new EndTag(parser);
+        return new EndTag(parser, null);
     }
 }
@@ -4,7 +4,11 @@ import android.content.res.XmlResourceParser;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.minersstudios.genero.lib.xml.SymbolTable;
+import com.minersstudios.genero.lib.xml.bind.AttributeBinder;
+import com.minersstudios.genero.lib.xml.bind.XmlSchema;
 import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
 import com.minersstudios.genero.lib.xml.tag.attribute.reader.AttributeReader;
 import com.minersstudios.genero.lib.xml.tag.attribute.reader.Reader;
@@ -14,12 +18,38 @@ import org.jetbrains.annotations.Contract;
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
 
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 public class StartTag extends ElementTag {
     private Reader<? extends Attribute> reader;
     private Boolean isEmptyElementTag;
 
-    private StartTag(final @NonNull XmlPullParser parser) {
-        super(parser);
+    StartTag(
+            final @NonNull XmlPullParser parser,
+            final @Nullable SymbolTable symbols
+    ) {
+        super(parser, XmlPullParser.START_TAG, symbols);
+    }
+
+    private StartTag(final @NonNull StartTag source) throws IllegalStateException {
+        super(source);
+
+        final XmlPullParser parser = source.getParser();
+        final Reader<? extends Attribute> reader =
+                source.reader != null
+                ? source.reader
+                : parser instanceof XmlResourceParser
+                ? ResourceAttributeReader.create((XmlResourceParser) parser, source.getSymbolTable())
+                : AttributeReader.create(parser, source.getSymbolTable());
+
+        this.reader = reader.snapshot();
+        this.isEmptyElementTag = source.isEmptyElementTag();
     }
 
     /**
@@ -46,13 +76,43 @@ public class StartTag extends ElementTag {
             this.reader =
                     ResourceAttributeReader.class == type
                     && parser instanceof XmlResourceParser
-                    ? ResourceAttributeReader.create((XmlResourceParser) parser)
-                    : AttributeReader.create(parser);
+                    ? ResourceAttributeReader.create((XmlResourceParser) parser, this.getSymbolTable())
+                    : AttributeReader.create(parser, this.getSymbolTable());
         }
 
         return (R) this.reader;
     }
 
+    /**
+     * Binds the attributes of the current tag to the fields of the target
+     * object using the given binder.
+     * <p>
+     * Unlike {@link #getAttributeReader(Class)}, no per-attribute objects are
+     * created, the binder reads the values straight from the parser.
+     *
+     * @param binder The binder to use, usually generated for an
+     *               {@link XmlSchema} class
+     * @param target The object to bind the attributes to
+     * @param <T>    The type of the target object
+     * @throws UnsupportedOperationException If the parser is not a
+     *                                       {@link XmlResourceParser}
+     * @throws IllegalStateException         If the parser is in an invalid
+     *                                       state
+     * @see AttributeBinder
+     */
+    public <T> void bindAttributes(
+            final @NonNull AttributeBinder<T> binder,
+            final @NonNull T target
+    ) throws UnsupportedOperationException, IllegalStateException {
+        final XmlPullParser parser = this.getParser();
+
+        if (!(parser instanceof XmlResourceParser)) {
+            throw new UnsupportedOperationException("Attribute binders require a resource parser");
+        }
+
+        binder.bind((XmlResourceParser) parser, target);
+    }
+
     /**
      * Returns true if the current element is degenerated (e.g. &lt;foobar/&gt;).
      *
@@ -78,6 +138,128 @@ public class StartTag extends ElementTag {
         return this.isEmptyElementTag;
     }
 
+    /**
+     * Returns a stream of the direct child elements of the current tag.
+     * <p>
+     * The stream reads the parser lazily. When it advances to the next
+     * child, the rest of the previous child's subtree is skipped at the pull
+     * parser level, without creating any tags. So, a child can either be
+     * read further (e.g. with its own {@link #children()}) or be ignored.
+     * <p>
+     * <b>NOTE:</b> The parser must be positioned at the current tag when this
+     *              method is called, and after the stream is exhausted, it
+     *              is positioned at the matching end tag.
+     *
+     * @return A stream of the direct child elements
+     * @throws IllegalStateException If the parser is not positioned at the
+     *                               current tag
+     */
+    public @NonNull Stream<StartTag> children() throws IllegalStateException {
+        final XmlPullParser parser = this.getParser();
+        final int depth = this.getDepth();
+
+        try {
+            if (
+                    parser.getEventType() != XmlPullParser.START_TAG
+                    || parser.getDepth() != depth
+            ) {
+                throw new IllegalStateException("Parser is not positioned at the current tag");
+            }
+        } catch (final XmlPullParserException e) {
+            throw new IllegalStateException("Parser is in an invalid state", e);
+        }
+
+        return StreamSupport.stream(
+                Spliterators.spliteratorUnknownSize(
+                        new ChildIterator(parser, this.getSymbolTable(), depth),
+                        Spliterator.ORDERED | Spliterator.NONNULL
+                ),
+                false
+        );
+    }
+
+    /**
+     * Skips the whole subtree of the current tag.
+     * <p>
+     * The events of the subtree are skipped at the pull parser level by
+     * tracking the depth, no tags are created. After the skip, the parser is
+     * positioned at the matching end tag.
+     *
+     * @throws IllegalStateException If the parser is not positioned at a start
+     *                               tag or the document ends before the
+     *                               matching end tag
+     */
+    public void skipSubtree() throws IllegalStateException {
+        final XmlPullParser parser = this.getParser();
+
+        try {
+            if (parser.getEventType() != XmlPullParser.START_TAG) {
+                throw new IllegalStateException("Parser is not positioned at a start tag");
+            }
+
+            final int depth = parser.getDepth();
+
+            for (int type = parser.next(); type != XmlPullParser.END_DOCUMENT; type = parser.next()) {
+                if (
+                        type == XmlPullParser.END_TAG
+                        && parser.getDepth() == depth
+                ) {
+                    return;
+                }
+            }
+        } catch (final IOException | XmlPullParserException e) {
+            throw new IllegalStateException("Failed to skip the subtree", e);
+        }
+
+        throw new IllegalStateException("Unexpected end of document");
+    }
+
+    @Override
+    public @NonNull StartTag toStartTag() {
+        return this;
+    }
+
+    @Override
+    public @NonNull StartTag asStartTag() {
+        return this;
+    }
+
+    @Override
+    public @Nullable EndTag asEndTag() {
+        return null;
+    }
+
+    @Override
+    public @Nullable TextTag asTextTag() {
+        return null;
+    }
+
+    /**
+     * {@inheritDoc}
+     * <p>
+     * The attribute reader of the copy is a detached
+     * {@link ResourceAttributeReader} if the tag was read by a
+     * {@link XmlResourceParser}, otherwise it is a detached
+     * {@link AttributeReader}.
+     */
+    @Override
+    public @NonNull StartTag snapshot() throws IllegalStateException {
+        return this.isDetached() ? this : new StartTag(this);
+    }
+
+    @Override
+    public <R> @Nullable R accept(final @NonNull TagVisitor<R> visitor) {
+        return visitor.visitStart(this);
+    }
+
+    @Override
+    void reset(final int type) {
+        super.reset(type);
+
+        this.reader = null;
+        this.isEmptyElementTag = null;
+    }
+
     /**
      * Creates a new {@link EndTag} instance
      *
@@ -94,6 +276,74 @@ public class StartTag extends ElementTag {
             throw new UnsupportedOperationException("Not a start tag");
         }
 
-        return new StartTag(parser);
+        return new StartTag(parser, null);
+    }
+
+    private static final class ChildIterator implements Iterator<StartTag> {
+        private final XmlPullParser parser;
+        private final SymbolTable symbols;
+        private final int depth;
+        private StartTag next;
+        private boolean finished;
+
+        ChildIterator(
+                final @NonNull XmlPullParser parser,
+                final @Nullable SymbolTable symbols,
+                final int depth
+        ) {
+            this.parser = parser;
+            this.symbols = symbols;
+            this.depth = depth;
+        }
+
+        @Override
+        public boolean hasNext() throws IllegalStateException {
+            if (this.next != null) {
+                return true;
+            }
+
+            if (this.finished) {
+                return false;
+            }
+
+            try {
+                for (;;) {
+                    final int type = this.parser.next();
+                    final int depth = this.parser.getDepth();
+
+                    if (
+                            type == XmlPullParser.END_DOCUMENT
+                            || (type == XmlPullParser.END_TAG && depth <= this.depth)
+                    ) {
+                        this.finished = true;
+
+                        return false;
+                    }
+
+                    if (
+                            type == XmlPullParser.START_TAG
+                            && depth == this.depth + 1
+                    ) {
+                        this.next = new StartTag(this.parser, this.symbols);
+
+                        return true;
+                    }
+                }
+            } catch (final IOException | XmlPullParserException e) {
+                throw new IllegalStateException("Failed to read the next event", e);
+            }
+        }
+
+        @Override
+        public @NonNull StartTag next() throws NoSuchElementException, IllegalStateException {
+            if (!this.hasNext()) {
+                throw new NoSuchElementException();
+            }
+
+            final StartTag next = this.next;
+            this.next = null;
+
+            return next;
+        }
     }
 }
@@ -0,0 +1,113 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import android.content.res.XmlResourceParser;
+
+import androidx.annotation.NonNull;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
+import org.jetbrains.annotations.Contract;
+import org.xmlpull.v1.XmlPullParser;
+
+/**
+ * A forward-only cursor over the events of a pull parser.
+ * <p>
+ * Unlike the stream returned by
+ * {@link com.minersstudios.genero.lib.xml.XmlParser#parsePull(XmlPullParser)},
+ * the cursor does not allocate a new tag for every event. Instead, it exposes
+ * a single reusable tag view per event type, which is re-pointed at the
+ * current event on every {@link #advance() advance}.
+ * <p>
+ * <b>NOTE:</b> The tag returned by {@link #tag()}, as well as any typed view
+ *              obtained from it (e.g. {@link XmlTag#toStartTag()}), is valid
+ *              only until the next call to {@link #advance()}. Do not store
+ *              it, copy the required values instead.
+ *
+ * <pre>{@code
+ * try (final TagCursor cursor = XmlParser.cursorResource(parser)) {
+ *     while (cursor.advance()) {
+ *         final XmlTag tag = cursor.tag();
+ *         ...
+ *     }
+ * }
+ * }</pre>
+ *
+ * @see com.minersstudios.genero.lib.xml.XmlParser#cursorPull(XmlPullParser)
+ * @see com.minersstudios.genero.lib.xml.XmlParser#cursorResource(XmlResourceParser)
+ */
+public interface TagCursor extends AutoCloseable {
+
+    /**
+     * Moves the cursor to the next parser event.
+     * <p>
+     * The cursor visits the same events as the tag stream, ending with the
+     * {@link XmlPullParser#END_DOCUMENT} event.
+     *
+     * @return True if the cursor has moved to a new event, false if the end of
+     *         the document has already been reached
+     * @throws IllegalStateException If the parser failed to read the next
+     *                               event
+     */
+    boolean advance() throws IllegalStateException;
+
+    /**
+     * Returns the type of the current event
+     *
+     * @return The type of the current event
+     * @see XmlTag#getType()
+     */
+    int getType();
+
+    /**
+     * Returns the reusable view of the current event.
+     * <p>
+     * The returned tag is already of the matching type, so
+     * {@link XmlTag#toStartTag()}, {@link XmlTag#toEndTag()} and
+     * {@link XmlTag#toTextTag()} return the same instance without allocating.
+     * <p>
+     * <b>NOTE:</b> The view is valid only until the next {@link #advance()}.
+     *
+     * @return The reusable view of the current event
+     */
+    @NonNull XmlTag tag();
+
+    /**
+     * Closes the underlying parser if the cursor owns it.
+     * <p>
+     * Cursors created for a {@link XmlResourceParser} close the parser, other
+     * cursors leave it to the caller.
+     */
+    @Override
+    void close();
+
+    /**
+     * Creates a new {@link TagCursor} instance that does not close the parser
+     *
+     * @param parser  The parser to read events from
+     * @param symbols The symbol table of the parse
+     * @return A new {@code TagCursor} instance
+     */
+    @Contract("_, _ -> new")
+    static @NonNull TagCursor create(
+            final @NonNull XmlPullParser parser,
+            final @NonNull SymbolTable symbols
+    ) {
+        return new TagCursorImpl(parser, symbols, false);
+    }
+
+    /**
+     * Creates a new {@link TagCursor} instance that closes the parser when the
+     * cursor is closed
+     *
+     * @param parser  The resource parser to read events from
+     * @param symbols The symbol table of the parse
+     * @return A new {@code TagCursor} instance
+     */
+    @Contract("_, _ -> new")
+    static @NonNull TagCursor create(
+            final @NonNull XmlResourceParser parser,
+            final @NonNull SymbolTable symbols
+    ) {
+        return new TagCursorImpl(parser, symbols, true);
+    }
+}
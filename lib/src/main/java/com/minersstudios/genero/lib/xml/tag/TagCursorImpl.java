@@ -0,0 +1,125 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import static com.minersstudios.genero.lib.xml.tag.XmlTagImpl.NOT_SET;
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+import static org.xmlpull.v1.XmlPullParser.TEXT;
+
+import android.content.res.XmlResourceParser;
+import android.util.Log;
+
+import androidx.annotation.NonNull;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+
+final class TagCursorImpl implements TagCursor {
+    private final XmlPullParser parser;
+    private final boolean closeParser;
+    private final StartTag startTag;
+    private final EndTag endTag;
+    private final TextTag textTag;
+    private final XmlTagImpl otherTag;
+    private XmlTagImpl current;
+    private int type;
+
+    TagCursorImpl(
+            final @NonNull XmlPullParser parser,
+            final @NonNull SymbolTable symbols,
+            final boolean closeParser
+    ) {
+        this.parser = parser;
+        this.closeParser = closeParser;
+        this.startTag = new StartTag(parser, symbols);
+        this.endTag = new EndTag(parser, symbols);
+        this.textTag = new TextTag(parser, symbols);
+        this.otherTag = new XmlTagImpl(parser, NOT_SET, symbols) {};
+
+        int type;
+
+        try {
+            type = parser.getEventType();
+        } catch (final XmlPullParserException e) {
+            type = END_DOCUMENT;
+
+            Log.e(
+                    this.getClass().getSimpleName(),
+                    "Failed to get event type, defaulting to XmlPullParser.END_DOCUMENT",
+                    e
+            );
+        }
+
+        this.point(type);
+    }
+
+    @Override
+    public boolean advance() throws IllegalStateException {
+        if (this.type == END_DOCUMENT) {
+            return false;
+        }
+
+        try {
+            this.point(this.parser.next());
+        } catch (final IOException | XmlPullParserException e) {
+            throw new IllegalStateException("Failed to read the next event", e);
+        }
+
+        return true;
+    }
+
+    @Override
+    public int getType() {
+        return this.type;
+    }
+
+    @Override
+    public @NonNull XmlTag tag() {
+        return this.current;
+    }
+
+    @Override
+    public void close() {
+        if (!this.closeParser) {
+            return;
+        }
+
+        try {
+            ((XmlResourceParser) this.parser).close();
+        } catch (final Throwable e) {
+            Log.e(this.getClass().getSimpleName(), "Failed to close parser", e);
+        }
+    }
+
+    private void point(final int type) {
+        final XmlTagImpl view;
+
+        switch (type) {
+            case START_TAG:
+                view = this.startTag;
+
+                break;
+            case END_TAG:
+                view = this.endTag;
+
+                break;
+            case TEXT:
+                view = this.textTag;
+
+                break;
+            default:
+                view = this.otherTag;
+
+                break;
+        }
+
+        view.reset(type);
+
+        this.type = type;
+        this.current = view;
+    }
+}
@@ -0,0 +1,43 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import androidx.annotation.NonNull;
+
+/**
+ * A push handler of the events of an element.
+ * <p>
+ * Handlers are registered by element name in a {@link TagHandlers} table.
+ * The table calls {@link #onStart(StartTag)} and {@link #onEnd(EndTag)} for
+ * the elements with the name of the handler, and {@link #onText(TextTag)} for
+ * the text directly inside of them. All methods do nothing by default, so
+ * only the relevant ones need to be overridden.
+ * <p>
+ * <b>NOTE:</b> The tags passed to the handler are reused for every event, so
+ *              they are valid only until the handler returns. Do not store
+ *              them, copy the required values or take a
+ *              {@link XmlTag#snapshot() snapshot} instead.
+ *
+ * @see TagHandlers
+ */
+public interface TagHandler {
+
+    /**
+     * Handles the start of an element
+     *
+     * @param tag The start tag of the element
+     */
+    default void onStart(final @NonNull StartTag tag) {}
+
+    /**
+     * Handles the text directly inside an element
+     *
+     * @param tag The text of the element
+     */
+    default void onText(final @NonNull TextTag tag) {}
+
+    /**
+     * Handles the end of an element
+     *
+     * @param tag The end tag of the element
+     */
+    default void onEnd(final @NonNull EndTag tag) {}
+}
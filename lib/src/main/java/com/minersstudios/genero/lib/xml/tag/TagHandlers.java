@@ -0,0 +1,239 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+import static org.xmlpull.v1.XmlPullParser.TEXT;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
+import org.jetbrains.annotations.Contract;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.Arrays;
+
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * A table of {@link TagHandler element handlers}, keyed by element name.
+ * <p>
+ * Unlike the tag stream, dispatching runs a plain loop over the parser
+ * events, with no lambdas, pipeline stages or tags per event. The handlers
+ * receive a single reusable view per event type, as with a
+ * {@link TagCursor}, and the handler of an element is found by the
+ * {@link ElementTag#getNameId() symbol id} of its name, which costs a single
+ * array read.
+ *
+ * <pre>{@code
+ * final TagHandlers handlers =
+ *         new TagHandlers()
+ *         .on("item", new TagHandler() {
+ *             @Override
+ *             public void onStart(final @NonNull StartTag tag) {
+ *                 final ResourceAttributeReader reader = tag.getAttributeReader(ResourceAttributeReader.class);
+ *                 ...
+ *             }
+ *         });
+ *
+ * XmlParser.dispatch(parser, handlers);
+ * }</pre>
+ * <p>
+ * <b>NOTE:</b> The table can be reused for any number of documents, but
+ *              not by several threads at the same time.
+ *
+ * @see com.minersstudios.genero.lib.xml.XmlParser#dispatch(XmlPullParser, TagHandlers)
+ */
+@NotThreadSafe
+public final class TagHandlers {
+    private final SymbolTable symbols;
+    private TagHandler[] handlers;
+    private TagHandler fallback;
+    private TagHandler[] stack;
+
+    private static final TagHandler[] NO_HANDLERS = new TagHandler[0];
+    private static final int INITIAL_DEPTH = 16;
+
+    /**
+     * Creates a new empty handler table
+     */
+    public TagHandlers() {
+        this(new SymbolTable());
+    }
+
+    /**
+     * Creates a new empty handler table that interns the element names into
+     * a copy of the given symbol table.
+     * <p>
+     * The tags passed to the handlers share the ids of the template, so the
+     * handlers may match attribute names against the ids of a schema.
+     *
+     * @param template The template symbol table
+     */
+    public TagHandlers(final @NonNull SymbolTable template) {
+        this.symbols = template.copy();
+        this.handlers = NO_HANDLERS;
+        this.stack = new TagHandler[INITIAL_DEPTH];
+    }
+
+    /**
+     * Registers a handler for the elements with the given name and no
+     * namespace
+     *
+     * @param name    The local name of the elements
+     * @param handler The handler of the elements
+     * @return This table
+     */
+    @Contract("_, _ -> this")
+    public @NonNull TagHandlers on(
+            final @NonNull String name,
+            final @NonNull TagHandler handler
+    ) {
+        return this.on("", name, handler);
+    }
+
+    /**
+     * Registers a handler for the elements with the given namespace and name
+     *
+     * @param namespace The namespace of the elements, null is treated as an
+     *                  empty string
+     * @param name      The local name of the elements
+     * @param handler   The handler of the elements
+     * @return This table
+     */
+    @Contract("_, _, _ -> this")
+    public @NonNull TagHandlers on(
+            final @Nullable String namespace,
+            final @NonNull String name,
+            final @NonNull TagHandler handler
+    ) {
+        final int id = this.symbols.intern(namespace, name);
+
+        if (id >= this.handlers.length) {
+            this.handlers = Arrays.copyOf(this.handlers, Math.max(id + 1, this.handlers.length * 2));
+        }
+
+        this.handlers[id] = handler;
+
+        return this;
+    }
+
+    /**
+     * Registers a handler for the elements without a handler of their own
+     *
+     * @param handler The fallback handler, or null to ignore such elements
+     * @return This table
+     */
+    @Contract("_ -> this")
+    public @NonNull TagHandlers otherwise(final @Nullable TagHandler handler) {
+        this.fallback = handler;
+
+        return this;
+    }
+
+    /**
+     * Returns the handler registered for the given element name
+     *
+     * @param namespace The namespace of the elements, null is treated as an
+     *                  empty string
+     * @param name      The local name of the elements
+     * @return The handler of the elements or null if there is none
+     */
+    public @Nullable TagHandler get(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final int id = this.symbols.lookup(namespace, name);
+
+        return id == SymbolTable.NO_SYMBOL || id >= this.handlers.length
+               ? null
+               : this.handlers[id];
+    }
+
+    /**
+     * Dispatches the events of the parser to the handlers, from the current
+     * position of the parser to the end of the document.
+     * <p>
+     * Text is dispatched to the handler of the element that directly contains
+     * it, text outside of the root element is ignored.
+     *
+     * @param parser The pull parser to read events from
+     * @throws IllegalStateException If the parser failed to read the next
+     *                               event
+     */
+    public void dispatch(final @NonNull XmlPullParser parser) throws IllegalStateException {
+        final SymbolTable symbols = this.symbols.copy();
+        final StartTag startTag = new StartTag(parser, symbols);
+        final EndTag endTag = new EndTag(parser, symbols);
+        final TextTag textTag = new TextTag(parser, symbols);
+        final TagHandler[] handlers = this.handlers;
+        final TagHandler fallback = this.fallback;
+        TagHandler[] stack = this.stack;
+
+        try {
+            for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+                switch (type) {
+                    case START_TAG: {
+                        final int depth = parser.getDepth();
+
+                        startTag.reset(START_TAG);
+
+                        final int id = startTag.getNameId();
+                        final TagHandler handler =
+                                id < handlers.length && handlers[id] != null
+                                ? handlers[id]
+                                : fallback;
+
+                        if (depth >= stack.length) {
+                            this.stack = stack = Arrays.copyOf(stack, depth * 2);
+                        }
+
+                        stack[depth] = handler;
+
+                        if (handler != null) {
+                            handler.onStart(startTag);
+                        }
+
+                        break;
+                    }
+                    case TEXT: {
+                        final int depth = parser.getDepth();
+                        final TagHandler handler = depth < stack.length ? stack[depth] : null;
+
+                        if (handler != null) {
+                            textTag.reset(TEXT);
+                            handler.onText(textTag);
+                        }
+
+                        break;
+                    }
+                    case END_TAG: {
+                        // The start tag of an element entered before the
+                        // dispatch started was never stacked
+                        final int depth = parser.getDepth();
+                        final TagHandler handler = depth < stack.length ? stack[depth] : null;
+
+                        if (handler != null) {
+                            stack[depth] = null;
+
+                            endTag.reset(END_TAG);
+                            handler.onEnd(endTag);
+                        }
+
+                        break;
+                    }
+                    default:
+                        break;
+                }
+            }
+        } catch (final IOException | XmlPullParserException e) {
+            throw new IllegalStateException("Failed to read the next event", e);
+        } finally {
+            Arrays.fill(stack, null);
+        }
+    }
+}
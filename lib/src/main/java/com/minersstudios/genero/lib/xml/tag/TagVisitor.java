@@ -0,0 +1,58 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+/**
+ * A visitor of {@link XmlTag XML tags}.
+ * <p>
+ * The tag dispatches to the matching method based on its cached event type,
+ * without any type checks on the parser and without throwing on mismatches.
+ * All methods return null by default, so only the relevant ones need to be
+ * overridden.
+ *
+ * @param <R> The type of the result
+ * @see XmlTag#accept(TagVisitor)
+ */
+public interface TagVisitor<R> {
+
+    /**
+     * Visits a start tag
+     *
+     * @param tag The start tag
+     * @return The result of the visit
+     */
+    default @Nullable R visitStart(final @NonNull StartTag tag) {
+        return null;
+    }
+
+    /**
+     * Visits an end tag
+     *
+     * @param tag The end tag
+     * @return The result of the visit
+     */
+    default @Nullable R visitEnd(final @NonNull EndTag tag) {
+        return null;
+    }
+
+    /**
+     * Visits a text tag
+     *
+     * @param tag The text tag
+     * @return The result of the visit
+     */
+    default @Nullable R visitText(final @NonNull TextTag tag) {
+        return null;
+    }
+
+    /**
+     * Visits any other tag (e.g. the start or the end of the document)
+     *
+     * @param tag The tag
+     * @return The result of the visit
+     */
+    default @Nullable R visitOther(final @NonNull XmlTag tag) {
+        return null;
+    }
+}
@@ -3,6 +3,9 @@ package com.minersstudios.genero.lib.xml.tag;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
 
 import org.jetbrains.annotations.Contract;
 import org.xmlpull.v1.XmlPullParser;
@@ -12,9 +15,21 @@ import org.xmlpull.v1.XmlPullParserException;
 public class TextTag extends XmlTagImpl {
     private String text;
     private Boolean isWhitespace;
+    private CharView textView;
+    private int[] textRange;
+
+    TextTag(
+            final @NonNull XmlPullParser parser,
+            final @Nullable SymbolTable symbols
+    ) {
+        super(parser, XmlPullParser.TEXT, symbols);
+    }
 
-    private TextTag(final @NonNull XmlPullParser parser) {
-        super(parser);
+    private TextTag(final @NonNull TextTag source) throws IllegalStateException {
+        super(source);
+
+        this.text = source.getText();
+        this.isWhitespace = source.isWhitespace();
     }
 
     /**
@@ -42,9 +57,51 @@ public class TextTag extends XmlTagImpl {
      * @throws IllegalStateException If the parser is in an invalid state
      */
     public @NonNull char[] getTextCharacters(final @NonNull int[] holderForStartAndLength) throws IllegalStateException {
+        if (this.isDetached()) {
+            holderForStartAndLength[0] = 0;
+            holderForStartAndLength[1] = this.text.length();
+
+            return this.text.toCharArray();
+        }
+
         return this.getParser().getTextCharacters(holderForStartAndLength);
     }
 
+    /**
+     * Returns the text content of the current element as a char sequence over
+     * the parser's char buffer, without copying it.
+     * <p>
+     * The same view is returned for every call and re-pointed when the text
+     * changes, so its contents are valid only until the parser advances. Use
+     * {@link TextValues} to parse values straight from the view, or
+     * {@link CharSequence#toString()} to keep a copy. If the text was already
+     * read as a string or the tag is detached, the string itself is returned.
+     *
+     * @return The text content of the current element
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see TextValues
+     */
+    public @NonNull CharSequence textView() throws IllegalStateException {
+        if (this.text != null) {
+            return this.text;
+        }
+
+        if (this.textView == null) {
+            this.textView = new CharView();
+            this.textRange = new int[2];
+        }
+
+        final char[] chars = this.getParser().getTextCharacters(this.textRange);
+
+        if (chars == null) {
+            this.textView.clear();
+        } else {
+            this.textView.set(chars, this.textRange[0], this.textRange[1]);
+        }
+
+        return this.textView;
+    }
+
     /**
      * Returns whether the current element contains only whitespace characters
      *
@@ -69,6 +126,48 @@ public class TextTag extends XmlTagImpl {
         return this.isWhitespace;
     }
 
+    @Override
+    public @NonNull TextTag toTextTag() {
+        return this;
+    }
+
+    @Override
+    public @NonNull TextTag asTextTag() {
+        return this;
+    }
+
+    @Override
+    public @Nullable StartTag asStartTag() {
+        return null;
+    }
+
+    @Override
+    public @Nullable EndTag asEndTag() {
+        return null;
+    }
+
+    @Override
+    public @NonNull TextTag snapshot() throws IllegalStateException {
+        return this.isDetached() ? this : new TextTag(this);
+    }
+
+    @Override
+    public <R> @Nullable R accept(final @NonNull TagVisitor<R> visitor) {
+        return visitor.visitText(this);
+    }
+
+    @Override
+    void reset(final int type) {
+        super.reset(type);
+
+        this.text = null;
+        this.isWhitespace = null;
+
+        if (this.textView != null) {
+            this.textView.clear();
+        }
+    }
+
     @Override
     public @NonNull String toString() throws IllegalStateException {
         return "TextTag{" +
@@ -98,6 +197,6 @@ public class TextTag extends XmlTagImpl {
             throw new UnsupportedOperationException("Not a text tag");
         }
 
-        return new TextTag(parser);
+        return new TextTag(parser, null);
     }
 }
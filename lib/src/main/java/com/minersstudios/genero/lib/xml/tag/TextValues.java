@@ -0,0 +1,743 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import androidx.annotation.NonNull;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Parsers of typed values straight from a {@link CharSequence}.
+ * <p>
+ * The parsers read the characters in place, so together with
+ * {@link TextTag#textView()} they turn the text of an element into a value
+ * without creating a string. Leading and trailing XML whitespace is ignored.
+ * A value that cannot be parsed yields the given default value instead of an
+ * exception.
+ */
+public final class TextValues {
+    private static final long MAX_EXACT_DOUBLE_MANTISSA = 1L << 53;
+    private static final long MAX_EXACT_FLOAT_MANTISSA = 1L << 24;
+    private static final int MAX_EXACT_DOUBLE_EXPONENT = 22;
+    private static final int MAX_EXACT_FLOAT_EXPONENT = 10;
+    private static final int MAX_MANTISSA_DIGITS = 18;
+    private static final long DAYS_0000_TO_1970 = 719528L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private static final double[] DOUBLE_POWERS_OF_TEN = {
+            1e0,  1e1,  1e2,  1e3,  1e4,  1e5,  1e6,  1e7,  1e8,  1e9,  1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+    private static final float[] FLOAT_POWERS_OF_TEN = {
+            1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    @Contract(" -> fail")
+    private TextValues() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Parses a decimal int value with an optional sign
+     *
+     * @param text         The text to parse
+     * @param defaultValue The value to return if the text is not an int
+     * @return The parsed int value or the default value
+     */
+    public static int parseInt(
+            final @NonNull CharSequence text,
+            final int defaultValue
+    ) {
+        final long value = parseLong(text, Long.MIN_VALUE);
+
+        return value == Long.MIN_VALUE
+               || value < Integer.MIN_VALUE
+               || value > Integer.MAX_VALUE
+               ? defaultValue
+               : (int) value;
+    }
+
+    /**
+     * Parses a decimal long value with an optional sign
+     *
+     * @param text         The text to parse
+     * @param defaultValue The value to return if the text is not a long
+     * @return The parsed long value or the default value
+     */
+    public static long parseLong(
+            final @NonNull CharSequence text,
+            final long defaultValue
+    ) {
+        final int end = trimEnd(text);
+        int index = trimStart(text, end);
+
+        if (index == end) {
+            return defaultValue;
+        }
+
+        final char first = text.charAt(index);
+        final boolean negative = first == '-';
+
+        if (
+                negative
+                || first == '+'
+        ) {
+            if (++index == end) {
+                return defaultValue;
+            }
+        }
+
+        final long limit = negative ? Long.MIN_VALUE : -Long.MAX_VALUE;
+        final long minimum = limit / 10;
+        long result = 0;
+
+        for (; index < end; ++index) {
+            final int digit = text.charAt(index) - '0';
+
+            if (
+                    digit < 0
+                    || digit > 9
+                    || result < minimum
+            ) {
+                return defaultValue;
+            }
+
+            result *= 10;
+
+            if (result < limit + digit) {
+                return defaultValue;
+            }
+
+            result -= digit;
+        }
+
+        return negative ? result : -result;
+    }
+
+    /**
+     * Parses a decimal double value, e.g. {@code -12.5e3}, {@code INF} or
+     * {@code NaN}.
+     * <p>
+     * Values with at most 15 significant digits and a small exponent, which
+     * covers nearly all values in practice, are computed exactly in place.
+     * Other values fall back to {@link Double#parseDouble(String)}.
+     *
+     * @param text         The text to parse
+     * @param defaultValue The value to return if the text is not a double
+     * @return The parsed double value or the default value
+     */
+    public static double parseDouble(
+            final @NonNull CharSequence text,
+            final double defaultValue
+    ) {
+        return parseDecimal(text, 0, text.length(), false, defaultValue);
+    }
+
+    /**
+     * Parses a decimal double value from the given range of the text
+     *
+     * @param text         The text to parse
+     * @param start        The start index of the range, inclusive
+     * @param end          The end index of the range, exclusive
+     * @param defaultValue The value to return if the range is not a double
+     * @return The parsed double value or the default value
+     * @throws IndexOutOfBoundsException If the range is out of bounds
+     * @see #parseDouble(CharSequence, double)
+     */
+    public static double parseDouble(
+            final @NonNull CharSequence text,
+            final int start,
+            final int end,
+            final double defaultValue
+    ) throws IndexOutOfBoundsException {
+        checkRange(text, start, end);
+
+        return parseDecimal(text, start, end, false, defaultValue);
+    }
+
+    /**
+     * Parses a decimal float value, e.g. {@code -12.5e3}, {@code INF} or
+     * {@code NaN}.
+     * <p>
+     * Values with at most 7 significant digits and a small exponent are
+     * computed exactly in place. Other values fall back to
+     * {@link Float#parseFloat(String)}.
+     *
+     * @param text         The text to parse
+     * @param defaultValue The value to return if the text is not a float
+     * @return The parsed float value or the default value
+     */
+    public static float parseFloat(
+            final @NonNull CharSequence text,
+            final float defaultValue
+    ) {
+        return (float) parseDecimal(text, 0, text.length(), true, defaultValue);
+    }
+
+    /**
+     * Parses a decimal float value from the given range of the text
+     *
+     * @param text         The text to parse
+     * @param start        The start index of the range, inclusive
+     * @param end          The end index of the range, exclusive
+     * @param defaultValue The value to return if the range is not a float
+     * @return The parsed float value or the default value
+     * @throws IndexOutOfBoundsException If the range is out of bounds
+     * @see #parseFloat(CharSequence, float)
+     */
+    public static float parseFloat(
+            final @NonNull CharSequence text,
+            final int start,
+            final int end,
+            final float defaultValue
+    ) throws IndexOutOfBoundsException {
+        checkRange(text, start, end);
+
+        return (float) parseDecimal(text, start, end, true, defaultValue);
+    }
+
+    /**
+     * Parses a boolean value, where {@code true} and {@code 1} are true, and
+     * {@code false} and {@code 0} are false
+     *
+     * @param text         The text to parse
+     * @param defaultValue The value to return if the text is not a boolean
+     * @return The parsed boolean value or the default value
+     */
+    public static boolean parseBoolean(
+            final @NonNull CharSequence text,
+            final boolean defaultValue
+    ) {
+        final int end = trimEnd(text);
+        final int start = trimStart(text, end);
+
+        if (
+                regionMatches(text, start, end, "true")
+                || regionMatches(text, start, end, "1")
+        ) {
+            return true;
+        }
+
+        if (
+                regionMatches(text, start, end, "false")
+                || regionMatches(text, start, end, "0")
+        ) {
+            return false;
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * Parses an ISO-8601 date in the {@code yyyy-MM-dd} form into the number
+     * of days since the epoch ({@code 1970-01-01})
+     *
+     * @param text         The text to parse
+     * @param defaultValue The value to return if the text is not a valid date
+     * @return The parsed epoch day or the default value
+     */
+    public static long parseEpochDay(
+            final @NonNull CharSequence text,
+            final long defaultValue
+    ) {
+        final int end = trimEnd(text);
+        final int start = trimStart(text, end);
+
+        if (end - start != 10) {
+            return defaultValue;
+        }
+
+        final long epochDay = epochDay(text, start);
+
+        return epochDay == Long.MIN_VALUE ? defaultValue : epochDay;
+    }
+
+    /**
+     * Parses an ISO-8601 date or date-time into milliseconds since the epoch.
+     * <p>
+     * Accepted forms are {@code yyyy-MM-dd} and
+     * {@code yyyy-MM-ddTHH:mm[:ss[.SSS]]} followed by an optional {@code Z},
+     * {@code +HH:mm} or {@code -HH:mm} offset. A date without a time is the
+     * start of the day, and a date-time without an offset is taken as UTC.
+     * Fractions of a second beyond milliseconds are ignored.
+     *
+     * @param text         The text to parse
+     * @param defaultValue The value to return if the text is not a valid date
+     *                     or date-time
+     * @return The parsed epoch millis or the default value
+     */
+    public static long parseEpochMillis(
+            final @NonNull CharSequence text,
+            final long defaultValue
+    ) {
+        final int end = trimEnd(text);
+        int index = trimStart(text, end);
+
+        if (end - index < 10) {
+            return defaultValue;
+        }
+
+        final long epochDay = epochDay(text, index);
+
+        if (epochDay == Long.MIN_VALUE) {
+            return defaultValue;
+        }
+
+        long millis = epochDay * MILLIS_PER_DAY;
+        index += 10;
+
+        if (index == end) {
+            return millis;
+        }
+
+        if (
+                text.charAt(index) != 'T'
+                || end - index < 6
+                || text.charAt(index + 3) != ':'
+        ) {
+            return defaultValue;
+        }
+
+        final int hour = digits(text, index + 1, 2);
+        final int minute = digits(text, index + 4, 2);
+        int second = 0;
+        int millisOfSecond = 0;
+        index += 6;
+
+        if (
+                index < end
+                && text.charAt(index) == ':'
+        ) {
+            if (end - index < 3) {
+                return defaultValue;
+            }
+
+            second = digits(text, index + 1, 2);
+            index += 3;
+
+            if (
+                    index < end
+                    && text.charAt(index) == '.'
+            ) {
+                int digitCount = 0;
+
+                for (++index; index < end; ++index, ++digitCount) {
+                    final int digit = text.charAt(index) - '0';
+
+                    if (
+                            digit < 0
+                            || digit > 9
+                    ) {
+                        break;
+                    }
+
+                    if (digitCount < 3) {
+                        millisOfSecond = millisOfSecond * 10 + digit;
+                    }
+                }
+
+                if (digitCount == 0) {
+                    return defaultValue;
+                }
+
+                for (; digitCount < 3; ++digitCount) {
+                    millisOfSecond *= 10;
+                }
+            }
+        }
+
+        if (
+                hour < 0 || hour > 23
+                || minute < 0 || minute > 59
+                || second < 0 || second > 59
+        ) {
+            return defaultValue;
+        }
+
+        millis += ((hour * 60L + minute) * 60L + second) * 1000L + millisOfSecond;
+
+        if (index == end) {
+            return millis;
+        }
+
+        final char zone = text.charAt(index);
+
+        if (zone == 'Z') {
+            return index + 1 == end ? millis : defaultValue;
+        }
+
+        if (
+                (zone != '+' && zone != '-')
+                || end - index != 6
+                || text.charAt(index + 3) != ':'
+        ) {
+            return defaultValue;
+        }
+
+        final int offsetHour = digits(text, index + 1, 2);
+        final int offsetMinute = digits(text, index + 4, 2);
+
+        if (
+                offsetHour < 0 || offsetHour > 18
+                || offsetMinute < 0 || offsetMinute > 59
+        ) {
+            return defaultValue;
+        }
+
+        final long offset = (offsetHour * 60L + offsetMinute) * 60_000L;
+
+        return zone == '+' ? millis - offset : millis + offset;
+    }
+
+    private static double parseDecimal(
+            final @NonNull CharSequence text,
+            final int from,
+            final int to,
+            final boolean single,
+            final double defaultValue
+    ) {
+        final int end = trimEnd(text, from, to);
+        final int start = trimStart(text, from, end);
+        int index = start;
+
+        if (index == end) {
+            return defaultValue;
+        }
+
+        final char first = text.charAt(index);
+        final boolean negative = first == '-';
+
+        if (
+                negative
+                || first == '+'
+        ) {
+            index++;
+        }
+
+        if (regionMatches(text, index, end, "INF")) {
+            return negative ? Double.NEGATIVE_INFINITY : Double.POSITIVE_INFINITY;
+        }
+
+        if (
+                index == start
+                && regionMatches(text, index, end, "NaN")
+        ) {
+            return Double.NaN;
+        }
+
+        long mantissa = 0;
+        int mantissaDigits = 0;
+        int exponent = 0;
+        int digitCount = 0;
+        boolean isExact = true;
+        boolean isFraction = false;
+
+        for (; index < end; ++index) {
+            final char c = text.charAt(index);
+
+            if (c == '.') {
+                if (isFraction) {
+                    return defaultValue;
+                }
+
+                isFraction = true;
+
+                continue;
+            }
+
+            final int digit = c - '0';
+
+            if (
+                    digit < 0
+                    || digit > 9
+            ) {
+                break;
+            }
+
+            digitCount++;
+
+            if (
+                    mantissa == 0
+                    && digit == 0
+            ) {
+                if (isFraction) {
+                    exponent--;
+                }
+
+                continue;
+            }
+
+            if (mantissaDigits < MAX_MANTISSA_DIGITS) {
+                mantissa = mantissa * 10 + digit;
+                mantissaDigits++;
+
+                if (isFraction) {
+                    exponent--;
+                }
+            } else {
+                isExact = false;
+
+                if (!isFraction) {
+                    exponent++;
+                }
+            }
+        }
+
+        if (digitCount == 0) {
+            return defaultValue;
+        }
+
+        if (index < end) {
+            final char c = text.charAt(index);
+
+            if (
+                    (c != 'e' && c != 'E')
+                    || ++index == end
+            ) {
+                return defaultValue;
+            }
+
+            final char sign = text.charAt(index);
+            final boolean negativeExponent = sign == '-';
+
+            if (
+                    (negativeExponent || sign == '+')
+                    && ++index == end
+            ) {
+                return defaultValue;
+            }
+
+            int explicitExponent = 0;
+
+            for (; index < end; ++index) {
+                final int digit = text.charAt(index) - '0';
+
+                if (
+                        digit < 0
+                        || digit > 9
+                ) {
+                    return defaultValue;
+                }
+
+                if (explicitExponent < 100_000) {
+                    explicitExponent = explicitExponent * 10 + digit;
+                }
+            }
+
+            exponent += negativeExponent ? -explicitExponent : explicitExponent;
+        }
+
+        if (mantissa == 0) {
+            return negative ? -0.0 : 0.0;
+        }
+
+        if (isExact) {
+            if (single) {
+                if (
+                        mantissa < MAX_EXACT_FLOAT_MANTISSA
+                        && Math.abs(exponent) <= MAX_EXACT_FLOAT_EXPONENT
+                ) {
+                    final float value =
+                            exponent >= 0
+                            ? mantissa * FLOAT_POWERS_OF_TEN[exponent]
+                            : mantissa / FLOAT_POWERS_OF_TEN[-exponent];
+
+                    return negative ? -value : value;
+                }
+            } else if (
+                    mantissa < MAX_EXACT_DOUBLE_MANTISSA
+                    && Math.abs(exponent) <= MAX_EXACT_DOUBLE_EXPONENT
+            ) {
+                final double value =
+                        exponent >= 0
+                        ? mantissa * DOUBLE_POWERS_OF_TEN[exponent]
+                        : mantissa / DOUBLE_POWERS_OF_TEN[-exponent];
+
+                return negative ? -value : value;
+            }
+        }
+
+        final String value = text.subSequence(start, end).toString();
+
+        try {
+            return single ? Float.parseFloat(value) : Double.parseDouble(value);
+        } catch (final NumberFormatException ignored) {
+            return defaultValue;
+        }
+    }
+
+    /**
+     * Returns the epoch day of the {@code yyyy-MM-dd} date at the given
+     * index or {@link Long#MIN_VALUE} if it is not a valid date
+     */
+    private static long epochDay(
+            final @NonNull CharSequence text,
+            final int index
+    ) {
+        if (
+                text.charAt(index + 4) != '-'
+                || text.charAt(index + 7) != '-'
+        ) {
+            return Long.MIN_VALUE;
+        }
+
+        final int year = digits(text, index, 4);
+        final int month = digits(text, index + 5, 2);
+        final int day = digits(text, index + 8, 2);
+
+        if (
+                year < 0
+                || month < 1 || month > 12
+                || day < 1 || day > lengthOfMonth(year, month)
+        ) {
+            return Long.MIN_VALUE;
+        }
+
+        long total = 365L * year + (year + 3) / 4 - (year + 99) / 100 + (year + 399) / 400;
+
+        total += (367 * month - 362) / 12;
+        total += day - 1;
+
+        if (month > 2) {
+            total--;
+
+            if (!isLeapYear(year)) {
+                total--;
+            }
+        }
+
+        return total - DAYS_0000_TO_1970;
+    }
+
+    /**
+     * Returns the value of the given number of decimal digits at the given
+     * index or -1 if any of them is not a digit
+     */
+    private static int digits(
+            final @NonNull CharSequence text,
+            final int index,
+            final int count
+    ) {
+        int value = 0;
+
+        for (int i = index; i < index + count; ++i) {
+            final int digit = text.charAt(i) - '0';
+
+            if (
+                    digit < 0
+                    || digit > 9
+            ) {
+                return -1;
+            }
+
+            value = value * 10 + digit;
+        }
+
+        return value;
+    }
+
+    private static int lengthOfMonth(
+            final int year,
+            final int month
+    ) {
+        switch (month) {
+            case 2:
+                return isLeapYear(year) ? 29 : 28;
+            case 4:
+            case 6:
+            case 9:
+            case 11:
+                return 30;
+            default:
+                return 31;
+        }
+    }
+
+    private static boolean isLeapYear(final int year) {
+        return (year & 3) == 0
+                && (year % 100 != 0 || year % 400 == 0);
+    }
+
+    private static boolean regionMatches(
+            final @NonNull CharSequence text,
+            final int start,
+            final int end,
+            final @NonNull String expected
+    ) {
+        if (end - start != expected.length()) {
+            return false;
+        }
+
+        for (int i = 0; i < expected.length(); ++i) {
+            if (text.charAt(start + i) != expected.charAt(i)) {
+                return false;
+            }
+        }
+
+        return true;
+    }
+
+    private static int trimEnd(final @NonNull CharSequence text) {
+        return trimEnd(text, 0, text.length());
+    }
+
+    private static int trimEnd(
+            final @NonNull CharSequence text,
+            final int start,
+            final int end
+    ) {
+        int index = end;
+
+        while (
+                index > start
+                && isWhitespace(text.charAt(index - 1))
+        ) {
+            index--;
+        }
+
+        return index;
+    }
+
+    private static int trimStart(
+            final @NonNull CharSequence text,
+            final int end
+    ) {
+        return trimStart(text, 0, end);
+    }
+
+    private static int trimStart(
+            final @NonNull CharSequence text,
+            final int start,
+            final int end
+    ) {
+        int index = start;
+
+        while (
+                index < end
+                && isWhitespace(text.charAt(index))
+        ) {
+            index++;
+        }
+
+        return index;
+    }
+
+    private static void checkRange(
+            final @NonNull CharSequence text,
+            final int start,
+            final int end
+    ) throws IndexOutOfBoundsException {
+        if (
+                start < 0
+                || end > text.length()
+                || start > end
+        ) {
+            throw new IndexOutOfBoundsException("Range [" + start + ", " + end + ") is out of bounds for length " + text.length());
+        }
+    }
+
+    private static boolean isWhitespace(final char c) {
+        return c == ' '
+                || c == '\t'
+                || c == '\n'
+                || c == '\r';
+    }
+}
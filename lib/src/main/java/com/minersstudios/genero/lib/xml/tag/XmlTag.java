@@ -1,6 +1,9 @@
 package com.minersstudios.genero.lib.xml.tag;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
 
 import org.jetbrains.annotations.Contract;
 import org.xmlpull.v1.XmlPullParser;
@@ -25,6 +28,15 @@ public interface XmlTag {
      */
     int getType() throws IllegalStateException;
 
+    /**
+     * Returns the symbol table of the parse this element belongs to
+     *
+     * @return The symbol table of the parse or null if the element is not
+     *         bound to a symbol table
+     * @see SymbolTable
+     */
+    @Nullable SymbolTable getSymbolTable();
+
     /**
      * Returns the current depth of the element.
      * <p>
@@ -123,6 +135,78 @@ public interface XmlTag {
      */
     @NonNull TextTag toTextTag() throws UnsupportedOperationException, IllegalStateException;
 
+    /**
+     * Returns the current element as a {@link StartTag} or null if it is not a
+     * start tag.
+     * <p>
+     * Unlike {@link #toStartTag()}, this method branches only on the cached
+     * event type and never throws on a type mismatch.
+     * The typed view is created at most once per event, repeated calls
+     * return the same instance.
+     *
+     * @return The current element as a {@code StartTag} or null
+     * @throws IllegalStateException If the parser is in an invalid state
+     */
+    @Nullable StartTag asStartTag() throws IllegalStateException;
+
+    /**
+     * Returns the current element as an {@link EndTag} or null if it is not an
+     * end tag.
+     * <p>
+     * Unlike {@link #toEndTag()}, this method branches only on the cached
+     * event type and never throws on a type mismatch.
+     * The typed view is created at most once per event, repeated calls
+     * return the same instance.
+     *
+     * @return The current element as an {@code EndTag} or null
+     * @throws IllegalStateException If the parser is in an invalid state
+     */
+    @Nullable EndTag asEndTag() throws IllegalStateException;
+
+    /**
+     * Returns the current element as a {@link TextTag} or null if it is not a
+     * text tag.
+     * <p>
+     * Unlike {@link #toTextTag()}, this method branches only on the cached
+     * event type and never throws on a type mismatch.
+     * The typed view is created at most once per event, repeated calls
+     * return the same instance.
+     *
+     * @return The current element as a {@code TextTag} or null
+     * @throws IllegalStateException If the parser is in an invalid state
+     */
+    @Nullable TextTag asTextTag() throws IllegalStateException;
+
+    /**
+     * Dispatches the current element to the matching method of the given
+     * visitor, based on the cached event type
+     *
+     * @param visitor The visitor to dispatch to
+     * @param <R>     The type of the result
+     * @return The result of the visit
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see TagVisitor
+     */
+    <R> @Nullable R accept(final @NonNull TagVisitor<R> visitor) throws IllegalStateException;
+
+    /**
+     * Returns a detached copy of the current element.
+     * <p>
+     * The copy reads the whole event out of the parser at once, including
+     * the attributes of a start tag, and never touches the parser again. So,
+     * it stays valid after the parser has moved on and can be buffered or
+     * handed to another thread. The copy of a start, end or text tag is a
+     * {@link StartTag}, {@link EndTag} or {@link TextTag} respectively.
+     * <p>
+     * Structural operations that move the parser, such as
+     * {@link StartTag#children()}, are not available on a copy.
+     *
+     * @return A detached copy of the current element, or this element if it
+     *         is already detached
+     * @throws IllegalStateException If the parser is in an invalid state
+     */
+    @NonNull XmlTag snapshot() throws IllegalStateException;
+
     /**
      * Creates a new {@link XmlTag} instance
      *
@@ -134,6 +218,40 @@ public interface XmlTag {
         return new XmlTagImpl(parser) {};
     }
 
+    /**
+     * Creates a new {@link XmlTag} instance with an already known event type,
+     * so that the type is never queried from the parser
+     *
+     * @param parser The parser to create the tag from
+     * @param type   The current event type of the parser
+     * @return A new {@code XmlTag} instance
+     */
+    @Contract("_, _ -> new")
+    static @NonNull XmlTag create(
+            final @NonNull XmlPullParser parser,
+            final int type
+    ) {
+        return create(parser, type, null);
+    }
+
+    /**
+     * Creates a new {@link XmlTag} instance with an already known event type,
+     * bound to the given symbol table
+     *
+     * @param parser  The parser to create the tag from
+     * @param type    The current event type of the parser
+     * @param symbols The symbol table of the parse
+     * @return A new {@code XmlTag} instance
+     */
+    @Contract("_, _, _ -> new")
+    static @NonNull XmlTag create(
+            final @NonNull XmlPullParser parser,
+            final int type,
+            final @Nullable SymbolTable symbols
+    ) {
+        return new XmlTagImpl(parser, type, symbols) {};
+    }
+
     /**
      * Creates a new {@link StartTag} instance
      *
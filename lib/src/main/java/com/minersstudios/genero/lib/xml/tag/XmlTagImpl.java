@@ -3,6 +3,9 @@ package com.minersstudios.genero.lib.xml.tag;
 import android.util.Log;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
 
 import org.xmlpull.v1.XmlPullParser;
 import org.xmlpull.v1.XmlPullParserException;
@@ -12,22 +15,45 @@ import java.lang.ref.WeakReference;
 
 abstract class XmlTagImpl implements XmlTag {
     private final Reference<XmlPullParser> parser;
+    private final SymbolTable symbols;
     private int type;
     private int depth;
     private int lineNumber;
     private int columnNumber;
     private String positionDescription;
+    private XmlTagImpl typedView;
 
     static final int NOT_SET = -2;
 
+    private static final Reference<XmlPullParser> DETACHED = new WeakReference<>(null);
+
     XmlTagImpl(final @NonNull XmlPullParser parser) {
+        this(parser, NOT_SET, null);
+    }
+
+    XmlTagImpl(
+            final @NonNull XmlPullParser parser,
+            final int type,
+            final @Nullable SymbolTable symbols
+    ) {
         this.parser = new WeakReference<>(parser);
-        this.type = NOT_SET;
+        this.symbols = symbols;
+        this.type = type;
         this.depth = NOT_SET;
         this.lineNumber = NOT_SET;
         this.columnNumber = NOT_SET;
     }
 
+    XmlTagImpl(final @NonNull XmlTagImpl source) throws IllegalStateException {
+        this.parser = DETACHED;
+        this.symbols = source.symbols;
+        this.type = source.getType();
+        this.depth = source.getDepth();
+        this.lineNumber = source.getLineNumber();
+        this.columnNumber = source.getColumnNumber();
+        this.positionDescription = source.getPositionDescription();
+    }
+
     @Override
     public int getType() throws IllegalStateException {
         if (this.type == NOT_SET) {
@@ -47,6 +73,11 @@ abstract class XmlTagImpl implements XmlTag {
         return this.type;
     }
 
+    @Override
+    public @Nullable SymbolTable getSymbolTable() {
+        return this.symbols;
+    }
+
     @Override
     public int getDepth() throws IllegalStateException {
         if (this.depth == NOT_SET) {
@@ -96,20 +127,143 @@ abstract class XmlTagImpl implements XmlTag {
 
     @Override
     public @NonNull StartTag toStartTag() throws UnsupportedOperationException, IllegalStateException {
-        return StartTag.create(this.getParser());
+        final StartTag tag = this.asStartTag();
+
+        if (tag == null) {
+            throw new UnsupportedOperationException("Not a start tag");
+        }
+
+        return tag;
     }
 
     @Override
     public @NonNull EndTag toEndTag() throws UnsupportedOperationException, IllegalStateException {
-        return EndTag.create(this.getParser());
+        final EndTag tag = this.asEndTag();
+
+        if (tag == null) {
+            throw new UnsupportedOperationException("Not an end tag");
+        }
+
+        return tag;
     }
 
     @Override
     public @NonNull TextTag toTextTag() throws UnsupportedOperationException, IllegalStateException {
-        return TextTag.create(this.getParser());
+        final TextTag tag = this.asTextTag();
+
+        if (tag == null) {
+            throw new UnsupportedOperationException("Not a text tag");
+        }
+
+        return tag;
+    }
+
+    @Override
+    public @Nullable StartTag asStartTag() throws IllegalStateException {
+        return this.getType() == XmlPullParser.START_TAG
+               ? (StartTag) this.getTypedView()
+               : null;
+    }
+
+    @Override
+    public @Nullable EndTag asEndTag() throws IllegalStateException {
+        return this.getType() == XmlPullParser.END_TAG
+               ? (EndTag) this.getTypedView()
+               : null;
+    }
+
+    @Override
+    public @Nullable TextTag asTextTag() throws IllegalStateException {
+        return this.getType() == XmlPullParser.TEXT
+               ? (TextTag) this.getTypedView()
+               : null;
+    }
+
+    @Override
+    public <R> @Nullable R accept(final @NonNull TagVisitor<R> visitor) throws IllegalStateException {
+        switch (this.getType()) {
+            case XmlPullParser.START_TAG:
+                return visitor.visitStart((StartTag) this.getTypedView());
+            case XmlPullParser.END_TAG:
+                return visitor.visitEnd((EndTag) this.getTypedView());
+            case XmlPullParser.TEXT:
+                return visitor.visitText((TextTag) this.getTypedView());
+            default:
+                return visitor.visitOther(this);
+        }
+    }
+
+    @Override
+    public @NonNull XmlTag snapshot() throws IllegalStateException {
+        if (this.isDetached()) {
+            return this;
+        }
+
+        switch (this.getType()) {
+            case XmlPullParser.START_TAG:
+            case XmlPullParser.END_TAG:
+            case XmlPullParser.TEXT:
+                return this.getTypedView().snapshot();
+            default:
+                return new XmlTagImpl(this) {};
+        }
+    }
+
+    /**
+     * Re-points this tag at the current parser event, dropping all cached
+     * values and pre-setting the already known event type
+     *
+     * @param type The event type the parser is currently positioned at
+     */
+    void reset(final int type) {
+        this.type = type;
+        this.depth = NOT_SET;
+        this.lineNumber = NOT_SET;
+        this.columnNumber = NOT_SET;
+        this.positionDescription = null;
+        this.typedView = null;
+    }
+
+    /**
+     * Returns the view of the current event of the matching tag type.
+     * <p>
+     * The view is created on the first call for the current event and reused
+     * until this tag is {@link #reset(int) re-pointed}, so repeated type
+     * checks and visits of an untyped tag allocate only once per event. Must
+     * be called only for start, end and text events.
+     */
+    private @NonNull XmlTagImpl getTypedView() throws IllegalStateException {
+        if (this.typedView == null) {
+            final XmlPullParser parser = this.getParser();
+
+            switch (this.getType()) {
+                case XmlPullParser.START_TAG:
+                    this.typedView = new StartTag(parser, this.symbols);
+
+                    break;
+                case XmlPullParser.END_TAG:
+                    this.typedView = new EndTag(parser, this.symbols);
+
+                    break;
+                default:
+                    this.typedView = new TextTag(parser, this.symbols);
+
+                    break;
+            }
+        }
+
+        return this.typedView;
+    }
+
+    boolean isDetached() {
+        return this.parser == DETACHED;
     }
 
     protected @NonNull XmlPullParser getParser() throws IllegalStateException {
+        if (this.isDetached()) {
+            throw new IllegalStateException("Tag is detached from the parser");
+        }
+
         final XmlPullParser parser = this.parser.get();
 
         if (parser == null) {
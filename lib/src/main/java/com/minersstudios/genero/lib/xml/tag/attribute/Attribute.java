@@ -1,8 +1,15 @@
 package com.minersstudios.genero.lib.xml.tag.attribute;
 
+import android.content.Context;
+import android.util.DisplayMetrics;
+
+import androidx.annotation.AnyRes;
+import androidx.annotation.ColorInt;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
 import org.jetbrains.annotations.Contract;
 import org.xmlpull.v1.XmlPullParser;
 
@@ -35,6 +42,21 @@ public interface Attribute {
      */
     @NonNull String getName() throws IllegalStateException;
 
+    /**
+     * Returns the id of the namespace and name of the current attribute in the
+     * symbol table of the current parse.
+     * <p>
+     * Comparing ids is a cheaper alternative to comparing the namespace and
+     * name strings, but the ids are only comparable within the same table.
+     *
+     * @return The id of the namespace and name of the current attribute or
+     *         {@link SymbolTable#NO_SYMBOL} if the attribute is not bound to a
+     *         symbol table
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see SymbolTable
+     */
+    int getNameId() throws IllegalStateException;
+
     /**
      * Returns the prefix of the current attribute.
      * <p>
@@ -78,6 +100,113 @@ public interface Attribute {
      */
     boolean isDefault() throws IllegalStateException;
 
+    /**
+     * Returns the int value of the current attribute.
+     * <p>
+     * Decimal, hexadecimal ({@code 0x} or {@code #}) and octal values are
+     * supported.
+     *
+     * @param defaultValue The value to return if the value is not an int
+     * @return The int value of the current attribute or the default value
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see AttributeValues#parseInt(String, int)
+     */
+    default int getIntValue(final int defaultValue) throws IllegalStateException {
+        return AttributeValues.parseInt(this.getValue(), defaultValue);
+    }
+
+    /**
+     * Returns the long value of the current attribute
+     *
+     * @param defaultValue The value to return if the value is not a long
+     * @return The long value of the current attribute or the default value
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see AttributeValues#parseLong(String, long)
+     */
+    default long getLongValue(final long defaultValue) throws IllegalStateException {
+        return AttributeValues.parseLong(this.getValue(), defaultValue);
+    }
+
+    /**
+     * Returns the float value of the current attribute
+     *
+     * @param defaultValue The value to return if the value is not a float
+     * @return The float value of the current attribute or the default value
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see AttributeValues#parseFloat(String, float)
+     */
+    default float getFloatValue(final float defaultValue) throws IllegalStateException {
+        return AttributeValues.parseFloat(this.getValue(), defaultValue);
+    }
+
+    /**
+     * Returns the boolean value of the current attribute
+     *
+     * @param defaultValue The value to return if the attribute has no value
+     * @return The boolean value of the current attribute
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see AttributeValues#parseBoolean(String, boolean)
+     */
+    default boolean getBooleanValue(final boolean defaultValue) throws IllegalStateException {
+        return AttributeValues.parseBoolean(this.getValue(), defaultValue);
+    }
+
+    /**
+     * Returns the color value of the current attribute in one of the
+     * {@code #RGB}, {@code #ARGB}, {@code #RRGGBB} or {@code #AARRGGBB}
+     * formats
+     *
+     * @param defaultValue The value to return if the value is not a color
+     * @return The color value of the current attribute or the default value
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see AttributeValues#parseColor(String, int)
+     */
+    default @ColorInt int getColorValue(final @ColorInt int defaultValue) throws IllegalStateException {
+        return AttributeValues.parseColor(this.getValue(), defaultValue);
+    }
+
+    /**
+     * Returns the dimension value of the current attribute in pixels
+     *
+     * @param metrics      The display metrics to convert the value with
+     * @param defaultValue The value to return if the value is not a dimension
+     * @return The dimension value of the current attribute in pixels or the
+     *         default value
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see AttributeValues#parseDimension(String, DisplayMetrics, float)
+     */
+    default float getDimensionValue(
+            final @NonNull DisplayMetrics metrics,
+            final float defaultValue
+    ) throws IllegalStateException {
+        return AttributeValues.parseDimension(this.getValue(), metrics, defaultValue);
+    }
+
+    /**
+     * Returns the resource id the value of the current attribute references.
+     * <p>
+     * References that were not compiled, e.g. {@code @drawable/ic_box} in a
+     * document read from a file, are resolved with the given context and
+     * cached for the process.
+     *
+     * @param context      The context to resolve the reference with
+     * @param defaultValue The value to return if the value is not a reference
+     *                     or the resource does not exist
+     * @return The referenced resource id or the default value
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see ResourceReferences#resolveId(Context, String)
+     */
+    default @AnyRes int getResourceValue(
+            final @NonNull Context context,
+            final @AnyRes int defaultValue
+    ) throws IllegalStateException {
+        final int id = ResourceReferences.resolveId(context, this.getValue());
+
+        return id != 0
+               ? id
+               : defaultValue;
+    }
+
     /**
      * Creates a new instance of attribute with the given parser and index
      *
@@ -92,7 +221,27 @@ public interface Attribute {
             final @NonNull XmlPullParser parser,
             final int index
     ) throws IndexOutOfBoundsException {
-        return new RawAttribute<>(parser, index);
+        return create(parser, index, null);
+    }
+
+    /**
+     * Creates a new instance of attribute with the given parser and index,
+     * bound to the given symbol table
+     *
+     * @param parser  The parser to use
+     * @param index   The index of the attribute
+     * @param symbols The symbol table of the parse
+     * @return A new instance of {@link Attribute}
+     * @throws IndexOutOfBoundsException If the index is out of bounds for the
+     *                                   attribute count in the parser
+     */
+    @Contract("_, _, _ -> new")
+    static @NonNull Attribute create(
+            final @NonNull XmlPullParser parser,
+            final int index,
+            final @Nullable SymbolTable symbols
+    ) throws IndexOutOfBoundsException {
+        return new RawAttribute<>(parser, index, symbols);
     }
 
     /**
@@ -134,6 +283,11 @@ public interface Attribute {
                 return name;
             }
 
+            @Override
+            public int getNameId() {
+                return SymbolTable.NO_SYMBOL;
+            }
+
             @Override
             public @Nullable String getPrefix() {
                 return prefix;
@@ -0,0 +1,592 @@
+package com.minersstudios.genero.lib.xml.tag.attribute;
+
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
+import androidx.annotation.ColorInt;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.tag.TextValues;
+
+import org.jetbrains.annotations.Contract;
+
+/**
+ * Conversions of attribute string values to typed values.
+ * <p>
+ * The conversions follow the rules the framework uses for untyped attribute
+ * values, so they give the same results as the typed getters of a
+ * {@link android.content.res.XmlResourceParser} for the string form of a
+ * compiled value.
+ * <p>
+ * Every conversion reads the characters of the value in place, so none of
+ * them allocate.
+ */
+public final class AttributeValues {
+    static final int NO_UNIT = -1;
+
+    private static final long NOT_AN_INT = Long.MIN_VALUE;
+
+    @Contract(" -> fail")
+    private AttributeValues() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Parses an int value, with support for the {@code -} and {@code +} signs
+     * and the {@code 0x}, {@code #} and octal {@code 0} prefixes.
+     * <p>
+     * Decimal values must fit in an int, while hexadecimal and octal values
+     * may use all 32 bits, so {@code #ff000000} is a valid value.
+     *
+     * @param value        The value to parse
+     * @param defaultValue The value to return if the value is null or not an
+     *                     int
+     * @return The parsed int value or the default value
+     */
+    public static int parseInt(
+            final @Nullable String value,
+            final int defaultValue
+    ) {
+        return (int) parseInteger(value, defaultValue, true, true);
+    }
+
+    /**
+     * Parses a long value, with the same rules as
+     * {@link #parseInt(String, int)} but for 64 bits
+     *
+     * @param value        The value to parse
+     * @param defaultValue The value to return if the value is null or not a
+     *                     long
+     * @return The parsed long value or the default value
+     */
+    public static long parseLong(
+            final @Nullable String value,
+            final long defaultValue
+    ) {
+        return parseInteger(value, defaultValue, false, true);
+    }
+
+    /**
+     * Parses a float value
+     *
+     * @param value        The value to parse
+     * @param defaultValue The value to return if the value is null or not a
+     *                     float
+     * @return The parsed float value or the default value
+     * @see TextValues#parseFloat(CharSequence, float)
+     */
+    public static float parseFloat(
+            final @Nullable String value,
+            final float defaultValue
+    ) {
+        return value == null
+                ? defaultValue
+                : TextValues.parseFloat(value, defaultValue);
+    }
+
+    /**
+     * Parses a color value in one of the {@code #RGB}, {@code #ARGB},
+     * {@code #RRGGBB} or {@code #AARRGGBB} formats.
+     * <p>
+     * Colors without an alpha component are opaque.
+     *
+     * @param value        The value to parse
+     * @param defaultValue The value to return if the value is null or not a
+     *                     color
+     * @return The parsed color value or the default value
+     */
+    public static @ColorInt int parseColor(
+            final @Nullable String value,
+            final @ColorInt int defaultValue
+    ) {
+        if (
+                value == null
+                || value.isEmpty()
+                || value.charAt(0) != '#'
+        ) {
+            return defaultValue;
+        }
+
+        final int length = value.length();
+        final int digits = length - 1;
+
+        if (
+                digits != 3
+                && digits != 4
+                && digits != 6
+                && digits != 8
+        ) {
+            return defaultValue;
+        }
+
+        final boolean isShort = digits <= 4;
+        int color = 0;
+
+        for (int i = 1; i < length; ++i) {
+            final int digit = Character.digit(value.charAt(i), 16);
+
+            if (digit < 0) {
+                return defaultValue;
+            }
+
+            color =
+                    isShort
+                    ? color << 8 | digit << 4 | digit
+                    : color << 4 | digit;
+        }
+
+        return digits == 3 || digits == 6
+                ? color | 0xFF000000
+                : color;
+    }
+
+    /**
+     * Parses a dimension value, such as {@code 16dp} or {@code 12.5sp}, and
+     * converts it to pixels with the given display metrics.
+     * <p>
+     * The supported units are {@code px}, {@code dp}, {@code dip},
+     * {@code sp}, {@code pt}, {@code in} and {@code mm}. Values without a unit
+     * are not dimensions.
+     *
+     * @param value        The value to parse
+     * @param metrics      The display metrics to convert the value with
+     * @param defaultValue The value to return if the value is null or not a
+     *                     dimension
+     * @return The parsed dimension in pixels or the default value
+     * @see TypedValue#applyDimension(int, float, DisplayMetrics)
+     */
+    public static float parseDimension(
+            final @Nullable String value,
+            final @NonNull DisplayMetrics metrics,
+            final float defaultValue
+    ) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        final int unitStart = unitStart(value);
+        final int unit = unitOf(value, unitStart);
+
+        if (unit == NO_UNIT) {
+            return defaultValue;
+        }
+
+        final float number = dimensionOf(value, unitStart);
+
+        return Float.isNaN(number)
+                ? defaultValue
+                : TypedValue.applyDimension(unit, number, metrics);
+    }
+
+    /**
+     * Parses a boolean value, where {@code 1}, {@code true}, {@code TRUE} and
+     * {@code True} are true and any other value is false
+     *
+     * @param value        The value to parse
+     * @param defaultValue The value to return if the value is null
+     * @return The parsed boolean value or the default value
+     */
+    public static boolean parseBoolean(
+            final @Nullable String value,
+            final boolean defaultValue
+    ) {
+        if (value == null) {
+            return defaultValue;
+        }
+
+        return "1".equals(value)
+                || "true".equals(value)
+                || "TRUE".equals(value)
+                || "True".equals(value);
+    }
+
+    /**
+     * Returns the index of the value in the given options
+     *
+     * @param value        The value to look up
+     * @param options      The options to look the value up in
+     * @param defaultValue The value to return if the value is null or not one
+     *                     of the options
+     * @return The index of the value in the options or the default value
+     */
+    public static int indexOf(
+            final @Nullable String value,
+            final @NonNull String[] options,
+            final int defaultValue
+    ) {
+        if (value != null) {
+            for (int i = 0; i < options.length; ++i) {
+                if (value.equals(options[i])) {
+                    return i;
+                }
+            }
+        }
+
+        return defaultValue;
+    }
+
+    /**
+     * Converts a value to the typed value the resource compiler would compile
+     * it to.
+     * <p>
+     * References and attributes are recognized only in their numeric form,
+     * e.g. {@code @2131230720}, which is how the parsers report compiled
+     * references as strings. Booleans, colors, integers, floats and
+     * dimensions are converted to their {@link TypedValue} data, any other
+     * value stays a string. Unlike {@link #parseInt(String, int)}, an integer
+     * with a leading zero is decimal, only the {@code 0x} prefix marks a
+     * hexadecimal one.
+     *
+     * @param value The value to convert
+     * @param data  The array to write the data of the typed value to, it is
+     *              left as it is for strings and null values
+     * @param index The index to write the data at
+     * @return The {@link TypedValue} type of the value,
+     *         {@link TypedValue#TYPE_NULL} if the value is null or
+     *         {@link TypedValue#TYPE_STRING} if it is not typed
+     * @throws IndexOutOfBoundsException If the index is out of bounds of the
+     *                                   data array
+     */
+    public static int toTypedValue(
+            final @Nullable String value,
+            final @NonNull int[] data,
+            final int index
+    ) throws IndexOutOfBoundsException {
+        if (value == null) {
+            return TypedValue.TYPE_NULL;
+        }
+
+        if (value.isEmpty()) {
+            return TypedValue.TYPE_STRING;
+        }
+
+        final char first = value.charAt(0);
+
+        if (
+                first == '@'
+                || first == '?'
+        ) {
+            final int length = value.length();
+            long id = 0;
+
+            if (length == 1) {
+                return TypedValue.TYPE_STRING;
+            }
+
+            for (int i = 1; i < length; ++i) {
+                final char c = value.charAt(i);
+
+                if (
+                        c < '0'
+                        || c > '9'
+                        || (id = id * 10 + c - '0') > 0xFFFFFFFFL
+                ) {
+                    return TypedValue.TYPE_STRING;
+                }
+            }
+
+            data[index] = (int) id;
+
+            return first == '@'
+                   ? TypedValue.TYPE_REFERENCE
+                   : TypedValue.TYPE_ATTRIBUTE;
+        }
+
+        if (
+                "true".equals(value)
+                || "TRUE".equals(value)
+                || "True".equals(value)
+        ) {
+            data[index] = -1;
+
+            return TypedValue.TYPE_INT_BOOLEAN;
+        }
+
+        if (
+                "false".equals(value)
+                || "FALSE".equals(value)
+                || "False".equals(value)
+        ) {
+            data[index] = 0;
+
+            return TypedValue.TYPE_INT_BOOLEAN;
+        }
+
+        // The resource compiler reads a leading zero as a decimal digit, only
+        // the 0x prefix changes the radix
+        final long integer = parseInteger(value, NOT_AN_INT, true, false);
+
+        if (first == '#') {
+            if (integer == NOT_AN_INT) {
+                return TypedValue.TYPE_STRING;
+            }
+
+            switch (value.length() - 1) {
+                case 3:
+                    data[index] = parseColor(value, 0);
+
+                    return TypedValue.TYPE_INT_COLOR_RGB4;
+                case 4:
+                    data[index] = parseColor(value, 0);
+
+                    return TypedValue.TYPE_INT_COLOR_ARGB4;
+                case 6:
+                    data[index] = parseColor(value, 0);
+
+                    return TypedValue.TYPE_INT_COLOR_RGB8;
+                case 8:
+                    data[index] = parseColor(value, 0);
+
+                    return TypedValue.TYPE_INT_COLOR_ARGB8;
+                default:
+                    return TypedValue.TYPE_STRING;
+            }
+        }
+
+        if (integer != NOT_AN_INT) {
+            data[index] = (int) integer;
+
+            return value.indexOf('x') != -1 || value.indexOf('X') != -1
+                   ? TypedValue.TYPE_INT_HEX
+                   : TypedValue.TYPE_INT_DEC;
+        }
+
+        final float number = TextValues.parseFloat(value, Float.NaN);
+
+        if (!Float.isNaN(number)) {
+            data[index] = Float.floatToRawIntBits(number);
+
+            return TypedValue.TYPE_FLOAT;
+        }
+
+        final int unitStart = unitStart(value);
+        final int unit = unitOf(value, unitStart);
+
+        if (unit != NO_UNIT) {
+            final float dimension = dimensionOf(value, unitStart);
+
+            if (
+                    !Float.isNaN(dimension)
+                    && Math.abs(dimension) < (float) (1 << 23)
+            ) {
+                data[index] = floatToComplex(dimension) | unit << TypedValue.COMPLEX_UNIT_SHIFT;
+
+                return TypedValue.TYPE_DIMENSION;
+            }
+        }
+
+        return TypedValue.TYPE_STRING;
+    }
+
+    /**
+     * Returns the index where the unit suffix of a dimension value starts
+     */
+    static int unitStart(final @NonNull String value) {
+        int index = value.length();
+
+        while (index > 0) {
+            final char c = value.charAt(index - 1);
+
+            if (
+                    (c < 'a' || c > 'z')
+                    && (c < 'A' || c > 'Z')
+            ) {
+                break;
+            }
+
+            index--;
+        }
+
+        return index;
+    }
+
+    /**
+     * Returns the {@link TypedValue} complex unit of the suffix that starts
+     * at the given index or {@link #NO_UNIT} if the suffix is not a unit
+     */
+    static int unitOf(
+            final @NonNull String value,
+            final int unitStart
+    ) {
+        switch (value.length() - unitStart) {
+            case 2:
+                if (value.startsWith("px", unitStart)) {
+                    return TypedValue.COMPLEX_UNIT_PX;
+                }
+
+                if (value.startsWith("dp", unitStart)) {
+                    return TypedValue.COMPLEX_UNIT_DIP;
+                }
+
+                if (value.startsWith("sp", unitStart)) {
+                    return TypedValue.COMPLEX_UNIT_SP;
+                }
+
+                if (value.startsWith("pt", unitStart)) {
+                    return TypedValue.COMPLEX_UNIT_PT;
+                }
+
+                if (value.startsWith("in", unitStart)) {
+                    return TypedValue.COMPLEX_UNIT_IN;
+                }
+
+                if (value.startsWith("mm", unitStart)) {
+                    return TypedValue.COMPLEX_UNIT_MM;
+                }
+
+                return NO_UNIT;
+            case 3:
+                return value.startsWith("dip", unitStart)
+                        ? TypedValue.COMPLEX_UNIT_DIP
+                        : NO_UNIT;
+            default:
+                return NO_UNIT;
+        }
+    }
+
+    /**
+     * Returns the number before the unit suffix of a dimension value or
+     * {@link Float#NaN} if it is not a number.
+     * <p>
+     * NaN can not be a real result here, since its letters would belong to
+     * the unit suffix.
+     */
+    static float dimensionOf(
+            final @NonNull String value,
+            final int unitStart
+    ) {
+        return TextValues.parseFloat(value, 0, unitStart, Float.NaN);
+    }
+
+    /**
+     * Encodes a float into the complex format of dimensions, with the
+     * smallest radix that keeps its fraction, as the resource compiler does
+     */
+    private static int floatToComplex(final float value) {
+        final float abs = Math.abs(value);
+        final int mantissa;
+        final int radix;
+
+        if (value == (float) (int) value) {
+            mantissa = (int) value;
+            radix = TypedValue.COMPLEX_RADIX_23p0;
+        } else if (abs < 1.0f) {
+            mantissa = Math.round(value * (1 << 23));
+            radix = TypedValue.COMPLEX_RADIX_0p23;
+        } else if (abs < (float) (1 << 8)) {
+            mantissa = Math.round(value * (1 << 15));
+            radix = TypedValue.COMPLEX_RADIX_8p15;
+        } else if (abs < (float) (1 << 16)) {
+            mantissa = Math.round(value * (1 << 7));
+            radix = TypedValue.COMPLEX_RADIX_16p7;
+        } else {
+            mantissa = Math.round(value);
+            radix = TypedValue.COMPLEX_RADIX_23p0;
+        }
+
+        return (mantissa & TypedValue.COMPLEX_MANTISSA_MASK) << TypedValue.COMPLEX_MANTISSA_SHIFT
+                | radix << TypedValue.COMPLEX_RADIX_SHIFT;
+    }
+
+    private static long parseInteger(
+            final @Nullable String value,
+            final long defaultValue,
+            final boolean isInt,
+            final boolean isOctalAllowed
+    ) {
+        if (
+                value == null
+                || value.isEmpty()
+        ) {
+            return defaultValue;
+        }
+
+        final int length = value.length();
+        int index = 0;
+        boolean negative = false;
+        int radix = 10;
+
+        final char sign = value.charAt(0);
+
+        if (
+                sign == '-'
+                || sign == '+'
+        ) {
+            negative = sign == '-';
+            index++;
+        }
+
+        if (
+                index < length
+                && value.charAt(index) == '0'
+        ) {
+            if (index == length - 1) {
+                return 0;
+            }
+
+            final char c = value.charAt(index + 1);
+
+            if (
+                    c == 'x'
+                    || c == 'X'
+            ) {
+                index += 2;
+                radix = 16;
+            } else if (isOctalAllowed) {
+                index++;
+                radix = 8;
+            }
+        } else if (
+                index < length
+                && value.charAt(index) == '#'
+        ) {
+            index++;
+            radix = 16;
+        }
+
+        if (index >= length) {
+            return defaultValue;
+        }
+
+        // Unsigned limit of the magnitude, decimal values keep their sign
+        // range, other radixes may use every bit
+        final long limit;
+
+        if (isInt) {
+            limit =
+                    radix != 10
+                    ? 0xFFFFFFFFL
+                    : negative ? 0x80000000L : 0x7FFFFFFFL;
+        } else {
+            limit =
+                    radix != 10
+                    ? -1L
+                    : negative ? Long.MIN_VALUE : Long.MAX_VALUE;
+        }
+
+        final long threshold = Long.divideUnsigned(limit, radix);
+        long magnitude = 0;
+
+        for (; index < length; ++index) {
+            final int digit = Character.digit(value.charAt(index), radix);
+
+            if (
+                    digit < 0
+                    || Long.compareUnsigned(magnitude, threshold) > 0
+            ) {
+                return defaultValue;
+            }
+
+            magnitude *= radix;
+
+            if (Long.compareUnsigned(magnitude, limit - digit) > 0) {
+                return defaultValue;
+            }
+
+            magnitude += digit;
+        }
+
+        return negative ? -magnitude : magnitude;
+    }
+}
@@ -1,8 +1,13 @@
 package com.minersstudios.genero.lib.xml.tag.attribute;
 
+import android.util.DisplayMetrics;
+import android.util.TypedValue;
+
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
 import org.xmlpull.v1.XmlPullParser;
 
 import java.lang.ref.Reference;
@@ -10,17 +15,47 @@ import java.lang.ref.WeakReference;
 
 class RawAttribute<P extends XmlPullParser> implements Attribute {
     private final Reference<P> parser;
+    private final SymbolTable symbols;
     private final int index;
     private String namespace;
     private String name;
     private String prefix;
     private String type;
     private String value;
-    private Boolean isDefault;
+    private int nameId;
+    private int intValue;
+    private long longValue;
+    private float floatValue;
+    private int colorValue;
+    private float dimensionValue;
+    private int dimensionUnit;
+    private int loaded;
+
+    static final int NOT_SET = -2;
+
+    // Bits of the loaded field, a VALID bit is set along with its LOADED bit
+    // when the value could be decoded
+    private static final int DEFAULT_LOADED = 1;
+    private static final int DEFAULT = 1 << 1;
+    private static final int NAME_ID_LOADED = 1 << 2;
+    private static final int INT_LOADED = 1 << 3;
+    private static final int INT_VALID = 1 << 4;
+    private static final int LONG_LOADED = 1 << 5;
+    private static final int LONG_VALID = 1 << 6;
+    private static final int FLOAT_LOADED = 1 << 7;
+    private static final int FLOAT_VALID = 1 << 8;
+    private static final int BOOLEAN_LOADED = 1 << 9;
+    private static final int BOOLEAN_VALID = 1 << 10;
+    private static final int BOOLEAN = 1 << 11;
+    private static final int COLOR_LOADED = 1 << 12;
+    private static final int COLOR_VALID = 1 << 13;
+    private static final int DIMENSION_LOADED = 1 << 14;
+    private static final int DIMENSION_VALID = 1 << 15;
 
     RawAttribute(
             final @NonNull P parser,
-            final int index
+            final int index,
+            final @Nullable SymbolTable symbols
     ) throws IndexOutOfBoundsException {
         final int count = parser.getAttributeCount();
 
@@ -32,6 +67,7 @@ class RawAttribute<P extends XmlPullParser> implements Attribute {
         }
 
         this.parser = new WeakReference<>(parser);
+        this.symbols = symbols;
         this.index = index;
     }
 
@@ -66,6 +102,19 @@ class RawAttribute<P extends XmlPullParser> implements Attribute {
         return this.name;
     }
 
+    @Override
+    public int getNameId() throws IllegalStateException {
+        if (!this.isLoaded(NAME_ID_LOADED)) {
+            this.nameId =
+                    this.symbols == null
+                    ? SymbolTable.NO_SYMBOL
+                    : this.symbols.intern(this.getNamespace(), this.getName());
+            this.loaded |= NAME_ID_LOADED;
+        }
+
+        return this.nameId;
+    }
+
     @Override
     public @Nullable String getPrefix() throws IllegalStateException {
         if (this.prefix == null) {
@@ -107,11 +156,129 @@ class RawAttribute<P extends XmlPullParser> implements Attribute {
 
     @Override
     public boolean isDefault() throws IllegalStateException {
-        if (this.isDefault == null) {
-            this.isDefault = this.getParser().isAttributeDefault(this.index);
+        if (!this.isLoaded(DEFAULT_LOADED)) {
+            this.loaded |=
+                    this.getParser().isAttributeDefault(this.index)
+                    ? DEFAULT_LOADED | DEFAULT
+                    : DEFAULT_LOADED;
+        }
+
+        return this.isLoaded(DEFAULT);
+    }
+
+    @Override
+    public int getIntValue(final int defaultValue) throws IllegalStateException {
+        if (!this.isLoaded(INT_LOADED)) {
+            final String value = this.getValue();
+            final int result = AttributeValues.parseInt(value, 0);
+
+            // A zero may be the probe default, so check it with another one
+            this.intValue = result;
+            this.loaded |=
+                    result != 0 || AttributeValues.parseInt(value, 1) == 0
+                    ? INT_LOADED | INT_VALID
+                    : INT_LOADED;
+        }
+
+        return this.isLoaded(INT_VALID) ? this.intValue : defaultValue;
+    }
+
+    @Override
+    public long getLongValue(final long defaultValue) throws IllegalStateException {
+        if (!this.isLoaded(LONG_LOADED)) {
+            final String value = this.getValue();
+            final long result = AttributeValues.parseLong(value, 0L);
+
+            this.longValue = result;
+            this.loaded |=
+                    result != 0L || AttributeValues.parseLong(value, 1L) == 0L
+                    ? LONG_LOADED | LONG_VALID
+                    : LONG_LOADED;
+        }
+
+        return this.isLoaded(LONG_VALID) ? this.longValue : defaultValue;
+    }
+
+    @Override
+    public float getFloatValue(final float defaultValue) throws IllegalStateException {
+        if (!this.isLoaded(FLOAT_LOADED)) {
+            final String value = this.getValue();
+            final float result = AttributeValues.parseFloat(value, 0.0f);
+
+            this.floatValue = result;
+            this.loaded |=
+                    result != 0.0f || AttributeValues.parseFloat(value, 1.0f) == 0.0f
+                    ? FLOAT_LOADED | FLOAT_VALID
+                    : FLOAT_LOADED;
+        }
+
+        return this.isLoaded(FLOAT_VALID) ? this.floatValue : defaultValue;
+    }
+
+    @Override
+    public boolean getBooleanValue(final boolean defaultValue) throws IllegalStateException {
+        if (!this.isLoaded(BOOLEAN_LOADED)) {
+            final String value = this.getValue();
+
+            // Any value other than a true one is false, only a missing value
+            // falls back to the default
+            if (value == null) {
+                this.loaded |= BOOLEAN_LOADED;
+            } else {
+                this.loaded |=
+                        AttributeValues.parseBoolean(value, false)
+                        ? BOOLEAN_LOADED | BOOLEAN_VALID | BOOLEAN
+                        : BOOLEAN_LOADED | BOOLEAN_VALID;
+            }
+        }
+
+        return this.isLoaded(BOOLEAN_VALID)
+                ? this.isLoaded(BOOLEAN)
+                : defaultValue;
+    }
+
+    @Override
+    public int getColorValue(final int defaultValue) throws IllegalStateException {
+        if (!this.isLoaded(COLOR_LOADED)) {
+            final String value = this.getValue();
+            final int result = AttributeValues.parseColor(value, 0);
+
+            this.colorValue = result;
+            this.loaded |=
+                    result != 0 || AttributeValues.parseColor(value, 1) == 0
+                    ? COLOR_LOADED | COLOR_VALID
+                    : COLOR_LOADED;
+        }
+
+        return this.isLoaded(COLOR_VALID) ? this.colorValue : defaultValue;
+    }
+
+    @Override
+    public float getDimensionValue(
+            final @NonNull DisplayMetrics metrics,
+            final float defaultValue
+    ) throws IllegalStateException {
+        if (!this.isLoaded(DIMENSION_LOADED)) {
+            final String value = this.getValue();
+            final int unitStart = AttributeValues.unitStart(value);
+            final int unit = AttributeValues.unitOf(value, unitStart);
+            final float number =
+                    unit == AttributeValues.NO_UNIT
+                    ? Float.NaN
+                    : AttributeValues.dimensionOf(value, unitStart);
+
+            this.dimensionValue = number;
+            this.dimensionUnit = unit;
+            this.loaded |=
+                    Float.isNaN(number)
+                    ? DIMENSION_LOADED
+                    : DIMENSION_LOADED | DIMENSION_VALID;
         }
 
-        return this.isDefault;
+        // The unit is kept apart from the value, since the metrics may change
+        return this.isLoaded(DIMENSION_VALID)
+                ? TypedValue.applyDimension(this.dimensionUnit, this.dimensionValue, metrics)
+                : defaultValue;
     }
 
     protected @NonNull P getParser() throws IllegalStateException {
@@ -123,4 +290,8 @@ class RawAttribute<P extends XmlPullParser> implements Attribute {
 
         return parser;
     }
+
+    private boolean isLoaded(final int bit) {
+        return (this.loaded & bit) != 0;
+    }
 }
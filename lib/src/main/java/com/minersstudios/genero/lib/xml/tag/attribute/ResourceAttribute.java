@@ -1,12 +1,16 @@
 package com.minersstudios.genero.lib.xml.tag.attribute;
 
-import static com.minersstudios.genero.lib.xml.tag.attribute.ResourceAttributeImpl.NOT_SET;
+import static com.minersstudios.genero.lib.xml.tag.attribute.RawAttribute.NOT_SET;
 
+import android.content.Context;
 import android.content.res.XmlResourceParser;
 
+import androidx.annotation.AnyRes;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
 import org.jetbrains.annotations.Contract;
 
 public interface ResourceAttribute extends Attribute {
@@ -56,6 +60,31 @@ public interface ResourceAttribute extends Attribute {
      */
     int getResourceValue(final int defaultValue) throws IllegalStateException;
 
+    /**
+     * Returns the resource id the value of the current attribute references.
+     * <p>
+     * Compiled references are returned as they are, only references that
+     * reached the parser as strings are resolved with the given context.
+     *
+     * @param context      The context to resolve the reference with
+     * @param defaultValue The value to return if the value is not a reference
+     *                     or the resource does not exist
+     * @return The referenced resource id or the default value
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see ResourceReferences#resolveId(Context, String)
+     */
+    @Override
+    default @AnyRes int getResourceValue(
+            final @NonNull Context context,
+            final @AnyRes int defaultValue
+    ) throws IllegalStateException {
+        final int id = this.getResourceValue(0);
+
+        return id != 0
+               ? id
+               : Attribute.super.getResourceValue(context, defaultValue);
+    }
+
     /**
      * Return the integer value of attribute
      *
@@ -100,7 +129,27 @@ public interface ResourceAttribute extends Attribute {
             final @NonNull XmlResourceParser parser,
             final int index
     ) throws IndexOutOfBoundsException {
-        return new ResourceAttributeImpl(parser, index);
+        return create(parser, index, null);
+    }
+
+    /**
+     * Creates a new instance of attribute with the given parser and index,
+     * bound to the given symbol table
+     *
+     * @param parser  The parser to use
+     * @param index   The index of the attribute
+     * @param symbols The symbol table of the parse
+     * @return A new instance of {@link ResourceAttribute}
+     * @throws IndexOutOfBoundsException If the index is out of bounds for the
+     *                                   attribute count in the parser
+     */
+    @Contract("_, _, _ -> new")
+    static @NonNull ResourceAttribute create(
+            final @NonNull XmlResourceParser parser,
+            final int index,
+            final @Nullable SymbolTable symbols
+    ) throws IndexOutOfBoundsException {
+        return new ResourceAttributeImpl(parser, index, symbols);
     }
 
     /**
@@ -158,6 +207,11 @@ public interface ResourceAttribute extends Attribute {
                 return name;
             }
 
+            @Override
+            public int getNameId() {
+                return SymbolTable.NO_SYMBOL;
+            }
+
             @Override
             public @Nullable String getPrefix() {
                 return prefix;
@@ -1,38 +1,54 @@
 package com.minersstudios.genero.lib.xml.tag.attribute;
 
+import android.content.Context;
 import android.content.res.XmlResourceParser;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
 
 class ResourceAttributeImpl extends RawAttribute<XmlResourceParser> implements ResourceAttribute {
     private int nameResource;
+    private String[] listOptions;
     private int listValue;
-    private Boolean booleanValue;
     private int resourceValue;
     private int intValue;
     private int unsignedIntValue;
     private float floatValue;
-
-    static final int NOT_SET = -2;
+    private int loaded;
+
+    // Bits of the loaded field, a VALID bit is set along with its LOADED bit
+    // when the parser decoded the value, only then is the value kept, since
+    // the parser returns the default of the call otherwise
+    private static final int NAME_RESOURCE_LOADED = 1;
+    private static final int LIST_LOADED = 1 << 1;
+    private static final int LIST_VALID = 1 << 2;
+    private static final int BOOLEAN_LOADED = 1 << 3;
+    private static final int BOOLEAN_VALID = 1 << 4;
+    private static final int BOOLEAN = 1 << 5;
+    private static final int RESOURCE_LOADED = 1 << 6;
+    private static final int RESOURCE_VALID = 1 << 7;
+    private static final int INT_LOADED = 1 << 8;
+    private static final int INT_VALID = 1 << 9;
+    private static final int UNSIGNED_INT_LOADED = 1 << 10;
+    private static final int UNSIGNED_INT_VALID = 1 << 11;
+    private static final int FLOAT_LOADED = 1 << 12;
+    private static final int FLOAT_VALID = 1 << 13;
 
     ResourceAttributeImpl(
             final @NonNull XmlResourceParser parser,
-            final int index
+            final int index,
+            final @Nullable SymbolTable symbols
     ) throws IndexOutOfBoundsException {
-        super(parser, index);
-
-        this.nameResource = NOT_SET;
-        this.listValue = NOT_SET;
-        this.resourceValue = NOT_SET;
-        this.intValue = NOT_SET;
-        this.unsignedIntValue = NOT_SET;
-        this.floatValue = NOT_SET;
+        super(parser, index, symbols);
     }
 
     @Override
     public int getNameResource() throws IllegalStateException {
-        if (this.nameResource == NOT_SET) {
+        if (!this.isLoaded(NAME_RESOURCE_LOADED)) {
             this.nameResource = this.getParser().getAttributeNameResource(this.getIndex());
+            this.loaded |= NAME_RESOURCE_LOADED;
         }
 
         return this.nameResource;
@@ -43,55 +59,139 @@ class ResourceAttributeImpl extends RawAttribute<XmlResourceParser> implements R
             final int defaultValue,
             @NonNull final String... options
     ) throws IllegalStateException {
-        if (this.listValue == NOT_SET) {
-            this.listValue = this.getParser().getAttributeListValue(this.getIndex(), options, defaultValue);
+        // The index depends on the options, so it is kept only for the same
+        // options array
+        if (
+                !this.isLoaded(LIST_LOADED)
+                || this.listOptions != options
+        ) {
+            final XmlResourceParser parser = this.getParser();
+            final int index = this.getIndex();
+            final int result = parser.getAttributeListValue(index, options, -1);
+
+            this.listOptions = options;
+            this.listValue = result;
+            this.loaded =
+                    result != -1
+                    ? this.loaded | LIST_LOADED | LIST_VALID
+                    : (this.loaded | LIST_LOADED) & ~LIST_VALID;
         }
 
-        return this.listValue;
+        return this.isLoaded(LIST_VALID) ? this.listValue : defaultValue;
     }
 
     @Override
     public boolean getBooleanValue(final boolean defaultValue) throws IllegalStateException {
-        if (this.booleanValue == null) {
-            this.booleanValue = this.getParser().getAttributeBooleanValue(this.getIndex(), defaultValue);
+        if (!this.isLoaded(BOOLEAN_LOADED)) {
+            final XmlResourceParser parser = this.getParser();
+            final int index = this.getIndex();
+
+            // A false may be the probe default, so check it with a true one
+            if (parser.getAttributeBooleanValue(index, false)) {
+                this.loaded |= BOOLEAN_LOADED | BOOLEAN_VALID | BOOLEAN;
+            } else {
+                this.loaded |=
+                        parser.getAttributeBooleanValue(index, true)
+                        ? BOOLEAN_LOADED
+                        : BOOLEAN_LOADED | BOOLEAN_VALID;
+            }
         }
 
-        return this.booleanValue;
+        return this.isLoaded(BOOLEAN_VALID)
+                ? this.isLoaded(BOOLEAN)
+                : defaultValue;
     }
 
     @Override
     public int getResourceValue(final int defaultValue) throws IllegalStateException {
-        if (this.resourceValue == NOT_SET) {
-            this.resourceValue = this.getParser().getAttributeResourceValue(this.getIndex(), defaultValue);
+        if (!this.isLoaded(RESOURCE_LOADED)) {
+            final XmlResourceParser parser = this.getParser();
+            final int index = this.getIndex();
+            final int result = parser.getAttributeResourceValue(index, 0);
+
+            // A zero may be the probe default, so check it with another one
+            this.resourceValue = result;
+            this.loaded |=
+                    result != 0 || parser.getAttributeResourceValue(index, 1) == 0
+                    ? RESOURCE_LOADED | RESOURCE_VALID
+                    : RESOURCE_LOADED;
+        }
+
+        return this.isLoaded(RESOURCE_VALID) ? this.resourceValue : defaultValue;
+    }
+
+    @Override
+    public int getResourceValue(
+            final @NonNull Context context,
+            final int defaultValue
+    ) throws IllegalStateException {
+        // The compiled reference is read from the parser directly, it is
+        // never a default, so the memo of getResourceValue is left alone
+        final int id = this.getParser().getAttributeResourceValue(this.getIndex(), 0);
+
+        if (id != 0) {
+            return id;
         }
 
-        return this.resourceValue;
+        final int resolved = ResourceReferences.resolveId(context, this.getValue());
+
+        return resolved != 0
+               ? resolved
+               : defaultValue;
     }
 
     @Override
     public int getIntValue(final int defaultValue) throws IllegalStateException {
-        if (this.intValue == NOT_SET) {
-            this.intValue = this.getParser().getAttributeIntValue(this.getIndex(), defaultValue);
+        if (!this.isLoaded(INT_LOADED)) {
+            final XmlResourceParser parser = this.getParser();
+            final int index = this.getIndex();
+            final int result = parser.getAttributeIntValue(index, 0);
+
+            this.intValue = result;
+            this.loaded |=
+                    result != 0 || parser.getAttributeIntValue(index, 1) == 0
+                    ? INT_LOADED | INT_VALID
+                    : INT_LOADED;
         }
 
-        return this.intValue;
+        return this.isLoaded(INT_VALID) ? this.intValue : defaultValue;
     }
 
     @Override
     public int getUnsignedIntValue(final int defaultValue) throws IllegalStateException {
-        if (this.unsignedIntValue == NOT_SET) {
-            this.unsignedIntValue = this.getParser().getAttributeUnsignedIntValue(this.getIndex(), defaultValue);
+        if (!this.isLoaded(UNSIGNED_INT_LOADED)) {
+            final XmlResourceParser parser = this.getParser();
+            final int index = this.getIndex();
+            final int result = parser.getAttributeUnsignedIntValue(index, 0);
+
+            this.unsignedIntValue = result;
+            this.loaded |=
+                    result != 0 || parser.getAttributeUnsignedIntValue(index, 1) == 0
+                    ? UNSIGNED_INT_LOADED | UNSIGNED_INT_VALID
+                    : UNSIGNED_INT_LOADED;
         }
 
-        return this.unsignedIntValue;
+        return this.isLoaded(UNSIGNED_INT_VALID) ? this.unsignedIntValue : defaultValue;
     }
 
     @Override
     public float getFloatValue(final float defaultValue) throws IllegalStateException {
-        if (this.floatValue == NOT_SET) {
-            this.floatValue = this.getParser().getAttributeFloatValue(this.getIndex(), defaultValue);
+        if (!this.isLoaded(FLOAT_LOADED)) {
+            final XmlResourceParser parser = this.getParser();
+            final int index = this.getIndex();
+            final float result = parser.getAttributeFloatValue(index, 0.0f);
+
+            this.floatValue = result;
+            this.loaded |=
+                    result != 0.0f || parser.getAttributeFloatValue(index, 1.0f) == 0.0f
+                    ? FLOAT_LOADED | FLOAT_VALID
+                    : FLOAT_LOADED;
         }
 
-        return this.floatValue;
+        return this.isLoaded(FLOAT_VALID) ? this.floatValue : defaultValue;
+    }
+
+    private boolean isLoaded(final int bit) {
+        return (this.loaded & bit) != 0;
     }
 }
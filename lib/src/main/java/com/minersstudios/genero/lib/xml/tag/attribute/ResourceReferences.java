@@ -0,0 +1,242 @@
+package com.minersstudios.genero.lib.xml.tag.attribute;
+
+import android.content.Context;
+import android.content.res.Resources;
+import android.util.TypedValue;
+
+import androidx.annotation.AnyRes;
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import org.jetbrains.annotations.Contract;
+
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import javax.annotation.concurrent.ThreadSafe;
+
+/**
+ * Resolution of resource references in attribute values that were not
+ * compiled by the resource compiler.
+ * <p>
+ * When a document is read from a file or a plain
+ * {@link org.xmlpull.v1.XmlPullParser}, references like
+ * {@code @drawable/ic_box} or {@code ?attr/colorSecondary} reach the
+ * attributes as strings. They are resolved to resource ids with
+ * {@link Resources#getIdentifier(String, String, String)} once, and the ids
+ * are kept in a bounded process-wide cache, so repeated references cost only
+ * a cache lookup.
+ * <p>
+ * The supported forms are:
+ * <ul>
+ *     <li>{@code @[+][package:]type/name} - a resource reference</li>
+ *     <li>{@code ?[package:][type/]name} - a theme attribute reference</li>
+ *     <li>{@code @123} and {@code ?123} - compiled references as strings</li>
+ *     <li>{@code @null} and {@code @empty} - no resource</li>
+ * </ul>
+ * Packages default to the package of the context, and theme attribute
+ * references default to the {@code attr} type.
+ * <p>
+ * <b>NOTE:</b> Resource ids do not change while the process is alive, so
+ *              only the ids are cached. The values they resolve to depend on
+ *              the configuration and the theme, and are looked up every time.
+ */
+@ThreadSafe
+public final class ResourceReferences {
+    private static final int MAX_ENTRIES = 512;
+    private static final Map<String, Map<String, Integer>> CACHES = new HashMap<>();
+
+    private static final String ATTRIBUTE_TYPE = "attr";
+    private static final String NULL_REFERENCE = "@null";
+    private static final String EMPTY_REFERENCE = "@empty";
+
+    @Contract(" -> fail")
+    private ResourceReferences() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Returns whether the value is a resource or theme attribute reference
+     *
+     * @param value The value to check
+     * @return True if the value starts with {@code @} or {@code ?}
+     */
+    @Contract("null -> false")
+    public static boolean isReference(final @Nullable String value) {
+        return value != null
+               && value.length() > 1
+               && (value.charAt(0) == '@' || value.charAt(0) == '?');
+    }
+
+    /**
+     * Returns whether the value is a theme attribute reference
+     *
+     * @param value The value to check
+     * @return True if the value starts with {@code ?}
+     */
+    @Contract("null -> false")
+    public static boolean isAttributeReference(final @Nullable String value) {
+        return isReference(value)
+               && value.charAt(0) == '?';
+    }
+
+    /**
+     * Resolves a reference to its resource id.
+     * <p>
+     * For a theme attribute reference, the id of the attribute itself is
+     * returned, use {@link #resolveValue(Context, String, TypedValue)} to
+     * resolve it in the theme.
+     *
+     * @param context The context to resolve the reference with
+     * @param value   The reference to resolve
+     * @return The resource id of the reference or 0 if the value is not a
+     *         reference, references no resource or the resource does not
+     *         exist
+     */
+    public static @AnyRes int resolveId(
+            final @NonNull Context context,
+            final @Nullable String value
+    ) {
+        if (
+                !isReference(value)
+                || NULL_REFERENCE.equals(value)
+                || EMPTY_REFERENCE.equals(value)
+        ) {
+            return 0;
+        }
+
+        final int id = parseId(value);
+
+        if (id != 0) {
+            return id;
+        }
+
+        final String packageName = context.getPackageName();
+        final Map<String, Integer> cache = cacheOf(packageName);
+
+        synchronized (cache) {
+            final Integer cached = cache.get(value);
+
+            if (cached != null) {
+                return cached;
+            }
+        }
+
+        final int resolved = lookup(context.getResources(), packageName, value);
+
+        synchronized (cache) {
+            cache.put(value, resolved);
+        }
+
+        return resolved;
+    }
+
+    /**
+     * Resolves a reference to its value.
+     * <p>
+     * Resource references are resolved in the resources of the context and
+     * theme attribute references in its theme, references to other resources
+     * are followed to the final value in both cases.
+     *
+     * @param context  The context to resolve the reference with
+     * @param value    The reference to resolve
+     * @param outValue The typed value to write the resolved value to
+     * @return True if the reference was resolved, false if the value is not a
+     *         reference or the resource or attribute does not exist
+     */
+    public static boolean resolveValue(
+            final @NonNull Context context,
+            final @Nullable String value,
+            final @NonNull TypedValue outValue
+    ) {
+        final int id = resolveId(context, value);
+
+        if (id == 0) {
+            return false;
+        }
+
+        if (value.charAt(0) == '?') {
+            return context.getTheme().resolveAttribute(id, outValue, true);
+        }
+
+        try {
+            context.getResources().getValue(id, outValue, true);
+
+            return true;
+        } catch (final Resources.NotFoundException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Clears the cached resource ids of all packages.
+     * <p>
+     * Only needed if the resources of a package change while the process is
+     * alive, e.g. when a resource overlay is enabled.
+     */
+    public static void clear() {
+        synchronized (CACHES) {
+            CACHES.clear();
+        }
+    }
+
+    /**
+     * Parses a reference in the form of {@code @123} or {@code ?123}
+     *
+     * @return The parsed id or 0 if the reference is not numeric
+     */
+    private static int parseId(final @NonNull String value) {
+        final int length = value.length();
+        long id = 0;
+
+        for (int i = 1; i < length; ++i) {
+            final char c = value.charAt(i);
+
+            if (
+                    c < '0'
+                    || c > '9'
+                    || (id = id * 10 + c - '0') > 0xFFFFFFFFL
+            ) {
+                return 0;
+            }
+        }
+
+        return (int) id;
+    }
+
+    private static int lookup(
+            final @NonNull Resources resources,
+            final @NonNull String packageName,
+            final @NonNull String value
+    ) {
+        final boolean isAttribute = value.charAt(0) == '?';
+        final int start = !isAttribute && value.charAt(1) == '+' ? 2 : 1;
+
+        return resources.getIdentifier(
+                value.substring(start),
+                isAttribute ? ATTRIBUTE_TYPE : null,
+                packageName
+        );
+    }
+
+    private static @NonNull Map<String, Integer> cacheOf(final @NonNull String packageName) {
+        synchronized (CACHES) {
+            Map<String, Integer> cache = CACHES.get(packageName);
+
+            if (cache == null) {
+                cache = new LinkedHashMap<String, Integer>(16, 0.75f, true) {
+
+                    @Override
+                    protected boolean removeEldestEntry(final @NonNull Map.Entry<String, Integer> eldest) {
+                        return this.size() > MAX_ENTRIES;
+                    }
+                };
+
+                CACHES.put(packageName, cache);
+            }
+
+            return cache;
+        }
+    }
+}
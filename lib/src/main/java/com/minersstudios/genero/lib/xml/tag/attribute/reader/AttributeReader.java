@@ -1,7 +1,9 @@
 package com.minersstudios.genero.lib.xml.tag.attribute.reader;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
 
+import com.minersstudios.genero.lib.xml.SymbolTable;
 import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
 
 import org.jetbrains.annotations.Contract;
@@ -9,6 +11,9 @@ import org.xmlpull.v1.XmlPullParser;
 
 public interface AttributeReader extends Reader<Attribute> {
 
+    @Override
+    @NonNull AttributeReader snapshot();
+
     /**
      * Creates a new instance of {@link AttributeReader} with the given parser
      *
@@ -17,6 +22,22 @@ public interface AttributeReader extends Reader<Attribute> {
      */
     @Contract("_ -> new")
     static @NonNull AttributeReader create(final @NonNull XmlPullParser parser) {
-        return new AttributeReaderImpl(parser);
+        return create(parser, null);
+    }
+
+    /**
+     * Creates a new instance of {@link AttributeReader} with the given
+     * parser, bound to the given symbol table
+     *
+     * @param parser  The parser to read from
+     * @param symbols The symbol table of the parse
+     * @return A new instance of {@code AttributeReader}
+     */
+    @Contract("_, _ -> new")
+    static @NonNull AttributeReader create(
+            final @NonNull XmlPullParser parser,
+            final @Nullable SymbolTable symbols
+    ) {
+        return new AttributeReaderImpl(parser, symbols);
     }
 }
@@ -1,6 +1,9 @@
 package com.minersstudios.genero.lib.xml.tag.attribute.reader;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
 
 import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
 
@@ -8,12 +11,26 @@ import org.xmlpull.v1.XmlPullParser;
 
 class AttributeReaderImpl extends ReaderImpl<Attribute, XmlPullParser> implements AttributeReader {
 
-    AttributeReaderImpl(final @NonNull XmlPullParser parser) {
-        super(parser);
+    AttributeReaderImpl(
+            final @NonNull XmlPullParser parser,
+            final @Nullable SymbolTable symbols
+    ) {
+        super(parser, symbols);
+    }
+
+    private AttributeReaderImpl(final @NonNull AttributeReaderImpl source) {
+        super(source.getSnapshot(), source.getSymbolTable());
     }
 
     @Override
     public @NonNull Attribute getAttribute(final int index) throws IndexOutOfBoundsException, IllegalStateException {
-        return Attribute.create(this.getParser(), index);
+        return this.isDetached()
+               ? this.getSnapshotAttribute(index)
+               : Attribute.create(this.getParser(), index, this.getSymbolTable());
+    }
+
+    @Override
+    public @NonNull AttributeReader snapshot() {
+        return this.isDetached() ? this : new AttributeReaderImpl(this);
     }
 }
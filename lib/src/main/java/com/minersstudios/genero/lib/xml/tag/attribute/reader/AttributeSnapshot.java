@@ -0,0 +1,265 @@
+package com.minersstudios.genero.lib.xml.tag.attribute.reader;
+
+import android.content.res.XmlResourceParser;
+import android.util.TypedValue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
+import org.xmlpull.v1.XmlPullParser;
+
+import java.util.Arrays;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * The attributes of an element, copied out of the parser into parallel
+ * arrays.
+ * <p>
+ * Once taken, the snapshot does not depend on the parser, so it can be read
+ * after the parser has moved on and from any thread.
+ * <p>
+ * Attributes of a {@link XmlResourceParser} also carry their name resources
+ * and resource values. Those of a {@link BinaryXmlParser} carry the
+ * {@link TypedValue} type and data of their values as well, so the typed
+ * values read from the snapshot are the ones the parser returns, not ones
+ * parsed back from the string values. Other resource parsers, like the
+ * framework one, only expose typed values through their getters.
+ */
+@Immutable
+final class AttributeSnapshot {
+    final int size;
+    final String[] namespaces;
+    final String[] names;
+    final String[] prefixes;
+    final String[] types;
+    final String[] values;
+    final boolean[] defaults;
+    final int[] nameIds;
+    final int[] nameResources;
+    final int[] resourceValues;
+    final int[] dataTypes;
+    final int[] data;
+    private volatile int[] slots;
+
+    /**
+     * The number of attributes above which lookups go through a hash index
+     */
+    static final int INDEX_THRESHOLD = 8;
+
+    private static final String[] NO_STRINGS = new String[0];
+    private static final boolean[] NO_BOOLEANS = new boolean[0];
+    private static final int[] NO_INTS = new int[0];
+
+    private static final int NO_INDEX = -1;
+
+    private static final AttributeSnapshot EMPTY = new AttributeSnapshot(0, false, false);
+
+    private AttributeSnapshot(
+            final int size,
+            final boolean isResource,
+            final boolean isTyped
+    ) {
+        this.size = size;
+
+        if (size == 0) {
+            this.namespaces = NO_STRINGS;
+            this.names = NO_STRINGS;
+            this.prefixes = NO_STRINGS;
+            this.types = NO_STRINGS;
+            this.values = NO_STRINGS;
+            this.defaults = NO_BOOLEANS;
+            this.nameIds = NO_INTS;
+            this.nameResources = NO_INTS;
+            this.resourceValues = NO_INTS;
+            this.dataTypes = NO_INTS;
+            this.data = NO_INTS;
+        } else {
+            this.namespaces = new String[size];
+            this.names = new String[size];
+            this.prefixes = new String[size];
+            this.types = new String[size];
+            this.values = new String[size];
+            this.defaults = new boolean[size];
+            this.nameIds = new int[size];
+            this.nameResources = isResource ? new int[size] : null;
+            this.resourceValues = isResource && !isTyped ? new int[size] : null;
+            this.dataTypes = isTyped ? new int[size] : null;
+            this.data = isTyped ? new int[size] : null;
+        }
+    }
+
+    /**
+     * Copies the attributes of the current element of the given parser.
+     * <p>
+     * If the parser is a {@link XmlResourceParser}, the name resources are
+     * copied as well, along with the typed values of a {@link BinaryXmlParser}
+     * or the resource values of any other resource parser.
+     *
+     * @param parser  The parser to copy the attributes from
+     * @param symbols The symbol table to bind the attribute names to
+     * @return A snapshot of the attributes
+     */
+    static @NonNull AttributeSnapshot take(
+            final @NonNull XmlPullParser parser,
+            final @Nullable SymbolTable symbols
+    ) {
+        final int count = parser.getAttributeCount();
+
+        if (count <= 0) {
+            return EMPTY;
+        }
+
+        final XmlResourceParser resourceParser =
+                parser instanceof XmlResourceParser
+                ? (XmlResourceParser) parser
+                : null;
+        final BinaryXmlParser binaryParser =
+                parser instanceof BinaryXmlParser
+                ? (BinaryXmlParser) parser
+                : null;
+        final AttributeSnapshot snapshot = new AttributeSnapshot(count, resourceParser != null, binaryParser != null);
+
+        for (int i = 0; i < count; ++i) {
+            final String namespace = parser.getAttributeNamespace(i);
+            final String name = parser.getAttributeName(i);
+
+            snapshot.namespaces[i] = namespace;
+            snapshot.names[i] = name;
+            snapshot.prefixes[i] = parser.getAttributePrefix(i);
+            snapshot.types[i] = parser.getAttributeType(i);
+            snapshot.values[i] = parser.getAttributeValue(i);
+            snapshot.defaults[i] = parser.isAttributeDefault(i);
+            snapshot.nameIds[i] =
+                    symbols == null
+                    ? SymbolTable.NO_SYMBOL
+                    : symbols.intern(namespace, name);
+
+            if (binaryParser != null) {
+                snapshot.nameResources[i] = binaryParser.getAttributeNameResource(i);
+                snapshot.dataTypes[i] = binaryParser.getAttributeDataType(i);
+                snapshot.data[i] = binaryParser.getAttributeData(i);
+            } else if (resourceParser != null) {
+                snapshot.nameResources[i] = resourceParser.getAttributeNameResource(i);
+                snapshot.resourceValues[i] = resourceParser.getAttributeResourceValue(i, 0);
+            }
+        }
+
+        return snapshot;
+    }
+
+    /**
+     * Returns the index of the attribute with the given namespace and name.
+     * <p>
+     * Elements with more than a few attributes build an open-addressing hash
+     * index on the first lookup, so every lookup after that takes constant
+     * time.
+     *
+     * @param namespace The namespace, null is treated as an empty string
+     * @param name      The local name
+     * @return The index of the attribute or -1 if there is no such attribute
+     */
+    int indexOf(
+            final @Nullable String namespace,
+            final @NonNull String name
+    ) {
+        final String ns = namespace == null ? "" : namespace;
+
+        if (this.size <= INDEX_THRESHOLD) {
+            for (int i = 0; i < this.size; ++i) {
+                if (this.matches(i, ns, name)) {
+                    return i;
+                }
+            }
+
+            return NO_INDEX;
+        }
+
+        int[] slots = this.slots;
+
+        if (slots == null) {
+            // Concurrent lookups may each build the index, the field is
+            // volatile, so whichever array is published is complete
+            this.slots = slots = this.buildIndex();
+        }
+
+        final int mask = slots.length - 1;
+
+        for (int slot = hash(ns, name) & mask;; slot = (slot + 1) & mask) {
+            final int index = slots[slot];
+
+            if (
+                    index == NO_INDEX
+                    || this.matches(index, ns, name)
+            ) {
+                return index;
+            }
+        }
+    }
+
+    int getNameResource(final int index) {
+        return this.nameResources == null ? 0 : this.nameResources[index];
+    }
+
+    boolean isTyped() {
+        return this.dataTypes != null;
+    }
+
+    int getResourceValue(final int index) {
+        if (this.dataTypes != null) {
+            return this.dataTypes[index] == TypedValue.TYPE_REFERENCE
+                   ? this.data[index]
+                   : 0;
+        }
+
+        return this.resourceValues == null ? 0 : this.resourceValues[index];
+    }
+
+    private boolean matches(
+            final int index,
+            final @NonNull String namespace,
+            final @NonNull String name
+    ) {
+        final String attributeNamespace = this.namespaces[index];
+
+        return name.equals(this.names[index])
+                && namespace.equals(attributeNamespace == null ? "" : attributeNamespace);
+    }
+
+    private @NonNull int[] buildIndex() {
+        final int[] slots = new int[Integer.highestOneBit(this.size * 2 - 1) << 1];
+        final int mask = slots.length - 1;
+
+        Arrays.fill(slots, NO_INDEX);
+
+        for (int i = 0; i < this.size; ++i) {
+            final String namespace = this.namespaces[i];
+            int slot = hash(namespace == null ? "" : namespace, this.names[i]) & mask;
+
+            while (slots[slot] != NO_INDEX) {
+                slot = (slot + 1) & mask;
+            }
+
+            slots[slot] = i;
+        }
+
+        return slots;
+    }
+
+    static boolean isInt(final int type) {
+        return type >= TypedValue.TYPE_FIRST_INT
+                && type <= TypedValue.TYPE_LAST_INT;
+    }
+
+    private static int hash(
+            final @NonNull String namespace,
+            final @NonNull String name
+    ) {
+        final int hash = namespace.hashCode() * 31 + name.hashCode();
+
+        return hash ^ (hash >>> 16);
+    }
+}
@@ -0,0 +1,91 @@
+package com.minersstudios.genero.lib.xml.tag.attribute.reader;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
+
+import java.util.Spliterator;
+import java.util.function.Consumer;
+
+/**
+ * A sized spliterator over an index range of an {@link AttributeSnapshot}.
+ * <p>
+ * Splits halve the range, so parallel streams divide the attributes evenly
+ * between the workers without touching the parser.
+ *
+ * @param <A> The type of the attributes
+ */
+final class AttributeSpliterator<A extends Attribute> implements Spliterator<A> {
+    private final AttributeSnapshot snapshot;
+    private int index;
+    private final int fence;
+
+    private static final int CHARACTERISTICS =
+            Spliterator.ORDERED
+            | Spliterator.SIZED
+            | Spliterator.SUBSIZED
+            | Spliterator.NONNULL
+            | Spliterator.IMMUTABLE;
+
+    AttributeSpliterator(
+            final @NonNull AttributeSnapshot snapshot,
+            final int origin,
+            final int fence
+    ) {
+        this.snapshot = snapshot;
+        this.index = origin;
+        this.fence = fence;
+    }
+
+    @Override
+    public boolean tryAdvance(final @NonNull Consumer<? super A> action) {
+        if (this.index >= this.fence) {
+            return false;
+        }
+
+        action.accept(this.attribute(this.index++));
+
+        return true;
+    }
+
+    @Override
+    public void forEachRemaining(final @NonNull Consumer<? super A> action) {
+        final int fence = this.fence;
+
+        for (int i = this.index; i < fence; ++i) {
+            action.accept(this.attribute(i));
+        }
+
+        this.index = fence;
+    }
+
+    @Override
+    public @Nullable Spliterator<A> trySplit() {
+        final int origin = this.index;
+        final int middle = (origin + this.fence) >>> 1;
+
+        if (origin >= middle) {
+            return null;
+        }
+
+        this.index = middle;
+
+        return new AttributeSpliterator<>(this.snapshot, origin, middle);
+    }
+
+    @Override
+    public long estimateSize() {
+        return this.fence - this.index;
+    }
+
+    @Override
+    public int characteristics() {
+        return CHARACTERISTICS;
+    }
+
+    @SuppressWarnings("unchecked")
+    private @NonNull A attribute(final int index) {
+        return (A) new SnapshotAttribute(this.snapshot, index);
+    }
+}
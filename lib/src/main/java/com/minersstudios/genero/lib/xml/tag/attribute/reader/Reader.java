@@ -1,6 +1,9 @@
 package com.minersstudios.genero.lib.xml.tag.attribute.reader;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
 
 import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
 
@@ -9,10 +12,31 @@ import java.util.Spliterator;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 
+/**
+ * A reader of the attributes of a start tag.
+ * <p>
+ * The attributes are copied out of the parser the first time the reader is
+ * iterated or streamed, readers that are only asked for single attributes
+ * never copy them. Iteration and streams read that copy, so they stay valid
+ * after the parser has moved on and never touch the parser, which makes
+ * {@link #parallelStream()} safe to use.
+ * <p>
+ * <b>NOTE:</b> A bound {@link ResourceAttributeReader} of a resource parser
+ * other than {@link com.minersstudios.genero.lib.xml.BinaryXmlParser}, like
+ * the framework one, iterates the live attributes instead, since such
+ * parsers only expose typed values through their getters. Those attributes
+ * are valid only until the parser moves on, and streams over them do not
+ * split. Use {@link #snapshot()} to iterate them after that, the typed
+ * values of the copy are converted from the string values, except for the
+ * resource values.
+ *
+ * @param <T> The type of the attributes
+ */
 public interface Reader<T extends Attribute> extends Iterable<T> {
 
     /**
-     * Returns an iterator over the attributes
+     * Returns an iterator over the attributes as they were when the reader
+     * was first iterated
      *
      * @return An iterator over the attributes
      */
@@ -20,13 +44,36 @@ public interface Reader<T extends Attribute> extends Iterable<T> {
     @NonNull Iterator<T> iterator();
 
     /**
-     * Returns a spliterator over the attributes
+     * Returns a sized, splittable spliterator over the attributes as they
+     * were when the reader was first iterated
      *
      * @return A spliterator over the attributes
      */
     @Override
     @NonNull Spliterator<T> spliterator();
 
+    /**
+     * Returns the symbol table of the parse the attributes belong to
+     *
+     * @return The symbol table of the parse or null if the reader is not bound
+     *         to a symbol table
+     * @see Attribute#getNameId()
+     */
+    @Nullable SymbolTable getSymbolTable();
+
+    /**
+     * Returns a detached copy of this reader.
+     * <p>
+     * The copy reads only the attributes copied out of the parser, which are
+     * copied now if this reader has not been iterated yet, so all of its
+     * methods, including {@link #getAttribute(int)}, can be called after the
+     * parser has moved on and from any thread.
+     *
+     * @return A detached copy of this reader, or this reader if it is already
+     *         detached
+     */
+    @NonNull Reader<T> snapshot();
+
     /**
      * Returns the attribute at the given index
      *
@@ -53,6 +100,36 @@ public interface Reader<T extends Attribute> extends Iterable<T> {
      */
     boolean isEmpty() throws IllegalStateException;
 
+    /**
+     * Returns the index of the attribute with the given namespace and name.
+     * <p>
+     * Lookups take constant time, an element with more than a few attributes
+     * builds a hash index of its attributes once, on the first lookup.
+     *
+     * @param namespace The namespace of the attribute
+     * @param name      The name of the attribute
+     * @return The index of the attribute or -1 if there is no such attribute
+     */
+    int indexOf(
+            final @NonNull String namespace,
+            final @NonNull String name
+    );
+
+    /**
+     * Returns the attribute with the given namespace and name
+     *
+     * @param namespace The namespace of the attribute
+     * @param name      The name of the attribute
+     * @return The attribute with the given namespace and name or null if
+     *         there is no such attribute
+     * @throws IllegalStateException If the parser is in an invalid state
+     * @see #indexOf(String, String)
+     */
+    @Nullable T get(
+            final @NonNull String namespace,
+            final @NonNull String name
+    ) throws IllegalStateException;
+
     /**
      * Returns whether the reader contains the given attribute
      *
@@ -1,6 +1,9 @@
 package com.minersstudios.genero.lib.xml.tag.attribute.reader;
 
 import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.SymbolTable;
 
 import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
 
@@ -9,58 +12,121 @@ import org.xmlpull.v1.XmlPullParser;
 import java.lang.ref.Reference;
 import java.lang.ref.WeakReference;
 import java.util.Iterator;
-import java.util.NoSuchElementException;
 import java.util.Spliterator;
 import java.util.Spliterators;
 import java.util.function.Consumer;
 import java.util.stream.Stream;
 import java.util.stream.StreamSupport;
 
-import javax.annotation.concurrent.Immutable;
-
-@Immutable
+import javax.annotation.concurrent.NotThreadSafe;
+
+/**
+ * The base of the attribute readers.
+ * <p>
+ * A reader bound to a parser copies the attributes into an
+ * {@link AttributeSnapshot} only when it is first iterated or streamed, so
+ * readers that are only asked for single attributes never copy the element.
+ * Until then, {@link #count()} reads the parser directly, and so does
+ * {@link #indexOf(String, String)} for elements with only a few attributes.
+ * Larger elements take the snapshot on the first lookup, so the lookups use
+ * its index.
+ */
+@NotThreadSafe
 abstract class ReaderImpl<A extends Attribute, P extends XmlPullParser> implements Reader<A> {
     private final Reference<P> parser;
+    private final SymbolTable symbols;
+    private AttributeSnapshot snapshot;
 
-    ReaderImpl(final @NonNull P parser) {
+    ReaderImpl(
+            final @NonNull P parser,
+            final @Nullable SymbolTable symbols
+    ) {
         this.parser = new WeakReference<>(parser);
+        this.symbols = symbols;
+    }
+
+    ReaderImpl(
+            final @NonNull AttributeSnapshot snapshot,
+            final @Nullable SymbolTable symbols
+    ) {
+        this.parser = null;
+        this.symbols = symbols;
+        this.snapshot = snapshot;
     }
 
     @Override
     public @NonNull Iterator<A> iterator() {
-        return new Iterator<A>() {
-            private int index = 0;
+        return Spliterators.iterator(this.spliterator());
+    }
 
-            @Override
-            public boolean hasNext() throws IllegalStateException {
-                return this.index < ReaderImpl.this.count();
-            }
+    @Override
+    public @NonNull Spliterator<A> spliterator() {
+        final AttributeSnapshot snapshot = this.getSnapshot();
 
-            @Override
-            public @NonNull A next() throws NoSuchElementException {
-                return ReaderImpl.this.getAttribute(this.index++);
-            }
-        };
+        return new AttributeSpliterator<>(snapshot, 0, snapshot.size);
     }
 
     @Override
-    public @NonNull Spliterator<A> spliterator() {
-        return Spliterators.spliteratorUnknownSize(
-                this.iterator(),
-                Spliterator.ORDERED | Spliterator.IMMUTABLE
-        );
+    public @Nullable SymbolTable getSymbolTable() {
+        return this.symbols;
     }
 
     @Override
-    public int count() throws IllegalStateException {
-        return this.getParser().getAttributeCount();
+    public int count() {
+        final AttributeSnapshot snapshot = this.snapshot;
+
+        return snapshot != null
+               ? snapshot.size
+               : this.getParser().getAttributeCount();
     }
 
     @Override
-    public boolean isEmpty() throws IllegalStateException {
+    public boolean isEmpty() {
         return this.count() <= 0;
     }
 
+    @Override
+    public int indexOf(
+            final @NonNull String namespace,
+            final @NonNull String name
+    ) {
+        final AttributeSnapshot snapshot = this.snapshot;
+
+        if (snapshot != null) {
+            return snapshot.indexOf(namespace, name);
+        }
+
+        final P parser = this.getParser();
+        final int count = parser.getAttributeCount();
+
+        if (count > AttributeSnapshot.INDEX_THRESHOLD) {
+            return this.getSnapshot().indexOf(namespace, name);
+        }
+
+        for (int i = 0; i < count; ++i) {
+            final String attributeNamespace = parser.getAttributeNamespace(i);
+
+            if (
+                    name.equals(parser.getAttributeName(i))
+                    && namespace.equals(attributeNamespace == null ? "" : attributeNamespace)
+            ) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    @Override
+    public @Nullable A get(
+            final @NonNull String namespace,
+            final @NonNull String name
+    ) throws IllegalStateException {
+        final int index = this.indexOf(namespace, name);
+
+        return index == -1 ? null : this.getAttribute(index);
+    }
+
     @Override
     public boolean contains(final @NonNull A attribute) throws IllegalStateException {
         return this.contains(attribute.getNamespace(), attribute.getName());
@@ -71,7 +137,7 @@ abstract class ReaderImpl<A extends Attribute, P extends XmlPullParser> implemen
             final @NonNull String namespace,
             final @NonNull String name
     ) throws IllegalStateException {
-        return this.getParser().getAttributeValue(namespace, name) != null;
+        return this.indexOf(namespace, name) != -1;
     }
 
     @Override
@@ -97,10 +163,8 @@ abstract class ReaderImpl<A extends Attribute, P extends XmlPullParser> implemen
     }
 
     @Override
-    public void forEach(final @NonNull Consumer<? super A> action) throws IllegalStateException {
-        for (final A attribute : this) {
-            action.accept(attribute);
-        }
+    public void forEach(final @NonNull Consumer<? super A> action) {
+        this.spliterator().forEachRemaining(action);
     }
 
     @Override
@@ -113,7 +177,45 @@ abstract class ReaderImpl<A extends Attribute, P extends XmlPullParser> implemen
         return StreamSupport.stream(this.spliterator(), true);
     }
 
+    boolean isDetached() {
+        return this.parser == null;
+    }
+
+    /**
+     * Returns the snapshot of the attributes, taking it from the parser on
+     * the first call
+     *
+     * @return The snapshot of the attributes
+     * @throws IllegalStateException If the parser is in an invalid state
+     */
+    @NonNull AttributeSnapshot getSnapshot() throws IllegalStateException {
+        AttributeSnapshot snapshot = this.snapshot;
+
+        if (snapshot == null) {
+            this.snapshot = snapshot = AttributeSnapshot.take(this.getParser(), this.symbols);
+        }
+
+        return snapshot;
+    }
+
+    @NonNull SnapshotAttribute getSnapshotAttribute(final int index) throws IndexOutOfBoundsException {
+        final AttributeSnapshot snapshot = this.getSnapshot();
+
+        if (
+                index < 0
+                || index >= snapshot.size
+        ) {
+            throw new IndexOutOfBoundsException("Index " + index + " is out of bounds for attribute count " + snapshot.size);
+        }
+
+        return new SnapshotAttribute(snapshot, index);
+    }
+
     protected @NonNull P getParser() throws IllegalStateException {
+        if (this.parser == null) {
+            throw new IllegalStateException("Reader is detached from the parser");
+        }
+
         final P parser = this.parser.get();
 
         if (parser == null) {
@@ -5,6 +5,7 @@ import android.content.res.XmlResourceParser;
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.minersstudios.genero.lib.xml.SymbolTable;
 import com.minersstudios.genero.lib.xml.tag.attribute.ResourceAttribute;
 
 import org.jetbrains.annotations.Contract;
@@ -45,6 +46,52 @@ public interface ResourceAttributeReader extends Reader<ResourceAttribute> {
      */
     int getIdAttributeResourceValue(final int defaultValue) throws IllegalStateException;
 
+    /**
+     * Fetches the typed values of the given attributes in a single pass, the
+     * way {@link android.content.res.Resources#obtainAttributes} does for a
+     * styleable.
+     * <p>
+     * The requested name resource ids must be sorted in ascending order, as
+     * the ids of a styleable are. Compiled elements have their attributes in
+     * the same order, so the attributes of the element are matched in one
+     * linear merge, without allocating anything. Attributes that are out of
+     * order are looked up with a binary search instead.
+     * <p>
+     * For every requested attribute, the outputs are:
+     * <ul>
+     *     <li>
+     *         The {@link android.util.TypedValue} type of the value or
+     *         {@link android.util.TypedValue#TYPE_NULL} if the element does
+     *         not have the attribute
+     *     </li>
+     *     <li>
+     *         The data of the value, which for
+     *         {@link android.util.TypedValue#TYPE_STRING} values is the index
+     *         of the attribute in this reader
+     *     </li>
+     *     <li>The referenced resource id or 0 if the value is not a reference</li>
+     * </ul>
+     *
+     * @param attrs       The sorted name resource ids of the attributes
+     * @param types       The array to write the types of the values to
+     * @param data        The array to write the data of the values to
+     * @param resourceIds The array to write the referenced resource ids to
+     * @return The number of requested attributes the element has
+     * @throws IllegalArgumentException If an output array is shorter than the
+     *                                  requested ids
+     * @throws IllegalStateException    If the parser is in an invalid state
+     * @see com.minersstudios.genero.lib.xml.tag.attribute.AttributeValues#toTypedValue(String, int[], int)
+     */
+    int obtainAttributes(
+            final @NonNull int[] attrs,
+            final @NonNull int[] types,
+            final @NonNull int[] data,
+            final @NonNull int[] resourceIds
+    ) throws IllegalArgumentException, IllegalStateException;
+
+    @Override
+    @NonNull ResourceAttributeReader snapshot();
+
     /**
      * Creates a new instance of {@link ResourceAttributeReader} with the given
      * parser
@@ -54,6 +101,22 @@ public interface ResourceAttributeReader extends Reader<ResourceAttribute> {
      */
     @Contract("_ -> new")
     static @NonNull ResourceAttributeReader create(final @NonNull XmlResourceParser parser) {
-        return new ResourceAttributeReaderImpl(parser);
+        return create(parser, null);
+    }
+
+    /**
+     * Creates a new instance of {@link ResourceAttributeReader} with the given
+     * parser, bound to the given symbol table
+     *
+     * @param parser  The parser to read from
+     * @param symbols The symbol table of the parse
+     * @return A new instance of {@code ResourceAttributeReader}
+     */
+    @Contract("_, _ -> new")
+    static @NonNull ResourceAttributeReader create(
+            final @NonNull XmlResourceParser parser,
+            final @Nullable SymbolTable symbols
+    ) {
+        return new ResourceAttributeReaderImpl(parser, symbols);
     }
 }
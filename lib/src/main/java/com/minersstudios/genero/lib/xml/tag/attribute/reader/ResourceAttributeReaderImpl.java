@@ -1,40 +1,312 @@
 package com.minersstudios.genero.lib.xml.tag.attribute.reader;
 
 import android.content.res.XmlResourceParser;
+import android.util.TypedValue;
 
 import androidx.annotation.NonNull;
 import androidx.annotation.Nullable;
 
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.SymbolTable;
+
+import com.minersstudios.genero.lib.xml.tag.attribute.AttributeValues;
 import com.minersstudios.genero.lib.xml.tag.attribute.ResourceAttribute;
 
+import java.util.Arrays;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.function.Consumer;
+
 class ResourceAttributeReaderImpl extends ReaderImpl<ResourceAttribute, XmlResourceParser> implements ResourceAttributeReader {
+    private static final String NO_NAMESPACE = "";
+    private static final String ID_ATTRIBUTE = "id";
+    private static final String CLASS_ATTRIBUTE = "class";
+    private static final String STYLE_ATTRIBUTE = "style";
+
+    ResourceAttributeReaderImpl(
+            final @NonNull XmlResourceParser parser,
+            final @Nullable SymbolTable symbols
+    ) {
+        super(parser, symbols);
+    }
 
-    ResourceAttributeReaderImpl(final @NonNull XmlResourceParser parser) {
-        super(parser);
+    private ResourceAttributeReaderImpl(final @NonNull ResourceAttributeReaderImpl source) {
+        super(source.getSnapshot(), source.getSymbolTable());
     }
 
     @Override
     public @NonNull ResourceAttribute getAttribute(final int index) throws IndexOutOfBoundsException, IllegalStateException {
-        return ResourceAttribute.create(this.getParser(), index);
+        return this.isDetached()
+               ? this.getSnapshotAttribute(index)
+               : ResourceAttribute.create(this.getParser(), index, this.getSymbolTable());
+    }
+
+    @Override
+    public @NonNull Spliterator<ResourceAttribute> spliterator() {
+        // Only BinaryXmlParser exposes the compiled types, a bound reader of
+        // any other resource parser iterates the live attributes, so their
+        // typed values come from the getters of the parser
+        return this.isDetached()
+               || this.getParser() instanceof BinaryXmlParser
+               ? super.spliterator()
+               : new LiveSpliterator(this.count());
+    }
+
+    @Override
+    public @NonNull ResourceAttributeReader snapshot() {
+        return this.isDetached() ? this : new ResourceAttributeReaderImpl(this);
     }
 
     @Override
     public @Nullable String getIdAttribute() throws IllegalStateException {
+        if (this.isDetached()) {
+            final int index = this.indexOf(NO_NAMESPACE, ID_ATTRIBUTE);
+
+            return index == -1 ? null : this.getSnapshot().values[index];
+        }
+
         return this.getParser().getIdAttribute();
     }
 
     @Override
     public @Nullable String getClassAttribute() throws IllegalStateException {
+        if (this.isDetached()) {
+            final int index = this.indexOf(NO_NAMESPACE, CLASS_ATTRIBUTE);
+
+            return index == -1 ? null : this.getSnapshot().values[index];
+        }
+
         return this.getParser().getClassAttribute();
     }
 
     @Override
     public int getStyleAttribute() throws IllegalStateException {
+        if (this.isDetached()) {
+            final int index = this.indexOf(NO_NAMESPACE, STYLE_ATTRIBUTE);
+
+            return index == -1 ? 0 : this.getSnapshot().getResourceValue(index);
+        }
+
         return this.getParser().getStyleAttribute();
     }
 
+    @Override
+    public int obtainAttributes(
+            final @NonNull int[] attrs,
+            final @NonNull int[] types,
+            final @NonNull int[] data,
+            final @NonNull int[] resourceIds
+    ) throws IllegalArgumentException {
+        final int count = attrs.length;
+
+        if (
+                types.length < count
+                || data.length < count
+                || resourceIds.length < count
+        ) {
+            throw new IllegalArgumentException("Output arrays must be at least as long as the requested attributes: " + count);
+        }
+
+        Arrays.fill(types, 0, count, TypedValue.TYPE_NULL);
+        Arrays.fill(data, 0, count, 0);
+        Arrays.fill(resourceIds, 0, count, 0);
+
+        // A live reader merges against the parser, so the element is never
+        // copied, the snapshot is only read once the reader is detached
+        final boolean isDetached = this.isDetached();
+        final AttributeSnapshot snapshot = isDetached ? this.getSnapshot() : null;
+        final XmlResourceParser parser = isDetached ? null : this.getParser();
+        final int size =
+                isDetached
+                ? snapshot.size
+                : parser.getAttributeCount();
+        int next = 0;
+        int previous = 0;
+        boolean isSorted = true;
+        int found = 0;
+
+        for (int i = 0; i < size; ++i) {
+            final int nameResource =
+                    isDetached
+                    ? snapshot.getNameResource(i)
+                    : parser.getAttributeNameResource(i);
+
+            if (nameResource == 0) {
+                continue;
+            }
+
+            final int slot;
+
+            if (
+                    isSorted
+                    && nameResource >= previous
+            ) {
+                while (
+                        next < count
+                        && attrs[next] < nameResource
+                ) {
+                    next++;
+                }
+
+                slot = next < count && attrs[next] == nameResource ? next : -1;
+                previous = nameResource;
+            } else {
+                isSorted = false;
+                slot = Arrays.binarySearch(attrs, nameResource);
+            }
+
+            if (
+                    slot < 0
+                    || types[slot] != TypedValue.TYPE_NULL
+            ) {
+                continue;
+            }
+
+            final int type =
+                    isDetached
+                    ? readTypedValue(snapshot, i, data, slot)
+                    : readTypedValue(parser, i, data, slot);
+
+            types[slot] = type;
+
+            if (type == TypedValue.TYPE_REFERENCE) {
+                resourceIds[slot] = data[slot];
+            }
+
+            if (type != TypedValue.TYPE_NULL) {
+                found++;
+            }
+        }
+
+        return found;
+    }
+
     @Override
     public int getIdAttributeResourceValue(final int defaultValue) throws IllegalStateException {
+        if (this.isDetached()) {
+            final int index = this.indexOf(NO_NAMESPACE, ID_ATTRIBUTE);
+            final int value = index == -1 ? 0 : this.getSnapshot().getResourceValue(index);
+
+            return value == 0 ? defaultValue : value;
+        }
+
         return this.getParser().getIdAttributeResourceValue(defaultValue);
     }
+
+    /**
+     * Writes the data of the attribute at the given index of the parser to
+     * the given slot and returns its type.
+     * <p>
+     * A {@link BinaryXmlParser} exposes the compiled type and data. Other
+     * resource parsers only expose the resource value, any other value is
+     * converted from its string value.
+     */
+    private static int readTypedValue(
+            final @NonNull XmlResourceParser parser,
+            final int index,
+            final @NonNull int[] data,
+            final int slot
+    ) {
+        if (parser instanceof BinaryXmlParser) {
+            final BinaryXmlParser binaryParser = (BinaryXmlParser) parser;
+            final int type = binaryParser.getAttributeDataType(index);
+
+            data[slot] =
+                    type == TypedValue.TYPE_STRING
+                    ? index
+                    : binaryParser.getAttributeData(index);
+
+            return type;
+        }
+
+        final int resourceValue = parser.getAttributeResourceValue(index, 0);
+
+        if (resourceValue != 0) {
+            data[slot] = resourceValue;
+
+            return TypedValue.TYPE_REFERENCE;
+        }
+
+        return toTypedValue(parser.getAttributeValue(index), index, data, slot);
+    }
+
+    /**
+     * Writes the data of the attribute at the given index of the snapshot to
+     * the given slot and returns its type
+     */
+    private static int readTypedValue(
+            final @NonNull AttributeSnapshot snapshot,
+            final int index,
+            final @NonNull int[] data,
+            final int slot
+    ) {
+        if (snapshot.isTyped()) {
+            final int type = snapshot.dataTypes[index];
+
+            data[slot] =
+                    type == TypedValue.TYPE_STRING
+                    ? index
+                    : snapshot.data[index];
+
+            return type;
+        }
+
+        final int resourceValue = snapshot.getResourceValue(index);
+
+        if (resourceValue != 0) {
+            data[slot] = resourceValue;
+
+            return TypedValue.TYPE_REFERENCE;
+        }
+
+        return toTypedValue(snapshot.values[index], index, data, slot);
+    }
+
+    /**
+     * A spliterator over the live attributes of the parser.
+     * <p>
+     * The attributes read the parser, so the spliterator does not split and
+     * parallel streams over it run on one thread at a time.
+     */
+    private final class LiveSpliterator extends Spliterators.AbstractSpliterator<ResourceAttribute> {
+        private final int count;
+        private int index;
+
+        LiveSpliterator(final int count) {
+            super(count, Spliterator.ORDERED | Spliterator.SIZED | Spliterator.NONNULL);
+
+            this.count = count;
+        }
+
+        @Override
+        public boolean tryAdvance(final @NonNull Consumer<? super ResourceAttribute> action) {
+            if (this.index >= this.count) {
+                return false;
+            }
+
+            action.accept(ResourceAttributeReaderImpl.this.getAttribute(this.index++));
+
+            return true;
+        }
+
+        @Override
+        public @Nullable Spliterator<ResourceAttribute> trySplit() {
+            return null;
+        }
+    }
+
+    private static int toTypedValue(
+            final @Nullable String value,
+            final int index,
+            final @NonNull int[] data,
+            final int slot
+    ) {
+        final int type = AttributeValues.toTypedValue(value, data, slot);
+
+        if (type == TypedValue.TYPE_STRING) {
+            data[slot] = index;
+        }
+
+        return type;
+    }
 }
@@ -0,0 +1,161 @@
+package com.minersstudios.genero.lib.xml.tag.attribute.reader;
+
+import android.util.TypedValue;
+
+import androidx.annotation.NonNull;
+import androidx.annotation.Nullable;
+
+import com.minersstudios.genero.lib.xml.tag.attribute.AttributeValues;
+import com.minersstudios.genero.lib.xml.tag.attribute.ResourceAttribute;
+
+import javax.annotation.concurrent.Immutable;
+
+/**
+ * An attribute view over an {@link AttributeSnapshot}.
+ * <p>
+ * Typed values are read from the type and data the snapshot copied out of a
+ * {@link com.minersstudios.genero.lib.xml.BinaryXmlParser}, so they are the
+ * same values a live attribute returns. Snapshots of other parsers have no
+ * typed data, their typed values are converted from the string value on
+ * every call, except for the resource values copied out of a resource
+ * parser. Either way, the view holds no mutable state and never touches the
+ * parser.
+ */
+@Immutable
+final class SnapshotAttribute implements ResourceAttribute {
+    private final AttributeSnapshot snapshot;
+    private final int index;
+
+    SnapshotAttribute(
+            final @NonNull AttributeSnapshot snapshot,
+            final int index
+    ) {
+        this.snapshot = snapshot;
+        this.index = index;
+    }
+
+    @Override
+    public int getIndex() {
+        return this.index;
+    }
+
+    @Override
+    public @NonNull String getNamespace() {
+        return this.snapshot.namespaces[this.index];
+    }
+
+    @Override
+    public @NonNull String getName() {
+        return this.snapshot.names[this.index];
+    }
+
+    @Override
+    public int getNameId() {
+        return this.snapshot.nameIds[this.index];
+    }
+
+    @Override
+    public @Nullable String getPrefix() {
+        return this.snapshot.prefixes[this.index];
+    }
+
+    @Override
+    public @NonNull String getType() {
+        return this.snapshot.types[this.index];
+    }
+
+    @Override
+    public @NonNull String getValue() {
+        return this.snapshot.values[this.index];
+    }
+
+    @Override
+    public boolean isDefault() {
+        return this.snapshot.defaults[this.index];
+    }
+
+    @Override
+    public int getNameResource() {
+        return this.snapshot.getNameResource(this.index);
+    }
+
+    @Override
+    public int getListValue(
+            final int defaultValue,
+            final @NonNull String... options
+    ) {
+        final AttributeSnapshot snapshot = this.snapshot;
+
+        if (
+                snapshot.isTyped()
+                && snapshot.dataTypes[this.index] != TypedValue.TYPE_STRING
+        ) {
+            final int value = snapshot.data[this.index];
+
+            return value == -1 ? defaultValue : value;
+        }
+
+        return AttributeValues.indexOf(this.getValue(), options, defaultValue);
+    }
+
+    @Override
+    public boolean getBooleanValue(final boolean defaultValue) {
+        final AttributeSnapshot snapshot = this.snapshot;
+
+        if (snapshot.isTyped()) {
+            return AttributeSnapshot.isInt(snapshot.dataTypes[this.index])
+                   ? snapshot.data[this.index] != 0
+                   : defaultValue;
+        }
+
+        return AttributeValues.parseBoolean(this.getValue(), defaultValue);
+    }
+
+    @Override
+    public int getResourceValue(final int defaultValue) {
+        final int value = this.snapshot.getResourceValue(this.index);
+
+        return value == 0 ? defaultValue : value;
+    }
+
+    @Override
+    public int getIntValue(final int defaultValue) {
+        final AttributeSnapshot snapshot = this.snapshot;
+
+        if (snapshot.isTyped()) {
+            return AttributeSnapshot.isInt(snapshot.dataTypes[this.index])
+                   ? snapshot.data[this.index]
+                   : defaultValue;
+        }
+
+        return AttributeValues.parseInt(this.getValue(), defaultValue);
+    }
+
+    @Override
+    public int getUnsignedIntValue(final int defaultValue) {
+        return this.getIntValue(defaultValue);
+    }
+
+    @Override
+    public float getFloatValue(final float defaultValue) {
+        final AttributeSnapshot snapshot = this.snapshot;
+
+        if (snapshot.isTyped()) {
+            return snapshot.dataTypes[this.index] == TypedValue.TYPE_FLOAT
+                   ? Float.intBitsToFloat(snapshot.data[this.index])
+                   : defaultValue;
+        }
+
+        return AttributeValues.parseFloat(this.getValue(), defaultValue);
+    }
+
+    @Override
+    public @NonNull String toString() {
+        return "SnapshotAttribute{" +
+                "index=" + this.index +
+                ", namespace='" + this.getNamespace() + '\'' +
+                ", name='" + this.getName() + '\'' +
+                ", value='" + this.getValue() + '\'' +
+                '}';
+    }
+}
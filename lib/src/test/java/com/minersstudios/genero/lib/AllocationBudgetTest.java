@@ -0,0 +1,330 @@
+package com.minersstudios.genero.lib;
+
+import static com.minersstudios.genero.lib.ui.corners.CornerType.BOTTOM_LEFT;
+import static com.minersstudios.genero.lib.ui.corners.CornerType.BOTTOM_RIGHT;
+import static com.minersstudios.genero.lib.ui.corners.CornerType.TOP_LEFT;
+import static com.minersstudios.genero.lib.ui.corners.CornerType.TOP_RIGHT;
+
+import com.minersstudios.genero.lib.ui.corners.CornerAttribute;
+import com.minersstudios.genero.lib.xml.BinaryXml;
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.Documents;
+import com.minersstudios.genero.lib.xml.XmlParser;
+import com.minersstudios.genero.lib.xml.tag.StartTag;
+import com.minersstudios.genero.lib.xml.tag.TagCursor;
+import com.minersstudios.genero.lib.xml.tag.XmlTag;
+import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
+import com.minersstudios.genero.lib.xml.tag.attribute.ResourceAttribute;
+import com.minersstudios.genero.lib.xml.tag.attribute.reader.AttributeReader;
+import com.minersstudios.genero.lib.xml.tag.attribute.reader.ResourceAttributeReader;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.kxml2.io.KXmlParser;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Checks the allocations of the hot paths that run on a plain JVM, in bytes
+ * per event for the tag layer, per attribute for the attribute readers, per
+ * element for the batched attribute fetch and per call for
+ * {@link CornerAttribute}.
+ * <p>
+ * The paths of the views are checked under Robolectric, by the draw tests of
+ * the views.
+ */
+@RunWith(Parameterized.class)
+public class AllocationBudgetTest {
+    private static final int CALLS = 1_000;
+    private static final byte[] MENU = Documents.menu(16 * 1024);
+    private static final byte[] BINARY_MENU = compile(MENU);
+    private static final int[] MENU_ATTRS = attrs(MENU, "checkable", "icon", "id", "orderInCategory", "title");
+    private static final int[] TYPES = new int[MENU_ATTRS.length];
+    private static final int[] DATA = new int[MENU_ATTRS.length];
+    private static final int[] RESOURCE_IDS = new int[MENU_ATTRS.length];
+
+    private static long sink;
+
+    private final String path;
+    private final Allocations.Work baseline;
+    private final Allocations.Work work;
+
+    public AllocationBudgetTest(
+            final String path,
+            final Allocations.Work baseline,
+            final Allocations.Work work
+    ) {
+        this.path = path;
+        this.baseline = baseline;
+        this.work = work;
+    }
+
+    @Parameterized.Parameters(name = "{0}")
+    public static List<Object[]> paths() {
+        return Arrays.asList(
+                new Object[] {"xml.cursor.event", (Allocations.Work) AllocationBudgetTest::kxmlEvents, (Allocations.Work) AllocationBudgetTest::cursorEvents},
+                new Object[] {"xml.stream.event", (Allocations.Work) AllocationBudgetTest::kxmlEvents, (Allocations.Work) AllocationBudgetTest::streamEvents},
+                new Object[] {"xml.binary.cursor.event", (Allocations.Work) AllocationBudgetTest::binaryEvents, (Allocations.Work) AllocationBudgetTest::binaryCursorEvents},
+                new Object[] {"xml.reader.attribute", (Allocations.Work) AllocationBudgetTest::cursorAttributes, (Allocations.Work) AllocationBudgetTest::readerAttributes},
+                new Object[] {"xml.resource.reader.attribute", (Allocations.Work) AllocationBudgetTest::binaryAttributes, (Allocations.Work) AllocationBudgetTest::resourceReaderAttributes},
+                new Object[] {"xml.resource.reader.obtain.element", (Allocations.Work) AllocationBudgetTest::resourceReaderCounts, (Allocations.Work) AllocationBudgetTest::resourceReaderObtains},
+                new Object[] {"corners.with.call", null, (Allocations.Work) AllocationBudgetTest::cornersWith},
+                new Object[] {"corners.without.call", null, (Allocations.Work) AllocationBudgetTest::cornersWithout},
+                new Object[] {"corners.count.call", null, (Allocations.Work) AllocationBudgetTest::cornersCount}
+        );
+    }
+
+    @Test
+    public void staysWithinBudget() throws Exception {
+        Allocations.assertWithinBudget(this.path, this.baseline, this.work);
+    }
+
+    private static long kxmlEvents() throws Exception {
+        final XmlPullParser parser = kxml();
+        long events = 0;
+
+        for (int type = parser.next(); type != XmlPullParser.END_DOCUMENT; type = parser.next()) {
+            events++;
+            sink += type;
+        }
+
+        return events + 1;
+    }
+
+    private static long cursorEvents() throws Exception {
+        long events = 0;
+
+        try (final TagCursor cursor = XmlParser.cursorPull(kxml())) {
+            while (cursor.advance()) {
+                events++;
+                sink += cursor.getType();
+            }
+        }
+
+        return events;
+    }
+
+    private static long streamEvents() throws Exception {
+        final long[] events = new long[1];
+
+        try (final Stream<XmlTag> tags = XmlParser.parsePull(kxml())) {
+            tags.forEach(
+                    tag -> {
+                        events[0]++;
+                        sink += tag.getType();
+                    }
+            );
+        }
+
+        return events[0];
+    }
+
+    private static long binaryEvents() throws Exception {
+        final BinaryXmlParser parser = binary();
+        long events = 0;
+
+        for (int type = parser.next(); type != XmlPullParser.END_DOCUMENT; type = parser.next()) {
+            events++;
+            sink += type;
+        }
+
+        return events + 1;
+    }
+
+    private static long binaryCursorEvents() throws Exception {
+        long events = 0;
+
+        try (final TagCursor cursor = XmlParser.cursorResource(binary())) {
+            while (cursor.advance()) {
+                events++;
+                sink += cursor.getType();
+            }
+        }
+
+        return events;
+    }
+
+    private static long cursorAttributes() throws Exception {
+        final XmlPullParser parser = kxml();
+        long attributes = 0;
+
+        try (final TagCursor cursor = XmlParser.cursorPull(parser)) {
+            while (cursor.advance()) {
+                if (cursor.tag().asStartTag() != null) {
+                    attributes += parser.getAttributeCount();
+                }
+            }
+        }
+
+        return attributes;
+    }
+
+    private static long readerAttributes() throws Exception {
+        long attributes = 0;
+
+        try (final TagCursor cursor = XmlParser.cursorPull(kxml())) {
+            while (cursor.advance()) {
+                final StartTag tag = cursor.tag().asStartTag();
+
+                if (tag != null) {
+                    for (final Attribute attribute : tag.getAttributeReader(AttributeReader.class)) {
+                        attributes++;
+                        sink += attribute.getNameId() + attribute.getValue().length();
+                    }
+                }
+            }
+        }
+
+        return attributes;
+    }
+
+    private static long binaryAttributes() throws Exception {
+        final BinaryXmlParser parser = binary();
+        long attributes = 0;
+
+        try (final TagCursor cursor = XmlParser.cursorResource(parser)) {
+            while (cursor.advance()) {
+                if (cursor.tag().asStartTag() != null) {
+                    attributes += parser.getAttributeCount();
+                }
+            }
+        }
+
+        return attributes;
+    }
+
+    private static long resourceReaderAttributes() throws Exception {
+        long attributes = 0;
+
+        try (final TagCursor cursor = XmlParser.cursorResource(binary())) {
+            while (cursor.advance()) {
+                final StartTag tag = cursor.tag().asStartTag();
+
+                if (tag != null) {
+                    for (final ResourceAttribute attribute : tag.getAttributeReader(ResourceAttributeReader.class)) {
+                        attributes++;
+                        sink += attribute.getNameResource() + attribute.getResourceValue(0);
+                    }
+                }
+            }
+        }
+
+        return attributes;
+    }
+
+    private static long resourceReaderCounts() throws Exception {
+        long elements = 0;
+
+        try (final TagCursor cursor = XmlParser.cursorResource(binary())) {
+            while (cursor.advance()) {
+                final StartTag tag = cursor.tag().asStartTag();
+
+                if (tag != null) {
+                    elements++;
+                    sink += tag.getAttributeReader(ResourceAttributeReader.class).count();
+                }
+            }
+        }
+
+        return elements;
+    }
+
+    private static long resourceReaderObtains() throws Exception {
+        long elements = 0;
+
+        try (final TagCursor cursor = XmlParser.cursorResource(binary())) {
+            while (cursor.advance()) {
+                final StartTag tag = cursor.tag().asStartTag();
+
+                if (tag != null) {
+                    elements++;
+                    sink += tag.getAttributeReader(ResourceAttributeReader.class).obtainAttributes(MENU_ATTRS, TYPES, DATA, RESOURCE_IDS);
+                }
+            }
+        }
+
+        return elements;
+    }
+
+    private static long cornersWith() {
+        final CornerAttribute attribute = CornerAttribute.none();
+
+        for (int i = 0; i < CALLS; ++i) {
+            sink += attribute.with(i % 2 == 0 ? TOP_LEFT : BOTTOM_RIGHT).getValue();
+        }
+
+        return CALLS;
+    }
+
+    private static long cornersWithout() {
+        final CornerAttribute attribute = CornerAttribute.all();
+
+        for (int i = 0; i < CALLS; ++i) {
+            sink += attribute.without(i % 2 == 0 ? TOP_RIGHT : BOTTOM_LEFT).getValue();
+        }
+
+        return CALLS;
+    }
+
+    private static long cornersCount() {
+        final CornerAttribute attribute = CornerAttribute.all().without(BOTTOM_LEFT);
+
+        for (int i = 0; i < CALLS; ++i) {
+            sink += attribute.count();
+        }
+
+        return CALLS;
+    }
+
+    private static XmlPullParser kxml() throws XmlPullParserException {
+        final KXmlParser parser = new KXmlParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(new ByteArrayInputStream(MENU), "UTF-8");
+
+        return parser;
+    }
+
+    private static BinaryXmlParser binary() throws XmlPullParserException {
+        final BinaryXmlParser parser = new BinaryXmlParser();
+
+        parser.setInput(ByteBuffer.wrap(BINARY_MENU));
+
+        return parser;
+    }
+
+    private static int[] attrs(
+            final byte[] document,
+            final String... names
+    ) {
+        final int[] attrs = new int[names.length];
+
+        try {
+            for (int i = 0; i < names.length; ++i) {
+                attrs[i] = BinaryXml.attributeId(document, Documents.ANDROID_NAMESPACE, names[i]);
+            }
+        } catch (final XmlPullParserException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+
+        Arrays.sort(attrs);
+
+        return attrs;
+    }
+
+    private static byte[] compile(final byte[] document) {
+        try {
+            return BinaryXml.compile(document);
+        } catch (final XmlPullParserException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
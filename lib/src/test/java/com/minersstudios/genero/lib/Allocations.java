@@ -0,0 +1,126 @@
+package com.minersstudios.genero.lib;
+
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.lang.management.ManagementFactory;
+import java.util.Locale;
+import java.util.Properties;
+
+/**
+ * Measures the allocations of the hot paths of the library and checks them
+ * against their budgets in {@code allocation-budgets.properties}.
+ * <p>
+ * Every path is run until it is compiled, and then measured with the
+ * allocated bytes counter of the current thread, in bytes per unit of work.
+ * Where a path runs on top of something else, like a pull parser, the
+ * allocations of a baseline without the measured layer are subtracted, so
+ * the budgets do not depend on what is underneath.
+ * <p>
+ * Lower a budget when a path gets cheaper, so the gain is kept.
+ */
+public final class Allocations {
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int MEASURED_ROUNDS = 5;
+    private static final int OPERATIONS = 200;
+    private static final String BUDGETS = "/allocation-budgets.properties";
+
+    private static final com.sun.management.ThreadMXBean THREADS =
+            (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+    private static Properties budgets;
+
+    private Allocations() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Measures the work and fails if it allocates more bytes per unit than
+     * the budget of the path
+     *
+     * @param path     The name of the path in the budgets
+     * @param baseline The work without the measured layer or null
+     * @param work     The work of the path
+     * @throws Exception If the work fails
+     */
+    public static void assertWithinBudget(
+            final String path,
+            final Work baseline,
+            final Work work
+    ) throws Exception {
+        final String budget = budgets().getProperty(path);
+
+        assertNotNull("No allocation budget for " + path, budget);
+
+        final double bytes =
+                baseline == null
+                ? bytesPerUnit(work)
+                : Math.max(0.0, bytesPerUnit(work) - bytesPerUnit(baseline));
+        final String report = String.format(Locale.ROOT, "%s allocates %.2f B/unit, budget %s", path, bytes, budget.trim());
+
+        System.out.println(report);
+        assertTrue(report, bytes <= Double.parseDouble(budget.trim()));
+    }
+
+    /**
+     * Returns the fewest bytes per unit the work allocated in any of the
+     * measured rounds
+     */
+    private static double bytesPerUnit(final Work work) throws Exception {
+        assertTrue(
+                "Allocated bytes counters are not supported by this JVM",
+                THREADS.isThreadAllocatedMemorySupported()
+        );
+        THREADS.setThreadAllocatedMemoryEnabled(true);
+
+        final long thread = Thread.currentThread().getId();
+
+        for (int i = 0; i < WARMUP_ROUNDS * OPERATIONS; ++i) {
+            work.run();
+        }
+
+        double min = Double.MAX_VALUE;
+
+        for (int round = 0; round < MEASURED_ROUNDS; ++round) {
+            long units = 0;
+            final long start = THREADS.getThreadAllocatedBytes(thread);
+
+            for (int i = 0; i < OPERATIONS; ++i) {
+                units += work.run();
+            }
+
+            min = Math.min(min, (double) (THREADS.getThreadAllocatedBytes(thread) - start) / units);
+        }
+
+        return min;
+    }
+
+    private static synchronized Properties budgets() {
+        if (budgets == null) {
+            final Properties properties = new Properties();
+
+            try (final InputStream in = Allocations.class.getResourceAsStream(BUDGETS)) {
+                assertNotNull("Missing " + BUDGETS, in);
+                properties.load(in);
+            } catch (final IOException e) {
+                throw new UncheckedIOException(e);
+            }
+
+            budgets = properties;
+        }
+
+        return budgets;
+    }
+
+    /**
+     * Work that returns the number of units it did
+     */
+    @FunctionalInterface
+    public interface Work {
+
+        long run() throws Exception;
+    }
+}
@@ -0,0 +1,62 @@
+package com.minersstudios.genero.lib.ui.button;
+
+import android.content.Context;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.Color;
+import android.view.ContextThemeWrapper;
+import android.view.View.MeasureSpec;
+
+import com.google.android.material.R;
+import com.minersstudios.genero.lib.Allocations;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Config(sdk = 34)
+public class ActionButtonDrawTest {
+    private static final float ICON_SIZE = 48.0f;
+    private static final int DRAWS = 100;
+
+    @Test
+    public void drawStaysWithinBudget() throws Exception {
+        final Context context = new ContextThemeWrapper(
+                RuntimeEnvironment.getApplication(),
+                R.style.Theme_MaterialComponents_DayNight_NoActionBar
+        );
+        final ActionButton button = new ActionButton(context);
+
+        button.setIcon(android.R.drawable.ic_menu_add, ICON_SIZE, Color.WHITE);
+        button.measure(
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED)
+        );
+        button.layout(0, 0, button.getMeasuredWidth(), button.getMeasuredHeight());
+
+        final Canvas canvas = new Canvas(
+                Bitmap.createBitmap(
+                        button.getMeasuredWidth(),
+                        button.getMeasuredHeight(),
+                        Bitmap.Config.ARGB_8888
+                )
+        );
+
+        Allocations.assertWithinBudget(
+                "ui.action.button.draw",
+                null,
+                () -> {
+                    for (int i = 0; i < DRAWS; ++i) {
+                        button.onDraw(canvas);
+                    }
+
+                    return DRAWS;
+                }
+        );
+    }
+}
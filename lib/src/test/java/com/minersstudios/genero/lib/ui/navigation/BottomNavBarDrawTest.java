@@ -0,0 +1,137 @@
+package com.minersstudios.genero.lib.ui.navigation;
+
+import android.content.Context;
+import android.content.ContextWrapper;
+import android.content.res.Resources;
+import android.content.res.XmlResourceParser;
+import android.graphics.Bitmap;
+import android.graphics.Canvas;
+import android.graphics.drawable.Drawable;
+import android.view.ContextThemeWrapper;
+import android.view.View.MeasureSpec;
+
+import com.google.android.material.R;
+import com.minersstudios.genero.lib.Allocations;
+import com.minersstudios.genero.lib.xml.BinaryXml;
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.Documents;
+
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.RuntimeEnvironment;
+import org.robolectric.annotation.Config;
+import org.robolectric.annotation.GraphicsMode;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+@RunWith(RobolectricTestRunner.class)
+@GraphicsMode(GraphicsMode.Mode.NATIVE)
+@Config(sdk = 34)
+public class BottomNavBarDrawTest {
+    // Not a resource of the library, the menu is compiled by the test
+    private static final int MENU_RES = 0x7F0F0000;
+    private static final String MENU =
+            "<menu xmlns:android=\"" + Documents.ANDROID_NAMESPACE + "\">"
+            + "<item android:id=\"@+id/first\" android:title=\"First\" android:icon=\"@drawable/icon\"/>"
+            + "<item android:id=\"@+id/second\" android:title=\"Second\" android:icon=\"@drawable/icon\"/>"
+            + "<item android:id=\"@+id/third\" android:title=\"Third\" android:icon=\"@drawable/icon\"/>"
+            + "</menu>";
+    private static final int WIDTH = 1080;
+    private static final int DRAWS = 100;
+
+    @Test
+    public void drawStaysWithinBudget() throws Exception {
+        final Context application = RuntimeEnvironment.getApplication();
+        final Resources resources = new MenuResources(application.getResources(), BinaryXml.compile(MENU.getBytes(StandardCharsets.UTF_8)));
+        final Context context = new ContextThemeWrapper(
+                new ContextWrapper(application) {
+
+                    @Override
+                    public Resources getResources() {
+                        return resources;
+                    }
+                },
+                R.style.Theme_MaterialComponents_DayNight_NoActionBar
+        );
+
+        final BottomNavBar bar = new BottomNavBar(context);
+
+        bar.setMenuRes(MENU_RES);
+        bar.measure(
+                MeasureSpec.makeMeasureSpec(WIDTH, MeasureSpec.EXACTLY),
+                MeasureSpec.makeMeasureSpec(0, MeasureSpec.UNSPECIFIED)
+        );
+        bar.layout(0, 0, bar.getMeasuredWidth(), bar.getMeasuredHeight());
+
+        final Canvas canvas = new Canvas(
+                Bitmap.createBitmap(
+                        bar.getMeasuredWidth(),
+                        bar.getMeasuredHeight(),
+                        Bitmap.Config.ARGB_8888
+                )
+        );
+
+        Allocations.assertWithinBudget(
+                "ui.bottom.nav.bar.draw",
+                null,
+                () -> {
+                    for (int i = 0; i < DRAWS; ++i) {
+                        bar.onDraw(canvas);
+                    }
+
+                    return DRAWS;
+                }
+        );
+    }
+
+    /**
+     * Resources that serve the compiled test menu as {@link #MENU_RES}, and a
+     * framework icon for the made up drawable references of the menu
+     */
+    @SuppressWarnings("deprecation")
+    private static final class MenuResources extends Resources {
+        private final byte[] menu;
+
+        MenuResources(
+                final Resources base,
+                final byte[] menu
+        ) {
+            super(base.getAssets(), base.getDisplayMetrics(), base.getConfiguration());
+
+            this.menu = menu;
+        }
+
+        @Override
+        public XmlResourceParser getXml(final int id) throws NotFoundException {
+            if (id != MENU_RES) {
+                return super.getXml(id);
+            }
+
+            final BinaryXmlParser parser = new BinaryXmlParser();
+
+            try {
+                parser.setInput(ByteBuffer.wrap(this.menu));
+            } catch (final XmlPullParserException e) {
+                throw new IllegalStateException(e);
+            }
+
+            return parser;
+        }
+
+        @Override
+        public Drawable getDrawable(
+                final int id,
+                final Theme theme
+        ) throws NotFoundException {
+            return super.getDrawable(
+                    id >>> 24 == 0x7F
+                    ? android.R.drawable.ic_menu_add
+                    : id,
+                    theme
+            );
+        }
+    }
+}
@@ -0,0 +1,438 @@
+package com.minersstudios.genero.lib.xml;
+
+import static com.minersstudios.genero.lib.xml.Documents.ANDROID_NAMESPACE;
+import static com.minersstudios.genero.lib.xml.Documents.APP_NAMESPACE;
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+import static org.xmlpull.v1.XmlPullParser.TEXT;
+
+import org.kxml2.io.KXmlParser;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeSet;
+
+/**
+ * Compiles text documents to binary XML, the way the resource compiler
+ * compiles XML resources, for the tests and the benchmarks.
+ * <p>
+ * Attributes in the {@code android} and {@code app} namespaces get
+ * attribute resource ids, in the order of their names, and the attributes
+ * of every element are sorted by them. The values of those attributes are
+ * compiled to references, booleans, integers, colors and dimensions where
+ * possible, as the resource compiler would do with the matching attribute
+ * formats. References are given made up resource ids.
+ */
+public final class BinaryXml {
+    public static final int ANDROID_ATTRIBUTES = 0x01010000;
+    public static final int APP_ATTRIBUTES = 0x7F010000;
+
+    private static final int RES_XML_TYPE = 0x0003;
+    private static final int RES_STRING_POOL_TYPE = 0x0001;
+    private static final int RES_XML_START_NAMESPACE_TYPE = 0x0100;
+    private static final int RES_XML_END_NAMESPACE_TYPE = 0x0101;
+    private static final int RES_XML_START_ELEMENT_TYPE = 0x0102;
+    private static final int RES_XML_END_ELEMENT_TYPE = 0x0103;
+    private static final int RES_XML_CDATA_TYPE = 0x0104;
+    private static final int RES_XML_RESOURCE_MAP_TYPE = 0x0180;
+
+    private static final int TYPE_REFERENCE = 0x01;
+    private static final int TYPE_STRING = 0x03;
+    private static final int TYPE_DIMENSION = 0x05;
+    private static final int TYPE_INT_DEC = 0x10;
+    private static final int TYPE_INT_BOOLEAN = 0x12;
+    private static final int TYPE_INT_COLOR_ARGB8 = 0x1C;
+    private static final int TYPE_INT_COLOR_RGB8 = 0x1D;
+    private static final int COMPLEX_UNIT_DIP = 1;
+
+    private final List<String> strings = new ArrayList<>();
+    private final Map<String, Integer> stringIndices = new HashMap<>();
+    private final Map<String, Integer> references = new HashMap<>();
+    private final Map<String, Integer> attributes = new HashMap<>();
+    private final int[] resourceMap;
+
+    private BinaryXml(final TreeSet<String> resourceNames) {
+        this.resourceMap = new int[resourceNames.size()];
+
+        int android = 0;
+        int app = 0;
+        int i = 0;
+
+        for (final String key : resourceNames) {
+            final int id =
+                    key.startsWith(ANDROID_NAMESPACE)
+                    ? ANDROID_ATTRIBUTES + android++
+                    : APP_ATTRIBUTES + app++;
+
+            this.attributes.put(key, id);
+            this.resourceMap[i++] = id;
+            this.string(key.substring(key.indexOf(' ') + 1));
+        }
+    }
+
+    /**
+     * Returns the attribute resource id the compiled documents use for the
+     * given attribute
+     *
+     * @param document  The text document the attribute is in
+     * @param namespace The namespace of the attribute
+     * @param name      The name of the attribute
+     * @return The attribute resource id or 0 if the document does not have
+     *         the attribute
+     */
+    public static int attributeId(
+            final byte[] document,
+            final String namespace,
+            final String name
+    ) throws XmlPullParserException, IOException {
+        final Integer id = new BinaryXml(resourceNames(document)).attributes.get(namespace + ' ' + name);
+
+        return id == null ? 0 : id;
+    }
+
+    /**
+     * Compiles a UTF-8 text document to binary XML
+     *
+     * @param document The UTF-8 bytes of the text document
+     * @return The bytes of the binary document
+     */
+    public static byte[] compile(final byte[] document) throws XmlPullParserException, IOException {
+        return new BinaryXml(resourceNames(document)).write(document);
+    }
+
+    private byte[] write(final byte[] document) throws XmlPullParserException, IOException {
+        final XmlPullParser parser = parser(document);
+        final Chunk nodes = new Chunk();
+        final ArrayDeque<int[]> namespaces = new ArrayDeque<>();
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            final int line = parser.getLineNumber();
+
+            if (type == START_TAG) {
+                final int depth = parser.getDepth();
+                final int from = parser.getNamespaceCount(depth - 1);
+                final int to = parser.getNamespaceCount(depth);
+                final int[] declared = new int[(to - from) * 2];
+
+                for (int i = from, j = 0; i < to; ++i, j += 2) {
+                    declared[j] = this.string(parser.getNamespacePrefix(i));
+                    declared[j + 1] = this.string(parser.getNamespaceUri(i));
+
+                    nodes.header(RES_XML_START_NAMESPACE_TYPE, 16, 24, line);
+                    nodes.putInt(declared[j]);
+                    nodes.putInt(declared[j + 1]);
+                }
+
+                namespaces.push(declared);
+                this.writeStart(parser, nodes, line);
+            } else if (type == END_TAG) {
+                nodes.header(RES_XML_END_ELEMENT_TYPE, 16, 24, line);
+                nodes.putInt(this.namespace(parser.getNamespace()));
+                nodes.putInt(this.string(parser.getName()));
+
+                final int[] declared = namespaces.pop();
+
+                for (int j = declared.length - 2; j >= 0; j -= 2) {
+                    nodes.header(RES_XML_END_NAMESPACE_TYPE, 16, 24, line);
+                    nodes.putInt(declared[j]);
+                    nodes.putInt(declared[j + 1]);
+                }
+            } else if (
+                    type == TEXT
+                    && !parser.isWhitespace()
+            ) {
+                nodes.header(RES_XML_CDATA_TYPE, 16, 28, line);
+                nodes.putInt(this.string(parser.getText()));
+                nodes.putValue(0, 0);
+            }
+        }
+
+        final Chunk map = new Chunk();
+
+        map.putShort(RES_XML_RESOURCE_MAP_TYPE);
+        map.putShort(8);
+        map.putInt(8 + 4 * this.resourceMap.length);
+
+        for (final int id : this.resourceMap) {
+            map.putInt(id);
+        }
+
+        final Chunk pool = this.writePool();
+        final Chunk xml = new Chunk();
+
+        xml.putShort(RES_XML_TYPE);
+        xml.putShort(8);
+        xml.putInt(8 + pool.size() + map.size() + nodes.size());
+        pool.writeTo(xml);
+        map.writeTo(xml);
+        nodes.writeTo(xml);
+
+        return xml.toByteArray();
+    }
+
+    private void writeStart(
+            final XmlPullParser parser,
+            final Chunk nodes,
+            final int line
+    ) {
+        final int count = parser.getAttributeCount();
+        final Integer[] order = new Integer[count];
+        final int[] ids = new int[count];
+        int idIndex = 0;
+        int classIndex = 0;
+        int styleIndex = 0;
+
+        for (int i = 0; i < count; ++i) {
+            final Integer id = this.attributes.get(parser.getAttributeNamespace(i) + ' ' + parser.getAttributeName(i));
+
+            order[i] = i;
+            ids[i] = id == null ? Integer.MAX_VALUE : id;
+        }
+
+        Arrays.sort(order, Comparator.comparingInt(i -> ids[i]));
+
+        nodes.header(RES_XML_START_ELEMENT_TYPE, 16, 36 + 20 * count, line);
+        nodes.putInt(this.namespace(parser.getNamespace()));
+        nodes.putInt(this.string(parser.getName()));
+
+        for (int i = 0; i < count; ++i) {
+            if (parser.getAttributeNamespace(order[i]).isEmpty()) {
+                switch (parser.getAttributeName(order[i])) {
+                    case "id":
+                        idIndex = i + 1;
+                        break;
+                    case "class":
+                        classIndex = i + 1;
+                        break;
+                    case "style":
+                        styleIndex = i + 1;
+                        break;
+                }
+            }
+        }
+
+        nodes.putShort(20);
+        nodes.putShort(20);
+        nodes.putShort(count);
+        nodes.putShort(idIndex);
+        nodes.putShort(classIndex);
+        nodes.putShort(styleIndex);
+
+        for (int i = 0; i < count; ++i) {
+            final int index = order[i];
+            final String value = parser.getAttributeValue(index);
+
+            nodes.putInt(this.namespace(parser.getAttributeNamespace(index)));
+            nodes.putInt(this.string(parser.getAttributeName(index)));
+
+            if (ids[index] == Integer.MAX_VALUE) {
+                final int string = this.string(value);
+
+                nodes.putInt(string);
+                nodes.putValue(TYPE_STRING, string);
+            } else {
+                this.writeTyped(nodes, value);
+            }
+        }
+    }
+
+    private void writeTyped(
+            final Chunk nodes,
+            final String value
+    ) {
+        final int length = value.length();
+
+        if (value.startsWith("@")) {
+            final String key = value.replace("@+", "@");
+            Integer id = this.references.get(key);
+
+            if (id == null) {
+                id = 0x7F020000 + this.references.size();
+
+                this.references.put(key, id);
+            }
+
+            nodes.putInt(-1);
+            nodes.putValue(TYPE_REFERENCE, id);
+        } else if (
+                "true".equals(value)
+                || "false".equals(value)
+        ) {
+            nodes.putInt(-1);
+            nodes.putValue(TYPE_INT_BOOLEAN, "true".equals(value) ? -1 : 0);
+        } else if (value.matches("-?[0-9]+")) {
+            nodes.putInt(-1);
+            nodes.putValue(TYPE_INT_DEC, Integer.parseInt(value));
+        } else if (value.matches("#[0-9a-fA-F]{6}|#[0-9a-fA-F]{8}")) {
+            nodes.putInt(-1);
+            nodes.putValue(
+                    length == 7 ? TYPE_INT_COLOR_RGB8 : TYPE_INT_COLOR_ARGB8,
+                    (int) Long.parseLong(value.substring(1), 16) | (length == 7 ? 0xFF000000 : 0)
+            );
+        } else if (value.matches("[0-9]+dp")) {
+            nodes.putInt(-1);
+            nodes.putValue(TYPE_DIMENSION, Integer.parseInt(value.substring(0, length - 2)) << 8 | COMPLEX_UNIT_DIP);
+        } else {
+            final int string = this.string(value);
+
+            nodes.putInt(string);
+            nodes.putValue(TYPE_STRING, string);
+        }
+    }
+
+    private Chunk writePool() {
+        final int count = this.strings.size();
+        final Chunk data = new Chunk();
+        final int[] offsets = new int[count];
+
+        for (int i = 0; i < count; ++i) {
+            final String string = this.strings.get(i);
+            final int length = string.length();
+
+            offsets[i] = data.size();
+
+            if (length > 0x7FFF) {
+                data.putShort(0x8000 | length >>> 16);
+            }
+
+            data.putShort(length & (length > 0x7FFF ? 0xFFFF : 0x7FFF));
+
+            for (int j = 0; j < length; ++j) {
+                data.putShort(string.charAt(j));
+            }
+
+            data.putShort(0);
+        }
+
+        while (data.size() % 4 != 0) {
+            data.write(0);
+        }
+
+        final Chunk pool = new Chunk();
+        final int stringsStart = 28 + 4 * count;
+
+        pool.putShort(RES_STRING_POOL_TYPE);
+        pool.putShort(28);
+        pool.putInt(stringsStart + data.size());
+        pool.putInt(count);
+        pool.putInt(0);
+        pool.putInt(0);
+        pool.putInt(stringsStart);
+        pool.putInt(0);
+
+        for (final int offset : offsets) {
+            pool.putInt(offset);
+        }
+
+        data.writeTo(pool);
+
+        return pool;
+    }
+
+    private int namespace(final String namespace) {
+        return namespace.isEmpty() ? -1 : this.string(namespace);
+    }
+
+    private int string(final String string) {
+        Integer index = this.stringIndices.get(string);
+
+        if (index == null) {
+            index = this.strings.size();
+
+            this.strings.add(string);
+            this.stringIndices.put(string, index);
+        }
+
+        return index;
+    }
+
+    /**
+     * Collects the namespaces and names of all attributes in the
+     * {@code android} and {@code app} namespaces, as keys of the form
+     * {@code "namespace name"}
+     */
+    private static TreeSet<String> resourceNames(final byte[] document) throws XmlPullParserException, IOException {
+        final XmlPullParser parser = parser(document);
+        final TreeSet<String> names = new TreeSet<>();
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            if (type == START_TAG) {
+                for (int i = 0, count = parser.getAttributeCount(); i < count; ++i) {
+                    final String namespace = parser.getAttributeNamespace(i);
+
+                    if (
+                            ANDROID_NAMESPACE.equals(namespace)
+                            || APP_NAMESPACE.equals(namespace)
+                    ) {
+                        names.add(namespace + ' ' + parser.getAttributeName(i));
+                    }
+                }
+            }
+        }
+
+        return names;
+    }
+
+    private static XmlPullParser parser(final byte[] document) throws XmlPullParserException {
+        final KXmlParser parser = new KXmlParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(new ByteArrayInputStream(document), "UTF-8");
+
+        return parser;
+    }
+
+    /**
+     * Little-endian chunk writer
+     */
+    private static final class Chunk extends ByteArrayOutputStream {
+
+        void putShort(final int value) {
+            this.write(value);
+            this.write(value >>> 8);
+        }
+
+        void putInt(final int value) {
+            this.putShort(value);
+            this.putShort(value >>> 16);
+        }
+
+        void putValue(
+                final int type,
+                final int data
+        ) {
+            this.putShort(8);
+            this.write(0);
+            this.write(type);
+            this.putInt(data);
+        }
+
+        void header(
+                final int type,
+                final int headerSize,
+                final int size,
+                final int line
+        ) {
+            this.putShort(type);
+            this.putShort(headerSize);
+            this.putInt(size);
+            this.putInt(line);
+            this.putInt(-1);
+        }
+
+        void writeTo(final Chunk chunk) {
+            chunk.write(this.buf, 0, this.count);
+        }
+    }
+}
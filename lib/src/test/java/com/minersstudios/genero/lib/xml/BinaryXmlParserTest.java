@@ -0,0 +1,247 @@
+package com.minersstudios.genero.lib.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+import static org.xmlpull.v1.XmlPullParser.TEXT;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+public class BinaryXmlParserTest {
+    private static final int CORRUPT_RUNS = 20_000;
+    private static final byte[] TYPED = Events.utf8(
+            "<menu xmlns:android=\"" + Documents.ANDROID_NAMESPACE + "\" xmlns:app=\"" + Documents.APP_NAMESPACE + "\">" +
+            "<item android:id=\"@+id/item\" android:checkable=\"true\" android:orderInCategory=\"42\"" +
+            " app:buttonIconSize=\"24dp\" app:buttonIconTint=\"#FF336699\" app:buttonHandler=\"com.example.Handler\"" +
+            " id=\"plain\" label=\"Label\">text</item>" +
+            "</menu>"
+    );
+
+    @Test
+    public void matchesKxmlOnCatalog() throws XmlPullParserException, IOException {
+        final byte[] document = Documents.catalog(64 * 1024);
+        final List<String> expected = new ArrayList<>();
+
+        // The compiler drops the whitespace between the elements
+        for (final String event : Events.of(Events.kxml(document), false)) {
+            if (!event.matches("TEXT \\d+ \"\\s*\"")) {
+                expected.add(event);
+            }
+        }
+
+        assertEquals(expected, Events.of(parser(BinaryXml.compile(document)), false));
+    }
+
+    @Test
+    public void matchesKxmlStructureOnMenu() throws XmlPullParserException, IOException {
+        final byte[] document = Documents.menu(16 * 1024);
+
+        assertEquals(structure(Events.kxml(document)), structure(parser(BinaryXml.compile(document))));
+    }
+
+    @Test
+    public void readsTypedValues() throws XmlPullParserException, IOException {
+        final BinaryXmlParser parser = parser(BinaryXml.compile(TYPED));
+
+        assertEquals(START_TAG, parser.nextTag());
+        assertEquals(START_TAG, parser.nextTag());
+        assertEquals("item", parser.getName());
+
+        final String android = Documents.ANDROID_NAMESPACE;
+        final String app = Documents.APP_NAMESPACE;
+
+        assertTrue(parser.getAttributeBooleanValue(android, "checkable", false));
+        assertEquals(42, parser.getAttributeIntValue(android, "orderInCategory", 0));
+        assertEquals(0xFF336699, parser.getAttributeIntValue(app, "buttonIconTint", 0));
+        assertEquals(0x7F020000, parser.getAttributeResourceValue(android, "id", 0));
+        assertEquals("com.example.Handler", parser.getAttributeValue(app, "buttonHandler"));
+        assertEquals("24.0dip", parser.getAttributeValue(app, "buttonIconSize"));
+        assertEquals("plain", parser.getIdAttribute());
+        assertEquals("Label", parser.getAttributeValue(null, "label"));
+        assertNull(parser.getAttributeValue(null, "missing"));
+
+        // Defaults are returned for values of other types
+        assertFalse(parser.getAttributeBooleanValue(app, "buttonHandler", false));
+        assertEquals(-1, parser.getAttributeResourceValue(android, "orderInCategory", -1));
+        assertEquals(-1, parser.getAttributeIntValue(null, "label", -1));
+
+        assertEquals(
+                BinaryXml.attributeId(TYPED, android, "checkable"),
+                parser.getAttributeNameResource(indexOf(parser, android, "checkable"))
+        );
+        assertEquals(0, parser.getAttributeNameResource(indexOf(parser, "", "label")));
+
+        assertEquals(TEXT, parser.next());
+        assertEquals("text", parser.getText());
+    }
+
+    @Test
+    public void readsLineNumbers() throws XmlPullParserException, IOException {
+        final BinaryXmlParser parser = parser(BinaryXml.compile(Events.utf8("<a>\n\n<b/>\n</a>")));
+
+        assertEquals(START_TAG, parser.nextTag());
+        assertEquals(1, parser.getLineNumber());
+        assertEquals(START_TAG, parser.nextTag());
+        assertEquals(3, parser.getLineNumber());
+    }
+
+    @Test
+    public void rejectsTextDocument() {
+        assertThrows(
+                XmlPullParserException.class,
+                () -> new BinaryXmlParser().setInput(ByteBuffer.wrap(Events.utf8("<a/>")))
+        );
+    }
+
+    @Test
+    public void rejectsAttributeIndexOutOfBounds() throws XmlPullParserException, IOException {
+        final BinaryXmlParser parser = parser(BinaryXml.compile(Events.utf8("<a b=\"c\"/>")));
+
+        parser.nextTag();
+
+        assertThrows(IndexOutOfBoundsException.class, () -> parser.getAttributeValue(1));
+    }
+
+    @Test
+    public void reportsCorruptDocumentsAsParserExceptions() throws XmlPullParserException, IOException {
+        final byte[] document = BinaryXml.compile(Documents.menu(2 * 1024));
+        final Random random = new Random(42L);
+
+        for (int run = 0; run < CORRUPT_RUNS; ++run) {
+            final byte[] corrupt = document.clone();
+
+            for (int i = 0, bytes = 1 + random.nextInt(4); i < bytes; ++i) {
+                corrupt[random.nextInt(corrupt.length)] = (byte) random.nextInt(256);
+            }
+
+            try {
+                readEverything(parser(corrupt));
+            } catch (final XmlPullParserException ignored) {
+                // Corrupt input must only ever be reported this way
+            } catch (final RuntimeException | Error e) {
+                throw new AssertionError("Run " + run + " failed with " + e, e);
+            }
+        }
+    }
+
+    /**
+     * Renders the events without the attribute values, with the attributes
+     * sorted by name, since the compiler sorts them by their resource ids and
+     * compiles their values
+     */
+    private static List<String> structure(final XmlPullParser parser) throws XmlPullParserException, IOException {
+        final List<String> events = new ArrayList<>();
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            if (
+                    type == TEXT
+                    && parser.isWhitespace()
+            ) {
+                continue;
+            }
+
+            final StringBuilder builder = new StringBuilder();
+
+            builder.append(XmlPullParser.TYPES[type]).append(' ').append(parser.getDepth());
+
+            if (type == START_TAG) {
+                final List<String> attributes = new ArrayList<>();
+
+                for (int i = 0, count = parser.getAttributeCount(); i < count; ++i) {
+                    attributes.add('{' + parser.getAttributeNamespace(i) + '}' + parser.getAttributeName(i));
+                }
+
+                Collections.sort(attributes);
+                builder.append(" {").append(parser.getNamespace()).append('}').append(parser.getName()).append(' ').append(attributes);
+            }
+
+            events.add(builder.toString());
+        }
+
+        return events;
+    }
+
+    /**
+     * Parses the whole document and calls every getter of every event
+     */
+    private static void readEverything(final BinaryXmlParser parser) throws XmlPullParserException {
+        final String[] options = {"never", "ifRoom"};
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            final int depth = parser.getDepth();
+
+            parser.getName();
+            parser.getNamespace();
+            parser.getPrefix();
+            parser.getText();
+            parser.isWhitespace();
+
+            for (int i = 0, count = parser.getNamespaceCount(depth); i < count; ++i) {
+                parser.getNamespacePrefix(i);
+                parser.getNamespaceUri(i);
+            }
+
+            if (type != START_TAG) {
+                continue;
+            }
+
+            parser.getIdAttribute();
+            parser.getClassAttribute();
+            parser.getStyleAttribute();
+            parser.getIdAttributeResourceValue(0);
+
+            for (int i = 0, count = parser.getAttributeCount(); i < count; ++i) {
+                parser.getAttributeNamespace(i);
+                parser.getAttributeName(i);
+                parser.getAttributePrefix(i);
+                parser.getAttributeValue(i);
+                parser.getAttributeNameResource(i);
+                parser.getAttributeDataType(i);
+                parser.getAttributeData(i);
+                parser.getAttributeListValue(i, options, 0);
+                parser.getAttributeBooleanValue(i, false);
+                parser.getAttributeResourceValue(i, 0);
+                parser.getAttributeIntValue(i, 0);
+                parser.getAttributeFloatValue(i, 0.0f);
+            }
+        }
+    }
+
+    private static int indexOf(
+            final XmlPullParser parser,
+            final String namespace,
+            final String name
+    ) {
+        for (int i = 0, count = parser.getAttributeCount(); i < count; ++i) {
+            if (
+                    namespace.equals(parser.getAttributeNamespace(i))
+                    && name.equals(parser.getAttributeName(i))
+            ) {
+                return i;
+            }
+        }
+
+        return -1;
+    }
+
+    private static BinaryXmlParser parser(final byte[] document) throws XmlPullParserException {
+        final BinaryXmlParser parser = new BinaryXmlParser();
+
+        parser.setInput(ByteBuffer.wrap(document));
+
+        return parser;
+    }
+}
@@ -0,0 +1,134 @@
+package com.minersstudios.genero.lib.xml;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.Random;
+
+/**
+ * Synthetic XML documents for the tests and the benchmarks.
+ * <p>
+ * The documents are generated from a fixed seed, so every run parses the
+ * same bytes.
+ */
+public final class Documents {
+    public static final String ANDROID_NAMESPACE = "http://schemas.android.com/apk/res/android";
+    public static final String APP_NAMESPACE = "http://schemas.android.com/apk/res-auto";
+
+    private static final long SEED = 42L;
+    private static final String[] ACTIONS = {
+            "never", "ifRoom", "always", "withText", "collapseActionView"
+    };
+    private static final String[] GENRES = {
+            "Computer", "Fantasy", "Romance", "Horror", "Science Fiction"
+    };
+    private static final String[] WORDS = {
+            "an", "in-depth", "look", "at", "creating", "applications", "with",
+            "XML", "&amp;", "the", "parser", "caf\u00e9", "na\u00efve",
+            "\u0434\u0430\u043d\u043d\u044b\u0435", "&lt;tag&gt;", "fast"
+    };
+
+    private Documents() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Generates a UTF-8 menu document of about the given size.
+     * <p>
+     * Every item is an empty element with about ten attributes in the
+     * {@code android} and {@code app} namespaces, most of which are
+     * references, colors, dimensions, numbers or booleans, as in the menu
+     * resources of the navigation bar. Every few items are grouped.
+     *
+     * @param size The approximate size of the document in bytes
+     * @return The UTF-8 bytes of the document
+     */
+    public static byte[] menu(final int size) {
+        final Random random = new Random(SEED);
+        final StringBuilder builder = new StringBuilder(size + 1024);
+
+        builder
+                .append("<?xml version=\"1.0\" encoding=\"utf-8\"?>\n<menu xmlns:android=\"").append(ANDROID_NAMESPACE)
+                .append("\"\n    xmlns:app=\"").append(APP_NAMESPACE).append("\">\n");
+
+        int i = 0;
+
+        for (; builder.length() < size; ++i) {
+            if (i % 8 == 0) {
+                builder
+                        .append("  <group android:id=\"@+id/group_").append(i / 8)
+                        .append("\" android:checkableBehavior=\"single\" android:enabled=\"").append(random.nextInt(8) != 0)
+                        .append("\">\n");
+            }
+
+            builder
+                    .append("    <item android:id=\"@+id/item_").append(i)
+                    .append("\" android:title=\"@string/item_").append(i)
+                    .append("\" android:icon=\"@drawable/ic_item_").append(random.nextInt(64))
+                    .append("\" android:orderInCategory=\"").append(random.nextInt(100))
+                    .append("\" android:checkable=\"").append(random.nextBoolean())
+                    .append("\" android:visible=\"").append(random.nextInt(16) != 0)
+                    .append("\" app:showAsAction=\"").append(ACTIONS[random.nextInt(ACTIONS.length)])
+                    .append("\" app:buttonIcon=\"@drawable/ic_button_").append(random.nextInt(16))
+                    .append("\" app:buttonIconSize=\"").append(16 + random.nextInt(4) * 4)
+                    .append("dp\" app:buttonIconTint=\"#FF").append(Integer.toHexString(0x100000 + random.nextInt(0xEFFFFF)).toUpperCase(Locale.ROOT))
+                    .append("\" app:buttonHandler=\"com.example.handler.Item").append(i)
+                    .append("Handler\" />\n");
+
+            if (i % 8 == 7) {
+                builder.append("  </group>\n");
+            }
+        }
+
+        if (i % 8 != 0) {
+            builder.append("  </group>\n");
+        }
+
+        return builder
+                .append("</menu>\n")
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Generates a UTF-8 catalog document of books of about the given size.
+     * <p>
+     * Every book is an element with a few attributes and six child elements
+     * with short text, which is typical for data feeds and catalogs.
+     *
+     * @param size The approximate size of the document in bytes
+     * @return The UTF-8 bytes of the document
+     */
+    public static byte[] catalog(final int size) {
+        final Random random = new Random(SEED);
+        final StringBuilder builder = new StringBuilder(size + 1024);
+
+        builder.append("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<catalog>\n");
+
+        for (int i = 0; builder.length() < size; ++i) {
+            builder
+                    .append("  <book id=\"bk").append(i)
+                    .append("\" lang=\"en\" available=\"").append(random.nextBoolean())
+                    .append("\">\n    <author>Author ").append(random.nextInt(1000))
+                    .append("</author>\n    <title>Title ").append(i)
+                    .append("</title>\n    <genre>").append(GENRES[random.nextInt(GENRES.length)])
+                    .append("</genre>\n    <price currency=\"USD\">").append(random.nextInt(100)).append('.').append(random.nextInt(90) + 10)
+                    .append("</price>\n    <publish_date>20").append(10 + random.nextInt(15)).append("-0").append(1 + random.nextInt(9)).append("-1").append(random.nextInt(10))
+                    .append("</publish_date>\n    <description>");
+
+            for (int j = 0, words = 8 + random.nextInt(24); j < words; ++j) {
+                if (j > 0) {
+                    builder.append(' ');
+                }
+
+                builder.append(WORDS[random.nextInt(WORDS.length)]);
+            }
+
+            builder.append("</description>\n  </book>\n");
+        }
+
+        return builder
+                .append("</catalog>\n")
+                .toString()
+                .getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,140 @@
+package com.minersstudios.genero.lib.xml;
+
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+
+import com.minersstudios.genero.lib.xml.tag.EndTag;
+import com.minersstudios.genero.lib.xml.tag.StartTag;
+import com.minersstudios.genero.lib.xml.tag.TextTag;
+import com.minersstudios.genero.lib.xml.tag.XmlTag;
+import com.minersstudios.genero.lib.xml.tag.attribute.Attribute;
+import com.minersstudios.genero.lib.xml.tag.attribute.reader.AttributeReader;
+
+import org.kxml2.io.KXmlParser;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Renders the events of a parser as strings, so the events of two parsers
+ * can be compared with a single assertion that shows the first difference.
+ */
+public final class Events {
+
+    private Events() throws AssertionError {
+        throw new AssertionError("Utility class");
+    }
+
+    /**
+     * Returns a kXML parser over the given UTF-8 document, with namespace
+     * processing enabled
+     */
+    public static XmlPullParser kxml(final byte[] document) throws XmlPullParserException {
+        final KXmlParser parser = new KXmlParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(new ByteArrayInputStream(document), "UTF-8");
+
+        return parser;
+    }
+
+    public static byte[] utf8(final String document) {
+        return document.getBytes(StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Renders all remaining events of the given parser, read with
+     * {@link XmlPullParser#next()}
+     *
+     * @param parser      The parser to read
+     * @param hasPrefixes Whether the prefixes and the empty element flag
+     *                    should be rendered, the binary parser has neither
+     * @return The rendered events
+     */
+    public static List<String> of(
+            final XmlPullParser parser,
+            final boolean hasPrefixes
+    ) throws XmlPullParserException, IOException {
+        final List<String> events = new ArrayList<>();
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            final StringBuilder builder = new StringBuilder();
+
+            builder.append(XmlPullParser.TYPES[type]).append(' ').append(parser.getDepth());
+
+            if (
+                    type == START_TAG
+                    || type == END_TAG
+            ) {
+                builder.append(" {").append(parser.getNamespace()).append('}');
+
+                if (hasPrefixes) {
+                    builder.append(parser.getPrefix()).append(':');
+                }
+
+                builder.append(parser.getName());
+            }
+
+            if (type == START_TAG) {
+                if (hasPrefixes) {
+                    builder.append(parser.isEmptyElementTag() ? " empty" : "");
+                }
+
+                for (int i = 0, count = parser.getAttributeCount(); i < count; ++i) {
+                    builder.append(" {").append(parser.getAttributeNamespace(i)).append('}');
+
+                    if (hasPrefixes) {
+                        builder.append(parser.getAttributePrefix(i)).append(':');
+                    }
+
+                    builder.append(parser.getAttributeName(i)).append("=\"").append(parser.getAttributeValue(i)).append('"');
+                }
+            } else if (type == XmlPullParser.TEXT) {
+                builder.append(" \"").append(parser.getText()).append('"');
+            }
+
+            events.add(builder.toString());
+        }
+
+        return events;
+    }
+
+    /**
+     * Renders the given tag the way {@link #of(XmlPullParser, boolean)}
+     * renders the events of a parser without prefixes
+     *
+     * @param tag The tag to render
+     * @return The rendered tag
+     */
+    public static String of(final XmlTag tag) {
+        final StringBuilder builder = new StringBuilder();
+
+        builder.append(XmlPullParser.TYPES[tag.getType()]).append(' ').append(tag.getDepth());
+
+        final StartTag startTag = tag.asStartTag();
+        final EndTag endTag = tag.asEndTag();
+        final TextTag textTag = tag.asTextTag();
+
+        if (startTag != null) {
+            builder.append(" {").append(startTag.getNamespace()).append('}').append(startTag.getName());
+
+            for (final Attribute attribute : startTag.getAttributeReader(AttributeReader.class)) {
+                builder
+                .append(" {").append(attribute.getNamespace()).append('}')
+                .append(attribute.getName()).append("=\"").append(attribute.getValue()).append('"');
+            }
+        } else if (endTag != null) {
+            builder.append(" {").append(endTag.getNamespace()).append('}').append(endTag.getName());
+        } else if (textTag != null) {
+            builder.append(" \"").append(textTag.getText()).append('"');
+        }
+
+        return builder.toString();
+    }
+}
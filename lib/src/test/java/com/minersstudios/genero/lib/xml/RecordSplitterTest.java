@@ -0,0 +1,165 @@
+package com.minersstudios.genero.lib.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+
+import com.minersstudios.genero.lib.xml.snapshot.XmlSnapshot;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class RecordSplitterTest {
+    // Large enough to be split into chunks of at least 1 MiB
+    private static final int SIZE = 3 << 20;
+
+    @Test
+    public void matchesSequentialParse() throws XmlPullParserException, IOException {
+        final byte[] document = Documents.catalog(SIZE);
+        final List<String> expected = records(document);
+
+        assertTrue(expected.size() > 1000);
+        assertEquals(expected, parseRecords(document, true));
+    }
+
+    @Test
+    public void matchesSequentialParseUnordered() throws XmlPullParserException, IOException {
+        final byte[] document = Documents.catalog(SIZE);
+        final List<String> expected = records(document);
+        final List<String> actual = parseRecords(document, false);
+
+        Collections.sort(expected);
+        Collections.sort(actual);
+
+        assertEquals(expected, actual);
+    }
+
+    @Test
+    public void fallsBackToSequentialParse() throws XmlPullParserException, IOException {
+        final String catalog = new String(Documents.catalog(SIZE), StandardCharsets.UTF_8);
+        final int middle = catalog.indexOf("  <book ", catalog.length() / 2);
+
+        // A nested record and content after the records can not be split
+        final byte[] document = (
+                catalog.substring(0, middle) +
+                "  <book id=\"outer\">\n    <book id=\"inner\"/>\n  </book>\n" +
+                catalog.substring(middle).replace("</catalog>", "  <other/>\n</catalog>")
+        ).getBytes(StandardCharsets.UTF_8);
+
+        assertEquals(records(document), parseRecords(document, true));
+    }
+
+    @Test
+    public void rejectsMalformedRecord() throws IOException {
+        final String catalog = new String(Documents.catalog(SIZE), StandardCharsets.UTF_8);
+        final int middle = catalog.indexOf("</title>", catalog.length() / 2);
+        final byte[] document = (
+                catalog.substring(0, middle) +
+                "</titel>" +
+                catalog.substring(middle + "</title>".length())
+        ).getBytes(StandardCharsets.UTF_8);
+
+        assertThrows(IllegalStateException.class, () -> parseRecords(document, true));
+    }
+
+    @Test
+    public void rejectsDepthOutOfRange() throws IOException {
+        final Path path = write(Events.utf8("<a/>"));
+
+        try {
+            assertThrows(
+                    IllegalArgumentException.class,
+                    () -> XmlParser.parseRecords(path, 0, "a")
+            );
+        } finally {
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Renders the book records of the document, recorded from a sequential
+     * parse
+     */
+    private static List<String> records(final byte[] document) throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = new Utf8PullParser();
+        final List<String> records = new ArrayList<>();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(document);
+
+        for (int type = parser.next(); type != END_DOCUMENT; type = parser.next()) {
+            if (
+                    type == START_TAG
+                    && parser.getDepth() == 2
+                    && "book".equals(parser.getName())
+            ) {
+                records.add(render(XmlSnapshot.recordElement(parser)));
+            }
+        }
+
+        return records;
+    }
+
+    private static List<String> parseRecords(
+            final byte[] document,
+            final boolean ordered
+    ) throws XmlPullParserException, IOException {
+        final Path path = write(document);
+        final ForkJoinPool pool = new ForkJoinPool(4);
+
+        try (final Stream<XmlSnapshot> records = XmlParser.parseRecords(path, 2, "book", ordered, pool)) {
+            return records
+                    .map(RecordSplitterTest::render)
+                    .collect(Collectors.toList());
+        } finally {
+            pool.shutdown();
+            Files.delete(path);
+        }
+    }
+
+    /**
+     * Renders the events of the snapshot along with their line numbers
+     */
+    private static String render(final XmlSnapshot snapshot) {
+        try {
+            final XmlPullParser parser = snapshot.newParser();
+            final StringBuilder builder = new StringBuilder();
+
+            for (final String event : Events.of(parser, false)) {
+                builder.append(event).append('\n');
+            }
+
+            final XmlPullParser lines = snapshot.newParser();
+
+            for (int type = lines.next(); type != END_DOCUMENT; type = lines.next()) {
+                builder.append(lines.getLineNumber()).append(' ');
+            }
+
+            return builder.toString();
+        } catch (final XmlPullParserException | IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Path write(final byte[] document) throws IOException {
+        final Path path = Files.createTempFile("records", ".xml");
+
+        Files.write(path, document);
+
+        return path;
+    }
+}
@@ -0,0 +1,236 @@
+package com.minersstudios.genero.lib.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class SourceIteratorTest {
+    private static final XmlSource.Mapper<String> ID = parser -> {
+        parser.nextTag();
+
+        return parser.getAttributeValue(null, "id");
+    };
+
+    @Test
+    public void keepsOrderOfSources() {
+        final QueuedExecutor executor = new QueuedExecutor();
+        final SourceIterator<String> iterator = iterator(sources(3), executor, ID, 3, true);
+
+        assertTrue(iterator.hasNext());
+
+        // Completed in the reverse order of the sources
+        executor.runLast();
+        executor.runLast();
+        executor.runLast();
+
+        assertEquals(Arrays.asList("0", "1", "2"), drain(iterator));
+    }
+
+    @Test
+    public void keepsOrderOfCompletion() {
+        final QueuedExecutor executor = new QueuedExecutor();
+        final SourceIterator<String> iterator = iterator(sources(3), executor, ID, 3, false);
+
+        assertTrue(iterator.hasNext());
+
+        executor.runLast();
+        executor.runFirst();
+        executor.runLast();
+
+        assertEquals(Arrays.asList("2", "0", "1"), drain(iterator));
+    }
+
+    @Test
+    public void boundsSubmittedSources() {
+        final QueuedExecutor executor = new QueuedExecutor();
+        final List<Source> sources = sources(5);
+        final SourceIterator<String> iterator = iterator(sources, executor, ID, 2, true);
+
+        assertTrue(iterator.hasNext());
+        assertEquals(2, executor.tasks.size());
+
+        // Nothing more is submitted until a result is consumed
+        executor.runFirst();
+        assertTrue(iterator.hasNext());
+        assertEquals(1, executor.tasks.size());
+
+        assertEquals("0", iterator.next());
+        assertTrue(iterator.hasNext());
+        assertEquals(2, executor.tasks.size());
+
+        for (int i = 1; i < 5; ++i) {
+            executor.runFirst();
+            assertEquals(String.valueOf(i), iterator.next());
+            assertTrue(executor.tasks.size() <= 2);
+        }
+
+        assertFalse(iterator.hasNext());
+        assertEquals(0, executor.tasks.size());
+
+        for (final Source source : sources) {
+            assertEquals(1, source.opened);
+            assertEquals(1, source.closed);
+        }
+    }
+
+    @Test
+    public void closesParserOnFailure() {
+        final List<Source> sources = sources(2);
+        final IOException failure = new IOException("failure");
+        final List<String> results = new ArrayList<>();
+        final SourceIterator<String> iterator = iterator(
+                sources,
+                Runnable::run,
+                parser -> {
+                    final String id = ID.map(parser);
+
+                    if ("0".equals(id)) {
+                        throw failure;
+                    }
+
+                    return id;
+                },
+                1,
+                true
+        );
+
+        final IllegalStateException thrown = assertThrows(IllegalStateException.class, iterator::next);
+
+        assertSame(failure, thrown.getCause());
+        assertEquals(1, sources.get(0).opened);
+        assertEquals(1, sources.get(0).closed);
+
+        // The failure of one source does not stop the others
+        iterator.forEachRemaining(results::add);
+
+        assertEquals(Collections.singletonList("1"), results);
+        assertEquals(1, sources.get(1).closed);
+    }
+
+    @Test
+    public void rejectsNullResult() {
+        final List<Source> sources = sources(1);
+        final SourceIterator<String> iterator = iterator(sources, Runnable::run, parser -> null, 1, true);
+
+        final IllegalStateException thrown = assertThrows(IllegalStateException.class, iterator::next);
+
+        assertTrue(thrown.getCause() instanceof NullPointerException);
+        assertEquals(1, sources.get(0).closed);
+    }
+
+    @Test
+    public void stopsSubmittingWhenClosed() {
+        final List<Source> sources = sources(5);
+        final Iterator<String> iterator;
+
+        try (final Stream<String> stream = XmlParser.parseAll(sources, Runnable::run, ID, 2, true)) {
+            iterator = stream.iterator();
+
+            assertEquals("0", iterator.next());
+        }
+
+        // The submitted sources are still consumed, no new ones are opened
+        assertEquals("1", iterator.next());
+        assertFalse(iterator.hasNext());
+        assertEquals(Arrays.asList(1, 1, 0, 0, 0), opened(sources));
+    }
+
+    @Test
+    public void rejectsParallelismLessThanOne() {
+        assertThrows(IllegalArgumentException.class, () -> XmlParser.parseAll(sources(1), Runnable::run, ID, 0, true));
+    }
+
+    private static SourceIterator<String> iterator(
+            final List<Source> sources,
+            final Executor executor,
+            final XmlSource.Mapper<String> mapper,
+            final int parallelism,
+            final boolean ordered
+    ) {
+        return new SourceIterator<>(sources.iterator(), executor, mapper, parallelism, ordered);
+    }
+
+    private static List<Source> sources(final int count) {
+        final List<Source> sources = new ArrayList<>(count);
+
+        for (int i = 0; i < count; ++i) {
+            sources.add(new Source("<doc id=\"" + i + "\"/>"));
+        }
+
+        return sources;
+    }
+
+    private static List<Integer> opened(final List<Source> sources) {
+        return sources.stream()
+                .map(source -> source.opened)
+                .collect(Collectors.toList());
+    }
+
+    private static List<String> drain(final SourceIterator<String> iterator) {
+        final List<String> results = new ArrayList<>();
+
+        iterator.forEachRemaining(results::add);
+
+        return results;
+    }
+
+    /**
+     * An executor that runs the submitted tasks only when asked to, on the
+     * calling thread
+     */
+    private static final class QueuedExecutor implements Executor {
+        final ArrayDeque<Runnable> tasks = new ArrayDeque<>();
+
+        @Override
+        public void execute(final Runnable task) {
+            this.tasks.add(task);
+        }
+
+        void runFirst() {
+            this.tasks.removeFirst().run();
+        }
+
+        void runLast() {
+            this.tasks.removeLast().run();
+        }
+    }
+
+    private static final class Source implements XmlSource {
+        private final String document;
+        int opened;
+        int closed;
+
+        Source(final String document) {
+            this.document = document;
+        }
+
+        @Override
+        public XmlPullParser open() throws XmlPullParserException {
+            this.opened++;
+
+            return Events.kxml(Events.utf8(this.document));
+        }
+
+        @Override
+        public void close(final XmlPullParser parser) {
+            this.closed++;
+        }
+    }
+}
@@ -0,0 +1,141 @@
+package com.minersstudios.genero.lib.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class Utf8PullParserTest {
+    private static final String EDGE_CASES =
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<!-- comment -->\n" +
+            "<?pi data?>\n" +
+            "<root xmlns=\"urn:default\" xmlns:a=\"urn:a\" a:x=\"1\" y='&lt;&amp;&gt;&quot;&apos;'>\n" +
+            "  <a:child a:k=\"v&#65;&#x42;\" k=\"caf\u00e9\">text &amp; more<![CDATA[<raw>]]>tail</a:child>\n" +
+            "  <empty/>\n" +
+            "  <mixed>\u0434\u0430\u043d\u043d\u044b\u0435 \ud83d\ude00 x</mixed>\n" +
+            "  <inner xmlns:a=\"urn:other\"><a:deep a:z=\"2\"/></inner>\n" +
+            "  <!-- between --><spaced   attribute = \"a b\"  />\n" +
+            "</root>\n";
+
+    @Test
+    public void matchesKxmlOnEdgeCases() throws XmlPullParserException, IOException {
+        assertMatchesKxml(Events.utf8(EDGE_CASES));
+    }
+
+    @Test
+    public void matchesKxmlOnMenu() throws XmlPullParserException, IOException {
+        assertMatchesKxml(Documents.menu(16 * 1024));
+    }
+
+    @Test
+    public void matchesKxmlOnCatalog() throws XmlPullParserException, IOException {
+        assertMatchesKxml(Documents.catalog(64 * 1024));
+    }
+
+    @Test
+    public void skipsByteOrderMark() throws XmlPullParserException, IOException {
+        final byte[] document = Events.utf8("\ufeff<a b=\"c\"/>");
+
+        assertEquals(Events.of(Events.kxml(Events.utf8("<a b=\"c\"/>")), true), Events.of(parser(document), true));
+    }
+
+    @Test
+    public void normalizesAttributeWhitespace() throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = parser(Events.utf8("<a b=\"1\t2\n3\r\n4&#9;5\"/>"));
+
+        parser.next();
+
+        assertEquals("1 2 3 4\t5", parser.getAttributeValue(0));
+    }
+
+    @Test
+    public void decodesSupplementaryCharacterReferences() throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = parser(Events.utf8("<a b=\"&#x1F600;\">&#128512;</a>"));
+
+        parser.next();
+
+        assertEquals("\ud83d\ude00", parser.getAttributeValue(0));
+        assertEquals(XmlPullParser.TEXT, parser.next());
+        assertEquals("\ud83d\ude00", parser.getText());
+    }
+
+    @Test
+    public void readsBufferRange() throws XmlPullParserException, IOException {
+        final byte[] document = Events.utf8("garbage<a><b/></a>garbage");
+        final Utf8PullParser parser = new Utf8PullParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(ByteBuffer.wrap(document, 7, 11));
+
+        assertEquals(Events.of(Events.kxml(Events.utf8("<a><b/></a>")), true), Events.of(parser, true));
+    }
+
+    @Test
+    public void reportsLineNumbersOfEventStarts() throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = parser(Events.utf8("<a>\n  <b\n c=\"d\"/>\n</a>"));
+
+        assertEquals(XmlPullParser.START_TAG, parser.next());
+        assertEquals(1, parser.getLineNumber());
+        assertEquals(XmlPullParser.TEXT, parser.next());
+        assertEquals(XmlPullParser.START_TAG, parser.next());
+        assertEquals(2, parser.getLineNumber());
+        assertEquals(3, parser.getColumnNumber());
+        assertEquals(XmlPullParser.END_TAG, parser.next());
+        assertEquals(XmlPullParser.TEXT, parser.next());
+        assertEquals(XmlPullParser.END_TAG, parser.next());
+        assertEquals(4, parser.getLineNumber());
+    }
+
+    @Test
+    public void reportsStartPositionOfFragments() throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = parser(Events.utf8("<b>\n<c/></b>"));
+
+        parser.setStartPosition(10, 5);
+
+        assertEquals(XmlPullParser.START_TAG, parser.next());
+        assertEquals(10, parser.getLineNumber());
+        assertEquals(5, parser.getColumnNumber());
+        assertEquals(XmlPullParser.TEXT, parser.next());
+        assertEquals(XmlPullParser.START_TAG, parser.next());
+        assertEquals(11, parser.getLineNumber());
+        assertEquals(1, parser.getColumnNumber());
+    }
+
+    @Test
+    public void rejectsMismatchedEndTag() throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = parser(Events.utf8("<a><b></a></b>"));
+
+        parser.next();
+        parser.next();
+
+        assertThrows(XmlPullParserException.class, parser::next);
+    }
+
+    @Test
+    public void rejectsTruncatedDocument() throws XmlPullParserException, IOException {
+        final Utf8PullParser parser = parser(Events.utf8("<a><b c=\"d"));
+
+        parser.next();
+
+        assertThrows(XmlPullParserException.class, parser::next);
+    }
+
+    private static void assertMatchesKxml(final byte[] document) throws XmlPullParserException, IOException {
+        assertEquals(Events.of(Events.kxml(document), true), Events.of(parser(document), true));
+    }
+
+    private static Utf8PullParser parser(final byte[] document) throws XmlPullParserException {
+        final Utf8PullParser parser = new Utf8PullParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(document);
+
+        return parser;
+    }
+}
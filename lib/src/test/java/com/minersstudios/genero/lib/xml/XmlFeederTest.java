@@ -0,0 +1,150 @@
+package com.minersstudios.genero.lib.xml;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+import static org.xmlpull.v1.XmlPullParser.END_DOCUMENT;
+import static org.xmlpull.v1.XmlPullParser.START_DOCUMENT;
+
+import com.minersstudios.genero.lib.xml.tag.XmlTag;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+public class XmlFeederTest {
+    private static final byte[] DOCUMENT = Events.utf8(
+            "<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n" +
+            "<!-- comment -->\n" +
+            "<root xmlns=\"urn:default\" xmlns:a=\"urn:a\" a:x=\"&lt;1&gt;\">\n" +
+            "  <a:child k=\"caf\u00e9\">text &amp; more<![CDATA[<raw>]]>tail</a:child>\n" +
+            "  <empty/>\n" +
+            "  <mixed>\u0434\u0430\u043d\u043d\u044b\u0435 \ud83d\ude00 &#x42F;</mixed>\n" +
+            "  <?pi data?>\n" +
+            "</root>\n"
+    );
+
+    @Test
+    public void matchesKxmlAtEveryChunkSize() throws XmlPullParserException, IOException {
+        final List<String> expected = Events.of(Events.kxml(DOCUMENT), false);
+
+        for (int size = 1; size <= DOCUMENT.length; ++size) {
+            assertEquals("Chunk size " + size, expected, feed(DOCUMENT, size));
+        }
+    }
+
+    @Test
+    public void matchesKxmlOnCatalog() throws XmlPullParserException, IOException {
+        final byte[] document = Documents.catalog(32 * 1024);
+        final List<String> expected = Events.of(Events.kxml(document), false);
+
+        for (final int size : new int[] {1, 7, 64, 1000, 4096}) {
+            assertEquals("Chunk size " + size, expected, feed(document, size));
+        }
+    }
+
+    @Test
+    public void waitsForCompleteEvents() {
+        final XmlFeeder feeder = XmlParser.feeder();
+
+        feeder.feed(ByteBuffer.wrap(Events.utf8("<a b=\"")));
+
+        assertNull(feeder.poll());
+
+        feeder.feed(ByteBuffer.wrap(Events.utf8("c\">te")));
+
+        assertEquals("START_TAG 1 {}a {}b=\"c\"", Events.of(nextEvent(feeder)));
+        assertNull(feeder.poll());
+
+        feeder.feed(ByteBuffer.wrap(Events.utf8("xt</a>")));
+
+        assertEquals("TEXT 1 \"text\"", Events.of(nextEvent(feeder)));
+        assertEquals("END_TAG 1 {}a", Events.of(nextEvent(feeder)));
+        assertFalse(feeder.isFinished());
+
+        feeder.end();
+
+        assertEquals(END_DOCUMENT, nextEvent(feeder).getType());
+        assertTrue(feeder.isFinished());
+        assertNull(feeder.poll());
+    }
+
+    @Test
+    public void rejectsFeedAfterEnd() {
+        final XmlFeeder feeder = XmlParser.feeder();
+
+        feeder.end();
+
+        assertThrows(IllegalStateException.class, () -> feeder.feed(ByteBuffer.allocate(1)));
+    }
+
+    @Test
+    public void rejectsTruncatedDocument() {
+        final XmlFeeder feeder = XmlParser.feeder();
+
+        feeder.feed(ByteBuffer.wrap(Events.utf8("<a><b")));
+        feeder.end();
+
+        assertEquals("START_TAG 1 {}a", Events.of(nextEvent(feeder)));
+        assertThrows(IllegalStateException.class, feeder::poll);
+    }
+
+    /**
+     * Feeds the document in chunks of the given size, polling after every
+     * chunk, and renders the polled events
+     */
+    private static List<String> feed(
+            final byte[] document,
+            final int size
+    ) {
+        final XmlFeeder feeder = XmlParser.feeder();
+        final List<String> events = new ArrayList<>();
+
+        for (int offset = 0; offset < document.length; offset += size) {
+            feeder.feed(ByteBuffer.wrap(document, offset, Math.min(size, document.length - offset)));
+            poll(feeder, events);
+        }
+
+        feeder.end();
+        poll(feeder, events);
+
+        assertTrue(feeder.isFinished());
+
+        return events;
+    }
+
+    private static void poll(
+            final XmlFeeder feeder,
+            final List<String> events
+    ) {
+        for (XmlTag tag = feeder.poll(); tag != null; tag = feeder.poll()) {
+            final int type = tag.getType();
+
+            if (
+                    type != START_DOCUMENT
+                    && type != END_DOCUMENT
+            ) {
+                events.add(Events.of(tag));
+            }
+        }
+    }
+
+    private static XmlTag nextEvent(final XmlFeeder feeder) {
+        XmlTag tag = feeder.poll();
+
+        while (
+                tag != null
+                && tag.getType() == START_DOCUMENT
+        ) {
+            tag = feeder.poll();
+        }
+
+        return tag;
+    }
+}
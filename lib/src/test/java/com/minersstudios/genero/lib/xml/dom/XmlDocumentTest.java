@@ -0,0 +1,89 @@
+package com.minersstudios.genero.lib.xml.dom;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+import static org.xmlpull.v1.XmlPullParser.END_TAG;
+import static org.xmlpull.v1.XmlPullParser.START_TAG;
+
+import com.minersstudios.genero.lib.xml.Utf8PullParser;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class XmlDocumentTest {
+    private static final String DOCUMENT =
+            "<catalog>" +
+            "<book id=\"1\"><title>First</title></book>" +
+            "<book id=\"2\"><title>Second</title><note/></book>" +
+            "</catalog>";
+
+    @Test
+    public void buildsWholeDocument() throws XmlPullParserException, IOException {
+        final XmlDocument document = XmlDocument.build(parser(DOCUMENT));
+        final int root = document.getRoot();
+        final int first = document.getFirstChild(root);
+        final int second = document.getNextSibling(first);
+
+        assertEquals("catalog", document.getName(root));
+        assertEquals("1", document.getAttributeValue(first, "", "id"));
+        assertEquals("2", document.getAttributeValue(second, "", "id"));
+        assertEquals("First", document.getText(document.getFirstChild(first)));
+        assertEquals(XmlDocument.NO_NODE, document.getNextSibling(second));
+    }
+
+    @Test
+    public void buildsNestedElement() throws XmlPullParserException, IOException {
+        final XmlPullParser parser = parser(DOCUMENT);
+
+        // Skip to the second book
+        do {
+            parser.next();
+        } while (
+                parser.getEventType() != START_TAG
+                || !"2".equals(parser.getAttributeValue(null, "id"))
+        );
+
+        final XmlDocument document = XmlDocument.build(parser);
+        final int root = document.getRoot();
+        final int title = document.getFirstChild(root);
+
+        assertEquals("book", document.getName(root));
+        assertEquals(XmlDocument.NO_NODE, document.getParent(root));
+        assertEquals(XmlDocument.NO_NODE, document.getNextSibling(root));
+        assertEquals("title", document.getName(title));
+        assertEquals("Second", document.getText(title));
+        assertEquals("note", document.getName(document.getNextSibling(title)));
+
+        // The parser is left at the end tag of the element
+        assertEquals(END_TAG, parser.getEventType());
+        assertEquals("book", parser.getName());
+        assertEquals(END_TAG, parser.nextTag());
+        assertEquals("catalog", parser.getName());
+    }
+
+    @Test
+    public void rejectsParserInsideElement() throws XmlPullParserException, IOException {
+        final XmlPullParser parser = parser(DOCUMENT);
+
+        // At the text of the first title
+        parser.nextTag();
+        parser.nextTag();
+        parser.nextTag();
+        parser.next();
+
+        assertThrows(IllegalArgumentException.class, () -> XmlDocument.build(parser));
+    }
+
+    private static XmlPullParser parser(final String document) throws XmlPullParserException {
+        final Utf8PullParser parser = new Utf8PullParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(document.getBytes(StandardCharsets.UTF_8));
+
+        return parser;
+    }
+}
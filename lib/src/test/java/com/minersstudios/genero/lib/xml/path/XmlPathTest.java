@@ -0,0 +1,134 @@
+package com.minersstudios.genero.lib.xml.path;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import com.minersstudios.genero.lib.xml.BinaryXml;
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.Documents;
+import com.minersstudios.genero.lib.xml.Utf8PullParser;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Collections;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+public class XmlPathTest {
+    private static final byte[] MENU = Documents.menu(64 * 1024);
+    private static final Map<String, String> ANDROID = Collections.singletonMap("android", Documents.ANDROID_NAMESPACE);
+    private static final Map<String, String> APP = Collections.singletonMap("app", Documents.APP_NAMESPACE);
+
+    @Test
+    public void matchesNamespacedAttributesOfCompiledXml() throws XmlPullParserException, IOException {
+        final int items = count("<item ");
+
+        assertTrue(items > 10);
+        assertEquals(items, select(XmlPath.compile("menu/group/item[@icon]"), compiled()));
+        assertEquals(items, select(XmlPath.compile("menu/group/item[@android:icon]", ANDROID), compiled()));
+        assertEquals(0, select(XmlPath.compile("menu/group/item[@app:icon]", APP), compiled()));
+    }
+
+    @Test
+    public void matchesNamespacedAttributeValuesOfCompiledXml() throws XmlPullParserException, IOException {
+        final int checkable = count("android:checkable=\"true\"");
+        final int disabled = count("android:enabled=\"false\"");
+
+        assertTrue(checkable > 0);
+        assertTrue(disabled > 0);
+        assertEquals(checkable, select(XmlPath.compile("//item[@android:checkable='true']", ANDROID), compiled()));
+        assertEquals(checkable, select(XmlPath.compile("//item[@checkable='true']"), compiled()));
+        assertEquals(disabled, select(XmlPath.compile("menu/group[@enabled='false']"), compiled()));
+    }
+
+    @Test
+    public void matchesTheSameInTextXml() throws XmlPullParserException, IOException {
+        final XmlPath path = XmlPath.compile("menu/group/item[@android:checkable='true'][@showAsAction]", ANDROID);
+        final Pattern pattern = Pattern.compile("<item [^>]*android:checkable=\"true\"[^>]*app:showAsAction=");
+        final Matcher matcher = pattern.matcher(new String(MENU, StandardCharsets.UTF_8));
+        int expected = 0;
+
+        while (matcher.find()) {
+            expected++;
+        }
+
+        assertEquals(expected, select(path, text(MENU)));
+        assertEquals(expected, select(path, compiled()));
+    }
+
+    @Test
+    public void matchesPrefixedElements() throws XmlPullParserException {
+        final byte[] document = (
+                "<root xmlns:a=\"urn:a\" xmlns:b=\"urn:b\">" +
+                "<a:item x=\"1\"/><b:item x=\"2\"/><item a:x=\"3\"/><item b:x=\"4\"/>" +
+                "</root>"
+        ).getBytes(StandardCharsets.UTF_8);
+        final Map<String, String> namespaces = Collections.singletonMap("p", "urn:a");
+
+        assertEquals(4, select(XmlPath.compile("root/item"), text(document)));
+        assertEquals(1, select(XmlPath.compile("root/p:item", namespaces), text(document)));
+        assertEquals(1, select(XmlPath.compile("root/item[@p:x]", namespaces), text(document)));
+        assertEquals(4, select(XmlPath.compile("root/*[@x]"), text(document)));
+        assertEquals(1, select(XmlPath.compile("root/*[@x='4']"), text(document)));
+    }
+
+    @Test
+    public void rejectsUnboundPrefixes() {
+        assertThrows(IllegalArgumentException.class, () -> XmlPath.compile("menu/item[@android:icon]"));
+        assertThrows(IllegalArgumentException.class, () -> XmlPath.compile("android:menu", APP));
+        assertThrows(IllegalArgumentException.class, () -> XmlPath.compile("menu/item[@android:]", ANDROID));
+    }
+
+    @Test
+    public void comparesBindings() {
+        final Map<String, String> android = Collections.singletonMap("p", Documents.ANDROID_NAMESPACE);
+        final Map<String, String> app = Collections.singletonMap("p", Documents.APP_NAMESPACE);
+
+        assertEquals(XmlPath.compile("a[@p:b]", android), XmlPath.compile("a[@p:b]", android));
+        assertEquals(XmlPath.compile("a[@p:b]", android).hashCode(), XmlPath.compile("a[@p:b]", android).hashCode());
+        assertNotEquals(XmlPath.compile("a[@p:b]", android), XmlPath.compile("a[@p:b]", app));
+    }
+
+    private static int select(
+            final XmlPath path,
+            final XmlPullParser parser
+    ) {
+        return (int) path.select(parser).count();
+    }
+
+    private static int count(final String pattern) {
+        final String menu = new String(MENU, StandardCharsets.UTF_8);
+        int count = 0;
+
+        for (int i = menu.indexOf(pattern); i != -1; i = menu.indexOf(pattern, i + 1)) {
+            count++;
+        }
+
+        return count;
+    }
+
+    private static XmlPullParser compiled() throws XmlPullParserException, IOException {
+        final BinaryXmlParser parser = new BinaryXmlParser();
+
+        parser.setInput(ByteBuffer.wrap(BinaryXml.compile(MENU)));
+
+        return parser;
+    }
+
+    private static XmlPullParser text(final byte[] document) throws XmlPullParserException {
+        final Utf8PullParser parser = new Utf8PullParser();
+
+        parser.setFeature(XmlPullParser.FEATURE_PROCESS_NAMESPACES, true);
+        parser.setInput(document);
+
+        return parser;
+    }
+}
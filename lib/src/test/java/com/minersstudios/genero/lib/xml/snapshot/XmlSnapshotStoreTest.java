@@ -0,0 +1,106 @@
+package com.minersstudios.genero.lib.xml.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+
+import android.content.pm.PackageInfo;
+
+import com.minersstudios.genero.lib.xml.Events;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.junit.runner.RunWith;
+import org.robolectric.RobolectricTestRunner;
+import org.robolectric.annotation.Config;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.file.Files;
+
+@RunWith(RobolectricTestRunner.class)
+@Config(sdk = 34)
+public class XmlSnapshotStoreTest {
+    private static final int XML_RES = 0x7F140000;
+    private static final String QUALIFIERS = "mcc0-mnc0-en-US";
+    private static final String DOCUMENT = "<root a=\"1\"><child>text</child><empty/></root>";
+
+    @Rule
+    public final TemporaryFolder folder = new TemporaryFolder();
+
+    @Test
+    public void loadsSavedSnapshot() throws XmlPullParserException, IOException {
+        final File file = this.save(packageInfo(1L, 2L));
+        final XmlSnapshot snapshot = XmlSnapshotStore.load(file, packageInfo(1L, 2L), XML_RES, QUALIFIERS);
+
+        assertNotNull(snapshot);
+        assertEquals(Events.of(Events.kxml(Events.utf8(DOCUMENT)), true), Events.of(snapshot.newParser(), true));
+    }
+
+    @Test
+    public void ignoresSnapshotOfOtherApk() throws XmlPullParserException, IOException {
+        final File file = this.save(packageInfo(1L, 2L));
+
+        assertNull(XmlSnapshotStore.load(file, packageInfo(3L, 2L), XML_RES, QUALIFIERS));
+        assertNull(XmlSnapshotStore.load(file, packageInfo(1L, 4L), XML_RES, QUALIFIERS));
+        assertNull(XmlSnapshotStore.load(file, packageInfo(1L, 2L), XML_RES + 1, QUALIFIERS));
+        assertNull(XmlSnapshotStore.load(file, packageInfo(1L, 2L), XML_RES, QUALIFIERS + "-land"));
+    }
+
+    @Test
+    public void ignoresCorruptedSnapshot() throws XmlPullParserException, IOException {
+        final PackageInfo packageInfo = packageInfo(1L, 2L);
+        final File file = this.save(packageInfo);
+        final long length = file.length();
+
+        // The header is intact, the snapshot after it is cut off
+        try (final RandomAccessFile out = new RandomAccessFile(file, "rw")) {
+            out.setLength(length - 1);
+        }
+
+        assertNull(XmlSnapshotStore.load(file, packageInfo, XML_RES, QUALIFIERS));
+
+        // The magic of the snapshot is overwritten
+        final File garbled = this.save(packageInfo);
+
+        try (final RandomAccessFile out = new RandomAccessFile(garbled, "rw")) {
+            out.seek(length - XmlSnapshot.record(Events.kxml(Events.utf8(DOCUMENT))).getByteSize());
+            out.writeInt(0);
+        }
+
+        assertNull(XmlSnapshotStore.load(garbled, packageInfo, XML_RES, QUALIFIERS));
+    }
+
+    @Test
+    public void ignoresTruncatedHeader() throws IOException {
+        final File file = this.folder.newFile();
+
+        Files.write(file.toPath(), new byte[] {0, 0, 0, 1});
+
+        assertNull(XmlSnapshotStore.load(file, packageInfo(1L, 2L), XML_RES, QUALIFIERS));
+        assertNull(XmlSnapshotStore.load(new File(this.folder.getRoot(), "missing"), packageInfo(1L, 2L), XML_RES, QUALIFIERS));
+    }
+
+    private File save(final PackageInfo packageInfo) throws XmlPullParserException, IOException {
+        final File file = new File(this.folder.newFolder(), "snapshot.xsnap");
+
+        XmlSnapshotStore.save(file, packageInfo, XML_RES, QUALIFIERS, XmlSnapshot.record(Events.kxml(Events.utf8(DOCUMENT))));
+
+        return file;
+    }
+
+    private static PackageInfo packageInfo(
+            final long versionCode,
+            final long lastUpdateTime
+    ) {
+        final PackageInfo packageInfo = new PackageInfo();
+
+        packageInfo.setLongVersionCode(versionCode);
+        packageInfo.lastUpdateTime = lastUpdateTime;
+
+        return packageInfo;
+    }
+}
@@ -0,0 +1,155 @@
+package com.minersstudios.genero.lib.xml.snapshot;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertThrows;
+
+import android.content.res.XmlResourceParser;
+
+import com.minersstudios.genero.lib.xml.BinaryXml;
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.Documents;
+import com.minersstudios.genero.lib.xml.Events;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+
+public class XmlSnapshotTest {
+    private static final String DOCUMENT =
+            "<root xmlns=\"urn:default\" xmlns:a=\"urn:a\" a:x=\"1\">\n" +
+            "  <a:child a:k=\"v\" k=\"w\">text &amp; more</a:child>\n" +
+            "  <empty/>\n" +
+            "  <inner><a:deep a:z=\"2\"/>tail</inner>\n" +
+            "</root>\n";
+
+    @Test
+    public void replaysRecordedEvents() throws XmlPullParserException, IOException {
+        final XmlSnapshot snapshot = XmlSnapshot.record(Events.kxml(Events.utf8(DOCUMENT)));
+
+        assertEquals(Events.of(Events.kxml(Events.utf8(DOCUMENT)), true), Events.of(snapshot.newParser(), true));
+        assertEquals(Events.of(snapshot.newParser(), true), Events.of(snapshot.newParser(), true));
+    }
+
+    @Test
+    public void replaysResourceValues() throws XmlPullParserException, IOException {
+        final byte[] menu = BinaryXml.compile(Documents.menu(4 * 1024));
+        final XmlSnapshot snapshot = XmlSnapshot.record(binary(menu));
+        final BinaryXmlParser expected = binary(menu);
+        final XmlResourceParser actual = snapshot.newParser();
+
+        for (int type = expected.next(); type != XmlPullParser.END_DOCUMENT; type = expected.next()) {
+            assertEquals(type, actual.next());
+
+            if (type == XmlPullParser.START_TAG) {
+                assertEquals(expected.getAttributeCount(), actual.getAttributeCount());
+
+                for (int i = 0; i < expected.getAttributeCount(); ++i) {
+                    assertEquals(expected.getAttributeNameResource(i), actual.getAttributeNameResource(i));
+                    assertEquals(expected.getAttributeResourceValue(i, 0), actual.getAttributeResourceValue(i, 0));
+                }
+            }
+        }
+
+        assertEquals(XmlPullParser.END_DOCUMENT, actual.next());
+    }
+
+    @Test
+    public void recordsElement() throws XmlPullParserException, IOException {
+        final XmlPullParser parser = Events.kxml(Events.utf8("<root><a x=\"1\"><b/>text</a><c/></root>"));
+
+        parser.next();
+        parser.next();
+
+        final XmlSnapshot snapshot = XmlSnapshot.recordElement(parser);
+
+        assertEquals(XmlPullParser.END_TAG, parser.getEventType());
+        assertEquals("a", parser.getName());
+        assertEquals(XmlPullParser.START_TAG, parser.next());
+        assertEquals("c", parser.getName());
+        assertEquals(Events.of(Events.kxml(Events.utf8("<a x=\"1\"><b/>text</a>")), true), Events.of(snapshot.newParser(), true));
+    }
+
+    @Test
+    public void recordElementRequiresStartTag() throws XmlPullParserException {
+        final XmlPullParser parser = Events.kxml(Events.utf8("<root/>"));
+
+        assertThrows(XmlPullParserException.class, () -> XmlSnapshot.recordElement(parser));
+    }
+
+    @Test
+    public void readsWrittenSnapshot() throws XmlPullParserException, IOException {
+        final XmlSnapshot snapshot = XmlSnapshot.record(Events.kxml(Documents.catalog(16 * 1024)));
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        // Prefix the snapshot like the header of a snapshot file
+        out.write(new byte[] {1, 2, 3});
+
+        try (final WritableByteChannel channel = Channels.newChannel(out)) {
+            snapshot.writeTo(channel);
+        }
+
+        final byte[] bytes = out.toByteArray();
+        final ByteBuffer buffer = ByteBuffer.wrap(bytes);
+
+        buffer.position(3);
+
+        final XmlSnapshot read = XmlSnapshot.read(buffer);
+
+        assertEquals(bytes.length - 3, snapshot.getByteSize());
+        assertEquals(snapshot.getByteSize(), read.getByteSize());
+        assertEquals(snapshot.getEventCount(), read.getEventCount());
+        assertEquals(Events.of(snapshot.newParser(), true), Events.of(read.newParser(), true));
+    }
+
+    @Test
+    public void rejectsCorruptedSnapshots() throws XmlPullParserException, IOException {
+        final byte[] bytes = bytes(XmlSnapshot.record(Events.kxml(Events.utf8(DOCUMENT))));
+
+        assertThrows(IllegalArgumentException.class, () -> XmlSnapshot.read(corrupt(bytes, 0, 0x01)));
+        assertThrows(IllegalArgumentException.class, () -> XmlSnapshot.read(corrupt(bytes, Integer.BYTES + 3, 0x01)));
+        assertThrows(IllegalArgumentException.class, () -> XmlSnapshot.read(corrupt(bytes, 3 * Integer.BYTES, 0x80)));
+        assertThrows(IllegalArgumentException.class, () -> XmlSnapshot.read(ByteBuffer.wrap(bytes, 0, bytes.length - 1)));
+        assertThrows(IllegalArgumentException.class, () -> XmlSnapshot.read(ByteBuffer.wrap(bytes, 0, 7)));
+        assertThrows(IllegalArgumentException.class, () -> XmlSnapshot.read(ByteBuffer.allocate(0)));
+    }
+
+    private static BinaryXmlParser binary(final byte[] document) throws XmlPullParserException {
+        final BinaryXmlParser parser = new BinaryXmlParser();
+
+        parser.setInput(ByteBuffer.wrap(document));
+
+        return parser;
+    }
+
+    /**
+     * Returns a buffer over a copy of the given snapshot bytes, with the
+     * given bits of the given byte flipped
+     */
+    private static ByteBuffer corrupt(
+            final byte[] bytes,
+            final int index,
+            final int bits
+    ) {
+        final byte[] copy = bytes.clone();
+
+        copy[index] ^= (byte) bits;
+
+        return ByteBuffer.wrap(copy);
+    }
+
+    private static byte[] bytes(final XmlSnapshot snapshot) throws IOException {
+        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+        try (final WritableByteChannel channel = Channels.newChannel(out)) {
+            snapshot.writeTo(channel);
+        }
+
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,177 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.minersstudios.genero.lib.xml.Events;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+public class TagHandlersTest {
+
+    @Test
+    public void dispatchesNestedHandlers() throws XmlPullParserException {
+        final List<String> events = new ArrayList<>();
+        final TagHandlers handlers =
+                new TagHandlers()
+                .on("item", new Recorder("item", events))
+                .on("name", new Recorder("name", events));
+
+        handlers.dispatch(Events.kxml(Events.utf8("<root><item id=\"1\"><name>a</name></item><item id=\"2\"/></root>")));
+
+        assertEquals(
+                Arrays.asList(
+                        "item: start item",
+                        "name: start name",
+                        "name: text a",
+                        "name: end name",
+                        "item: end item",
+                        "item: start item",
+                        "item: end item"
+                ),
+                events
+        );
+    }
+
+    @Test
+    public void fallsBackForUnregisteredElements() throws XmlPullParserException {
+        final List<String> events = new ArrayList<>();
+        final TagHandlers handlers =
+                new TagHandlers()
+                .on("item", new Recorder("item", events))
+                .otherwise(new Recorder("other", events));
+
+        handlers.dispatch(Events.kxml(Events.utf8("<root><item/><other/></root>")));
+
+        assertEquals(
+                Arrays.asList(
+                        "other: start root",
+                        "item: start item",
+                        "item: end item",
+                        "other: start other",
+                        "other: end other",
+                        "other: end root"
+                ),
+                events
+        );
+
+        events.clear();
+        handlers.otherwise(null).dispatch(Events.kxml(Events.utf8("<root><item/><other/></root>")));
+
+        assertEquals(Arrays.asList("item: start item", "item: end item"), events);
+    }
+
+    @Test
+    public void routesTextToDirectParent() throws XmlPullParserException {
+        final List<String> events = new ArrayList<>();
+        final TagHandlers handlers =
+                new TagHandlers()
+                .on("a", new Recorder("a", events))
+                .on("b", new Recorder("b", events));
+
+        handlers.dispatch(Events.kxml(Events.utf8("<a>x<b>y</b>z<c>w</c></a>")));
+
+        assertEquals(
+                Arrays.asList(
+                        "a: start a",
+                        "a: text x",
+                        "b: start b",
+                        "b: text y",
+                        "b: end b",
+                        "a: text z",
+                        "a: end a"
+                ),
+                events
+        );
+    }
+
+    @Test
+    public void matchesNamespaces() throws XmlPullParserException {
+        final List<String> events = new ArrayList<>();
+        final TagHandler handler = new Recorder("ns", events);
+        final TagHandlers handlers =
+                new TagHandlers()
+                .on("urn:a", "item", handler);
+
+        handlers.dispatch(Events.kxml(Events.utf8("<root xmlns:a=\"urn:a\"><a:item/><item/></root>")));
+
+        assertEquals(Arrays.asList("ns: start item", "ns: end item"), events);
+        assertSame(handler, handlers.get("urn:a", "item"));
+        assertNull(handlers.get(null, "item"));
+        assertNull(handlers.get(null, "unknown"));
+    }
+
+    @Test
+    public void startsInsideDeepElement() throws XmlPullParserException, IOException {
+        final int depth = 40;
+        final String document =
+                String.join("", Collections.nCopies(depth, "<level>")) +
+                "<leaf>text</leaf><leaf/>" +
+                String.join("", Collections.nCopies(depth, "</level>"));
+        final XmlPullParser parser = Events.kxml(Events.utf8(document));
+
+        // On the start tag of the first leaf, deeper than the initial stack
+        while (parser.getDepth() <= depth) {
+            parser.next();
+        }
+
+        final List<String> events = new ArrayList<>();
+        final TagHandlers handlers =
+                new TagHandlers()
+                .on("level", new Recorder("level", events))
+                .on("leaf", new Recorder("leaf", events));
+
+        // The text and the end tags of the elements entered before are not
+        // dispatched
+        handlers.dispatch(parser);
+
+        assertEquals(Arrays.asList("leaf: start leaf", "leaf: end leaf"), events);
+        assertEquals(XmlPullParser.END_DOCUMENT, parser.getEventType());
+
+        // The table is reusable, its stack grows with the depth
+        events.clear();
+        handlers.dispatch(Events.kxml(Events.utf8(document)));
+
+        assertEquals(2 * depth + 5, events.size());
+        assertEquals("level: start level", events.get(0));
+        assertEquals("leaf: text text", events.get(depth + 1));
+        assertEquals("level: end level", events.get(2 * depth + 4));
+    }
+
+    private static final class Recorder implements TagHandler {
+        private final String handler;
+        private final List<String> events;
+
+        Recorder(
+                final String handler,
+                final List<String> events
+        ) {
+            this.handler = handler;
+            this.events = events;
+        }
+
+        @Override
+        public void onStart(final StartTag tag) {
+            this.events.add(this.handler + ": start " + tag.getName());
+        }
+
+        @Override
+        public void onText(final TextTag tag) {
+            this.events.add(this.handler + ": text " + tag.getText());
+        }
+
+        @Override
+        public void onEnd(final EndTag tag) {
+            this.events.add(this.handler + ": end " + tag.getName());
+        }
+    }
+}
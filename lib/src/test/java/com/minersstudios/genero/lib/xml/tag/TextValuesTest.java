@@ -0,0 +1,167 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertThrows;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.time.LocalDate;
+import java.time.OffsetDateTime;
+import java.util.Locale;
+import java.util.Random;
+
+public class TextValuesTest {
+    private static final long SEED = 0x5EED;
+
+    @Test
+    public void parsesIntegers() {
+        assertEquals(42, TextValues.parseInt(" 42\n", -1));
+        assertEquals(-42, TextValues.parseInt("-42", -1));
+        assertEquals(42, TextValues.parseInt("+42", -1));
+        assertEquals(Integer.MIN_VALUE, TextValues.parseInt("-2147483648", -1));
+        assertEquals(-1, TextValues.parseInt("2147483648", -1));
+        assertEquals(Long.MAX_VALUE, TextValues.parseLong("9223372036854775807", -1));
+        assertEquals(Long.MIN_VALUE, TextValues.parseLong("-9223372036854775808", -1));
+        assertEquals(-1, TextValues.parseLong("9223372036854775808", -1));
+        assertEquals(-1, TextValues.parseLong("", -1));
+        assertEquals(-1, TextValues.parseLong("+", -1));
+        assertEquals(-1, TextValues.parseLong("1 2", -1));
+        assertEquals(-1, TextValues.parseLong("0x10", -1));
+    }
+
+    @Test
+    public void parsesDoublesLikeTheJdk() {
+        final Random random = new Random(SEED);
+
+        for (int i = 0; i < 100_000; ++i) {
+            final String text = randomDecimal(random);
+
+            assertEquals(text, Double.parseDouble(text), TextValues.parseDouble(text, Double.NaN), 0.0);
+        }
+
+        for (final String text : new String[] {"0", "-0.0", "1e308", "1e-320", "4.9e-324", "123456789012345678901234567890", "0.1", "2.2250738585072014E-308"}) {
+            assertEquals(text, Double.parseDouble(text), TextValues.parseDouble(text, Double.NaN), 0.0);
+        }
+    }
+
+    @Test
+    public void parsesFloatsLikeTheJdk() {
+        final Random random = new Random(SEED);
+
+        for (int i = 0; i < 100_000; ++i) {
+            final String text = randomDecimal(random);
+
+            assertEquals(text, Float.parseFloat(text), TextValues.parseFloat(text, Float.NaN), 0.0f);
+        }
+
+        for (final String text : new String[] {"16777217", "3.4028235e38", "1.4e-45", "0.1", "1.17549435E-38"}) {
+            assertEquals(text, Float.parseFloat(text), TextValues.parseFloat(text, Float.NaN), 0.0f);
+        }
+    }
+
+    @Test
+    public void parsesSpecialDecimals() {
+        assertEquals(Double.POSITIVE_INFINITY, TextValues.parseDouble("INF", 0.0), 0.0);
+        assertEquals(Double.NEGATIVE_INFINITY, TextValues.parseDouble("-INF", 0.0), 0.0);
+        assertTrue(Double.isNaN(TextValues.parseDouble("NaN", 0.0)));
+        assertEquals(12.5, TextValues.parseDouble(" 12.5 ", 0.0), 0.0);
+        assertEquals(-1.0, TextValues.parseDouble("", -1.0), 0.0);
+        assertEquals(-1.0, TextValues.parseDouble("1.2.3", -1.0), 0.0);
+        assertEquals(-1.0, TextValues.parseDouble("e5", -1.0), 0.0);
+        assertEquals(2.5, TextValues.parseDouble("[2.5]", 1, 4, -1.0), 0.0);
+        assertEquals(2.5f, TextValues.parseFloat("[2.5]", 1, 4, -1.0f), 0.0f);
+        assertThrows(IndexOutOfBoundsException.class, () -> TextValues.parseDouble("2.5", 1, 4, -1.0));
+    }
+
+    @Test
+    public void parsesBooleans() {
+        assertTrue(TextValues.parseBoolean(" true ", false));
+        assertTrue(TextValues.parseBoolean("1", false));
+        assertFalse(TextValues.parseBoolean("false", true));
+        assertFalse(TextValues.parseBoolean("0", true));
+        assertTrue(TextValues.parseBoolean("yes", true));
+        assertFalse(TextValues.parseBoolean("True", false));
+    }
+
+    @Test
+    public void parsesEpochDaysLikeTheJdk() {
+        for (LocalDate date = LocalDate.of(1600, 1, 1); date.getYear() < 2400; date = date.plusDays(1)) {
+            assertEquals(date.toString(), date.toEpochDay(), TextValues.parseEpochDay(date.toString(), Long.MIN_VALUE));
+        }
+
+        assertEquals(-1, TextValues.parseEpochDay("2023-02-29", -1));
+        assertEquals(-1, TextValues.parseEpochDay("2023-13-01", -1));
+        assertEquals(-1, TextValues.parseEpochDay("2023-00-10", -1));
+        assertEquals(-1, TextValues.parseEpochDay("2023-1-10", -1));
+        assertEquals(-1, TextValues.parseEpochDay("2023/01/10", -1));
+        assertEquals(LocalDate.of(2024, 2, 29).toEpochDay(), TextValues.parseEpochDay("2024-02-29", -1));
+    }
+
+    @Test
+    public void parsesEpochMillisLikeTheJdk() {
+        final Random random = new Random(SEED);
+
+        for (int i = 0; i < 10_000; ++i) {
+            final int offset = random.nextInt(2) == 0 ? 0 : random.nextInt(24 * 4 + 1) * 15 - 12 * 60;
+            final String text = String.format(
+                    Locale.ROOT,
+                    "%04d-%02d-%02dT%02d:%02d:%02d.%03d%s",
+                    1900 + random.nextInt(300),
+                    1 + random.nextInt(12),
+                    1 + random.nextInt(28),
+                    random.nextInt(24),
+                    random.nextInt(60),
+                    random.nextInt(60),
+                    random.nextInt(1000),
+                    offset == 0
+                    ? "Z"
+                    : String.format(Locale.ROOT, "%c%02d:%02d", offset < 0 ? '-' : '+', Math.abs(offset) / 60, Math.abs(offset) % 60)
+            );
+
+            assertEquals(text, OffsetDateTime.parse(text).toInstant().toEpochMilli(), TextValues.parseEpochMillis(text, Long.MIN_VALUE));
+        }
+
+        assertEquals(LocalDate.of(2024, 5, 6).toEpochDay() * 86_400_000L, TextValues.parseEpochMillis("2024-05-06", -1));
+        assertEquals(
+                OffsetDateTime.parse("2024-05-06T07:08:00Z").toInstant().toEpochMilli(),
+                TextValues.parseEpochMillis("2024-05-06T07:08", -1)
+        );
+        assertEquals(
+                OffsetDateTime.parse("2024-05-06T07:08:09.123Z").toInstant().toEpochMilli(),
+                TextValues.parseEpochMillis("2024-05-06T07:08:09.123456", -1)
+        );
+        assertEquals(-1, TextValues.parseEpochMillis("2024-05-06T25:00", -1));
+        assertEquals(-1, TextValues.parseEpochMillis("2024-05-06 07:08", -1));
+    }
+
+    /**
+     * Returns a random decimal with up to 20 digits and an optional exponent,
+     * so both the exact path and the fallback are covered
+     */
+    private static String randomDecimal(final Random random) {
+        final StringBuilder builder = new StringBuilder();
+
+        if (random.nextBoolean()) {
+            builder.append('-');
+        }
+
+        for (int i = 0, digits = 1 + random.nextInt(20); i < digits; ++i) {
+            builder.append((char) ('0' + random.nextInt(10)));
+
+            if (
+                    i == 0
+                    && random.nextBoolean()
+            ) {
+                builder.append('.');
+            }
+        }
+
+        if (random.nextInt(3) == 0) {
+            builder.append(random.nextBoolean() ? 'e' : 'E').append(random.nextInt(80) - 40);
+        }
+
+        return builder.toString();
+    }
+}
@@ -0,0 +1,57 @@
+package com.minersstudios.genero.lib.xml.tag;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+
+import com.minersstudios.genero.lib.xml.Events;
+
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParser;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+
+public class XmlTagTest {
+
+    @Test
+    public void reusesTypedViewOfEvent() throws XmlPullParserException, IOException {
+        final XmlPullParser parser = Events.kxml(Events.utf8("<root a=\"1\">text</root>"));
+
+        parser.next();
+
+        final XmlTag tag = XmlTag.create(parser, XmlPullParser.START_TAG);
+        final StartTag startTag = tag.asStartTag();
+
+        assertNotNull(startTag);
+        assertSame(startTag, tag.asStartTag());
+        assertSame(startTag, tag.toStartTag());
+        assertSame(startTag, tag.accept(new TagVisitor<StartTag>() {
+
+            @Override
+            public StartTag visitStart(final StartTag tag) {
+                return tag;
+            }
+        }));
+        assertNull(tag.asEndTag());
+        assertNull(tag.asTextTag());
+        assertEquals("root", startTag.getName());
+    }
+
+    @Test
+    public void createsTypedViewPerTag() throws XmlPullParserException, IOException {
+        final XmlPullParser parser = Events.kxml(Events.utf8("<root>text</root>"));
+
+        parser.next();
+        parser.next();
+
+        final XmlTag first = XmlTag.create(parser, XmlPullParser.TEXT);
+        final XmlTag second = XmlTag.create(parser, XmlPullParser.TEXT);
+
+        assertSame(first.asTextTag(), first.asTextTag());
+        assertNotSame(first.asTextTag(), second.asTextTag());
+        assertEquals("text", first.toTextTag().getText());
+    }
+}
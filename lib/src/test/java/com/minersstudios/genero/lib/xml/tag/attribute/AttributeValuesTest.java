@@ -0,0 +1,137 @@
+package com.minersstudios.genero.lib.xml.tag.attribute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import android.util.TypedValue;
+
+import org.junit.Test;
+
+public class AttributeValuesTest {
+
+    @Test
+    public void parsesIntegers() {
+        assertEquals(42, AttributeValues.parseInt("42", -1));
+        assertEquals(-42, AttributeValues.parseInt("-42", -1));
+        assertEquals(42, AttributeValues.parseInt("+42", -1));
+        assertEquals(0, AttributeValues.parseInt("0", -1));
+        assertEquals(0x1F, AttributeValues.parseInt("0x1F", -1));
+        assertEquals(0x1F, AttributeValues.parseInt("0X1f", -1));
+        assertEquals(8, AttributeValues.parseInt("010", -1));
+        assertEquals(0xFF000000, AttributeValues.parseInt("#ff000000", -1));
+        assertEquals(0xFFFFFFFF, AttributeValues.parseInt("0xFFFFFFFF", -1));
+        assertEquals(Integer.MAX_VALUE, AttributeValues.parseInt("2147483647", -1));
+        assertEquals(Integer.MIN_VALUE, AttributeValues.parseInt("-2147483648", -1));
+        assertEquals(0x100000000L, AttributeValues.parseLong("0x100000000", -1));
+        assertEquals(Long.MIN_VALUE, AttributeValues.parseLong("-9223372036854775808", -1));
+    }
+
+    @Test
+    public void rejectsInvalidIntegers() {
+        assertEquals(-1, AttributeValues.parseInt(null, -1));
+        assertEquals(-1, AttributeValues.parseInt("", -1));
+        assertEquals(-1, AttributeValues.parseInt("-", -1));
+        assertEquals(-1, AttributeValues.parseInt("0x", -1));
+        assertEquals(-1, AttributeValues.parseInt("12a", -1));
+        assertEquals(-1, AttributeValues.parseInt("08", -1));
+        assertEquals(-1, AttributeValues.parseInt("2147483648", -1));
+        assertEquals(-1, AttributeValues.parseInt("0x100000000", -1));
+        assertEquals(-1, AttributeValues.parseLong("9223372036854775808", -1));
+    }
+
+    @Test
+    public void parsesColors() {
+        assertEquals(0xFF112233, AttributeValues.parseColor("#123", 0));
+        assertEquals(0x44112233, AttributeValues.parseColor("#4123", 0));
+        assertEquals(0xFF336699, AttributeValues.parseColor("#336699", 0));
+        assertEquals(0x80336699, AttributeValues.parseColor("#80336699", 0));
+        assertEquals(0, AttributeValues.parseColor("336699", 0));
+        assertEquals(0, AttributeValues.parseColor("#33669", 0));
+        assertEquals(0, AttributeValues.parseColor("#33669g", 0));
+        assertEquals(0, AttributeValues.parseColor(null, 0));
+    }
+
+    @Test
+    public void parsesBooleansAndOptions() {
+        assertTrue(AttributeValues.parseBoolean("true", false));
+        assertTrue(AttributeValues.parseBoolean("True", false));
+        assertTrue(AttributeValues.parseBoolean("1", false));
+        assertFalse(AttributeValues.parseBoolean("yes", true));
+        assertTrue(AttributeValues.parseBoolean(null, true));
+
+        final String[] options = {"never", "ifRoom", "always"};
+
+        assertEquals(1, AttributeValues.indexOf("ifRoom", options, -1));
+        assertEquals(-1, AttributeValues.indexOf("withText", options, -1));
+        assertEquals(-1, AttributeValues.indexOf(null, options, -1));
+    }
+
+    @Test
+    public void convertsToTypedValues() {
+        assertTypedValue(TypedValue.TYPE_NULL, 7, null);
+        assertTypedValue(TypedValue.TYPE_STRING, 7, "");
+        assertTypedValue(TypedValue.TYPE_STRING, 7, "text");
+        assertTypedValue(TypedValue.TYPE_STRING, 7, "@string/name");
+        assertTypedValue(TypedValue.TYPE_STRING, 7, "@");
+        assertTypedValue(TypedValue.TYPE_REFERENCE, 0x7F020000, "@2130837504");
+        assertTypedValue(TypedValue.TYPE_ATTRIBUTE, 0x7F010000, "?2130771968");
+        assertTypedValue(TypedValue.TYPE_INT_BOOLEAN, -1, "true");
+        assertTypedValue(TypedValue.TYPE_INT_BOOLEAN, 0, "False");
+        assertTypedValue(TypedValue.TYPE_INT_DEC, -12, "-12");
+        assertTypedValue(TypedValue.TYPE_INT_HEX, 0x1F, "0x1F");
+        assertTypedValue(TypedValue.TYPE_INT_COLOR_RGB4, 0xFF112233, "#123");
+        assertTypedValue(TypedValue.TYPE_INT_COLOR_ARGB4, 0x44112233, "#4123");
+        assertTypedValue(TypedValue.TYPE_INT_COLOR_RGB8, 0xFF336699, "#336699");
+        assertTypedValue(TypedValue.TYPE_INT_COLOR_ARGB8, 0x80336699, "#80336699");
+        assertTypedValue(TypedValue.TYPE_STRING, 7, "#12345");
+        assertTypedValue(TypedValue.TYPE_FLOAT, Float.floatToRawIntBits(1.5f), "1.5");
+    }
+
+    @Test
+    public void convertsLeadingZeroToDecimal() {
+        assertTypedValue(TypedValue.TYPE_INT_DEC, 10, "010");
+        assertTypedValue(TypedValue.TYPE_INT_DEC, 8, "08");
+        assertTypedValue(TypedValue.TYPE_INT_DEC, 0, "0");
+        assertTypedValue(TypedValue.TYPE_INT_DEC, -7, "-007");
+    }
+
+    @Test
+    public void convertsDimensions() {
+        assertTypedValue(
+                TypedValue.TYPE_DIMENSION,
+                16 << TypedValue.COMPLEX_MANTISSA_SHIFT
+                | TypedValue.COMPLEX_RADIX_23p0 << TypedValue.COMPLEX_RADIX_SHIFT
+                | TypedValue.COMPLEX_UNIT_DIP << TypedValue.COMPLEX_UNIT_SHIFT,
+                "16dp"
+        );
+        assertTypedValue(
+                TypedValue.TYPE_DIMENSION,
+                (int) (12.5f * (1 << 15)) << TypedValue.COMPLEX_MANTISSA_SHIFT
+                | TypedValue.COMPLEX_RADIX_8p15 << TypedValue.COMPLEX_RADIX_SHIFT
+                | TypedValue.COMPLEX_UNIT_SP << TypedValue.COMPLEX_UNIT_SHIFT,
+                "12.5sp"
+        );
+        assertTypedValue(
+                TypedValue.TYPE_DIMENSION,
+                Math.round(0.5f * (1 << 23)) << TypedValue.COMPLEX_MANTISSA_SHIFT
+                | TypedValue.COMPLEX_RADIX_0p23 << TypedValue.COMPLEX_RADIX_SHIFT
+                | TypedValue.COMPLEX_UNIT_PX << TypedValue.COMPLEX_UNIT_SHIFT,
+                "0.5px"
+        );
+        assertTypedValue(TypedValue.TYPE_FLOAT, Float.floatToRawIntBits(16.0f), "16.0");
+        assertTypedValue(TypedValue.TYPE_STRING, 7, "16em");
+        assertTypedValue(TypedValue.TYPE_STRING, 7, "dp");
+    }
+
+    private static void assertTypedValue(
+            final int type,
+            final int data,
+            final String value
+    ) {
+        final int[] holder = {7};
+
+        assertEquals(value + " type", type, AttributeValues.toTypedValue(value, holder, 0));
+        assertEquals(value + " data", data, holder[0]);
+    }
+}
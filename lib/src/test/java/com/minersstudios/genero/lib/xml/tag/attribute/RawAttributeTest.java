@@ -0,0 +1,70 @@
+package com.minersstudios.genero.lib.xml.tag.attribute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import com.minersstudios.genero.lib.xml.Utf8PullParser;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+public class RawAttributeTest {
+    private Utf8PullParser parser;
+
+    @Before
+    public void setUp() throws XmlPullParserException, IOException {
+        this.parser = new Utf8PullParser();
+
+        this.parser.setInput("<a zero=\"0\" number=\"0x10\" float=\"0.0\" flag=\"no\" color=\"#123\" text=\"text\"/>".getBytes(StandardCharsets.UTF_8));
+        this.parser.next();
+    }
+
+    @Test
+    public void keepsDecodedValues() {
+        assertEquals(0, this.attribute("zero").getIntValue(5));
+        assertEquals(0L, this.attribute("zero").getLongValue(5L));
+        assertEquals(16, this.attribute("number").getIntValue(5));
+        assertEquals(0.0f, this.attribute("float").getFloatValue(5.0f), 0.0f);
+        assertEquals(0xFF112233, this.attribute("color").getColorValue(0));
+
+        final Attribute zero = this.attribute("zero");
+
+        assertEquals(0, zero.getIntValue(5));
+        assertEquals(0, zero.getIntValue(6));
+    }
+
+    @Test
+    public void readsAnyOtherBooleanAsFalse() {
+        final Attribute flag = this.attribute("flag");
+
+        assertFalse(flag.getBooleanValue(true));
+        assertFalse(flag.getBooleanValue(false));
+    }
+
+    @Test
+    public void returnsDefaultsOfEveryCall() {
+        final Attribute text = this.attribute("text");
+
+        assertEquals(5, text.getIntValue(5));
+        assertEquals(6, text.getIntValue(6));
+        assertEquals(5L, text.getLongValue(5L));
+        assertEquals(1.5f, text.getFloatValue(1.5f), 0.0f);
+        assertEquals(2.5f, text.getFloatValue(2.5f), 0.0f);
+        assertEquals(7, text.getColorValue(7));
+        assertEquals(8, text.getColorValue(8));
+    }
+
+    private Attribute attribute(final String name) {
+        for (int i = 0, count = this.parser.getAttributeCount(); i < count; ++i) {
+            if (name.equals(this.parser.getAttributeName(i))) {
+                return Attribute.create(this.parser, i);
+            }
+        }
+
+        throw new AssertionError("No attribute " + name);
+    }
+}
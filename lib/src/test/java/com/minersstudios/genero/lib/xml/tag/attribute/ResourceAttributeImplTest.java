@@ -0,0 +1,90 @@
+package com.minersstudios.genero.lib.xml.tag.attribute;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import com.minersstudios.genero.lib.xml.BinaryXml;
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.Documents;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+public class ResourceAttributeImplTest {
+    private static final byte[] DOCUMENT = (
+            "<item xmlns:android=\"" + Documents.ANDROID_NAMESPACE + "\"" +
+            " android:icon=\"@drawable/icon\" android:checkable=\"false\" android:orderInCategory=\"0\"" +
+            " label=\"Label\"/>"
+    ).getBytes(StandardCharsets.UTF_8);
+
+    private BinaryXmlParser parser;
+
+    @Before
+    public void setUp() throws XmlPullParserException, IOException {
+        this.parser = new BinaryXmlParser();
+
+        this.parser.setInput(ByteBuffer.wrap(BinaryXml.compile(DOCUMENT)));
+        this.parser.nextTag();
+    }
+
+    @Test
+    public void keepsDecodedValues() {
+        final ResourceAttribute checkable = this.attribute("checkable");
+        final ResourceAttribute order = this.attribute("orderInCategory");
+
+        assertFalse(checkable.getBooleanValue(true));
+        assertFalse(checkable.getBooleanValue(true));
+        assertEquals(0, order.getIntValue(5));
+        assertEquals(0, order.getIntValue(6));
+        assertEquals(0, order.getUnsignedIntValue(5));
+    }
+
+    @Test
+    public void returnsDefaultsOfEveryCall() {
+        final ResourceAttribute label = this.attribute("label");
+
+        assertTrue(label.getBooleanValue(true));
+        assertFalse(label.getBooleanValue(false));
+        assertEquals(5, label.getIntValue(5));
+        assertEquals(6, label.getIntValue(6));
+        assertEquals(5, label.getResourceValue(5));
+        assertEquals(6, label.getResourceValue(6));
+        assertEquals(1.5f, label.getFloatValue(1.5f), 0.0f);
+        assertEquals(2.5f, label.getFloatValue(2.5f), 0.0f);
+        assertEquals(5, label.getListValue(5, "a", "b"));
+    }
+
+    @Test
+    public void readsCompiledReferences() throws XmlPullParserException, IOException {
+        final ResourceAttribute icon = this.attribute("icon");
+        final int id = this.parser.getAttributeResourceValue(icon.getIndex(), 0);
+
+        assertTrue(id != 0);
+        assertEquals(5, this.attribute("orderInCategory").getResourceValue(5));
+        assertEquals(id, icon.getResourceValue(5));
+
+        // The context is not needed for a compiled reference
+        assertEquals(id, this.attribute("icon").getResourceValue(null, 5));
+        assertEquals(id, icon.getResourceValue(null, 5));
+        assertEquals(
+                BinaryXml.attributeId(DOCUMENT, Documents.ANDROID_NAMESPACE, "icon"),
+                icon.getNameResource()
+        );
+    }
+
+    private ResourceAttribute attribute(final String name) {
+        for (int i = 0, count = this.parser.getAttributeCount(); i < count; ++i) {
+            if (name.equals(this.parser.getAttributeName(i))) {
+                return ResourceAttribute.create(this.parser, i);
+            }
+        }
+
+        throw new AssertionError("No attribute " + name);
+    }
+}
@@ -0,0 +1,229 @@
+package com.minersstudios.genero.lib.xml.tag.attribute.reader;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import android.content.res.XmlResourceParser;
+import android.util.TypedValue;
+
+import com.minersstudios.genero.lib.xml.BinaryXml;
+import com.minersstudios.genero.lib.xml.BinaryXmlParser;
+import com.minersstudios.genero.lib.xml.Documents;
+import com.minersstudios.genero.lib.xml.Events;
+import com.minersstudios.genero.lib.xml.tag.attribute.ResourceAttribute;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.xmlpull.v1.XmlPullParserException;
+
+import java.io.IOException;
+import java.lang.reflect.Proxy;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+
+public class ResourceAttributeReaderImplTest {
+    private static final String ANDROID = Documents.ANDROID_NAMESPACE;
+    private static final byte[] DOCUMENT = Events.utf8(
+            "<item xmlns:android=\"" + ANDROID + "\"" +
+            " android:icon=\"@drawable/icon\" android:textColor=\"#80336699\" android:textSize=\"24dp\"" +
+            " android:checkable=\"true\" android:orderInCategory=\"-3\" android:alpha=\"0.5\"" +
+            " android:showAsAction=\"ifRoom\" label=\"0x10\"/>"
+    );
+    private static final String[] OPTIONS = {"never", "ifRoom", "always"};
+
+    private BinaryXmlParser parser;
+
+    @Before
+    public void setUp() throws XmlPullParserException, IOException {
+        this.parser = new BinaryXmlParser();
+
+        this.parser.setInput(ByteBuffer.wrap(BinaryXml.compile(DOCUMENT)));
+        this.parser.nextTag();
+    }
+
+    @Test
+    public void iterationMatchesLiveAttributes() {
+        final ResourceAttributeReader reader = ResourceAttributeReader.create(this.parser);
+        final List<ResourceAttribute> iterated = reader.stream().collect(Collectors.toList());
+
+        assertEquals(8, iterated.size());
+
+        for (final ResourceAttribute attribute : iterated) {
+            assertSameValues(reader.getAttribute(attribute.getIndex()), attribute);
+        }
+    }
+
+    @Test
+    public void iteratesLiveAttributesOfOtherResourceParsers() {
+        final ResourceAttributeReader reader = ResourceAttributeReader.create(this.proxy());
+        final Spliterator<ResourceAttribute> spliterator = reader.spliterator();
+
+        assertNull(spliterator.trySplit());
+        assertEquals(8, spliterator.estimateSize());
+        spliterator.forEachRemaining(
+                attribute -> assertSameValues(reader.getAttribute(attribute.getIndex()), attribute)
+        );
+    }
+
+    @Test
+    public void detachedReaderOfOtherResourceParsersKeepsResourceValues() {
+        final ResourceAttributeReader reader = ResourceAttributeReader.create(this.proxy());
+        final ResourceAttributeReader snapshot = reader.snapshot();
+
+        for (int i = 0; i < reader.count(); ++i) {
+            final ResourceAttribute expected = reader.getAttribute(i);
+            final ResourceAttribute actual = snapshot.getAttribute(i);
+
+            assertEquals(expected.getName(), expected.getNameResource(), actual.getNameResource());
+            assertEquals(expected.getName(), expected.getResourceValue(-7), actual.getResourceValue(-7));
+            assertEquals(expected.getName(), expected.getValue(), actual.getValue());
+        }
+    }
+
+    @Test
+    public void detachedReaderMatchesLiveAttributes() {
+        final ResourceAttributeReader reader = ResourceAttributeReader.create(this.parser);
+        final ResourceAttributeReader snapshot = reader.snapshot();
+
+        for (int i = 0; i < reader.count(); ++i) {
+            assertSameValues(reader.getAttribute(i), snapshot.getAttribute(i));
+        }
+    }
+
+    @Test
+    public void readsParserUntilIterated() {
+        final ResourceAttributeReader reader = ResourceAttributeReader.create(this.parser);
+        final int index = reader.indexOf(ANDROID, "textSize");
+
+        assertEquals(8, reader.count());
+        assertEquals("textSize", this.parser.getAttributeName(index));
+        assertEquals(-1, reader.indexOf("", "textSize"));
+        assertEquals(index, reader.snapshot().indexOf(ANDROID, "textSize"));
+    }
+
+    @Test
+    public void indexesLargeElements() throws XmlPullParserException, IOException {
+        final StringBuilder builder = new StringBuilder("<item xmlns:android=\"" + ANDROID + "\"");
+
+        for (int i = 0; i < 3 * AttributeSnapshot.INDEX_THRESHOLD; ++i) {
+            builder.append(" android:a").append(i).append("=\"").append(i).append('"');
+        }
+
+        this.parser.setInput(ByteBuffer.wrap(BinaryXml.compile(Events.utf8(builder.append("/>").toString()))));
+        this.parser.nextTag();
+
+        final ResourceAttributeReader reader = ResourceAttributeReader.create(this.parser);
+
+        for (int i = 0; i < reader.count(); ++i) {
+            final String name = this.parser.getAttributeName(i);
+
+            assertEquals(name, i, reader.indexOf(ANDROID, name));
+            assertEquals(name, -1, reader.indexOf("", name));
+        }
+
+        assertEquals(-1, reader.indexOf(ANDROID, "b0"));
+        assertTrue(reader.containsAll(reader));
+    }
+
+    @Test
+    public void obtainsCompiledTypes() {
+        final ResourceAttributeReader reader = ResourceAttributeReader.create(this.parser);
+        final int[] indices = {
+                reader.indexOf(ANDROID, "textSize"),
+                reader.indexOf(ANDROID, "textColor"),
+                reader.indexOf(ANDROID, "icon")
+        };
+        final int[] attrs = new int[indices.length];
+
+        for (int i = 0; i < indices.length; ++i) {
+            attrs[i] = this.parser.getAttributeNameResource(indices[i]);
+        }
+
+        Arrays.sort(attrs);
+
+        final int[] types = new int[attrs.length];
+        final int[] data = new int[attrs.length];
+        final int[] resourceIds = new int[attrs.length];
+
+        assertEquals(3, reader.obtainAttributes(attrs, types, data, resourceIds));
+
+        for (final int index : indices) {
+            final int slot = Arrays.binarySearch(attrs, this.parser.getAttributeNameResource(index));
+            final int type = this.parser.getAttributeDataType(index);
+
+            assertEquals(this.parser.getAttributeName(index), type, types[slot]);
+            assertEquals(this.parser.getAttributeName(index), this.parser.getAttributeData(index), data[slot]);
+            assertEquals(
+                    type == TypedValue.TYPE_REFERENCE ? data[slot] : 0,
+                    resourceIds[slot]
+            );
+        }
+
+        assertEquals(
+                TypedValue.TYPE_DIMENSION,
+                types[Arrays.binarySearch(attrs, this.parser.getAttributeNameResource(indices[0]))]
+        );
+    }
+
+    @Test
+    public void detachedReaderObtainsSameValues() {
+        final ResourceAttributeReader reader = ResourceAttributeReader.create(this.parser);
+        final int[] attrs = new int[reader.count()];
+
+        for (int i = 0; i < attrs.length; ++i) {
+            attrs[i] = this.parser.getAttributeNameResource(i);
+        }
+
+        Arrays.sort(attrs);
+
+        final int[][] live = {new int[attrs.length], new int[attrs.length], new int[attrs.length]};
+        final int[][] detached = {new int[attrs.length], new int[attrs.length], new int[attrs.length]};
+        final int found = reader.obtainAttributes(attrs, live[0], live[1], live[2]);
+
+        assertEquals(found, reader.snapshot().obtainAttributes(attrs, detached[0], detached[1], detached[2]));
+
+        for (int i = 0; i < live.length; ++i) {
+            assertArrayEquals(live[i], detached[i]);
+        }
+    }
+
+    /**
+     * Returns a resource parser that is not a BinaryXmlParser and only
+     * exposes the getters, as the framework parser does
+     */
+    private XmlResourceParser proxy() {
+        return (XmlResourceParser) Proxy.newProxyInstance(
+                XmlResourceParser.class.getClassLoader(),
+                new Class<?>[] {XmlResourceParser.class},
+                (instance, method, args) -> method.invoke(this.parser, args)
+        );
+    }
+
+    private static void assertSameValues(
+            final ResourceAttribute expected,
+            final ResourceAttribute actual
+    ) {
+        final String name = expected.getName();
+
+        assertEquals(name, expected.getIndex(), actual.getIndex());
+        assertEquals(name, expected.getNamespace(), actual.getNamespace());
+        assertEquals(name, expected.getValue(), actual.getValue());
+        assertEquals(name, expected.getNameResource(), actual.getNameResource());
+
+        for (final int defaultValue : new int[] {-7, 7}) {
+            assertEquals(name, expected.getResourceValue(defaultValue), actual.getResourceValue(defaultValue));
+            assertEquals(name, expected.getIntValue(defaultValue), actual.getIntValue(defaultValue));
+            assertEquals(name, expected.getUnsignedIntValue(defaultValue), actual.getUnsignedIntValue(defaultValue));
+            assertEquals(name, expected.getListValue(defaultValue, OPTIONS), actual.getListValue(defaultValue, OPTIONS));
+            assertEquals(name, expected.getFloatValue(defaultValue), actual.getFloatValue(defaultValue), 0.0f);
+        }
+
+        assertEquals(name, expected.getBooleanValue(false), actual.getBooleanValue(false));
+        assertEquals(name, expected.getBooleanValue(true), actual.getBooleanValue(true));
+    }
+}
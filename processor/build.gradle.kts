@@ -0,0 +1,14 @@
+import org.gradle.api.JavaVersion.VERSION_1_8
+
+plugins {
+    `java-library`
+}
+
+java {
+    sourceCompatibility = VERSION_1_8
+    targetCompatibility = VERSION_1_8
+}
+
+dependencies {
+    testImplementation(libs.junit)
+}
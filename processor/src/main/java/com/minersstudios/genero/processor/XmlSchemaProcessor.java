@@ -0,0 +1,401 @@
+package com.minersstudios.genero.processor;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import javax.annotation.processing.AbstractProcessor;
+import javax.annotation.processing.Messager;
+import javax.annotation.processing.RoundEnvironment;
+import javax.lang.model.SourceVersion;
+import javax.lang.model.element.AnnotationMirror;
+import javax.lang.model.element.AnnotationValue;
+import javax.lang.model.element.Element;
+import javax.lang.model.element.ElementKind;
+import javax.lang.model.element.ExecutableElement;
+import javax.lang.model.element.Modifier;
+import javax.lang.model.element.PackageElement;
+import javax.lang.model.element.TypeElement;
+import javax.lang.model.element.VariableElement;
+import javax.lang.model.type.TypeKind;
+import javax.lang.model.type.TypeMirror;
+import javax.tools.Diagnostic;
+import javax.tools.JavaFileObject;
+
+/**
+ * Generates {@code AttributeBinder} implementations for classes annotated with
+ * {@code XmlSchema}.
+ * <p>
+ * For a schema class {@code Foo}, a class named {@code FooBinder} is generated
+ * in the same package, and for a nested schema class {@code Outer.Foo}, a
+ * class named {@code Outer_FooBinder}. The binder interns the declared attribute names into a
+ * {@code SymbolTable} once, so that binding an element costs a single loop
+ * over its attributes with a symbol lookup and an int {@code switch} per
+ * attribute.
+ */
+public final class XmlSchemaProcessor extends AbstractProcessor {
+    private static final String LIB_PACKAGE = "com.minersstudios.genero.lib.xml";
+    private static final String SCHEMA_ANNOTATION = LIB_PACKAGE + ".bind.XmlSchema";
+    private static final String ATTRIBUTE_ANNOTATION = LIB_PACKAGE + ".bind.XmlAttribute";
+    private static final String BINDER_INTERFACE = LIB_PACKAGE + ".bind.AttributeBinder";
+    private static final String SYMBOL_TABLE = LIB_PACKAGE + ".SymbolTable";
+    private static final String BINDER_SUFFIX = "Binder";
+
+    @Override
+    public Set<String> getSupportedAnnotationTypes() {
+        return Collections.singleton(SCHEMA_ANNOTATION);
+    }
+
+    @Override
+    public SourceVersion getSupportedSourceVersion() {
+        return SourceVersion.latestSupported();
+    }
+
+    @Override
+    public boolean process(
+            final Set<? extends TypeElement> annotations,
+            final RoundEnvironment roundEnv
+    ) {
+        for (final TypeElement annotation : annotations) {
+            for (final Element element : roundEnv.getElementsAnnotatedWith(annotation)) {
+                if (element.getKind() != ElementKind.CLASS) {
+                    this.error(element, "@XmlSchema can only be applied to classes");
+
+                    continue;
+                }
+
+                final TypeElement schema = (TypeElement) element;
+                final List<Binding> bindings = this.collectBindings(schema);
+
+                if (bindings != null) {
+                    this.writeBinder(schema, bindings);
+                }
+            }
+        }
+
+        return true;
+    }
+
+    private List<Binding> collectBindings(final TypeElement schema) {
+        boolean valid = true;
+
+        if (schema.getModifiers().contains(Modifier.PRIVATE)) {
+            this.error(schema, "@XmlSchema class must not be private");
+
+            valid = false;
+        }
+
+        final List<Binding> bindings = new ArrayList<>();
+
+        for (final Element member : schema.getEnclosedElements()) {
+            if (member.getKind() != ElementKind.FIELD) {
+                continue;
+            }
+
+            final AnnotationMirror mirror = findAnnotation(member, ATTRIBUTE_ANNOTATION);
+
+            if (mirror == null) {
+                continue;
+            }
+
+            final VariableElement field = (VariableElement) member;
+            final Set<Modifier> modifiers = field.getModifiers();
+
+            if (
+                    modifiers.contains(Modifier.PRIVATE)
+                    || modifiers.contains(Modifier.STATIC)
+                    || modifiers.contains(Modifier.FINAL)
+            ) {
+                this.error(field, "@XmlAttribute field must not be private, static or final");
+
+                valid = false;
+
+                continue;
+            }
+
+            final String namespace = stringValue(mirror, "namespace", "");
+            final String name = stringValue(mirror, "name", "");
+            final String format = resolveFormat(enumValue(mirror, "format", "AUTO"), field.asType());
+
+            if (format == null) {
+                this.error(field, "@XmlAttribute format does not match the field type " + field.asType());
+
+                valid = false;
+
+                continue;
+            }
+
+            for (final Binding binding : bindings) {
+                if (
+                        binding.namespace.equals(namespace)
+                        && binding.name.equals(name)
+                ) {
+                    this.error(field, "Duplicate @XmlAttribute " + namespace + ':' + name);
+
+                    valid = false;
+                }
+            }
+
+            bindings.add(new Binding(field.getSimpleName().toString(), namespace, name, format));
+        }
+
+        return valid ? bindings : null;
+    }
+
+    private void writeBinder(
+            final TypeElement schema,
+            final List<Binding> bindings
+    ) {
+        final PackageElement packageElement = this.processingEnv.getElementUtils().getPackageOf(schema);
+        final String packageName = packageElement.isUnnamed() ? "" : packageElement.getQualifiedName().toString();
+        final String schemaName = schema.getQualifiedName().toString();
+        final String binderName = binderName(schema) + BINDER_SUFFIX;
+        final String visibility = schema.getModifiers().contains(Modifier.PUBLIC) ? "public " : "";
+        final StringBuilder source = new StringBuilder(1024);
+
+        if (!packageName.isEmpty()) {
+            source.append("package ").append(packageName).append(";\n\n");
+        }
+
+        source
+        .append("/**\n")
+        .append(" * Generated by ").append(XmlSchemaProcessor.class.getSimpleName())
+        .append(" for {@link ").append(schemaName).append("}, do not edit\n")
+        .append(" */\n")
+        .append("@SuppressWarnings(\"all\")\n")
+        .append(visibility).append("final class ").append(binderName)
+        .append(" implements ").append(BINDER_INTERFACE).append('<').append(schemaName).append("> {\n")
+        .append("    private static final ").append(SYMBOL_TABLE).append(" SYMBOLS = new ")
+        .append(SYMBOL_TABLE).append("();\n\n")
+        .append("    ").append(visibility).append("static final ").append(binderName)
+        .append(" INSTANCE = new ").append(binderName).append("();\n\n")
+        .append("    static {\n");
+
+        for (final Binding binding : bindings) {
+            source
+            .append("        SYMBOLS.intern(")
+            .append(literal(binding.namespace)).append(", ")
+            .append(literal(binding.name)).append(");\n");
+        }
+
+        source
+        .append("    }\n\n")
+        .append("    private ").append(binderName).append("() {}\n\n")
+        .append("    @Override\n")
+        .append("    public void bind(\n")
+        .append("            final android.content.res.XmlResourceParser parser,\n")
+        .append("            final ").append(schemaName).append(" target\n")
+        .append("    ) {\n")
+        .append("        final int count = parser.getAttributeCount();\n\n")
+        .append("        for (int i = 0; i < count; ++i) {\n")
+        .append("            switch (SYMBOLS.lookup(parser.getAttributeNamespace(i), parser.getAttributeName(i))) {\n");
+
+        for (int id = 0; id < bindings.size(); ++id) {
+            final Binding binding = bindings.get(id);
+
+            source
+            .append("                case ").append(id).append(":\n")
+            .append("                    target.").append(binding.field).append(" = ")
+            .append(readExpression(binding)).append(";\n\n")
+            .append("                    break;\n");
+        }
+
+        source
+        .append("            }\n")
+        .append("        }\n")
+        .append("    }\n")
+        .append("}\n");
+
+        final String qualifiedBinderName = packageName.isEmpty() ? binderName : packageName + '.' + binderName;
+
+        try {
+            final JavaFileObject file = this.processingEnv.getFiler().createSourceFile(qualifiedBinderName, schema);
+
+            try (final Writer writer = file.openWriter()) {
+                writer.write(source.toString());
+            }
+        } catch (final IOException e) {
+            this.error(schema, "Failed to write " + qualifiedBinderName + ": " + e.getMessage());
+        }
+    }
+
+    private void error(
+            final Element element,
+            final String message
+    ) {
+        final Messager messager = this.processingEnv.getMessager();
+
+        messager.printMessage(Diagnostic.Kind.ERROR, message, element);
+    }
+
+    private static String readExpression(final Binding binding) {
+        final String current = "target." + binding.field;
+
+        switch (binding.format) {
+            case "STRING":
+                return "parser.getAttributeValue(i)";
+            case "RESOURCE":
+                return "parser.getAttributeResourceValue(i, " + current + ')';
+            case "INT":
+                return "parser.getAttributeIntValue(i, " + current + ')';
+            case "UNSIGNED_INT":
+                return "parser.getAttributeUnsignedIntValue(i, " + current + ')';
+            case "FLOAT":
+                return "parser.getAttributeFloatValue(i, " + current + ')';
+            case "BOOLEAN":
+                return "parser.getAttributeBooleanValue(i, " + current + ')';
+            default:
+                throw new IllegalArgumentException("Unknown format: " + binding.format);
+        }
+    }
+
+    private static String resolveFormat(
+            final String format,
+            final TypeMirror type
+    ) {
+        final TypeKind kind = type.getKind();
+        final boolean isString = kind == TypeKind.DECLARED && "java.lang.String".equals(type.toString());
+
+        switch (format) {
+            case "AUTO":
+                return isString ? "STRING"
+                        : kind == TypeKind.INT ? "INT"
+                        : kind == TypeKind.FLOAT ? "FLOAT"
+                        : kind == TypeKind.BOOLEAN ? "BOOLEAN"
+                        : null;
+            case "STRING":
+                return isString ? format : null;
+            case "RESOURCE":
+            case "INT":
+            case "UNSIGNED_INT":
+                return kind == TypeKind.INT ? format : null;
+            case "FLOAT":
+                return kind == TypeKind.FLOAT ? format : null;
+            case "BOOLEAN":
+                return kind == TypeKind.BOOLEAN ? format : null;
+            default:
+                return null;
+        }
+    }
+
+    private static String binderName(final TypeElement schema) {
+        final StringBuilder name = new StringBuilder(schema.getSimpleName());
+        Element enclosing = schema.getEnclosingElement();
+
+        while (
+                enclosing.getKind().isClass()
+                || enclosing.getKind().isInterface()
+        ) {
+            name.insert(0, '_').insert(0, enclosing.getSimpleName());
+
+            enclosing = enclosing.getEnclosingElement();
+        }
+
+        return name.toString();
+    }
+
+    private static AnnotationMirror findAnnotation(
+            final Element element,
+            final String annotation
+    ) {
+        for (final AnnotationMirror mirror : element.getAnnotationMirrors()) {
+            final Element type = mirror.getAnnotationType().asElement();
+
+            if (((TypeElement) type).getQualifiedName().contentEquals(annotation)) {
+                return mirror;
+            }
+        }
+
+        return null;
+    }
+
+    private static AnnotationValue findValue(
+            final AnnotationMirror mirror,
+            final String name
+    ) {
+        for (
+                final Map.Entry<? extends ExecutableElement, ? extends AnnotationValue> entry
+                : mirror.getElementValues().entrySet()
+        ) {
+            if (entry.getKey().getSimpleName().contentEquals(name)) {
+                return entry.getValue();
+            }
+        }
+
+        return null;
+    }
+
+    private static String stringValue(
+            final AnnotationMirror mirror,
+            final String name,
+            final String defaultValue
+    ) {
+        final AnnotationValue value = findValue(mirror, name);
+
+        return value == null ? defaultValue : (String) value.getValue();
+    }
+
+    private static String enumValue(
+            final AnnotationMirror mirror,
+            final String name,
+            final String defaultValue
+    ) {
+        final AnnotationValue value = findValue(mirror, name);
+
+        return value == null
+               ? defaultValue
+               : ((VariableElement) value.getValue()).getSimpleName().toString();
+    }
+
+    private static String literal(final String value) {
+        final StringBuilder builder = new StringBuilder(value.length() + 2).append('"');
+
+        for (int i = 0; i < value.length(); ++i) {
+            final char c = value.charAt(i);
+
+            switch (c) {
+                case '"':
+                    builder.append("\\\"");
+
+                    break;
+                case '\\':
+                    builder.append("\\\\");
+
+                    break;
+                default:
+                    if (c < 0x20 || c > 0x7e) {
+                        builder.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        builder.append(c);
+                    }
+
+                    break;
+            }
+        }
+
+        return builder.append('"').toString();
+    }
+
+    private static final class Binding {
+        final String field;
+        final String namespace;
+        final String name;
+        final String format;
+
+        Binding(
+                final String field,
+                final String namespace,
+                final String name,
+                final String format
+        ) {
+            this.field = field;
+            this.namespace = namespace;
+            this.name = name;
+            this.format = format;
+        }
+    }
+}
@@ -0,0 +1,437 @@
+package com.minersstudios.genero.processor;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.reflect.Constructor;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import javax.tools.Diagnostic;
+import javax.tools.DiagnosticCollector;
+import javax.tools.FileObject;
+import javax.tools.ForwardingJavaFileManager;
+import javax.tools.JavaCompiler;
+import javax.tools.JavaFileManager;
+import javax.tools.JavaFileObject;
+import javax.tools.SimpleJavaFileObject;
+import javax.tools.ToolProvider;
+
+public class XmlSchemaProcessorTest {
+    // Source stand-ins for the classes of :lib and Android the generated
+    // binders use, so the binders are compiled along with the schemas
+    private static final String XML_SCHEMA =
+            "package com.minersstudios.genero.lib.xml.bind;\n" +
+            "public @interface XmlSchema {}\n";
+    private static final String XML_ATTRIBUTE =
+            "package com.minersstudios.genero.lib.xml.bind;\n" +
+            "public @interface XmlAttribute {\n" +
+            "    String namespace() default \"\";\n" +
+            "    String name();\n" +
+            "    Format format() default Format.AUTO;\n" +
+            "    enum Format { AUTO, STRING, RESOURCE, INT, UNSIGNED_INT, FLOAT, BOOLEAN }\n" +
+            "}\n";
+    private static final String ATTRIBUTE_BINDER =
+            "package com.minersstudios.genero.lib.xml.bind;\n" +
+            "public interface AttributeBinder<T> {\n" +
+            "    void bind(android.content.res.XmlResourceParser parser, T target);\n" +
+            "}\n";
+    private static final String SYMBOL_TABLE =
+            "package com.minersstudios.genero.lib.xml;\n" +
+            "public final class SymbolTable {\n" +
+            "    private final java.util.Map<String, Integer> ids = new java.util.HashMap<>();\n" +
+            "    public int intern(String namespace, String name) {\n" +
+            "        return this.ids.computeIfAbsent(namespace + ':' + name, key -> this.ids.size());\n" +
+            "    }\n" +
+            "    public int lookup(String namespace, String name) {\n" +
+            "        return this.ids.getOrDefault(namespace + ':' + name, -1);\n" +
+            "    }\n" +
+            "}\n";
+    private static final String XML_RESOURCE_PARSER =
+            "package android.content.res;\n" +
+            "public interface XmlResourceParser {\n" +
+            "    int getAttributeCount();\n" +
+            "    String getAttributeNamespace(int index);\n" +
+            "    String getAttributeName(int index);\n" +
+            "    String getAttributeValue(int index);\n" +
+            "    int getAttributeResourceValue(int index, int defaultValue);\n" +
+            "    int getAttributeIntValue(int index, int defaultValue);\n" +
+            "    int getAttributeUnsignedIntValue(int index, int defaultValue);\n" +
+            "    float getAttributeFloatValue(int index, float defaultValue);\n" +
+            "    boolean getAttributeBooleanValue(int index, boolean defaultValue);\n" +
+            "}\n";
+    private static final String IMPORTS =
+            "package test;\n" +
+            "import com.minersstudios.genero.lib.xml.bind.XmlAttribute;\n" +
+            "import com.minersstudios.genero.lib.xml.bind.XmlAttribute.Format;\n" +
+            "import com.minersstudios.genero.lib.xml.bind.XmlSchema;\n";
+    private static final String ANDROID = "http://schemas.android.com/apk/res/android";
+    private static final String BINDER_INTERFACE = "com.minersstudios.genero.lib.xml.bind.AttributeBinder";
+
+    @Test
+    public void namesBindersAfterEnclosingClasses() {
+        final Result result = compile(
+                "test.Outer",
+                IMPORTS +
+                "final class Outer {\n" +
+                "    @XmlSchema static final class Inner {\n" +
+                "        @XmlAttribute(name = \"a\") int a;\n" +
+                "        @XmlSchema static final class Deepest {\n" +
+                "            @XmlAttribute(name = \"b\") int b;\n" +
+                "        }\n" +
+                "    }\n" +
+                "}\n" +
+                "@XmlSchema final class TopLevel {\n" +
+                "    @XmlAttribute(name = \"c\") int c;\n" +
+                "}\n"
+        );
+
+        assertEquals(Collections.emptyList(), result.errors);
+        assertEquals(
+                Arrays.asList("test.Outer_InnerBinder", "test.Outer_Inner_DeepestBinder", "test.TopLevelBinder"),
+                new ArrayList<>(new TreeMap<>(result.sources).keySet())
+        );
+        assertTrue(result.sources.get("test.Outer_InnerBinder").contains("final class Outer_InnerBinder implements com.minersstudios.genero.lib.xml.bind.AttributeBinder<test.Outer.Inner>"));
+        assertTrue(result.sources.get("test.Outer_InnerBinder").contains("static final Outer_InnerBinder INSTANCE = new Outer_InnerBinder();"));
+    }
+
+    @Test
+    public void generatesBindSwitch() {
+        final Result result = compile(
+                "test.ItemSchema",
+                IMPORTS +
+                "@XmlSchema public final class ItemSchema {\n" +
+                "    @XmlAttribute(namespace = \"" + ANDROID + "\", name = \"id\", format = Format.RESOURCE) int id = -1;\n" +
+                "    @XmlAttribute(namespace = \"" + ANDROID + "\", name = \"title\") String title;\n" +
+                "    @XmlAttribute(name = \"order\", format = Format.INT) int order;\n" +
+                "    @XmlAttribute(name = \"tint\", format = Format.UNSIGNED_INT) int tint;\n" +
+                "    @XmlAttribute(name = \"size\") float size;\n" +
+                "    @XmlAttribute(name = \"visible\") boolean visible = true;\n" +
+                "    int unbound;\n" +
+                "}\n"
+        );
+
+        assertEquals(Collections.emptyList(), result.errors);
+        assertEquals(
+                Arrays.asList(
+                        "SYMBOLS.intern(\"" + ANDROID + "\", \"id\");",
+                        "SYMBOLS.intern(\"" + ANDROID + "\", \"title\");",
+                        "SYMBOLS.intern(\"\", \"order\");",
+                        "SYMBOLS.intern(\"\", \"tint\");",
+                        "SYMBOLS.intern(\"\", \"size\");",
+                        "SYMBOLS.intern(\"\", \"visible\");",
+                        "case 0:",
+                        "target.id = parser.getAttributeResourceValue(i, target.id);",
+                        "case 1:",
+                        "target.title = parser.getAttributeValue(i);",
+                        "case 2:",
+                        "target.order = parser.getAttributeIntValue(i, target.order);",
+                        "case 3:",
+                        "target.tint = parser.getAttributeUnsignedIntValue(i, target.tint);",
+                        "case 4:",
+                        "target.size = parser.getAttributeFloatValue(i, target.size);",
+                        "case 5:",
+                        "target.visible = parser.getAttributeBooleanValue(i, target.visible);"
+                ),
+                statements(result.sources.get("test.ItemSchemaBinder"))
+        );
+        assertTrue(result.sources.get("test.ItemSchemaBinder").contains("public final class ItemSchemaBinder"));
+    }
+
+    @Test
+    public void bindsAttributesAndKeepsDefaults() throws ReflectiveOperationException {
+        final Result result = compile(
+                "test.Outer",
+                IMPORTS +
+                "final class Outer {\n" +
+                "    @XmlSchema static final class Inner {\n" +
+                "        @XmlAttribute(namespace = \"" + ANDROID + "\", name = \"id\", format = Format.RESOURCE) int id = -1;\n" +
+                "        @XmlAttribute(name = \"title\") String title = \"none\";\n" +
+                "        @XmlAttribute(name = \"size\") float size = 1.0f;\n" +
+                "        @XmlAttribute(name = \"visible\") boolean visible = true;\n" +
+                "    }\n" +
+                "}\n"
+        );
+
+        assertEquals(Collections.emptyList(), result.errors);
+
+        final Object schema = bind(
+                result,
+                "test.Outer$Inner",
+                ANDROID, "id", 0x7F010001,
+                "", "unknown", "ignored",
+                "", "size", 2.5f,
+                // Same name, other namespace
+                ANDROID, "title", "ignored"
+        );
+
+        assertEquals(0x7F010001, field(schema, "id"));
+        assertEquals("none", field(schema, "title"));
+        assertEquals(2.5f, field(schema, "size"));
+        assertEquals(true, field(schema, "visible"));
+    }
+
+    @Test
+    public void rejectsInvalidSchemas() {
+        final Result result = compile(
+                "test.Invalid",
+                IMPORTS +
+                "final class Invalid {\n" +
+                "    @XmlSchema private static final class Hidden {}\n" +
+                "    @XmlSchema static final class Fields {\n" +
+                "        @XmlAttribute(name = \"a\") private int a;\n" +
+                "        @XmlAttribute(name = \"b\") static int b;\n" +
+                "        @XmlAttribute(name = \"c\") final int c = 0;\n" +
+                "        @XmlAttribute(name = \"d\", format = Format.STRING) int d;\n" +
+                "        @XmlAttribute(name = \"e\") long e;\n" +
+                "        @XmlAttribute(name = \"f\") int f;\n" +
+                "        @XmlAttribute(name = \"f\") int g;\n" +
+                "    }\n" +
+                "    @XmlSchema interface NotAClass {}\n" +
+                "}\n"
+        );
+
+        assertEquals(
+                Arrays.asList(
+                        "@XmlSchema class must not be private",
+                        "@XmlAttribute field must not be private, static or final",
+                        "@XmlAttribute field must not be private, static or final",
+                        "@XmlAttribute field must not be private, static or final",
+                        "@XmlAttribute format does not match the field type int",
+                        "@XmlAttribute format does not match the field type long",
+                        "Duplicate @XmlAttribute :f",
+                        "@XmlSchema can only be applied to classes"
+                ),
+                result.errors
+        );
+        assertEquals(Collections.emptyMap(), result.sources);
+    }
+
+    /**
+     * Compiles the given source with the stand-ins and runs the processor
+     * over it
+     */
+    private static Result compile(
+            final String className,
+            final String source
+    ) {
+        final JavaCompiler compiler = ToolProvider.getSystemJavaCompiler();
+        final DiagnosticCollector<JavaFileObject> diagnostics = new DiagnosticCollector<>();
+        final Map<String, ByteArrayOutputStream> outputs = new TreeMap<>();
+        final Map<String, ByteArrayOutputStream> classes = new TreeMap<>();
+        final JavaFileManager fileManager = new ForwardingJavaFileManager<JavaFileManager>(
+                compiler.getStandardFileManager(diagnostics, null, StandardCharsets.UTF_8)
+        ) {
+
+            @Override
+            public JavaFileObject getJavaFileForOutput(
+                    final Location location,
+                    final String name,
+                    final JavaFileObject.Kind kind,
+                    final FileObject sibling
+            ) {
+                return new SimpleJavaFileObject(uri(name), kind) {
+
+                    @Override
+                    public OutputStream openOutputStream() {
+                        final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+                        (kind == Kind.SOURCE ? outputs : classes).put(name, out);
+
+                        return out;
+                    }
+
+                    // Generated sources are parsed again in the next round
+                    @Override
+                    public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+                        return new String(outputs.get(name).toByteArray(), StandardCharsets.UTF_8);
+                    }
+                };
+            }
+        };
+        final JavaCompiler.CompilationTask task = compiler.getTask(
+                null,
+                fileManager,
+                diagnostics,
+                Arrays.asList("-source", "8", "-target", "8", "-Xlint:-options"),
+                null,
+                Arrays.asList(
+                        new Source("com.minersstudios.genero.lib.xml.bind.XmlSchema", XML_SCHEMA),
+                        new Source("com.minersstudios.genero.lib.xml.bind.XmlAttribute", XML_ATTRIBUTE),
+                        new Source("com.minersstudios.genero.lib.xml.bind.AttributeBinder", ATTRIBUTE_BINDER),
+                        new Source("com.minersstudios.genero.lib.xml.SymbolTable", SYMBOL_TABLE),
+                        new Source("android.content.res.XmlResourceParser", XML_RESOURCE_PARSER),
+                        new Source(className, source)
+                )
+        );
+
+        task.setProcessors(Collections.singletonList(new XmlSchemaProcessor()));
+        task.call();
+
+        final List<String> errors = new ArrayList<>();
+        final Map<String, String> sources = new TreeMap<>();
+
+        for (final Diagnostic<? extends JavaFileObject> diagnostic : diagnostics.getDiagnostics()) {
+            if (diagnostic.getKind() == Diagnostic.Kind.ERROR) {
+                errors.add(diagnostic.getMessage(null));
+            }
+        }
+
+        for (final Map.Entry<String, ByteArrayOutputStream> entry : outputs.entrySet()) {
+            sources.put(entry.getKey(), new String(entry.getValue().toByteArray(), StandardCharsets.UTF_8));
+        }
+
+        return new Result(errors, sources, classes);
+    }
+
+    /**
+     * Binds the given attributes to a new instance of the given schema with
+     * its generated binder
+     *
+     * @param result     The compilation result of the schema
+     * @param schemaName The binary name of the schema class
+     * @param attributes The namespaces, names and values of the attributes,
+     *                   where the values are returned by every getter of
+     *                   their type
+     * @return The bound schema instance
+     */
+    private static Object bind(
+            final Result result,
+            final String schemaName,
+            final Object... attributes
+    ) throws ReflectiveOperationException {
+        final ClassLoader loader = new ClassLoader(XmlSchemaProcessorTest.class.getClassLoader()) {
+
+            @Override
+            protected Class<?> findClass(final String name) throws ClassNotFoundException {
+                final ByteArrayOutputStream bytes = result.classes.get(name);
+
+                if (bytes == null) {
+                    throw new ClassNotFoundException(name);
+                }
+
+                return this.defineClass(name, bytes.toByteArray(), 0, bytes.size());
+            }
+        };
+        final Class<?> parserClass = loader.loadClass("android.content.res.XmlResourceParser");
+        final Object parser = Proxy.newProxyInstance(
+                loader,
+                new Class<?>[] {parserClass},
+                (proxy, method, args) -> {
+                    if ("getAttributeCount".equals(method.getName())) {
+                        return attributes.length / 3;
+                    }
+
+                    final int index = (Integer) args[0] * 3;
+
+                    switch (method.getName()) {
+                        case "getAttributeNamespace":
+                            return attributes[index];
+                        case "getAttributeName":
+                            return attributes[index + 1];
+                        default:
+                            return attributes[index + 2];
+                    }
+                }
+        );
+        final Constructor<?> constructor = loader.loadClass(schemaName).getDeclaredConstructor();
+
+        constructor.setAccessible(true);
+
+        final Object schema = constructor.newInstance();
+        final Field instance = loader.loadClass(schemaName.replace('$', '_') + "Binder").getDeclaredField("INSTANCE");
+
+        instance.setAccessible(true);
+
+        final Object binder = instance.get(null);
+        final Method bind = loader.loadClass(BINDER_INTERFACE).getMethod("bind", parserClass, Object.class);
+
+        bind.invoke(binder, parser, schema);
+
+        return schema;
+    }
+
+    private static Object field(
+            final Object target,
+            final String name
+    ) throws ReflectiveOperationException {
+        final Field field = target.getClass().getDeclaredField(name);
+
+        field.setAccessible(true);
+
+        return field.get(target);
+    }
+
+    /**
+     * Returns the interned attributes, the cases and the assignments of the
+     * given binder source, in order
+     */
+    private static List<String> statements(final String source) {
+        final List<String> statements = new ArrayList<>();
+
+        for (final String line : source.split("\n")) {
+            final String statement = line.trim();
+
+            if (
+                    statement.startsWith("SYMBOLS.intern(")
+                    || statement.startsWith("case ")
+                    || statement.startsWith("target.")
+            ) {
+                statements.add(statement);
+            }
+        }
+
+        return statements;
+    }
+
+    private static URI uri(final String className) {
+        return URI.create("string:///" + className.replace('.', '/') + JavaFileObject.Kind.SOURCE.extension);
+    }
+
+    private static final class Source extends SimpleJavaFileObject {
+        private final String source;
+
+        Source(
+                final String className,
+                final String source
+        ) {
+            super(uri(className), Kind.SOURCE);
+
+            this.source = source;
+        }
+
+        @Override
+        public CharSequence getCharContent(final boolean ignoreEncodingErrors) {
+            return this.source;
+        }
+    }
+
+    private static final class Result {
+        final List<String> errors;
+        final Map<String, String> sources;
+        final Map<String, ByteArrayOutputStream> classes;
+
+        Result(
+                final List<String> errors,
+                final Map<String, String> sources,
+                final Map<String, ByteArrayOutputStream> classes
+        ) {
+            this.errors = errors;
+            this.sources = sources;
+            this.classes = classes;
+        }
+    }
+}
@@ -26,4 +26,6 @@ dependencyResolutionManagement {
 rootProject.name = "Genero"
 
 include(":app")
+include(":benchmarks")
 include(":lib")
+include(":processor")